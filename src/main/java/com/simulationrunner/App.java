@@ -1,39 +1,129 @@
 package com.simulationrunner;
 
+import com.simulationrunner.config.CellEncoding;
 import com.simulationrunner.config.GridConfig;
-import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.level.LevelGenerators;
+import com.simulationrunner.level.LevelSupplier;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.level.UndoHistory;
+import com.simulationrunner.replay.ReplayAction;
+import com.simulationrunner.replay.ReplayRecorder;
+import com.simulationrunner.search.ChaserSwarm;
+import com.simulationrunner.search.DistanceFields;
+import com.simulationrunner.search.FieldOfView;
+import com.simulationrunner.search.LevelPipeline;
+import com.simulationrunner.sim.Simulation;
+import com.simulationrunner.sim.Timer;
 import com.simulationrunner.ui.HUD;
+import com.simulationrunner.ui.Minimap;
+import com.simulationrunner.ui.SceneGraphView;
 import com.simulationrunner.ui.WinBanner;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
 
 /**
  * JavaFX App
  */
 public class App extends Application {
+    private static final System.Logger LOGGER = System.getLogger(App.class.getName());
+    private static final int KEY_COUNT = 1;
+    private static final int PREGENERATED_LEVELS = 2;
+    private static final int UNDO_DEPTH = 1024;
+    private static final int REPLAY_KEYFRAME_INTERVAL = 64;
+    private static final int CHASER_RADIUS = 32;
+    private static final int CHASER_MIN_SPAWN_DISTANCE = 4;
+    private static final int CHASER_SPAWN_ATTEMPTS = 16; // Per chaser, before giving up on a crowded level
+    private static final long CHASER_STEP_MILLIS = 400;
+
+    private LevelSupplier levelSupplier;
     private Grid grid;
+    private Session session;
+    private UndoHistory history;
+    private DistanceFields distanceFields;
+    private boolean showHint; // Toggled with H
+    private Path replayDirectory; // Set with --replay-dir=<dir>; null disables recording
+    private ReplayRecorder recorder;
+    private int levelNumber;
+    private Simulation simulation;
+    private int chaserCount; // Set with --chasers=<n>; 0 disables chasers
+    private ChaserSwarm chasers;
+    private Timer chaserTimer;
+    private int fogRadius; // Set with --fog=<radius>; 0 shows the whole level
+    private FieldOfView fieldOfView;
     private GridConfig config;
     private GraphicsContext gc;
     private HUD hud;
+    private Minimap minimap;
+    private SceneGraphView sceneView; // Selected with --renderer=scene; null draws everything on the canvas
     private WinBanner winBanner;
     private int width;
     private int height;
     private int cellSize;
-    private boolean hasWon;
 
     @Override
     public void start(Stage stage) {
-        config = new GridConfig(10, 10, 50);
-        grid = new Grid(config, 1); // Create grid with 1 key
+        // Keep level cells off-heap with --cells=2|4 bits per cell; by default they stay on the heap
+        String cells = getParameters().getNamed().getOrDefault("cells", "heap");
+        CellEncoding cellEncoding = switch (cells) {
+            case "heap" -> null;
+            case "2" -> CellEncoding.TWO_BIT;
+            case "4" -> CellEncoding.FOUR_BIT;
+            default -> throw new IllegalArgumentException("Unknown cell layer: " + cells + " (available: heap, 2, 4)");
+        };
+        config = new GridConfig(10, 10, 50, cellEncoding);
+        // Select the layout with --generator=<name>; unknown names fail fast and list the available ones
+        String generatorName = getParameters().getNamed().getOrDefault("generator", LevelGenerators.DEFAULT_NAME);
+        LevelPipeline pipeline = new LevelPipeline(LevelGenerators.get(generatorName));
+        levelSupplier = new LevelSupplier(seed -> pipeline.generate(config, KEY_COUNT, seed).grid(),
+            PREGENERATED_LEVELS);
+        grid = levelSupplier.next();
+        session = new Session(LevelTemplate.from(grid));
+        distanceFields = new DistanceFields(session.getTemplate());
+        history = new UndoHistory(UNDO_DEPTH);
+        String replayDir = getParameters().getNamed().get("replay-dir");
+        if (replayDir != null) {
+            replayDirectory = Path.of(replayDir);
+            startRecording();
+        }
+        simulation = new Simulation();
+        chaserCount = Integer.parseInt(getParameters().getNamed().getOrDefault("chasers", "0"));
+        spawnChasers();
+        // Select the backend with --renderer=canvas|scene; the scene graph only mutates nodes that changed
+        String renderer = getParameters().getNamed().getOrDefault("renderer", "canvas");
+        switch (renderer) {
+            case "canvas" -> sceneView = null;
+            case "scene" -> {
+                sceneView = new SceneGraphView(config);
+                sceneView.build(grid, session, chasers);
+            }
+            default -> throw new IllegalArgumentException(
+                "Unknown renderer: " + renderer + " (available: canvas, scene)");
+        }
+        fogRadius = Integer.parseInt(getParameters().getNamed().getOrDefault("fog", "0"));
+        if (fogRadius > 0 && sceneView != null) {
+            throw new IllegalArgumentException(
+                "Fog of war needs the canvas renderer: --fog cannot be used with --renderer=scene");
+        }
+        createFieldOfView();
         hud = new HUD();
+        minimap = new Minimap(session.getTemplate(), HUD.getFooterHeight(), fogRadius > 0);
         winBanner = new WinBanner();
-        hasWon = false;
 
         width = config.getPixelWidth();
         height = config.getPixelHeightWithHUD(HUD.getFooterHeight());
@@ -45,57 +135,175 @@ public class App extends Application {
         // Initial render
         render();
 
-        var scene = new Scene(new StackPane(canvas), width, height);
+        // With the scene graph backend the canvas only holds the overlays drawn above the level nodes
+        var scene = new Scene(sceneView != null ? new Pane(sceneView.getRoot(), canvas) : new StackPane(canvas),
+            width, height);
 
-        // Add keyboard event handler for WASD controls and SPACE for new level
+        // Add keyboard event handler for WASD controls, Z/Y for undo/redo, H for hints and SPACE for new level
         scene.setOnKeyPressed(event -> {
-            if (hasWon) {
-                // If player has won, only respond to SPACE key for new level
+            if (event.getCode() == javafx.scene.input.KeyCode.H) {
+                showHint = !showHint;
+                render();
+            } else if (session.hasWon()) {
+                // If player has won, respond to SPACE for a new level or Z to step back
                 if (event.getCode() == javafx.scene.input.KeyCode.SPACE) {
                     regenerateLevel();
                     render();
+                } else if (event.getCode() == javafx.scene.input.KeyCode.Z) {
+                    history.undo(session, 1);
+                    record(ReplayAction.UNDO);
+                    render();
                 }
             } else {
-                // Normal gameplay controls
-                switch (event.getCode()) {
-                    case W -> grid.getPlayer().move(0, -1, config, grid.getDoor(), grid.getWalls());  // Up
-                    case A -> grid.getPlayer().move(-1, 0, config, grid.getDoor(), grid.getWalls());  // Left
-                    case S -> grid.getPlayer().move(0, 1, config, grid.getDoor(), grid.getWalls());   // Down
-                    case D -> grid.getPlayer().move(1, 0, config, grid.getDoor(), grid.getWalls());   // Right
+                // Normal gameplay controls; the session handles key pickup and the win check
+                ReplayAction action = switch (event.getCode()) {
+                    case W -> ReplayAction.UP;
+                    case A -> ReplayAction.LEFT;
+                    case S -> ReplayAction.DOWN;
+                    case D -> ReplayAction.RIGHT;
+                    case Z -> ReplayAction.UNDO;  // Undo last step
+                    case Y -> ReplayAction.REDO;  // Redo undone step
+                    default -> null;
+                };
+                if (action == null) {
+                    return;
                 }
-                checkKeyPickup(); // Check for key collection after movement
-                checkWinCondition(); // Check if player reached the pad
+                switch (action) {
+                    case UNDO -> history.undo(session, 1);
+                    case REDO -> history.redo(session, 1);
+                    default -> history.move(session, action.getDeltaX(), action.getDeltaY());
+                }
+                record(action);
+                checkCaught(); // The player may have walked into a chaser
                 render(); // Redraw after movement
             }
         });
 
+        // Advance the simulation in fixed ticks; redraw only when a timed callback ran
+        new AnimationTimer() {
+            private long lastFrame = -1;
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame >= 0 && simulation.advanceBy(now - lastFrame) > 0) {
+                    render();
+                }
+                lastFrame = now;
+            }
+        }.start();
+
         stage.setScene(scene);
         stage.setTitle("SimulationRunner");
         stage.show();
     }
 
-    private void checkKeyPickup() {
-        var player = grid.getPlayer();
+    private void regenerateLevel() {
+        grid = levelSupplier.next(); // Hand off a level pre-generated in the background
+        session = new Session(LevelTemplate.from(grid));
+        distanceFields = new DistanceFields(session.getTemplate());
+        history.clear();
+        minimap.close();
+        minimap = new Minimap(session.getTemplate(), HUD.getFooterHeight(), fogRadius > 0);
+        createFieldOfView();
+        startRecording();
+        spawnChasers();
+        if (sceneView != null) {
+            sceneView.build(grid, session, chasers);
+        }
+    }
+
+    private void createFieldOfView() {
+        fieldOfView = fogRadius > 0 ? new FieldOfView(session.getTemplate(), fogRadius) : null;
+    }
 
-        for (Key key : grid.getKeys()) {
-            if (!key.isCollected() &&
-                player.getPosition().isSameAs(key.getPosition())) {
-                key.collect();
-                player.addKey(key.getColor()); // Add key to player's inventory
+    /**
+     * Places this level's chasers on random empty cells away from the spawn point, seeded by the level, and
+     * registers their step as a repeating simulation timer.
+     */
+    private void spawnChasers() {
+        if (chaserTimer != null) {
+            chaserTimer.cancel();
+            chaserTimer = null;
+        }
+        chasers = null;
+        if (chaserCount <= 0) {
+            return;
+        }
+        GridPosition spawn = session.getPlayerPosition();
+        RandomGenerator random = new SplittableRandom(grid.getSeed());
+        chasers = new ChaserSwarm(grid, CHASER_RADIUS);
+        for (int attempt = 0; chasers.size() < chaserCount && attempt < chaserCount * CHASER_SPAWN_ATTEMPTS; attempt++) {
+            GridPosition position = grid.findOpenCell(random);
+            if (position == null) {
+                break; // Every cell is taken
+            }
+            int distance = Math.abs(position.x() - spawn.x()) + Math.abs(position.y() - spawn.y());
+            if (distance >= CHASER_MIN_SPAWN_DISTANCE && !chasers.isOccupied(position)) {
+                chasers.spawn(position);
             }
         }
+        chaserTimer = simulation.every(simulation.ticksFor(CHASER_STEP_MILLIS), tick -> {
+            if (!session.hasWon()) {
+                chasers.tick(session.getPlayerPosition());
+                checkCaught();
+            }
+        });
     }
 
-    private void checkWinCondition() {
-        if (grid.getPad() != null &&
-            grid.getPlayer().getPosition().isSameAs(grid.getPad().getPosition())) {
-            hasWon = true;
+    /**
+     * Restarts the level from its spawn point if a chaser stands on the player.
+     */
+    private void checkCaught() {
+        if (chasers == null || session.hasWon() || !chasers.hasCaught(session.getPlayerPosition())) {
+            return;
         }
+        session.reset();
+        history.clear();
+        if (fieldOfView != null) {
+            fieldOfView.reset();
+        }
+        startRecording();
+        spawnChasers();
     }
 
-    private void regenerateLevel() {
-        grid = new Grid(config, 1); // Create new grid with 1 key
-        hasWon = false;
+    private void startRecording() {
+        stopRecording();
+        if (replayDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(replayDirectory);
+            Path file = replayDirectory.resolve(String.format("level-%04d-%016x.replay", levelNumber++, grid.getSeed()));
+            recorder = new ReplayRecorder(file, grid, REPLAY_KEYFRAME_INTERVAL);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Replay recording disabled", e);
+            replayDirectory = null;
+        }
+    }
+
+    private void record(ReplayAction action) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.record(action, session);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Replay recording disabled", e);
+            replayDirectory = null;
+            stopRecording();
+        }
+    }
+
+    private void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Could not finish replay", e);
+        }
+        recorder = null;
     }
 
     private void render() {
@@ -104,52 +312,146 @@ public class App extends Application {
         // Clear canvas (including HUD area)
         gc.clearRect(0, 0, width, height);
 
-        // Draw grid lines (only in grid area, not footer)
-        gc.setStroke(Color.BLACK);
-        gc.setLineWidth(1);
+        if (sceneView != null) {
+            sceneView.update(session, chasers); // Moves and toggles only the nodes whose state changed
+        } else {
+            if (fieldOfView != null) {
+                renderFog(gridPixelHeight);
+            } else {
+                CanvasLevelRenderer.render(gc, grid, session, chasers);
+            }
 
-        for (int x = 0; x <= width; x += cellSize) {
-            gc.strokeLine(x, 0, x, gridPixelHeight);
+            // Render the player at the session's position
+            new Player(session.getPlayerPosition()).render(gc, config);
         }
 
-        for (int y = 0; y <= gridPixelHeight; y += cellSize) {
-            gc.strokeLine(0, y, width, y);
+        // Render the hint arrow (if enabled)
+        if (showHint && !session.hasWon()) {
+            renderHint();
         }
 
-        // Render all walls first (behind other entities)
-        for (var wall : grid.getWalls()) {
-            wall.render(gc, config);
+        // Render HUD
+        hud.render(gc, config, grid.getKeys(), session.getCollectedMask());
+
+        // Render the minimap at the right end of the footer, rewriting only cells whose keys or doors changed
+        int minimapSide = HUD.getFooterHeight();
+        minimap.sync(session.getCollectedMask());
+        if (fieldOfView != null) {
+            minimap.reveal(fieldOfView); // Only what the player has explored
         }
+        minimap.render(gc, width - minimapSide, gridPixelHeight, minimapSide, minimapSide,
+            session.getPlayerPosition());
 
-        // Render the pad (if it exists)
-        if (grid.getPad() != null) {
-            grid.getPad().render(gc, config);
+        // Render win banner if player has won
+        if (session.hasWon()) {
+            winBanner.render(gc, config);
         }
+    }
 
-        // Render all keys
-        for (Key key : grid.getKeys()) {
-            key.render(gc, config);
+    /**
+     * Draws only what the player can see: the grid is covered in fog and just the cells within the sight
+     * radius that the field of view marks visible are opened up, so the cost follows the radius, not the level.
+     */
+    private void renderFog(int gridPixelHeight) {
+        LevelTemplate template = session.getTemplate();
+        fieldOfView.update(session.getPlayerCell(), session.getCollectedMask());
+
+        gc.setFill(ColorPalette.getFogColor());
+        gc.fillRect(0, 0, width, gridPixelHeight);
+
+        GridPosition player = session.getPlayerPosition();
+        int fromX = Math.max(0, player.x() - fogRadius);
+        int toX = Math.min(template.getWidth() - 1, player.x() + fogRadius);
+        int fromY = Math.max(0, player.y() - fogRadius);
+        int toY = Math.min(template.getHeight() - 1, player.y() + fogRadius);
+        gc.setFill(ColorPalette.getCellColor(CellType.WALL));
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                int cell = template.cellOf(x, y);
+                if (!fieldOfView.isVisible(cell)) {
+                    continue;
+                }
+                gc.clearRect(x * cellSize, y * cellSize, cellSize, cellSize);
+                if (template.isWall(cell)) {
+                    gc.fillRect(x * cellSize, y * cellSize, cellSize, cellSize);
+                }
+                gc.strokeRect(x * cellSize, y * cellSize, cellSize, cellSize);
+            }
         }
 
-        // Render the door (if it exists)
-        if (grid.getDoor() != null) {
-            grid.getDoor().render(gc, config);
+        if (grid.getPad() != null && isVisible(grid.getPad().getPosition())) {
+            grid.getPad().render(gc, config);
         }
+        var keys = grid.getKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!session.isKeyCollected(i) && isVisible(keys.get(i).getPosition())) {
+                keys.get(i).render(gc, config);
+            }
+        }
+        for (var door : grid.getDoors()) {
+            if (isVisible(door.getPosition())) {
+                door.render(gc, config);
+            }
+        }
+        if (chasers != null) {
+            for (var chaser : chasers.getChasers()) {
+                if (isVisible(chaser.getPosition())) {
+                    chaser.render(gc, config);
+                }
+            }
+        }
+    }
 
-        // Render the player
-        grid.getPlayer().render(gc, config);
+    private boolean isVisible(GridPosition position) {
+        return fieldOfView.isVisible(session.getTemplate().cellOf(position));
+    }
 
-        // Render HUD
-        hud.render(gc, config, grid.getKeys());
+    /**
+     * Draws an arrow from the player toward the next cell suggested by the level's distance fields.
+     */
+    private void renderHint() {
+        LevelTemplate template = session.getTemplate();
+        distanceFields.update(session.getCollectedMask()); // Repairs the fields when a pickup opened a door
+        int next = distanceFields.hint(session.getPlayerCell(), session.getCollectedMask());
+        if (next < 0) {
+            return;
+        }
+        GridPosition from = session.getPlayerPosition();
+        GridPosition to = template.positionOf(next);
+        double centerX = (from.x() + 0.5) * cellSize;
+        double centerY = (from.y() + 0.5) * cellSize;
+        double dx = to.x() - from.x();
+        double dy = to.y() - from.y();
+        double tipX = centerX + dx * cellSize * 0.9;
+        double tipY = centerY + dy * cellSize * 0.9;
+        double head = cellSize * 0.2;
 
-        // Render win banner if player has won
-        if (hasWon) {
-            winBanner.render(gc, config);
+        gc.setStroke(Color.DODGERBLUE);
+        gc.setFill(Color.DODGERBLUE);
+        gc.setLineWidth(3);
+        gc.strokeLine(centerX + dx * cellSize * 0.4, centerY + dy * cellSize * 0.4, tipX - dx * head, tipY - dy * head);
+        gc.fillPolygon(
+            new double[] {tipX, tipX - dx * head - dy * head, tipX - dx * head + dy * head},
+            new double[] {tipY, tipY - dy * head - dx * head, tipY - dy * head + dx * head},
+            3);
+        gc.setLineWidth(1);
+    }
+
+    @Override
+    public void stop() {
+        if (levelSupplier != null) {
+            levelSupplier.close();
+        }
+        if (minimap != null) {
+            minimap.close();
         }
+        stopRecording();
     }
 
     public static void main(String[] args) {
-        launch();
+        launch(args);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.simulationrunner;
+
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.search.ChaserSwarm;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * The canvas backend's level pass: grid lines and every entity of the level, redrawn from scratch each
+ * frame. Shared by {@link App} and {@link RendererBenchmark} so the benchmark times the path the game runs.
+ */
+final class CanvasLevelRenderer {
+    private CanvasLevelRenderer() {
+        throw new AssertionError("Cannot instantiate CanvasLevelRenderer class");
+    }
+
+    /**
+     * Draws the grid lines, walls, pad, uncollected keys, doors and chasers over the grid area. The player is
+     * left to the caller, which draws it on top in every mode.
+     *
+     * @param gc the graphics context to draw on
+     * @param grid the level
+     * @param session the session whose collected keys are hidden
+     * @param chasers the chasers to draw, or null
+     */
+    static void render(GraphicsContext gc, Grid grid, Session session, ChaserSwarm chasers) {
+        GridConfig config = grid.getConfig();
+        int width = config.getPixelWidth();
+        int gridPixelHeight = config.getPixelHeight();
+        int cellSize = config.getCellSize();
+
+        // Draw grid lines (only in grid area, not footer)
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+
+        for (int x = 0; x <= width; x += cellSize) {
+            gc.strokeLine(x, 0, x, gridPixelHeight);
+        }
+
+        for (int y = 0; y <= gridPixelHeight; y += cellSize) {
+            gc.strokeLine(0, y, width, y);
+        }
+
+        // Render all walls first (behind other entities), one rectangle per span
+        for (var span : grid.getWallSpans()) {
+            span.render(gc, config);
+        }
+
+        // Render the pad (if it exists)
+        if (grid.getPad() != null) {
+            grid.getPad().render(gc, config);
+        }
+
+        // Render the keys this session has not collected yet
+        var keys = grid.getKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!session.isKeyCollected(i)) {
+                keys.get(i).render(gc, config);
+            }
+        }
+
+        // Render the doors
+        for (var door : grid.getDoors()) {
+            door.render(gc, config);
+        }
+
+        // Render the chasers (if enabled)
+        if (chasers != null) {
+            for (var chaser : chasers.getChasers()) {
+                chaser.render(gc, config);
+            }
+        }
+    }
+}
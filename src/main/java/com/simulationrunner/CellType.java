@@ -0,0 +1,39 @@
+package com.simulationrunner;
+
+/**
+ * The content of a cell in a {@link DenseCellStore}. The ordinal is the stored code, so the first four
+ * types fit the two-bit encoding.
+ */
+public enum CellType {
+    FLOOR,
+    WALL,
+    DOOR,
+    KEY,
+    PAD,
+    SPAWN;
+
+    private static final CellType[] VALUES = values();
+
+    /**
+     * Gets the type stored under a code.
+     *
+     * @param code the stored code
+     * @return the cell type
+     * @throws IllegalArgumentException if no type has that code
+     */
+    public static CellType fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown cell code: " + code);
+        }
+        return VALUES[code];
+    }
+
+    /**
+     * Gets the stored code of the type.
+     *
+     * @return the code
+     */
+    public int code() {
+        return ordinal();
+    }
+}
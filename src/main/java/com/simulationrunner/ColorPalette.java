@@ -4,7 +4,8 @@ import javafx.scene.paint.Color;
 
 /**
  * Provides color palette for game entities.
- * Currently supports rainbow palette for keys with cyclic assignment.
+ * Supports rainbow palette for keys with cyclic assignment, and one color per {@link CellType} for maps
+ * drawn from a {@link DenseCellStore}.
  */
 public final class ColorPalette {
     private ColorPalette() {
@@ -22,6 +23,17 @@ public final class ColorPalette {
         Color.MAGENTA
     };
 
+    private static final Color[] CELL_COLORS = {
+        Color.WHITE,       // FLOOR
+        Color.DARKGRAY,    // WALL, as drawn by Wall
+        Color.SIENNA,      // DOOR
+        Color.ORANGE,      // KEY
+        Color.GOLD,        // PAD, as drawn by Pad
+        Color.LIGHTSKYBLUE // SPAWN, lighter than the player drawn over it
+    };
+
+    private static final Color FOG_COLOR = Color.rgb(32, 32, 40);
+
     /**
      * Gets a color from the rainbow palette by index.
      * If index exceeds palette size, cycles back using modulo.
@@ -37,6 +49,25 @@ public final class ColorPalette {
         return RAINBOW_PALETTE[index % RAINBOW_PALETTE.length];
     }
 
+    /**
+     * Gets the palette index of a color.
+     *
+     * @param color the color to look up
+     * @return the index of the color in the rainbow palette, or -1 if it is not part of the palette
+     * @throws NullPointerException if color is null
+     */
+    public static int indexOf(Color color) {
+        if (color == null) {
+            throw new NullPointerException("color cannot be null");
+        }
+        for (int i = 0; i < RAINBOW_PALETTE.length; i++) {
+            if (RAINBOW_PALETTE[i].equals(color)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Gets the total number of colors in the rainbow palette.
      *
@@ -45,4 +76,42 @@ public final class ColorPalette {
     public static int getPaletteSize() {
         return RAINBOW_PALETTE.length;
     }
+
+    /**
+     * Gets the color a cell type is drawn with on maps.
+     *
+     * @param type the cell type
+     * @return the cell color
+     * @throws NullPointerException if type is null
+     */
+    public static Color getCellColor(CellType type) {
+        if (type == null) {
+            throw new NullPointerException("type cannot be null");
+        }
+        return CELL_COLORS[type.code()];
+    }
+
+    /**
+     * Gets the color of cells hidden by fog of war, on the map and the minimap alike.
+     *
+     * @return the fog color
+     */
+    public static Color getFogColor() {
+        return FOG_COLOR;
+    }
+
+    /**
+     * Packs a color into a non-premultiplied ARGB int, as taken by {@code PixelFormat.getIntArgbInstance()}.
+     *
+     * @param color the color
+     * @return the packed color
+     * @throws NullPointerException if color is null
+     */
+    public static int toArgb(Color color) {
+        if (color == null) {
+            throw new NullPointerException("color cannot be null");
+        }
+        return (int) Math.round(color.getOpacity() * 255) << 24 | (int) Math.round(color.getRed() * 255) << 16
+               | (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
+    }
 }
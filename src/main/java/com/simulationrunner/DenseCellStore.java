@@ -0,0 +1,378 @@
+package com.simulationrunner;
+
+import com.simulationrunner.config.CellEncoding;
+import com.simulationrunner.config.GridConfig;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Off-heap cell layer for grids with more cells than fit in an array: every cell holds a {@link CellType}
+ * code packed 2 or 4 bits wide into longs of a native {@link MemorySegment}, addressed with {@code long}
+ * cell ids ({@code y * width + x}). A 100,000 x 100,000 grid takes 2.5 GB at two bits per cell, none of
+ * it on the heap.
+ *
+ * <p>Queries read the segment in place: collision checks are a shift and a mask, and searches for spawn
+ * cells and counts compare whole words at a time, 32 or 16 cells per long, so nothing is boxed or copied.
+ * Rendering walks a row as runs of equal cells through a primitive callback.
+ *
+ * <p>The memory is freed by {@link #close()}, or by the garbage collector for stores made with
+ * {@link #ofAuto(long, long, CellEncoding)}. Reads may come from several threads; writes must not race
+ * with each other or with reads of the same word.
+ */
+public final class DenseCellStore implements AutoCloseable {
+    /**
+     * Receives runs of equal cells in a row.
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+        /**
+         * Accepts a run.
+         *
+         * @param y the row
+         * @param fromX the first column of the run
+         * @param toX the column after the last one of the run
+         * @param type the type of every cell in the run
+         */
+        void accept(long y, long fromX, long toX, CellType type);
+    }
+
+    private final long width;
+    private final long height;
+    private final long cellCount;
+    private final int bitsPerCell;
+    private final int cellsPerWordShift;
+    private final long cellMask;
+    private final long lowBits; // Lowest bit of every cell field in a word
+    private final Arena arena; // Null if the garbage collector frees the segment
+    private final MemorySegment segment;
+    private final long wordCount;
+
+    /**
+     * Allocates a store with every cell set to {@link CellType#FLOOR}.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     * @param encoding the bits per cell
+     * @throws NullPointerException if encoding is null
+     * @throws IllegalArgumentException if a dimension is not positive or the cell count overflows a long
+     */
+    public DenseCellStore(long width, long height, CellEncoding encoding) {
+        this(width, height, encoding, Arena.ofShared());
+    }
+
+    /**
+     * Allocates the cells from an arena, or from an automatic arena if it is null.
+     */
+    private DenseCellStore(long width, long height, CellEncoding encoding, Arena arena) {
+        Objects.requireNonNull(encoding, "CellEncoding cannot be null");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Dimensions must be greater than 0");
+        }
+        if (width > Long.MAX_VALUE / height) {
+            throw new IllegalArgumentException("DenseCellStore has too many cells");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
+        this.bitsPerCell = encoding.getBitsPerCell();
+        this.cellsPerWordShift = Integer.numberOfTrailingZeros(Long.SIZE / bitsPerCell);
+        this.cellMask = (1L << bitsPerCell) - 1;
+        this.lowBits = replicate(1);
+        this.wordCount = (cellCount + (1L << cellsPerWordShift) - 1) >>> cellsPerWordShift;
+        this.arena = arena;
+        this.segment = (arena != null ? arena : Arena.ofAuto()).allocate(wordCount * Long.BYTES, Long.BYTES);
+    }
+
+    /**
+     * Allocates a store whose memory is freed by the garbage collector once the store is unreachable, for
+     * owners without a close hook such as a {@link Grid}. Closing it does nothing.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     * @param encoding the bits per cell
+     * @return the store, with every cell set to {@link CellType#FLOOR}
+     * @throws NullPointerException if encoding is null
+     * @throws IllegalArgumentException if a dimension is not positive or the cell count overflows a long
+     */
+    public static DenseCellStore ofAuto(long width, long height, CellEncoding encoding) {
+        return new DenseCellStore(width, height, encoding, null);
+    }
+
+    /**
+     * Allocates a store sized and encoded by a grid configuration.
+     *
+     * @param config the grid configuration
+     * @return the store
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if the configuration keeps cells on the heap
+     */
+    public static DenseCellStore create(GridConfig config) {
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+        if (!config.usesDenseCells()) {
+            throw new IllegalArgumentException("GridConfig keeps cells on the heap: " + config);
+        }
+        return new DenseCellStore(config.getGridWidth(), config.getGridHeight(), config.getCellEncoding());
+    }
+
+    /**
+     * Repeats a cell code into every field of a word.
+     */
+    private long replicate(int code) {
+        long word = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += bitsPerCell) {
+            word |= (long) code << shift;
+        }
+        return word;
+    }
+
+    public long getWidth() {
+        return width;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    public long getCellCount() {
+        return cellCount;
+    }
+
+    public int getBitsPerCell() {
+        return bitsPerCell;
+    }
+
+    /**
+     * Gets the off-heap memory held by the cells.
+     *
+     * @return the size in bytes
+     */
+    public long getByteSize() {
+        return segment.byteSize();
+    }
+
+    /**
+     * Gets the type of a cell.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the type
+     * @throws IndexOutOfBoundsException if the cell is outside the grid
+     */
+    public CellType get(long x, long y) {
+        return CellType.fromCode(getCode(cellOf(x, y)));
+    }
+
+    /**
+     * Gets the stored code of a cell, without bounds checks.
+     *
+     * @param cell the row-major cell id
+     * @return the code
+     */
+    public int getCode(long cell) {
+        long word = segment.getAtIndex(ValueLayout.JAVA_LONG, cell >>> cellsPerWordShift);
+        return (int) (word >>> shiftOf(cell) & cellMask);
+    }
+
+    private int shiftOf(long cell) {
+        return (int) (cell & ((1L << cellsPerWordShift) - 1)) * bitsPerCell;
+    }
+
+    private long cellOf(long x, long y) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        return y * width + x;
+    }
+
+    /**
+     * Sets the type of a cell.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @param type the new type
+     * @throws NullPointerException if type is null
+     * @throws IndexOutOfBoundsException if the cell is outside the grid
+     * @throws IllegalArgumentException if the encoding is too narrow for the type
+     */
+    public void set(long x, long y, CellType type) {
+        set(cellOf(x, y), type);
+    }
+
+    /**
+     * Sets the type of a cell, without bounds checks on the cell.
+     *
+     * @param cell the row-major cell id
+     * @param type the new type
+     * @throws NullPointerException if type is null
+     * @throws IllegalArgumentException if the encoding is too narrow for the type
+     */
+    public void set(long cell, CellType type) {
+        long code = checkCode(type);
+        long index = cell >>> cellsPerWordShift;
+        int shift = shiftOf(cell);
+        long word = segment.getAtIndex(ValueLayout.JAVA_LONG, index);
+        segment.setAtIndex(ValueLayout.JAVA_LONG, index, word & ~(cellMask << shift) | code << shift);
+    }
+
+    private int checkCode(CellType type) {
+        int code = Objects.requireNonNull(type, "CellType cannot be null").code();
+        if (code > cellMask) {
+            throw new IllegalArgumentException(type + " does not fit in " + bitsPerCell + " bits per cell");
+        }
+        return code;
+    }
+
+    /**
+     * Sets every cell to one type.
+     *
+     * @param type the type
+     * @throws NullPointerException if type is null
+     * @throws IllegalArgumentException if the encoding is too narrow for the type
+     */
+    public void fill(CellType type) {
+        long pattern = replicate(checkCode(type));
+        for (long index = 0; index < wordCount; index++) {
+            segment.setAtIndex(ValueLayout.JAVA_LONG, index, pattern);
+        }
+    }
+
+    /**
+     * Checks whether a cell is a wall, the collision test of movement.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return true if the cell is inside the grid and a wall
+     */
+    public boolean isWall(long x, long y) {
+        return x >= 0 && x < width && y >= 0 && y < height && getCode(y * width + x) == CellType.WALL.code();
+    }
+
+    /**
+     * Finds the first cell of a type at or after a cell id. Whole words are tested at once: XOR-ing a word
+     * with the type's code in every field leaves a zero field exactly where a cell matches.
+     *
+     * @param type the type to look for
+     * @param fromCell the cell id to start from
+     * @return the id of the matching cell, or -1 if there is none
+     * @throws NullPointerException if type is null
+     */
+    public long find(CellType type, long fromCell) {
+        if (fromCell < 0) {
+            fromCell = 0;
+        }
+        if (fromCell >= cellCount || type.code() > cellMask) {
+            return -1;
+        }
+        long pattern = replicate(type.code());
+        long index = fromCell >>> cellsPerWordShift;
+        long matches = matches(index, pattern) & (-1L << shiftOf(fromCell));
+        while (matches == 0) {
+            if (++index == wordCount) {
+                return -1;
+            }
+            matches = matches(index, pattern);
+        }
+        long cell = (index << cellsPerWordShift) + Long.numberOfTrailingZeros(matches) / bitsPerCell;
+        return cell < cellCount ? cell : -1;
+    }
+
+    /**
+     * Gets the lowest bit of every field of a word whose cell holds the pattern's code.
+     */
+    private long matches(long index, long pattern) {
+        long difference = segment.getAtIndex(ValueLayout.JAVA_LONG, index) ^ pattern;
+        long folded = difference;
+        for (int bit = 1; bit < bitsPerCell; bit++) {
+            folded |= difference >>> bit;
+        }
+        return ~folded & lowBits;
+    }
+
+    /**
+     * Counts the cells of a type.
+     *
+     * @param type the type to count
+     * @return the number of cells
+     * @throws NullPointerException if type is null
+     */
+    public long count(CellType type) {
+        if (type.code() > cellMask) {
+            return 0;
+        }
+        long pattern = replicate(type.code());
+        long count = 0;
+        for (long index = 0; index < wordCount - 1; index++) {
+            count += Long.bitCount(matches(index, pattern));
+        }
+        int tailCells = (int) (cellCount - ((wordCount - 1) << cellsPerWordShift));
+        long tailMask = tailCells * bitsPerCell == Long.SIZE ? -1L : (1L << (tailCells * bitsPerCell)) - 1;
+        return count + Long.bitCount(matches(wordCount - 1, pattern) & tailMask);
+    }
+
+    /**
+     * Picks a cell of a type for spawning something: the first match at or after a random cell, wrapping
+     * around to the start of the grid.
+     *
+     * @param type the type to look for
+     * @param random the source of the starting cell
+     * @return the id of the cell, or -1 if no cell has the type
+     * @throws NullPointerException if type or random is null
+     */
+    public long findRandom(CellType type, RandomGenerator random) {
+        Objects.requireNonNull(type, "CellType cannot be null");
+        long start = random.nextLong(cellCount);
+        long cell = find(type, start);
+        return cell >= 0 ? cell : find(type, 0);
+    }
+
+    /**
+     * Reports the cells of part of a row as runs of equal types, e.g. to draw one rectangle per run.
+     *
+     * @param y the row
+     * @param fromX the first column, inclusive
+     * @param toX the last column, exclusive
+     * @param consumer receives the runs from left to right
+     * @throws NullPointerException if consumer is null
+     * @throws IndexOutOfBoundsException if y or the column range is outside the grid
+     */
+    public void forEachRun(long y, long fromX, long toX, RunConsumer consumer) {
+        Objects.requireNonNull(consumer, "RunConsumer cannot be null");
+        Objects.checkIndex(y, height);
+        Objects.checkFromToIndex(fromX, toX, width);
+        long rowStart = y * width;
+        long runStart = fromX;
+        int runCode = -1;
+        for (long x = fromX; x < toX; x++) {
+            int code = getCode(rowStart + x);
+            if (code != runCode) {
+                if (runCode >= 0) {
+                    consumer.accept(y, runStart, x, CellType.fromCode(runCode));
+                }
+                runStart = x;
+                runCode = code;
+            }
+        }
+        if (runCode >= 0) {
+            consumer.accept(y, runStart, toX, CellType.fromCode(runCode));
+        }
+    }
+
+    /**
+     * Frees the cells. The store must not be used afterwards. Does nothing for a store made with
+     * {@link #ofAuto(long, long, CellEncoding)}.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DenseCellStore[width=" + width + ", height=" + height + ", bitsPerCell=" + bitsPerCell + "]";
+    }
+}
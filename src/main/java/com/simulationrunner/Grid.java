@@ -6,19 +6,46 @@ import com.simulationrunner.entity.Key;
 import com.simulationrunner.entity.Pad;
 import com.simulationrunner.entity.Player;
 import com.simulationrunner.entity.Wall;
+import com.simulationrunner.entity.WallSpan;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class Grid {
     private final GridConfig config;
     private final Player player;
     private final List<Key> keys;
-    private final Door door;
-    private final List<Wall> walls;
+    private final List<Door> doors;
+    private final int[] doorCells; // Sorted cell ids of the doors, for per-cell lookup
+    private final Door[] doorsByCell; // Door lying on the matching doorCells entry
+    private volatile WallGrid wallGrid; // Given for bitset layouts, built on first use for span layouts
+    private final DenseCellStore cells; // Off-heap cell layer if the config asks for one, else null
     private final Pad pad;
+    private final long seed;
+    private List<WallSpan> wallSpans;
+    private List<Wall> walls;
 
     public Grid(GridConfig config, int keyCount) {
+        this(config, keyCount, RandomGenerator.getDefault().nextLong());
+    }
+
+    /**
+     * Creates a grid whose layout is fully determined by the given seed.
+     * Two grids built from the same config, key count and seed are identical,
+     * and construction shares no random state with other threads.
+     *
+     * @param config the grid configuration
+     * @param keyCount the number of keys to spawn
+     * @param seed the seed driving every random placement
+     * @throws IllegalArgumentException if config is null or keyCount is negative
+     */
+    public Grid(GridConfig config, int keyCount, long seed) {
         if (config == null) {
             throw new IllegalArgumentException("GridConfig cannot be null");
         }
@@ -26,12 +53,15 @@ public class Grid {
             throw new IllegalArgumentException("keyCount must be non-negative");
         }
         this.config = config;
-        this.player = Player.createRandom(config);
+        this.seed = seed;
+        RandomGenerator random = new SplittableRandom(seed);
+        this.player = Player.createRandom(config, random);
 
         // Create door with same color as first key (if any keys exist)
         if (keyCount > 0) {
             // Create door first to determine which side to spawn keys on
-            this.door = Door.createRandom(config, player, ColorPalette.getKeyColor(0));
+            Door door = Door.createRandom(config, player, ColorPalette.getKeyColor(0), random);
+            this.doors = List.of(door);
 
             // Determine which side of the door the player is on
             int playerX = player.getGridX();
@@ -55,19 +85,160 @@ public class Grid {
             }
 
             // Create keys on the player's side of the door
-            this.keys = Key.createRandomKeys(config, player, keyCount, minX, maxX);
+            this.keys = Key.createRandomKeys(config, player, keyCount, minX, maxX, random);
 
             // Create vertical wall through the door's x-coordinate with a gap at the door
-            this.walls = Wall.createVerticalWallWithGap(config, door.getGridX(), door.getPosition());
+            this.wallSpans = WallSpan.verticalWithGap(config, door.getGridX(), door.getPosition());
 
             // Create pad on the opposite side from the player
             this.pad = Pad.createOpposite(config, player, door);
         } else {
             this.keys = Collections.emptyList();
-            this.door = null;
-            this.walls = Collections.emptyList();
+            this.doors = Collections.emptyList();
+            this.wallSpans = Collections.emptyList();
             this.pad = null;
         }
+        this.doorCells = new int[doors.size()];
+        this.doorsByCell = new Door[doors.size()];
+        indexDoors();
+        this.cells = createCells(null);
+    }
+
+    /**
+     * Creates a grid from already placed entities, e.g. a level decoded from a level pack.
+     *
+     * @param config the grid configuration
+     * @param seed the seed the level was originally generated from
+     * @param player the player at its spawn position
+     * @param keys the keys of the level
+     * @param door the door, or null if the level has none
+     * @param wallSpans the wall spans of the level
+     * @param pad the goal pad, or null if the level has none
+     * @throws NullPointerException if config, player, keys, or wallSpans is null
+     */
+    public Grid(GridConfig config, long seed, Player player, List<Key> keys, Door door, List<WallSpan> wallSpans,
+                Pad pad) {
+        this.config = Objects.requireNonNull(config, "GridConfig cannot be null");
+        this.seed = seed;
+        this.player = Objects.requireNonNull(player, "Player cannot be null");
+        this.keys = List.copyOf(Objects.requireNonNull(keys, "Keys cannot be null"));
+        this.doors = door != null ? List.of(door) : Collections.emptyList();
+        this.wallSpans = List.copyOf(Objects.requireNonNull(wallSpans, "Wall spans cannot be null"));
+        this.pad = pad;
+        this.doorCells = new int[doors.size()];
+        this.doorsByCell = new Door[doors.size()];
+        indexDoors();
+        this.cells = createCells(null);
+    }
+
+    /**
+     * Creates a grid from already placed entities and a bit-packed wall layer, e.g. a generated maze.
+     * Wall spans are derived from the layer on first use.
+     *
+     * @param config the grid configuration
+     * @param seed the seed the level was generated from
+     * @param player the player at its spawn position
+     * @param keys the keys of the level
+     * @param door the door, or null if the level has none
+     * @param walls the wall layer, copied so later changes to it do not affect the grid
+     * @param pad the goal pad, or null if the level has none
+     * @throws NullPointerException if config, player, keys, or walls is null
+     * @throws IllegalArgumentException if the wall layer does not match the grid dimensions
+     */
+    public Grid(GridConfig config, long seed, Player player, List<Key> keys, Door door, WallGrid walls, Pad pad) {
+        this(config, seed, walls, player, keys, door != null ? List.of(door) : List.of(), pad);
+    }
+
+    /**
+     * Creates a grid with any number of doors from a bit-packed wall layer, e.g. a lock-and-key chain.
+     * Wall spans are derived from the layer on first use.
+     *
+     * @param config the grid configuration
+     * @param seed the seed the level was generated from
+     * @param walls the wall layer, copied so later changes to it do not affect the grid
+     * @param player the player at its spawn position
+     * @param keys the keys of the level
+     * @param doors the doors of the level, on distinct cells
+     * @param pad the goal pad, or null if the level has none
+     * @throws NullPointerException if config, walls, player, keys, or doors is null
+     * @throws IllegalArgumentException if the wall layer does not match the grid dimensions
+     *         or two doors share a cell
+     */
+    public Grid(GridConfig config, long seed, WallGrid walls, Player player, List<Key> keys, List<Door> doors,
+                Pad pad) {
+        this.config = Objects.requireNonNull(config, "GridConfig cannot be null");
+        this.seed = seed;
+        this.player = Objects.requireNonNull(player, "Player cannot be null");
+        this.keys = List.copyOf(Objects.requireNonNull(keys, "Keys cannot be null"));
+        this.doors = List.copyOf(Objects.requireNonNull(doors, "Doors cannot be null"));
+        Objects.requireNonNull(walls, "WallGrid cannot be null");
+        if (walls.getWidth() != config.getGridWidth() || walls.getHeight() != config.getGridHeight()) {
+            throw new IllegalArgumentException("WallGrid dimensions must match the grid configuration");
+        }
+        this.wallGrid = walls.copy().asReadOnly();
+        this.pad = pad;
+        this.doorCells = new int[this.doors.size()];
+        this.doorsByCell = new Door[this.doors.size()];
+        indexDoors();
+        this.cells = createCells(wallGrid);
+    }
+
+    /**
+     * Fills the per-cell door lookup, sorted by cell id.
+     */
+    private void indexDoors() {
+        int width = config.getGridWidth();
+        Door[] sorted = doors.toArray(new Door[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(door -> door.getGridY() * width + door.getGridX()));
+        for (int i = 0; i < sorted.length; i++) {
+            doorCells[i] = sorted[i].getGridY() * width + sorted[i].getGridX();
+            doorsByCell[i] = sorted[i];
+            if (i > 0 && doorCells[i] == doorCells[i - 1]) {
+                throw new IllegalArgumentException("Two doors cannot share a cell");
+            }
+        }
+    }
+
+    /**
+     * Builds the off-heap cell layer if the config selects an encoding: walls, doors and keys, plus the pad
+     * and spawn point when the encoding has room for them.
+     */
+    private DenseCellStore createCells(WallGrid walls) {
+        if (!config.usesDenseCells()) {
+            return null;
+        }
+        int width = config.getGridWidth();
+        DenseCellStore store = DenseCellStore.ofAuto(width, config.getGridHeight(), config.getCellEncoding());
+        if (walls != null) {
+            for (int cell = walls.nextWall(0); cell >= 0; cell = walls.nextWall(cell + 1)) {
+                store.set(cell, CellType.WALL);
+            }
+        } else {
+            for (WallSpan span : wallSpans) {
+                boolean vertical = span.axis() == WallSpan.Axis.VERTICAL;
+                for (int along = span.start(); along <= span.end(); along++) {
+                    int x = vertical ? span.fixed() : along;
+                    int y = vertical ? along : span.fixed();
+                    if (x < width && y < config.getGridHeight()) {
+                        store.set(x, y, CellType.WALL);
+                    }
+                }
+            }
+        }
+        for (Door door : doors) {
+            store.set(door.getGridX(), door.getGridY(), CellType.DOOR);
+        }
+        for (Key key : keys) {
+            store.set(key.getGridX(), key.getGridY(), CellType.KEY);
+        }
+        int codeCount = config.getCellEncoding().getCodeCount();
+        if (pad != null && CellType.PAD.code() < codeCount) {
+            store.set(pad.getGridX(), pad.getGridY(), CellType.PAD);
+        }
+        if (CellType.SPAWN.code() < codeCount) {
+            store.set(player.getGridX(), player.getGridY(), CellType.SPAWN);
+        }
+        return store;
     }
 
     public GridConfig getConfig() {
@@ -82,15 +253,177 @@ public class Grid {
         return Collections.unmodifiableList(keys);
     }
 
+    /**
+     * Gets the first door.
+     *
+     * @return the first door, or null if the level has none
+     */
     public Door getDoor() {
-        return door;
+        return doors.isEmpty() ? null : doors.get(0);
+    }
+
+    /**
+     * Gets every door, in the order they were given.
+     *
+     * @return an unmodifiable list of doors
+     */
+    public List<Door> getDoors() {
+        return doors;
     }
 
+    /**
+     * Gets the door on a cell through a per-cell lookup, so the number of doors does not affect movement checks.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the door on the cell, or null if there is none
+     */
+    public Door getDoorAt(int x, int y) {
+        if (doorCells.length == 0 || x < 0 || x >= config.getGridWidth()) {
+            return null;
+        }
+        int index = Arrays.binarySearch(doorCells, y * config.getGridWidth() + x);
+        return index >= 0 ? doorsByCell[index] : null;
+    }
+
+    /**
+     * Gets per-cell views of all walls. The views are materialized from the wall spans
+     * on first use; prefer {@link #getWallSpans()} or {@link #isWall(int, int)} on hot paths.
+     *
+     * @return an unmodifiable list with one wall per blocked cell
+     */
     public List<Wall> getWalls() {
-        return Collections.unmodifiableList(walls);
+        List<Wall> materialized = walls;
+        if (materialized == null) {
+            List<Wall> cells = new ArrayList<>();
+            for (WallSpan span : getWallSpans()) {
+                cells.addAll(span.toWalls());
+            }
+            materialized = List.copyOf(cells);
+            walls = materialized;
+        }
+        return materialized;
+    }
+
+    /**
+     * Gets the walls as spans. For grids built from a {@link WallGrid} the spans are derived on first use.
+     *
+     * @return an unmodifiable list of spans covering every wall cell
+     */
+    public List<WallSpan> getWallSpans() {
+        List<WallSpan> spans = wallSpans;
+        if (spans == null) {
+            spans = List.copyOf(wallGrid.toSpans());
+            wallSpans = spans;
+        }
+        return Collections.unmodifiableList(spans);
+    }
+
+    /**
+     * Gets the bit-packed wall layer. Grids built from spans only materialize it on first use, so they
+     * keep O(spans) memory until something needs per-cell bits.
+     *
+     * @return a read-only view of the wall layer; {@link WallGrid#copy()} it to make changes
+     */
+    public WallGrid getWallGrid() {
+        WallGrid layer = wallGrid;
+        if (layer == null) {
+            layer = WallGrid.of(config.getGridWidth(), config.getGridHeight(), wallSpans).asReadOnly();
+            wallGrid = layer;
+        }
+        return layer;
+    }
+
+    /**
+     * Checks whether a cell is covered by a wall. Grids with an off-heap cell layer and bitset layouts
+     * answer in O(1); span layouts scan their spans unless the bitset has already been materialized.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return true if the cell is inside the grid and blocked
+     */
+    public boolean isWall(int x, int y) {
+        if (cells != null) {
+            return cells.isWall(x, y);
+        }
+        WallGrid layer = wallGrid;
+        if (layer != null) {
+            return layer.isWall(x, y);
+        }
+        for (WallSpan span : wallSpans) {
+            if (span.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Picks a random empty cell for spawning something, e.g. a chaser: the first cell at or after a random
+     * one, wrapping around, that holds no wall, door, key, pad or spawn point. With an off-heap cell layer
+     * the search compares whole words of floor cells at once.
+     *
+     * @param random the source of the starting cell
+     * @return the cell, or null if every cell is taken
+     * @throws NullPointerException if random is null
+     */
+    public GridPosition findOpenCell(RandomGenerator random) {
+        Objects.requireNonNull(random, "RandomGenerator cannot be null");
+        long cellCount = config.getCellCount();
+        long start = random.nextLong(cellCount);
+        GridPosition found = findOpenCell(start, cellCount);
+        return found != null ? found : findOpenCell(0, start);
+    }
+
+    private GridPosition findOpenCell(long fromCell, long toCell) {
+        int width = config.getGridWidth();
+        if (cells != null) {
+            for (long cell = cells.find(CellType.FLOOR, fromCell); cell >= 0 && cell < toCell;
+                 cell = cells.find(CellType.FLOOR, cell + 1)) {
+                GridPosition position = new GridPosition((int) (cell % width), (int) (cell / width));
+                if (isEmpty(position)) { // Two bits per cell leave the pad and spawn point as floor
+                    return position;
+                }
+            }
+            return null;
+        }
+        for (long cell = fromCell; cell < toCell; cell++) {
+            GridPosition position = new GridPosition((int) (cell % width), (int) (cell / width));
+            if (!isWall(position.x(), position.y()) && isEmpty(position)) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    private boolean isEmpty(GridPosition position) {
+        if (getDoorAt(position.x(), position.y()) != null || position.equals(player.getPosition())
+            || (pad != null && position.equals(pad.getPosition()))) {
+            return false;
+        }
+        for (Key key : keys) {
+            if (position.equals(key.getPosition())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the off-heap cell layer, selected by {@link GridConfig#usesDenseCells()}. It is freed by the
+     * garbage collector with the grid and must not be modified.
+     *
+     * @return the cells, or null if the grid keeps its cells on the heap
+     */
+    public DenseCellStore getCells() {
+        return cells;
     }
 
     public Pad getPad() {
         return pad;
     }
+
+    public long getSeed() {
+        return seed;
+    }
 }
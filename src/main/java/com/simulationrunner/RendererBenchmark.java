@@ -0,0 +1,120 @@
+package com.simulationrunner;
+
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.ui.SceneGraphView;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures the canvas and scene graph backends inside the running FX toolkit. Each backend is shown in
+ * the stage in turn while the player makes random moves, one per pulse. Per frame it measures the time
+ * spent in the backend's own code, and the time from one pulse to the next, which also covers the
+ * toolkit's layout and painting. Pulses run at full speed, not at the display's refresh rate, so the
+ * interval is the real frame cost. The means are printed once both backends have run.
+ *
+ * <p>Run with {@code mvn javafx:run@benchmark}, optionally passing {@code --size=<cells>} for the side
+ * of the level.
+ */
+public class RendererBenchmark extends Application {
+    private static final int WARM_UP_FRAMES = 300;
+    private static final int MEASURED_FRAMES = 2_000;
+    private static final int[][] MOVES = {{0, -1}, {-1, 0}, {0, 1}, {1, 0}};
+
+    private Stage stage;
+    private Grid grid;
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        int size = Integer.parseInt(getParameters().getNamed().getOrDefault("size", "40"));
+        grid = new Grid(new GridConfig(size, size, 10), 3, 7L);
+        stage.setTitle("Renderer benchmark");
+        runCanvas();
+    }
+
+    private void runCanvas() {
+        GridConfig config = grid.getConfig();
+        Canvas canvas = new Canvas(config.getPixelWidth(), config.getPixelHeight());
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        Session session = new Session(LevelTemplate.from(grid));
+        measure("canvas", new StackPane(canvas), session, () -> drawCanvasFrame(gc, session), this::runScene);
+    }
+
+    /**
+     * Draws a frame the way {@link App} does with the canvas backend.
+     */
+    private void drawCanvasFrame(GraphicsContext gc, Session session) {
+        GridConfig config = grid.getConfig();
+        gc.clearRect(0, 0, config.getPixelWidth(), config.getPixelHeight());
+        CanvasLevelRenderer.render(gc, grid, session, null);
+        new Player(session.getPlayerPosition()).render(gc, config);
+    }
+
+    private void runScene() {
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        Session session = new Session(LevelTemplate.from(grid));
+        view.build(grid, session, null);
+        measure("scene", new Pane(view.getRoot()), session, () -> view.update(session, null), Platform::exit);
+    }
+
+    /**
+     * Shows a backend and moves the player through the session it draws, one move per pulse, until enough
+     * frames were measured.
+     */
+    private void measure(String name, Parent root, Session session, Runnable backend, Runnable next) {
+        SplittableRandom random = new SplittableRandom(5);
+        stage.setScene(new Scene(root, grid.getConfig().getPixelWidth(), grid.getConfig().getPixelHeight()));
+        stage.show();
+
+        new AnimationTimer() {
+            private int frame;
+            private long lastPulse;
+            private long renderNanos;
+            private long frameNanos;
+
+            @Override
+            public void handle(long now) {
+                long pulse = System.nanoTime();
+                if (frame > WARM_UP_FRAMES) { // The previous frame is fully painted by now
+                    frameNanos += pulse - lastPulse;
+                }
+                lastPulse = pulse;
+                if (frame == WARM_UP_FRAMES + MEASURED_FRAMES) {
+                    stop();
+                    System.out.printf("%-6s %,9d ns in the backend, %,9d ns per frame (%.0f fps)%n", name,
+                        renderNanos / MEASURED_FRAMES, frameNanos / MEASURED_FRAMES,
+                        MEASURED_FRAMES * 1e9 / frameNanos);
+                    next.run();
+                    return;
+                }
+
+                int[] move = MOVES[random.nextInt(MOVES.length)];
+                session.move(move[0], move[1]);
+                long start = System.nanoTime();
+                backend.run();
+                if (frame >= WARM_UP_FRAMES) {
+                    renderNanos += System.nanoTime() - start;
+                }
+                frame++;
+            }
+        }.start();
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("javafx.animation.fullspeed", "true"); // Read when the toolkit starts
+        launch(args);
+    }
+}
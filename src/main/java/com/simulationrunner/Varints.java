@@ -0,0 +1,86 @@
+package com.simulationrunner;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes unsigned LEB128 variable-length integers.
+ * Small values take a single byte, which keeps cell ids and counts in binary formats compact.
+ */
+public final class Varints {
+    private Varints() {
+        throw new AssertionError("Cannot instantiate Varints class");
+    }
+
+    /**
+     * Writes an int as an unsigned varint (1 to 5 bytes).
+     *
+     * @param buffer the buffer to write to
+     * @param value the value to write, interpreted as unsigned
+     */
+    public static void putInt(ByteBuffer buffer, int value) {
+        putLong(buffer, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a long as an unsigned varint (1 to 10 bytes).
+     *
+     * @param buffer the buffer to write to
+     * @param value the value to write, interpreted as unsigned
+     */
+    public static void putLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint that must fit in 32 bits.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded value
+     * @throws IllegalArgumentException if the varint is malformed or exceeds 32 bits
+     */
+    public static int getInt(ByteBuffer buffer) {
+        long value = getLong(buffer);
+        if ((value >>> 32) != 0) {
+            throw new IllegalArgumentException("varint exceeds 32 bits");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads an unsigned varint of up to 64 bits.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded value
+     * @throws IllegalArgumentException if the varint is malformed
+     */
+    public static long getLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint is longer than 10 bytes");
+    }
+
+    /**
+     * Gets the number of bytes a value occupies when written as an unsigned varint.
+     *
+     * @param value the value, interpreted as unsigned
+     * @return the encoded size in bytes
+     */
+    public static int sizeOf(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,261 @@
+package com.simulationrunner;
+
+import com.simulationrunner.entity.WallSpan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bit-packed wall layer: one bit per cell, row-major ({@code y * width + x}), 64 cells per long.
+ * A 4096x4096 layout takes 2 MiB, so generators can write dense layouts directly and lookups are a
+ * shift and a mask. Cells outside the grid read as open, matching {@link Grid#isWall(int, int)}.
+ *
+ * <p>{@link #asReadOnly()} shares the bits without copying them; its mutators throw
+ * {@link UnsupportedOperationException}.
+ */
+public final class WallGrid {
+    private final int width;
+    private final int height;
+    private final long[] bits;
+    private final boolean readOnly;
+
+    /**
+     * Creates an empty layer.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     * @throws IllegalArgumentException if a dimension is not positive or the grid has more cells than fit in an int
+     */
+    public WallGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Dimensions must be greater than 0");
+        }
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("WallGrid has too many cells");
+        }
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(int) (((long) width * height + 63) >>> 6)];
+        this.readOnly = false;
+    }
+
+    private WallGrid(WallGrid other, long[] bits, boolean readOnly) {
+        this.width = other.width;
+        this.height = other.height;
+        this.bits = bits;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Creates a layer covering the cells of the given spans. Span cells outside the grid are ignored.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     * @param spans the wall spans
+     * @return the layer
+     * @throws NullPointerException if spans is null
+     */
+    public static WallGrid of(int width, int height, List<WallSpan> spans) {
+        Objects.requireNonNull(spans, "Wall spans cannot be null");
+        WallGrid grid = new WallGrid(width, height);
+        for (WallSpan span : spans) {
+            boolean vertical = span.axis() == WallSpan.Axis.VERTICAL;
+            for (int along = span.start(); along <= span.end(); along++) {
+                int x = vertical ? span.fixed() : along;
+                int y = vertical ? along : span.fixed();
+                if (x < width && y < height) {
+                    grid.set(x, y, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Checks whether a cell is a wall.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return true if the cell is inside the grid and blocked
+     */
+    public boolean isWall(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && isWall(y * width + x);
+    }
+
+    /**
+     * Checks whether a cell is a wall, without bounds checks.
+     *
+     * @param cell the row-major cell id
+     * @return true if the cell is blocked
+     */
+    public boolean isWall(int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Sets or clears a wall.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @param wall true to block the cell, false to open it
+     * @throws IndexOutOfBoundsException if the cell is outside the grid
+     * @throws UnsupportedOperationException if this is a read-only view
+     */
+    public void set(int x, int y, boolean wall) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        set(y * width + x, wall);
+    }
+
+    /**
+     * Sets or clears a wall, without bounds checks.
+     *
+     * @param cell the row-major cell id
+     * @param wall true to block the cell, false to open it
+     * @throws UnsupportedOperationException if this is a read-only view
+     */
+    public void set(int cell, boolean wall) {
+        checkWritable();
+        if (wall) {
+            bits[cell >>> 6] |= 1L << cell;
+        } else {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * Blocks or opens every cell.
+     *
+     * @param wall true to block every cell, false to open every cell
+     * @throws UnsupportedOperationException if this is a read-only view
+     */
+    public void fill(boolean wall) {
+        checkWritable();
+        Arrays.fill(bits, wall ? -1L : 0L);
+        int tail = getCellCount() & 63;
+        if (wall && tail != 0) {
+            bits[bits.length - 1] = (1L << tail) - 1; // Keep bits past the last cell clear
+        }
+    }
+
+    /**
+     * Counts the wall cells.
+     *
+     * @return the number of blocked cells
+     */
+    public int count() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the next wall cell at or after a cell id, for iterating over walls without testing every cell.
+     *
+     * @param fromCell the cell id to start from
+     * @return the id of the next wall cell, or -1 if there is none
+     */
+    public int nextWall(int fromCell) {
+        if (fromCell >= getCellCount()) {
+            return -1;
+        }
+        int index = fromCell >>> 6;
+        long word = bits[index] & (-1L << fromCell);
+        while (word == 0) {
+            if (++index == bits.length) {
+                return -1;
+            }
+            word = bits[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Gets a copy of the packed bits, in the same layout as this layer.
+     *
+     * @return the bit words
+     */
+    public long[] toLongArray() {
+        return bits.clone();
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("WallGrid is read-only");
+        }
+    }
+
+    /**
+     * Creates an independent, writable copy of this layer.
+     *
+     * @return the copy
+     */
+    public WallGrid copy() {
+        return new WallGrid(this, bits.clone(), false);
+    }
+
+    /**
+     * Gets a read-only view of this layer. The view shares the bits, so later changes to this layer show
+     * through it.
+     *
+     * @return the view, or this layer if it is already read-only
+     */
+    public WallGrid asReadOnly() {
+        return readOnly ? this : new WallGrid(this, bits, true);
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Converts the layer into spans: one horizontal span per run of walls in a row, with single-cell
+     * runs stacked in the same column merged into one vertical span.
+     *
+     * @return the spans covering exactly the wall cells
+     */
+    public List<WallSpan> toSpans() {
+        List<WallSpan> spans = new ArrayList<>();
+        int[] openColumnSpan = new int[width]; // 1-based index of the vertical span ending in each column, 0 if none
+        int cell = nextWall(0);
+        while (cell >= 0) {
+            int y = cell / width;
+            int startX = cell % width;
+            int endX = startX;
+            while (endX + 1 < width && isWall(cell + 1)) {
+                endX++;
+                cell++;
+            }
+            if (startX != endX) {
+                spans.add(WallSpan.horizontal(y, startX, endX));
+            } else {
+                int index = openColumnSpan[startX] - 1;
+                if (index >= 0 && spans.get(index).end() == y - 1) {
+                    WallSpan column = spans.get(index);
+                    spans.set(index, WallSpan.vertical(startX, column.start(), y));
+                } else {
+                    spans.add(WallSpan.vertical(startX, y, y));
+                    openColumnSpan[startX] = spans.size();
+                }
+            }
+            cell = nextWall(cell + 1);
+        }
+        return spans;
+    }
+}
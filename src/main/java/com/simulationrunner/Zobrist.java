@@ -0,0 +1,106 @@
+package com.simulationrunner;
+
+/**
+ * Zobrist keys for 64-bit fingerprints of levels and play state.
+ * A fingerprint is the XOR of the keys of every feature present, so adding or removing a feature
+ * updates it with a single XOR and equal states always hash equally, regardless of how they were reached.
+ *
+ * <p>Keys are derived on demand by mixing the feature kind and its coordinates with the SplitMix64
+ * finalizer instead of being read from random tables. They are therefore stable across runs and
+ * machines (fingerprints can be persisted or compared between replays) and need no memory
+ * proportional to the grid size.
+ */
+public final class Zobrist {
+    private Zobrist() {
+        throw new AssertionError("Cannot instantiate Zobrist class");
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final int DIMENSIONS = 1;
+    private static final int WALL = 2;
+    private static final int SPAWN = 3;
+    private static final int KEY = 4;
+    private static final int DOOR = 5;
+    private static final int PAD = 6;
+    private static final int PLAYER = 7;
+    private static final int COLLECTED = 8;
+    private static final int WON = 9;
+
+    private static final long WON_KEY = feature(WON, 0);
+
+    /**
+     * Scrambles a value with the SplitMix64 finalizer.
+     *
+     * @param z the value to mix
+     * @return a well-distributed 64-bit value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long feature(int kind, long value) {
+        return mix((((long) kind << 56) ^ value) * GOLDEN_GAMMA + kind);
+    }
+
+    public static long dimensions(int width, int height) {
+        return feature(DIMENSIONS, ((long) width << 32) | (height & 0xFFFFFFFFL));
+    }
+
+    public static long wall(int cell) {
+        return feature(WALL, cell);
+    }
+
+    public static long spawn(int cell) {
+        return feature(SPAWN, cell);
+    }
+
+    /**
+     * Gets the key of a key placement. The index matters because it is the key's bit in the collected mask.
+     *
+     * @param index the key index
+     * @param cell the cell the key lies on
+     * @param colorHash the hash code of the key's color
+     * @return the Zobrist key
+     */
+    public static long key(int index, int cell, int colorHash) {
+        return feature(KEY, ((long) index << 32) | (cell & 0xFFFFFFFFL)) ^ mix(colorHash);
+    }
+
+    public static long door(int cell, int colorHash) {
+        return feature(DOOR, cell) ^ mix(~(long) colorHash);
+    }
+
+    public static long pad(int cell) {
+        return feature(PAD, cell);
+    }
+
+    public static long player(int cell) {
+        return feature(PLAYER, cell);
+    }
+
+    public static long collected(int index) {
+        return feature(COLLECTED, index);
+    }
+
+    /**
+     * Gets the combined key of every key in a collected-key mask.
+     *
+     * @param mask the collected keys
+     * @return the XOR of {@link #collected(int)} over the set bits
+     */
+    public static long collectedMask(long mask) {
+        long hash = 0;
+        while (mask != 0) {
+            hash ^= collected(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+
+    public static long won() {
+        return WON_KEY;
+    }
+}
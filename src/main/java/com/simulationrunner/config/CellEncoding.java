@@ -0,0 +1,29 @@
+package com.simulationrunner.config;
+
+/**
+ * Bits spent per cell by a {@link com.simulationrunner.DenseCellStore}. Two bits hold the four most common
+ * cell types; four bits hold every {@link com.simulationrunner.CellType} at twice the memory.
+ */
+public enum CellEncoding {
+    TWO_BIT(2),
+    FOUR_BIT(4);
+
+    private final int bitsPerCell;
+
+    CellEncoding(int bitsPerCell) {
+        this.bitsPerCell = bitsPerCell;
+    }
+
+    public int getBitsPerCell() {
+        return bitsPerCell;
+    }
+
+    /**
+     * Gets the number of distinct cell codes the encoding can hold.
+     *
+     * @return 4 or 16
+     */
+    public int getCodeCount() {
+        return 1 << bitsPerCell;
+    }
+}
@@ -4,12 +4,29 @@ public class GridConfig {
     private final int gridWidth;
     private final int gridHeight;
     private final int cellSize;
+    private final CellEncoding cellEncoding;
 
     public GridConfig() {
         this(10, 10, 10);
     }
 
     public GridConfig(int gridWidth, int gridHeight, int cellSize) {
+        this(gridWidth, gridHeight, cellSize, null);
+    }
+
+    /**
+     * Creates a configuration whose grids keep their cells off-heap in a
+     * {@link com.simulationrunner.DenseCellStore}, which then answers collision and spawn queries.
+     *
+     * @param gridWidth the number of columns
+     * @param gridHeight the number of rows
+     * @param cellSize the size of a cell in pixels
+     * @param cellEncoding the bits per cell of the store, or null to keep cells on the heap
+     * @throws IllegalArgumentException if a dimension or the cell size is not positive, or the pixel size
+     *         does not fit in an int
+     */
+    public GridConfig(int gridWidth, int gridHeight, int cellSize, CellEncoding cellEncoding) {
+        this.cellEncoding = cellEncoding;
         if (gridWidth <= 0) {
             throw new IllegalArgumentException("Grid width must be greater than 0");
         }
@@ -19,6 +36,10 @@ public class GridConfig {
         if (cellSize <= 0) {
             throw new IllegalArgumentException("Cell size must be greater than 0");
         }
+        // Pixel sizes are ints; larger worlds are streamed in chunks instead of held in one grid
+        if ((long) gridWidth * cellSize > Integer.MAX_VALUE || (long) gridHeight * cellSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid is too large to measure in pixels");
+        }
 
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
@@ -37,6 +58,33 @@ public class GridConfig {
         return cellSize;
     }
 
+    /**
+     * Gets the packing of the off-heap cell store grids keep.
+     *
+     * @return the encoding, or null if grids keep their cells on the heap
+     */
+    public CellEncoding getCellEncoding() {
+        return cellEncoding;
+    }
+
+    /**
+     * Checks whether grids keep their cells in an off-heap {@link com.simulationrunner.DenseCellStore}.
+     *
+     * @return true if a cell encoding was chosen
+     */
+    public boolean usesDenseCells() {
+        return cellEncoding != null;
+    }
+
+    /**
+     * Gets the number of cells, which may exceed the int range.
+     *
+     * @return the cell count
+     */
+    public long getCellCount() {
+        return (long) gridWidth * gridHeight;
+    }
+
     public int getPixelWidth() {
         return gridWidth * cellSize;
     }
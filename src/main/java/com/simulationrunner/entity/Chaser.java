@@ -0,0 +1,69 @@
+package com.simulationrunner.entity;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+
+import java.util.Objects;
+
+/**
+ * An enemy that chases the player. Chasers do not search for paths themselves: every tick they take one
+ * step in the direction a shared flow field points to, so their cost does not grow with the level size.
+ */
+public class Chaser extends Entity {
+    private static final double DIAMOND_SIZE_RATIO = 0.7;
+    private static final Color CHASER_COLOR = Color.CRIMSON;
+
+    /**
+     * Creates a new chaser at the specified grid position.
+     *
+     * @param position the position on the grid
+     * @throws NullPointerException if position is null
+     */
+    public Chaser(GridPosition position) {
+        super(position);
+    }
+
+    /**
+     * Moves the chaser to a new position. Collision checks are left to the caller, which knows the occupancy.
+     *
+     * @param position the new position
+     * @throws NullPointerException if position is null
+     */
+    public void moveTo(GridPosition position) {
+        this.position = Objects.requireNonNull(position, "Position cannot be null");
+    }
+
+    @Override
+    public void render(GraphicsContext gc, GridConfig config) {
+        Objects.requireNonNull(gc, "GraphicsContext cannot be null");
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+
+        int cellSize = config.getCellSize();
+
+        // Calculate pixel position of cell center
+        double centerX = (position.x() * cellSize) + (cellSize / 2.0);
+        double centerY = (position.y() * cellSize) + (cellSize / 2.0);
+        double half = cellSize * DIAMOND_SIZE_RATIO / 2.0;
+
+        // Draw filled diamond centered in the cell
+        gc.setFill(CHASER_COLOR);
+        gc.fillPolygon(
+            new double[] {centerX, centerX + half, centerX, centerX - half},
+            new double[] {centerY - half, centerY, centerY + half, centerY},
+            4);
+    }
+
+    @Override
+    protected Node createShape(int cellSize) {
+        double center = cellSize / 2.0;
+        double half = cellSize * DIAMOND_SIZE_RATIO / 2.0;
+        Polygon diamond = new Polygon(center, center - half, center + half, center, center, center + half,
+                                      center - half, center);
+        diamond.setFill(CHASER_COLOR);
+        return diamond;
+    }
+}
@@ -2,8 +2,10 @@ package com.simulationrunner.entity;
 
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 
 import java.util.Objects;
 import java.util.random.RandomGenerator;
@@ -44,9 +46,25 @@ public class Door extends Entity {
      * @throws NullPointerException if config, player, or color is null
      */
     public static Door createRandom(GridConfig config, Player player, Color color) {
+        return createRandom(config, player, color, RANDOM);
+    }
+
+    /**
+     * Creates a door at a random position on the grid using the given random source.
+     * Placement rules are the same as {@link #createRandom(GridConfig, Player, Color)}.
+     *
+     * @param config the grid configuration
+     * @param player the player entity to maintain distance from
+     * @param color the color of the door
+     * @param random the random source to draw positions from
+     * @return a randomly positioned door
+     * @throws NullPointerException if config, player, color, or random is null
+     */
+    public static Door createRandom(GridConfig config, Player player, Color color, RandomGenerator random) {
         Objects.requireNonNull(config, "GridConfig cannot be null");
         Objects.requireNonNull(player, "Player cannot be null");
         Objects.requireNonNull(color, "Color cannot be null");
+        Objects.requireNonNull(random, "RandomGenerator cannot be null");
 
         int MIN_SPAWN_DISTANCE = 5;
         int MAX_SPAWN_ATTEMPTS = 1000;
@@ -58,8 +76,8 @@ public class Door extends Entity {
         // Try to find a position at least MIN_SPAWN_DISTANCE away from player
         // and with at least 1 cell room on each side
         for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS; attempt++) {
-            int x = minX + RANDOM.nextInt(maxX - minX + 1);
-            int y = RANDOM.nextInt(config.getGridHeight());
+            int x = minX + random.nextInt(maxX - minX + 1);
+            int y = random.nextInt(config.getGridHeight());
             GridPosition candidatePosition = new GridPosition(x, y);
 
             int distance = candidatePosition.manhattanDistance(player.getPosition());
@@ -148,6 +166,17 @@ public class Door extends Entity {
         gc.strokeRect(centerX - doorWidth / 2, centerY - doorHeight / 2, doorWidth, doorHeight);
     }
 
+    @Override
+    protected Node createShape(int cellSize) {
+        double doorWidth = cellSize * DOOR_WIDTH_RATIO;
+        double doorHeight = cellSize * DOOR_HEIGHT_RATIO;
+        Rectangle rectangle = new Rectangle((cellSize - doorWidth) / 2, (cellSize - doorHeight) / 2, doorWidth, doorHeight);
+        rectangle.setFill(color);
+        rectangle.setStroke(color.darker());
+        rectangle.setStrokeWidth(2);
+        return rectangle;
+    }
+
     @Override
     public String toString() {
         return "Door[position=" + position + ", color=" + color + "]";
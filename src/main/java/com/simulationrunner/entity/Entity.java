@@ -2,13 +2,15 @@ package com.simulationrunner.entity;
 
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 
 import java.util.Objects;
 
 /**
  * Abstract base class for all entities in the game.
- * Entities have a position on the grid and can be rendered.
+ * Entities have a position on the grid and can be rendered, either drawn immediately on a canvas or as a
+ * retained scene-graph node.
  */
 public abstract class Entity {
     protected GridPosition position;
@@ -58,6 +60,42 @@ public abstract class Entity {
      */
     public abstract void render(GraphicsContext gc, GridConfig config);
 
+    /**
+     * Creates a scene-graph node that looks like what {@link #render(GraphicsContext, GridConfig)} draws.
+     * The shape is laid out within the top-left cell and moved to the entity's cell by its translation,
+     * so following the entity later only takes {@link #place(Node, GridPosition, GridConfig)}.
+     *
+     * @param config the grid configuration for pixel calculations
+     * @return the node
+     * @throws NullPointerException if config is null
+     */
+    public Node createNode(GridConfig config) {
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+        Node node = createShape(config.getCellSize());
+        place(node, position, config);
+        return node;
+    }
+
+    /**
+     * Creates the shape of this entity within a cell at the origin.
+     *
+     * @param cellSize the cell size in pixels
+     * @return the shape
+     */
+    protected abstract Node createShape(int cellSize);
+
+    /**
+     * Moves a node created by {@link #createNode(GridConfig)} to a cell.
+     *
+     * @param node the node
+     * @param position the cell to show it in
+     * @param config the grid configuration for pixel calculations
+     */
+    public static void place(Node node, GridPosition position, GridConfig config) {
+        node.setTranslateX(position.x() * (double) config.getCellSize());
+        node.setTranslateY(position.y() * (double) config.getCellSize());
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -3,8 +3,10 @@ package com.simulationrunner.entity;
 import com.simulationrunner.ColorPalette;
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -69,8 +71,28 @@ public class Key extends Entity {
      * @throws IllegalArgumentException if count is negative or minX/maxX are invalid
      */
     public static List<Key> createRandomKeys(GridConfig config, Player player, int count, int minX, int maxX) {
+        return createRandomKeys(config, player, count, minX, maxX, RANDOM);
+    }
+
+    /**
+     * Creates a list of keys at random positions on the grid using the given random source.
+     * Placement rules are the same as {@link #createRandomKeys(GridConfig, Player, int, int, int)}.
+     *
+     * @param config the grid configuration
+     * @param player the player entity to maintain distance from
+     * @param count the number of keys to create
+     * @param minX the minimum x-coordinate for key spawning (inclusive)
+     * @param maxX the maximum x-coordinate for key spawning (inclusive)
+     * @param random the random source to draw positions from
+     * @return a list of randomly positioned keys with unique colors
+     * @throws NullPointerException if config, player, or random is null
+     * @throws IllegalArgumentException if count is negative or minX/maxX are invalid
+     */
+    public static List<Key> createRandomKeys(GridConfig config, Player player, int count, int minX, int maxX,
+                                             RandomGenerator random) {
         Objects.requireNonNull(config, "GridConfig cannot be null");
         Objects.requireNonNull(player, "Player cannot be null");
+        Objects.requireNonNull(random, "RandomGenerator cannot be null");
         if (count < 0) {
             throw new IllegalArgumentException("count must be non-negative");
         }
@@ -82,7 +104,7 @@ public class Key extends Entity {
 
         for (int i = 0; i < count; i++) {
             Color keyColor = ColorPalette.getKeyColor(i);
-            Key key = createSingleKey(config, player, keyColor, minX, maxX);
+            Key key = createSingleKey(config, player, keyColor, minX, maxX, random);
             keys.add(key);
         }
 
@@ -92,12 +114,13 @@ public class Key extends Entity {
     /**
      * Creates a single key at a random position, maintaining minimum distance from player.
      */
-    private static Key createSingleKey(GridConfig config, Player player, Color color, int minX, int maxX) {
+    private static Key createSingleKey(GridConfig config, Player player, Color color, int minX, int maxX,
+                                       RandomGenerator random) {
         // Try to find a position at least MIN_SPAWN_DISTANCE away from player
         // within the specified x-coordinate range
         for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS; attempt++) {
-            int x = minX + RANDOM.nextInt(maxX - minX + 1);
-            int y = RANDOM.nextInt(config.getGridHeight());
+            int x = minX + random.nextInt(maxX - minX + 1);
+            int y = random.nextInt(config.getGridHeight());
             GridPosition candidatePosition = new GridPosition(x, y);
 
             int distance = candidatePosition.manhattanDistance(player.getPosition());
@@ -182,6 +205,14 @@ public class Key extends Entity {
         gc.fillRect(centerX - rectSize / 2, centerY - rectSize / 2, rectSize, rectSize);
     }
 
+    @Override
+    protected Node createShape(int cellSize) {
+        double rectSize = cellSize * RECTANGLE_SIZE_RATIO;
+        Rectangle rectangle = new Rectangle((cellSize - rectSize) / 2, (cellSize - rectSize) / 2, rectSize, rectSize);
+        rectangle.setFill(color);
+        return rectangle;
+    }
+
     @Override
     public String toString() {
         return "Key[position=" + position +
@@ -2,8 +2,10 @@ package com.simulationrunner.entity;
 
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 
 import java.util.Objects;
 
@@ -83,4 +85,14 @@ public class Pad extends Entity {
         gc.setLineWidth(2);
         gc.strokeRect(centerX - padSize / 2, centerY - padSize / 2, padSize, padSize);
     }
+
+    @Override
+    protected Node createShape(int cellSize) {
+        double padSize = cellSize * PAD_SIZE_RATIO;
+        Rectangle rectangle = new Rectangle((cellSize - padSize) / 2, (cellSize - padSize) / 2, padSize, padSize);
+        rectangle.setFill(PAD_COLOR);
+        rectangle.setStroke(PAD_COLOR.darker());
+        rectangle.setStrokeWidth(2);
+        return rectangle;
+    }
 }
@@ -1,9 +1,12 @@
 package com.simulationrunner.entity;
 
+import com.simulationrunner.Grid;
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -41,10 +44,23 @@ public class Player extends Entity {
      * @throws NullPointerException if config is null
      */
     public static Player createRandom(GridConfig config) {
+        return createRandom(config, RANDOM);
+    }
+
+    /**
+     * Creates a new player at a random position on the grid using the given random source.
+     *
+     * @param config the grid configuration
+     * @param random the random source to draw the position from
+     * @return a new Player instance at a random position
+     * @throws NullPointerException if config or random is null
+     */
+    public static Player createRandom(GridConfig config, RandomGenerator random) {
         Objects.requireNonNull(config, "GridConfig cannot be null");
+        Objects.requireNonNull(random, "RandomGenerator cannot be null");
 
-        int x = RANDOM.nextInt(config.getGridWidth());
-        int y = RANDOM.nextInt(config.getGridHeight());
+        int x = random.nextInt(config.getGridWidth());
+        int y = random.nextInt(config.getGridHeight());
         return new Player(new GridPosition(x, y));
     }
 
@@ -119,6 +135,35 @@ public class Player extends Entity {
         }
     }
 
+    /**
+     * Moves the player within the given grid, blocked by its bounds, walls, and doors.
+     * Walls and doors are looked up per cell, so neither their number nor per-cell objects affect a step.
+     *
+     * @param deltaX the change in X coordinate
+     * @param deltaY the change in Y coordinate
+     * @param grid the grid the player moves in
+     * @throws NullPointerException if grid is null
+     */
+    public void moveWithin(int deltaX, int deltaY, Grid grid) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+
+        int newX = position.x() + deltaX;
+        int newY = position.y() + deltaY;
+        GridConfig config = grid.getConfig();
+        if (newX < 0 || newX >= config.getGridWidth() || newY < 0 || newY >= config.getGridHeight()) {
+            return; // Out of bounds, don't move
+        }
+        if (grid.isWall(newX, newY)) {
+            return; // Wall blocks movement, don't move
+        }
+
+        Door door = grid.getDoorAt(newX, newY);
+        if (door != null && !door.canPass(this)) {
+            return; // Can't pass through door, don't move
+        }
+        this.position = new GridPosition(newX, newY);
+    }
+
     /**
      * Adds a key color to the player's inventory.
      *
@@ -171,4 +216,9 @@ public class Player extends Entity {
         gc.fillOval(centerX - radius, centerY - radius, diameter, diameter);
     }
 
+    @Override
+    protected Node createShape(int cellSize) {
+        return new Circle(cellSize / 2.0, cellSize / 2.0, cellSize * CIRCLE_SIZE_RATIO / 2.0, Color.BLUE);
+    }
+
 }
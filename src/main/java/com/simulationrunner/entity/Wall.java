@@ -2,8 +2,10 @@ package com.simulationrunner.entity;
 
 import com.simulationrunner.GridPosition;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +14,7 @@ import java.util.Objects;
 /**
  * Represents a wall segment on the grid.
  * Walls are impassable barriers that block player movement.
+ * Levels store walls as {@link WallSpan}s; per-cell Wall objects are views created on demand.
  */
 public class Wall extends Entity {
     private static final Color WALL_COLOR = Color.DARKGRAY;
@@ -43,11 +46,7 @@ public class Wall extends Entity {
             throw new IllegalArgumentException("x must be within grid bounds");
         }
 
-        List<Wall> walls = new ArrayList<>();
-        for (int y = 0; y < config.getGridHeight(); y++) {
-            walls.add(new Wall(new GridPosition(x, y)));
-        }
-        return walls;
+        return WallSpan.vertical(x, 0, config.getGridHeight() - 1).toWalls();
     }
 
     /**
@@ -68,13 +67,9 @@ public class Wall extends Entity {
             throw new IllegalArgumentException("x must be within grid bounds");
         }
 
-        List<Wall> walls = new ArrayList<>();
-        for (int y = 0; y < config.getGridHeight(); y++) {
-            GridPosition wallPosition = new GridPosition(x, y);
-            // Skip the gap position (where the door is)
-            if (!wallPosition.isSameAs(gapPosition)) {
-                walls.add(new Wall(wallPosition));
-            }
+        List<Wall> walls = new ArrayList<>(config.getGridHeight());
+        for (WallSpan span : WallSpan.verticalWithGap(config, x, gapPosition)) {
+            walls.addAll(span.toWalls());
         }
         return walls;
     }
@@ -100,6 +95,14 @@ public class Wall extends Entity {
         gc.strokeRect(x, y, cellSize * WALL_SIZE_RATIO, cellSize * WALL_SIZE_RATIO);
     }
 
+    @Override
+    protected Node createShape(int cellSize) {
+        Rectangle rectangle = new Rectangle(cellSize * WALL_SIZE_RATIO, cellSize * WALL_SIZE_RATIO, WALL_COLOR);
+        rectangle.setStroke(Color.GRAY);
+        rectangle.setStrokeWidth(1);
+        return rectangle;
+    }
+
     @Override
     public String toString() {
         return "Wall[position=" + position + "]";
@@ -0,0 +1,192 @@
+package com.simulationrunner.entity;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import javafx.scene.Node;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A straight run of wall cells along one axis, stored as its end points instead of one object per cell.
+ * A vertical span covers cells (fixed, start) through (fixed, end); a horizontal span covers
+ * (start, fixed) through (end, fixed). Gaps in a wall line are represented by splitting it into
+ * several spans. Per-cell {@link Wall} views can be materialized with {@link #toWalls()}.
+ *
+ * @param axis the direction the span extends in
+ * @param fixed the coordinate shared by every cell (x for vertical spans, y for horizontal spans)
+ * @param start the first covered coordinate along the axis (inclusive)
+ * @param end the last covered coordinate along the axis (inclusive)
+ */
+public record WallSpan(Axis axis, int fixed, int start, int end) {
+    private static final Color WALL_COLOR = Color.DARKGRAY;
+
+    /**
+     * Direction a wall span extends in.
+     */
+    public enum Axis {
+        HORIZONTAL,
+        VERTICAL
+    }
+
+    /**
+     * Creates a wall span.
+     *
+     * @throws NullPointerException if axis is null
+     * @throws IllegalArgumentException if a coordinate is negative or start is after end
+     */
+    public WallSpan {
+        Objects.requireNonNull(axis, "Axis cannot be null");
+        if (fixed < 0 || start < 0) {
+            throw new IllegalArgumentException("coordinates must be non-negative");
+        }
+        if (start > end) {
+            throw new IllegalArgumentException("start must not be after end");
+        }
+    }
+
+    /**
+     * Creates a vertical span at column x covering rows startY through endY.
+     *
+     * @param x the column
+     * @param startY the first row (inclusive)
+     * @param endY the last row (inclusive)
+     * @return the span
+     */
+    public static WallSpan vertical(int x, int startY, int endY) {
+        return new WallSpan(Axis.VERTICAL, x, startY, endY);
+    }
+
+    /**
+     * Creates a horizontal span at row y covering columns startX through endX.
+     *
+     * @param y the row
+     * @param startX the first column (inclusive)
+     * @param endX the last column (inclusive)
+     * @return the span
+     */
+    public static WallSpan horizontal(int y, int startX, int endX) {
+        return new WallSpan(Axis.HORIZONTAL, y, startX, endX);
+    }
+
+    /**
+     * Creates the spans of a full-height vertical wall at column x, leaving out a single gap cell.
+     *
+     * @param config the grid configuration
+     * @param x the column of the wall
+     * @param gapPosition the cell to leave open (ignored if it is not in column x)
+     * @return one or two spans forming the wall
+     * @throws NullPointerException if config or gapPosition is null
+     * @throws IllegalArgumentException if x is out of bounds
+     */
+    public static List<WallSpan> verticalWithGap(GridConfig config, int x, GridPosition gapPosition) {
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+        Objects.requireNonNull(gapPosition, "Gap position cannot be null");
+        if (x < 0 || x >= config.getGridWidth()) {
+            throw new IllegalArgumentException("x must be within grid bounds");
+        }
+
+        int lastY = config.getGridHeight() - 1;
+        if (gapPosition.x() != x || gapPosition.y() > lastY) {
+            return List.of(vertical(x, 0, lastY));
+        }
+
+        List<WallSpan> spans = new ArrayList<>(2);
+        if (gapPosition.y() > 0) {
+            spans.add(vertical(x, 0, gapPosition.y() - 1));
+        }
+        if (gapPosition.y() < lastY) {
+            spans.add(vertical(x, gapPosition.y() + 1, lastY));
+        }
+        return spans;
+    }
+
+    /**
+     * Gets the number of cells covered by this span.
+     *
+     * @return the span length in cells
+     */
+    public int length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Checks whether this span covers the given cell.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return true if the cell is part of this span
+     */
+    public boolean contains(int x, int y) {
+        if (axis == Axis.VERTICAL) {
+            return x == fixed && y >= start && y <= end;
+        }
+        return y == fixed && x >= start && x <= end;
+    }
+
+    /**
+     * Materializes one {@link Wall} per covered cell, ordered from start to end.
+     *
+     * @return the per-cell wall views
+     */
+    public List<Wall> toWalls() {
+        List<Wall> walls = new ArrayList<>(length());
+        for (int i = start; i <= end; i++) {
+            walls.add(new Wall(axis == Axis.VERTICAL ? new GridPosition(fixed, i) : new GridPosition(i, fixed)));
+        }
+        return walls;
+    }
+
+    /**
+     * Renders the whole span as a single filled rectangle.
+     *
+     * @param gc the graphics context to draw on
+     * @param config the grid configuration for pixel calculations
+     * @throws NullPointerException if gc or config is null
+     */
+    public void render(GraphicsContext gc, GridConfig config) {
+        Objects.requireNonNull(gc, "GraphicsContext cannot be null");
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+
+        int cellSize = config.getCellSize();
+        double x = (axis == Axis.VERTICAL ? fixed : start) * (double) cellSize;
+        double y = (axis == Axis.VERTICAL ? start : fixed) * (double) cellSize;
+        double width = (axis == Axis.VERTICAL ? 1 : length()) * (double) cellSize;
+        double height = (axis == Axis.VERTICAL ? length() : 1) * (double) cellSize;
+
+        gc.setFill(WALL_COLOR);
+        gc.fillRect(x, y, width, height);
+
+        // Draw a lighter border for depth effect
+        gc.setStroke(Color.GRAY);
+        gc.setLineWidth(1);
+        gc.strokeRect(x, y, width, height);
+    }
+
+    /**
+     * Creates a scene-graph node that looks like what {@link #render(GraphicsContext, GridConfig)} draws,
+     * for retained rendering.
+     *
+     * @param config the grid configuration for pixel calculations
+     * @return the node, positioned over the span
+     * @throws NullPointerException if config is null
+     */
+    public Node createNode(GridConfig config) {
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+
+        int cellSize = config.getCellSize();
+        Rectangle rectangle = new Rectangle(
+            (axis == Axis.VERTICAL ? fixed : start) * (double) cellSize,
+            (axis == Axis.VERTICAL ? start : fixed) * (double) cellSize,
+            (axis == Axis.VERTICAL ? 1 : length()) * (double) cellSize,
+            (axis == Axis.VERTICAL ? length() : 1) * (double) cellSize);
+        rectangle.setFill(WALL_COLOR);
+        rectangle.setStroke(Color.GRAY);
+        rectangle.setStrokeWidth(1);
+        return rectangle;
+    }
+}
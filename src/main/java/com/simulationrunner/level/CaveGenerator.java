@@ -0,0 +1,407 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.Zobrist;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates organic cave layouts with a cellular automaton.
+ *
+ * <p>Each row is seeded from its own seed, then smoothing iterations turn a cell into wall when at
+ * least five of its eight neighbours are walls and open it when at most three are, with cells outside
+ * the grid counting as walls. Both steps work on double-buffered byte arrays in independent chunks of
+ * rows on the common fork-join pool, so generation scales with the number of cores and the result only
+ * depends on the seed. Connected-component labeling then fills every pocket that is not part of the
+ * largest open region.
+ *
+ * <p>The player, keys, door and pad are placed on that region: the pad as far from the player as
+ * possible, and the door on a cell every path to the pad must cross. When the cave has no natural
+ * chokepoint, one is made by walling off the band of cells at the door's distance from the player,
+ * leaving the door as the only way through.
+ */
+public final class CaveGenerator {
+    private CaveGenerator() {
+        throw new AssertionError("Cannot instantiate CaveGenerator class");
+    }
+
+    private static final int FILL_PERCENT = 45;
+    private static final int ITERATIONS = 5;
+    private static final int ROWS_PER_CHUNK = 64;
+    private static final int CHOKEPOINT_CANDIDATES = 16;
+    private static final byte WALL = 1;
+    private static final byte OPEN = 0;
+
+    /**
+     * Generates a cave level whose layout is fully determined by the seed.
+     *
+     * @param config the grid configuration
+     * @param keyCount the number of keys to place
+     * @param seed the seed driving the cave and placements
+     * @return the level
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if keyCount is negative or the cave is too small for the entities
+     */
+    public static Grid generate(GridConfig config, int keyCount, long seed) {
+        LevelDraft draft = new LevelDraft(config, keyCount, seed);
+        layout(draft);
+        spawn(draft);
+        return draft.toGrid();
+    }
+
+    /**
+     * Layout stage: grows the cave into the draft's wall layer.
+     */
+    static void layout(LevelDraft draft) {
+        carve(draft.getWalls(), draft.getSeed());
+    }
+
+    /**
+     * Spawn stage: places the player, pad, door and keys on the cave, walling off a band around the door
+     * when the cave has no natural chokepoint.
+     */
+    static void spawn(LevelDraft draft) {
+        int keyCount = draft.getKeyCount();
+        int width = draft.getConfig().getGridWidth();
+        WallGrid walls = draft.getWalls();
+
+        SplittableRandom random = new SplittableRandom(Zobrist.mix(draft.getSeed()));
+        int player = randomOpenCell(walls, random);
+        if (player < 0) {
+            throw new IllegalArgumentException("Grid is too small for a cave");
+        }
+        int[] distances = distancesFrom(walls, player, -1);
+        int pad = farthest(distances);
+        int padDistance = distances[pad];
+        if (padDistance < (keyCount > 0 ? keyCount + 2 : 1)) {
+            throw new IllegalArgumentException("Grid is too small for a cave with " + keyCount + " keys");
+        }
+
+        if (keyCount > 0) {
+            int[] path = pathTo(walls, distances, pad);
+            int doorCell = findChokepoint(walls, path, pad);
+            if (doorCell < 0) {
+                doorCell = path[padDistance * 2 / 3];
+                wallOffBand(walls, distances, distances[doorCell], doorCell);
+                keepRegion(walls, player); // The band may cut off pockets beyond it
+            }
+            draft.addDoor(new Door(positionOf(doorCell, width), ColorPalette.getKeyColor(0)));
+
+            // Keys go on the player's side of the door, i.e. cells reachable without crossing it
+            int[] reachable = distancesFrom(walls, player, doorCell);
+            int[] candidates = IntStream.range(0, reachable.length)
+                .filter(cell -> reachable[cell] > 0)
+                .toArray();
+            if (candidates.length < keyCount) {
+                throw new IllegalArgumentException("Grid is too small for a cave with " + keyCount + " keys");
+            }
+            for (int i = 0; i < keyCount; i++) {
+                int pick = i + random.nextInt(candidates.length - i); // Partial Fisher-Yates shuffle
+                int cell = candidates[pick];
+                candidates[pick] = candidates[i];
+                candidates[i] = cell;
+                draft.addKey(new Key(positionOf(cell, width), ColorPalette.getKeyColor(i)));
+            }
+        }
+        draft.setPlayer(new Player(positionOf(player, width)));
+        draft.setPad(new Pad(positionOf(pad, width)));
+    }
+
+    /**
+     * Grows a cave into a wall layer, overwriting its contents, and fills every open pocket outside
+     * the largest connected region.
+     *
+     * @param walls the layer to write
+     * @param seed the seed driving the initial noise
+     * @return the number of open cells left
+     * @throws NullPointerException if walls is null
+     */
+    public static int carve(WallGrid walls, long seed) {
+        Objects.requireNonNull(walls, "WallGrid cannot be null");
+        int width = walls.getWidth();
+        int height = walls.getHeight();
+        byte[] noise = new byte[width * height];
+        byte[] next = new byte[width * height];
+        int chunks = (height + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK;
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for (int y = chunk * ROWS_PER_CHUNK; y < Math.min(height, (chunk + 1) * ROWS_PER_CHUNK); y++) {
+                SplittableRandom random = new SplittableRandom(Zobrist.mix(seed ^ Zobrist.mix(y)));
+                for (int x = 0; x < width; x++) {
+                    noise[y * width + x] = random.nextInt(100) < FILL_PERCENT ? WALL : OPEN;
+                }
+            }
+        });
+
+        byte[] current = noise;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            byte[] source = current;
+            byte[] target = next;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                for (int y = chunk * ROWS_PER_CHUNK; y < Math.min(height, (chunk + 1) * ROWS_PER_CHUNK); y++) {
+                    smoothRow(source, target, width, height, y);
+                }
+            });
+            next = current;
+            current = target;
+        }
+
+        walls.fill(false);
+        for (int cell = 0; cell < current.length; cell++) {
+            if (current[cell] == WALL) {
+                walls.set(cell, true);
+            }
+        }
+        return keepLargestRegion(walls);
+    }
+
+    private static void smoothRow(byte[] source, byte[] target, int width, int height, int y) {
+        int row = y * width;
+        int above = row - width;
+        int below = row + width;
+        boolean hasAbove = y > 0;
+        boolean hasBelow = y < height - 1;
+        // Sliding window over vertical sums of three cells; cells outside the grid count as walls
+        int left = 3;
+        int middle = columnSum(source, above, row, below, hasAbove, hasBelow, 0);
+        for (int x = 0; x < width; x++) {
+            int right = x + 1 < width ? columnSum(source, above, row, below, hasAbove, hasBelow, x + 1) : 3;
+            int walls = left + middle + right - source[row + x];
+            target[row + x] = walls >= 5 ? WALL : walls <= 3 ? OPEN : source[row + x];
+            left = middle;
+            middle = right;
+        }
+    }
+
+    private static int columnSum(byte[] source, int above, int row, int below, boolean hasAbove, boolean hasBelow,
+                                 int x) {
+        return (hasAbove ? source[above + x] : 1) + source[row + x] + (hasBelow ? source[below + x] : 1);
+    }
+
+    /**
+     * Labels open regions by flood fill and walls in all but the largest.
+     */
+    private static int keepLargestRegion(WallGrid walls) {
+        int cells = walls.getCellCount();
+        int[] labels = new int[cells]; // 0 = unlabeled or wall
+        int[] queue = new int[cells];
+        int label = 0;
+        int largestLabel = 0;
+        int largestSize = 0;
+        for (int start = 0; start < cells; start++) {
+            if (labels[start] != 0 || walls.isWall(start)) {
+                continue;
+            }
+            label++;
+            int size = flood(walls, labels, queue, start, label, -1);
+            if (size > largestSize) {
+                largestSize = size;
+                largestLabel = label;
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (labels[cell] != largestLabel && !walls.isWall(cell)) {
+                walls.set(cell, true);
+            }
+        }
+        return largestSize;
+    }
+
+    private static int flood(WallGrid walls, int[] labels, int[] queue, int start, int label, int blocked) {
+        int width = walls.getWidth();
+        int height = walls.getHeight();
+        int head = 0;
+        int tail = 0;
+        labels[start] = label;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int y = cell / width;
+            if (y > 0) {
+                tail = label(walls, labels, queue, tail, cell - width, label, blocked);
+            }
+            if (x < width - 1) {
+                tail = label(walls, labels, queue, tail, cell + 1, label, blocked);
+            }
+            if (y < height - 1) {
+                tail = label(walls, labels, queue, tail, cell + width, label, blocked);
+            }
+            if (x > 0) {
+                tail = label(walls, labels, queue, tail, cell - 1, label, blocked);
+            }
+        }
+        return tail;
+    }
+
+    private static int label(WallGrid walls, int[] labels, int[] queue, int tail, int cell, int label, int blocked) {
+        if (labels[cell] == 0 && cell != blocked && !walls.isWall(cell)) {
+            labels[cell] = label;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    /**
+     * Walls in every open cell that is not connected to the start cell.
+     */
+    private static void keepRegion(WallGrid walls, int start) {
+        int[] labels = new int[walls.getCellCount()];
+        flood(walls, labels, new int[walls.getCellCount()], start, 1, -1);
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] == 0) {
+                walls.set(cell, true);
+            }
+        }
+    }
+
+    /**
+     * Computes 4-connected step distances from a cell.
+     *
+     * @return distance + 1 per cell (so 0 marks unreachable cells), treating blocked as a wall
+     */
+    private static int[] distancesFrom(WallGrid walls, int start, int blocked) {
+        int width = walls.getWidth();
+        int height = walls.getHeight();
+        int[] distances = new int[walls.getCellCount()];
+        int[] queue = new int[walls.getCellCount()];
+        int head = 0;
+        int tail = 0;
+        distances[start] = 1;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int y = cell / width;
+            int next = distances[cell] + 1;
+            if (y > 0) {
+                tail = visit(walls, distances, queue, tail, cell - width, next, blocked);
+            }
+            if (x < width - 1) {
+                tail = visit(walls, distances, queue, tail, cell + 1, next, blocked);
+            }
+            if (y < height - 1) {
+                tail = visit(walls, distances, queue, tail, cell + width, next, blocked);
+            }
+            if (x > 0) {
+                tail = visit(walls, distances, queue, tail, cell - 1, next, blocked);
+            }
+        }
+        // Shift so that the start cell has distance 0 and unreachable cells are -1
+        for (int cell = 0; cell < distances.length; cell++) {
+            distances[cell]--;
+        }
+        return distances;
+    }
+
+    private static int visit(WallGrid walls, int[] distances, int[] queue, int tail, int cell, int distance,
+                             int blocked) {
+        if (distances[cell] == 0 && cell != blocked && !walls.isWall(cell)) {
+            distances[cell] = distance;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+
+    private static int farthest(int[] distances) {
+        int best = 0;
+        for (int cell = 1; cell < distances.length; cell++) {
+            if (distances[cell] > distances[best]) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Walks down the distance gradient from the target to the start.
+     *
+     * @return the cells of a shortest path, indexed by their distance from the start
+     */
+    private static int[] pathTo(WallGrid walls, int[] distances, int target) {
+        int width = walls.getWidth();
+        int[] path = new int[distances[target] + 1];
+        int cell = target;
+        for (int distance = distances[target]; distance >= 0; distance--) {
+            path[distance] = cell;
+            if (distance == 0) {
+                break;
+            }
+            int x = cell % width;
+            if (cell >= width && distances[cell - width] == distance - 1) {
+                cell -= width;
+            } else if (x < width - 1 && distances[cell + 1] == distance - 1) {
+                cell += 1;
+            } else if (cell + width < distances.length && distances[cell + width] == distance - 1) {
+                cell += width;
+            } else {
+                cell -= 1;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Looks for a natural chokepoint among path cells around two thirds of the way, testing whether
+     * blocking the cell cuts the pad off.
+     *
+     * @return the chokepoint cell, or -1 if none of the tested cells is one
+     */
+    private static int findChokepoint(WallGrid walls, int[] path, int pad) {
+        int last = path.length - 1;
+        int[] labels = new int[walls.getCellCount()];
+        int[] queue = new int[walls.getCellCount()];
+        int center = last * 2 / 3;
+        for (int offset = 0; offset < CHOKEPOINT_CANDIDATES; offset++) {
+            int index = center + (offset % 2 == 0 ? offset / 2 : -(offset / 2 + 1));
+            if (index <= 1 || index >= last) {
+                continue; // Leave room for a key between the player and the door
+            }
+            Arrays.fill(labels, 0);
+            flood(walls, labels, queue, path[0], 1, path[index]);
+            if (labels[pad] == 0) {
+                return path[index];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Walls every cell at the given distance except the door, so the door is the only way past that distance.
+     */
+    private static void wallOffBand(WallGrid walls, int[] distances, int distance, int door) {
+        for (int cell = 0; cell < distances.length; cell++) {
+            if (distances[cell] == distance && cell != door) {
+                walls.set(cell, true);
+            }
+        }
+    }
+
+    private static int randomOpenCell(WallGrid walls, SplittableRandom random) {
+        int open = walls.getCellCount() - walls.count();
+        if (open == 0) {
+            return -1;
+        }
+        int skip = random.nextInt(open);
+        for (int cell = 0; ; cell++) {
+            if (!walls.isWall(cell) && skip-- == 0) {
+                return cell;
+            }
+        }
+    }
+
+    private static GridPosition positionOf(int cell, int width) {
+        return new GridPosition(cell % width, cell / width);
+    }
+}
@@ -0,0 +1,23 @@
+package com.simulationrunner.level;
+
+/**
+ * A cellular-automaton cave with the door on a chokepoint, see {@link CaveGenerator}.
+ */
+public class CaveLevelGenerator implements LevelGenerator {
+    public static final String NAME = "cave";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void layout(LevelDraft draft) {
+        CaveGenerator.layout(draft);
+    }
+
+    @Override
+    public void spawn(LevelDraft draft) {
+        CaveGenerator.spawn(draft);
+    }
+}
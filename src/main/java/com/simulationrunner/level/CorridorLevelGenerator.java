@@ -0,0 +1,69 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The original layout: a single wall column with one door, keys on the player's side and the pad
+ * on the far side. Levels are identical to {@link Grid#Grid(GridConfig, int, long)} for the same seed.
+ */
+public class CorridorLevelGenerator implements LevelGenerator {
+    public static final String NAME = "corridor";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Places the player, then the door at least five cells away and the wall column through it,
+     * since the column is chosen relative to the player.
+     */
+    @Override
+    public void layout(LevelDraft draft) {
+        GridConfig config = draft.getConfig();
+        RandomGenerator random = draft.getRandom();
+        Player player = Player.createRandom(config, random);
+        draft.setPlayer(player);
+        if (draft.getKeyCount() > 0) {
+            Door door = Door.createRandom(config, player, ColorPalette.getKeyColor(0), random);
+            draft.addDoor(door);
+            for (WallSpan span : WallSpan.verticalWithGap(config, door.getGridX(), door.getPosition())) {
+                for (int y = span.start(); y <= span.end(); y++) {
+                    draft.getWalls().set(span.fixed(), y, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places the keys on the player's side of the door and the pad on the opposite side.
+     */
+    @Override
+    public void spawn(LevelDraft draft) {
+        if (draft.getKeyCount() == 0) {
+            return;
+        }
+        GridConfig config = draft.getConfig();
+        Player player = draft.getPlayer();
+        Door door = draft.getDoors().get(0);
+        int playerX = player.getGridX();
+        int doorX = door.getGridX();
+
+        // Keys go on the player's side; a player in the door column defaults to the left
+        int minX = playerX > doorX ? doorX + 1 : 0;
+        int maxX = playerX > doorX ? config.getGridWidth() - 1 : Math.max(0, doorX - 1);
+        for (Key key : Key.createRandomKeys(config, player, draft.getKeyCount(), minX, maxX, draft.getRandom())) {
+            draft.addKey(key);
+        }
+        draft.setPad(Pad.createOpposite(config, player, door));
+    }
+}
@@ -0,0 +1,346 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.Varints;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import javafx.scene.paint.Color;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encodes levels into a compact, versioned binary record and decodes them back.
+ *
+ * <p>Layout of a version 1 record (varints are unsigned LEB128, cells are row-major ids {@code y * width + x}):
+ * <pre>
+ * int     magic 'SRLV'
+ * byte    version
+ * varint  width, height, cellSize
+ * long    seed
+ * varint  player cell
+ * byte    wall encoding: 0 = bit-packed rows, 1 = runs
+ *         rows: height * ceil(width / 8) bytes, bit x of a row set for a wall
+ *         runs: varint run count, then per run varint gap from previous run end and varint length
+ * varint  key count, then per key varint cell and byte palette index
+ * varint  door count, then per door varint cell and byte palette index
+ * byte    pad flag, then varint cell if set
+ * </pre>
+ * The wall encoding is chosen per level, whichever is smaller. The door count was a 0/1 door flag
+ * before levels could hold several doors; both encode the same bytes for up to one door.
+ */
+public final class LevelCodec {
+    public static final int MAGIC = 0x53524C56; // "SRLV"
+    public static final byte VERSION = 1;
+
+    private static final byte WALLS_AS_ROWS = 0;
+    private static final byte WALLS_AS_RUNS = 1;
+    private static final int FIXED_HEADER_SIZE = 4 + 1 + 8 + 1;
+
+    private LevelCodec() {
+        throw new AssertionError("Cannot instantiate LevelCodec class");
+    }
+
+    /**
+     * Encodes a level into a new byte array.
+     *
+     * @param grid the level to encode
+     * @return the encoded record
+     * @throws NullPointerException if grid is null
+     * @throws IllegalArgumentException if the grid has more cells than fit in an int,
+     *         or a key or door color is not part of the {@link ColorPalette}
+     */
+    public static byte[] encode(Grid grid) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+        GridConfig config = grid.getConfig();
+        int width = config.getGridWidth();
+        if ((long) width * config.getGridHeight() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid has too many cells to encode");
+        }
+
+        int[] wallCells = sortedWallCells(grid.getWallSpans(), width);
+        int[] runs = toRuns(wallCells);
+        int rowsSize = config.getGridHeight() * ((width + 7) / 8);
+        int runsSize = runsSize(runs);
+        boolean useRuns = runsSize < rowsSize;
+
+        int size = FIXED_HEADER_SIZE
+            + Varints.sizeOf(width) + Varints.sizeOf(config.getGridHeight()) + Varints.sizeOf(config.getCellSize())
+            + Varints.sizeOf(cellOf(grid.getPlayer().getPosition(), width))
+            + (useRuns ? runsSize : rowsSize)
+            + Varints.sizeOf(grid.getKeys().size())
+            + Varints.sizeOf(grid.getDoors().size())
+            + 1;
+        for (Key key : grid.getKeys()) {
+            size += Varints.sizeOf(cellOf(key.getPosition(), width)) + 1;
+        }
+        for (Door door : grid.getDoors()) {
+            size += Varints.sizeOf(cellOf(door.getPosition(), width)) + 1;
+        }
+        if (grid.getPad() != null) {
+            size += Varints.sizeOf(cellOf(grid.getPad().getPosition(), width));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        Varints.putInt(buffer, width);
+        Varints.putInt(buffer, config.getGridHeight());
+        Varints.putInt(buffer, config.getCellSize());
+        buffer.putLong(grid.getSeed());
+        Varints.putInt(buffer, cellOf(grid.getPlayer().getPosition(), width));
+
+        if (useRuns) {
+            buffer.put(WALLS_AS_RUNS);
+            putRuns(buffer, runs);
+        } else {
+            buffer.put(WALLS_AS_ROWS);
+            putRows(buffer, wallCells, width, config.getGridHeight());
+        }
+
+        Varints.putInt(buffer, grid.getKeys().size());
+        for (Key key : grid.getKeys()) {
+            Varints.putInt(buffer, cellOf(key.getPosition(), width));
+            buffer.put(paletteIndex(key.getColor()));
+        }
+
+        Varints.putInt(buffer, grid.getDoors().size());
+        for (Door door : grid.getDoors()) {
+            Varints.putInt(buffer, cellOf(door.getPosition(), width));
+            buffer.put(paletteIndex(door.getColor()));
+        }
+
+        Pad pad = grid.getPad();
+        buffer.put((byte) (pad != null ? 1 : 0));
+        if (pad != null) {
+            Varints.putInt(buffer, cellOf(pad.getPosition(), width));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a level record starting at the buffer's current position.
+     * On return the buffer is positioned just after the record.
+     *
+     * @param buffer the buffer holding the record
+     * @return the decoded level
+     * @throws NullPointerException if buffer is null
+     * @throws IllegalArgumentException if the record is malformed or of an unsupported version
+     */
+    public static Grid decode(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer cannot be null");
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a level record");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported level record version: " + version);
+            }
+
+            GridConfig config = new GridConfig(Varints.getInt(buffer), Varints.getInt(buffer), Varints.getInt(buffer));
+            int width = config.getGridWidth();
+            int height = config.getGridHeight();
+            long seed = buffer.getLong();
+            Player player = new Player(positionOf(Varints.getInt(buffer), width, height));
+
+            List<WallSpan> walls = switch (buffer.get()) {
+                case WALLS_AS_ROWS -> getRows(buffer, width, height);
+                case WALLS_AS_RUNS -> getRuns(buffer, width, height);
+                default -> throw new IllegalArgumentException("Unknown wall encoding");
+            };
+
+            int keyCount = Varints.getInt(buffer);
+            List<Key> keys = new ArrayList<>(Math.min(keyCount, buffer.remaining()));
+            for (int i = 0; i < keyCount; i++) {
+                GridPosition position = positionOf(Varints.getInt(buffer), width, height);
+                keys.add(new Key(position, ColorPalette.getKeyColor(buffer.get())));
+            }
+
+            int doorCount = Varints.getInt(buffer);
+            List<Door> doors = new ArrayList<>(Math.min(doorCount, buffer.remaining()));
+            for (int i = 0; i < doorCount; i++) {
+                GridPosition position = positionOf(Varints.getInt(buffer), width, height);
+                doors.add(new Door(position, ColorPalette.getKeyColor(buffer.get())));
+            }
+
+            Pad pad = null;
+            if (buffer.get() != 0) {
+                pad = new Pad(positionOf(Varints.getInt(buffer), width, height));
+            }
+
+            return new Grid(config, seed, WallGrid.of(width, height, walls), player, keys, doors, pad);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated level record", e);
+        }
+    }
+
+    private static int cellOf(GridPosition position, int width) {
+        return position.y() * width + position.x();
+    }
+
+    private static GridPosition positionOf(int cell, int width, int height) {
+        if (cell < 0 || cell / width >= height) {
+            throw new IllegalArgumentException("Cell id out of bounds: " + cell);
+        }
+        return new GridPosition(cell % width, cell / width);
+    }
+
+    private static byte paletteIndex(Color color) {
+        int index = ColorPalette.indexOf(color);
+        if (index < 0) {
+            throw new IllegalArgumentException("Color is not part of the palette: " + color);
+        }
+        return (byte) index;
+    }
+
+    private static int[] sortedWallCells(List<WallSpan> spans, int width) {
+        int total = 0;
+        for (WallSpan span : spans) {
+            total += span.length();
+        }
+        int[] cells = new int[total];
+        int i = 0;
+        for (WallSpan span : spans) {
+            for (int along = span.start(); along <= span.end(); along++) {
+                cells[i++] = span.axis() == WallSpan.Axis.VERTICAL
+                    ? along * width + span.fixed()
+                    : span.fixed() * width + along;
+            }
+        }
+        Arrays.sort(cells);
+        return cells;
+    }
+
+    /**
+     * Collapses sorted cell ids into (start, length) pairs of consecutive cells.
+     */
+    private static int[] toRuns(int[] cells) {
+        int[] runs = new int[cells.length * 2];
+        int count = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (count > 0 && runs[count - 2] + runs[count - 1] == cells[i]) {
+                runs[count - 1]++;
+            } else if (count == 0 || runs[count - 2] + runs[count - 1] < cells[i]) {
+                runs[count++] = cells[i];
+                runs[count++] = 1;
+            }
+        }
+        return Arrays.copyOf(runs, count);
+    }
+
+    private static int runsSize(int[] runs) {
+        int size = Varints.sizeOf(runs.length / 2);
+        int previousEnd = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            size += Varints.sizeOf(runs[i] - previousEnd) + Varints.sizeOf(runs[i + 1]);
+            previousEnd = runs[i] + runs[i + 1];
+        }
+        return size;
+    }
+
+    private static void putRuns(ByteBuffer buffer, int[] runs) {
+        Varints.putInt(buffer, runs.length / 2);
+        int previousEnd = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            Varints.putInt(buffer, runs[i] - previousEnd);
+            Varints.putInt(buffer, runs[i + 1]);
+            previousEnd = runs[i] + runs[i + 1];
+        }
+    }
+
+    private static List<WallSpan> getRuns(ByteBuffer buffer, int width, int height) {
+        int runCount = Varints.getInt(buffer);
+        SpanCollector collector = new SpanCollector(width);
+        int previousEnd = 0;
+        for (int i = 0; i < runCount; i++) {
+            int start = previousEnd + Varints.getInt(buffer);
+            int length = Varints.getInt(buffer);
+            int end = start + length - 1;
+            if (length <= 0 || start < previousEnd || end / width >= height) {
+                throw new IllegalArgumentException("Wall run out of bounds");
+            }
+            // Split runs that wrap around the end of a row
+            for (int cell = start; cell <= end; ) {
+                int y = cell / width;
+                int rowEnd = Math.min(end, y * width + width - 1);
+                collector.addRun(y, cell % width, rowEnd % width);
+                cell = rowEnd + 1;
+            }
+            previousEnd = end + 1;
+        }
+        return collector.spans;
+    }
+
+    private static void putRows(ByteBuffer buffer, int[] cells, int width, int height) {
+        int bytesPerRow = (width + 7) / 8;
+        byte[] rows = new byte[height * bytesPerRow];
+        for (int cell : cells) {
+            int x = cell % width;
+            int y = cell / width;
+            rows[y * bytesPerRow + x / 8] |= (byte) (1 << (x % 8));
+        }
+        buffer.put(rows);
+    }
+
+    private static List<WallSpan> getRows(ByteBuffer buffer, int width, int height) {
+        int bytesPerRow = (width + 7) / 8;
+        byte[] row = new byte[bytesPerRow];
+        SpanCollector collector = new SpanCollector(width);
+        for (int y = 0; y < height; y++) {
+            buffer.get(row);
+            int x = 0;
+            while (x < width) {
+                if ((row[x >> 3] & (1 << (x & 7))) == 0) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < width && (row[x >> 3] & (1 << (x & 7))) != 0) {
+                    x++;
+                }
+                collector.addRun(y, runStart, x - 1);
+            }
+        }
+        return collector.spans;
+    }
+
+    /**
+     * Turns row-major wall runs back into spans. Single-cell runs stacked in the same
+     * column are merged into one vertical span, so a wall column decodes to a single span again.
+     */
+    private static final class SpanCollector {
+        private final List<WallSpan> spans = new ArrayList<>();
+        private final int[] openColumnSpan; // 1-based index of the vertical span ending in each column, 0 if none
+
+        SpanCollector(int width) {
+            this.openColumnSpan = new int[width];
+        }
+
+        void addRun(int y, int startX, int endX) {
+            if (startX != endX) {
+                spans.add(WallSpan.horizontal(y, startX, endX));
+                return;
+            }
+            int index = openColumnSpan[startX] - 1;
+            if (index >= 0 && spans.get(index).end() == y - 1) {
+                WallSpan column = spans.get(index);
+                spans.set(index, WallSpan.vertical(startX, column.start(), y));
+            } else {
+                spans.add(WallSpan.vertical(startX, y, y));
+                openColumnSpan[startX] = spans.size();
+            }
+        }
+    }
+}
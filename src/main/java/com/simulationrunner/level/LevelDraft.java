@@ -0,0 +1,156 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * A level under construction, handed from one {@link LevelGenerator} stage to the next.
+ * The wall layer starts out empty and is written in place; entities are added as they are placed.
+ * A draft is confined to the thread generating it.
+ */
+public final class LevelDraft {
+    private final GridConfig config;
+    private final int keyCount;
+    private final long seed;
+    private final RandomGenerator random;
+    private final WallGrid walls;
+    private final List<Key> keys = new ArrayList<>();
+    private final List<Door> doors = new ArrayList<>();
+    private Player player;
+    private Pad pad;
+    private int[] route;
+
+    /**
+     * Creates an empty draft.
+     *
+     * @param config the grid configuration
+     * @param keyCount the number of keys to place
+     * @param seed the seed driving every random choice
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if keyCount is negative
+     */
+    public LevelDraft(GridConfig config, int keyCount, long seed) {
+        this.config = Objects.requireNonNull(config, "GridConfig cannot be null");
+        if (keyCount < 0) {
+            throw new IllegalArgumentException("keyCount must be non-negative");
+        }
+        this.keyCount = keyCount;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.walls = new WallGrid(config.getGridWidth(), config.getGridHeight());
+    }
+
+    public GridConfig getConfig() {
+        return config;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the random source seeded with {@link #getSeed()}, shared by all stages in the order they run.
+     *
+     * @return the random source
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    /**
+     * Gets the wall layer, which stages write directly.
+     *
+     * @return the mutable wall layer
+     */
+    public WallGrid getWalls() {
+        return walls;
+    }
+
+    /**
+     * Gets the route recorded by the layout stage.
+     *
+     * @return the row-major cell ids along the intended route, or null if the layout recorded none
+     */
+    public int[] getRoute() {
+        return route;
+    }
+
+    /**
+     * Records the cells along the intended route, e.g. the path from the start of a maze to its end,
+     * for the spawn stage to place entities on.
+     *
+     * @param route the row-major cell ids in route order, or null to clear it
+     */
+    public void setRoute(int[] route) {
+        this.route = route;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(Player player) {
+        this.player = Objects.requireNonNull(player, "Player cannot be null");
+    }
+
+    /**
+     * Gets the keys placed so far, in placement order.
+     *
+     * @return an unmodifiable view of the keys
+     */
+    public List<Key> getKeys() {
+        return Collections.unmodifiableList(keys);
+    }
+
+    public void addKey(Key key) {
+        keys.add(Objects.requireNonNull(key, "Key cannot be null"));
+    }
+
+    /**
+     * Gets the doors placed so far, in placement order.
+     *
+     * @return an unmodifiable view of the doors
+     */
+    public List<Door> getDoors() {
+        return Collections.unmodifiableList(doors);
+    }
+
+    public void addDoor(Door door) {
+        doors.add(Objects.requireNonNull(door, "Door cannot be null"));
+    }
+
+    public Pad getPad() {
+        return pad;
+    }
+
+    public void setPad(Pad pad) {
+        this.pad = pad;
+    }
+
+    /**
+     * Builds the level from the draft. The wall layer is copied, so the draft can be discarded or reused.
+     *
+     * @return the level
+     * @throws NullPointerException if no player was placed
+     * @throws IllegalArgumentException if two doors share a cell
+     */
+    public Grid toGrid() {
+        return new Grid(config, seed, walls, player, keys, doors, pad);
+    }
+}
@@ -0,0 +1,56 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+
+/**
+ * Service interface for level layouts, loaded through {@link java.util.ServiceLoader} and looked up by
+ * name with {@link LevelGenerators}.
+ *
+ * <p>Generation is split into stages that work on a shared {@link LevelDraft}, so a pipeline can time,
+ * validate and retry them individually: {@link #layout} writes the walls and {@link #spawn} places the
+ * player, keys, doors and pad. Implementations must be stateless, since one instance serves every thread.
+ */
+public interface LevelGenerator {
+
+    /**
+     * Gets the name the generator is selected by, e.g. on the command line.
+     *
+     * @return a unique, lower-case name
+     */
+    String getName();
+
+    /**
+     * Layout stage: writes the walls of the draft. Entities whose position shapes the walls,
+     * such as a door in a wall column, may be placed here as well.
+     *
+     * @param draft the level under construction
+     * @throws IllegalArgumentException if the grid is too small for the layout
+     */
+    void layout(LevelDraft draft);
+
+    /**
+     * Spawn stage: places the remaining entities on the laid out draft.
+     *
+     * @param draft the level under construction
+     * @throws IllegalArgumentException if the layout has no room for the entities
+     */
+    void spawn(LevelDraft draft);
+
+    /**
+     * Runs both stages and builds the level, without any timing or validation.
+     *
+     * @param config the grid configuration
+     * @param keyCount the number of keys to place
+     * @param seed the seed driving every random choice
+     * @return the level
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if keyCount is negative or the grid is too small
+     */
+    default Grid generate(GridConfig config, int keyCount, long seed) {
+        LevelDraft draft = new LevelDraft(config, keyCount, seed);
+        layout(draft);
+        spawn(draft);
+        return draft.toGrid();
+    }
+}
@@ -0,0 +1,61 @@
+package com.simulationrunner.level;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Looks up {@link LevelGenerator} services by name. Providers are discovered once, through the module's
+ * {@code provides} clauses or {@code META-INF/services} on the class path, and shared afterwards.
+ */
+public final class LevelGenerators {
+    /** Name of the generator used when none is selected. */
+    public static final String DEFAULT_NAME = CorridorLevelGenerator.NAME;
+
+    private LevelGenerators() {
+        throw new AssertionError("Cannot instantiate LevelGenerators class");
+    }
+
+    private static final class Registry {
+        private static final Map<String, LevelGenerator> BY_NAME = load();
+
+        private static Map<String, LevelGenerator> load() {
+            Map<String, LevelGenerator> byName = new LinkedHashMap<>();
+            for (LevelGenerator generator : ServiceLoader.load(LevelGenerator.class)) {
+                if (byName.putIfAbsent(generator.getName(), generator) != null) {
+                    throw new IllegalStateException("Duplicate level generator name: " + generator.getName());
+                }
+            }
+            return Collections.unmodifiableMap(byName);
+        }
+    }
+
+    /**
+     * Gets a generator by name.
+     *
+     * @param name the generator name
+     * @return the generator
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if no generator has that name
+     */
+    public static LevelGenerator get(String name) {
+        Objects.requireNonNull(name, "Name cannot be null");
+        LevelGenerator generator = Registry.BY_NAME.get(name);
+        if (generator == null) {
+            throw new IllegalArgumentException("Unknown level generator '" + name + "', available: " + names());
+        }
+        return generator;
+    }
+
+    /**
+     * Gets the names of every available generator, in discovery order.
+     *
+     * @return an unmodifiable set of names
+     */
+    public static Set<String> names() {
+        return Registry.BY_NAME.keySet();
+    }
+}
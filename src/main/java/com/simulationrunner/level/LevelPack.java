@@ -0,0 +1,120 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Read-only view of a level pack file, memory-mapped so levels are decoded on demand
+ * without loading the file into the heap. Looking up a level is two index reads and a
+ * decode of that single record, regardless of how many levels the pack holds.
+ *
+ * <p>File layout (big-endian):
+ * <pre>
+ * int   magic 'SRLP'
+ * byte  version, then 3 reserved bytes
+ * long  level count N
+ * long  index offset
+ * ...   N records encoded by {@link LevelCodec}
+ * long  N + 1 record offsets at the index offset (the last one marks the end of the final record)
+ * </pre>
+ * The mapping is shared, so {@link #get(long)} may be called from several threads until the pack is closed.
+ */
+public class LevelPack implements AutoCloseable {
+    public static final int MAGIC = 0x53524C50; // "SRLP"
+    public static final byte VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long count;
+    private final long indexOffset;
+
+    private LevelPack(Arena arena, MemorySegment segment, long count, long indexOffset) {
+        this.arena = arena;
+        this.segment = segment;
+        this.count = count;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Maps a level pack file and validates its header and index bounds.
+     *
+     * @param path the pack file
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a valid level pack
+     * @throws NullPointerException if path is null
+     */
+    public static LevelPack open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File too small to be a level pack");
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            if (segment.get(INT, 0) != MAGIC) {
+                throw new IOException("Not a level pack");
+            }
+            if (segment.get(ValueLayout.JAVA_BYTE, 4) != VERSION) {
+                throw new IOException("Unsupported level pack version: " + segment.get(ValueLayout.JAVA_BYTE, 4));
+            }
+            long count = segment.get(LONG, 8);
+            long indexOffset = segment.get(LONG, 16);
+            if (count < 0 || indexOffset < HEADER_SIZE || (size - indexOffset) / Long.BYTES < count + 1) {
+                throw new IOException("Corrupt level pack index");
+            }
+            return new LevelPack(arena, segment, count, indexOffset);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of levels in the pack.
+     *
+     * @return the level count
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Decodes the level at the given index straight from the mapped file.
+     *
+     * @param index the level index
+     * @return the decoded level
+     * @throws IndexOutOfBoundsException if index is not within [0, size())
+     * @throws IllegalArgumentException if the record is corrupt
+     */
+    public Grid get(long index) {
+        Objects.checkIndex(index, count);
+        long start = segment.get(LONG, indexOffset + index * Long.BYTES);
+        long end = segment.get(LONG, indexOffset + (index + 1) * Long.BYTES);
+        if (start < HEADER_SIZE || end < start || end > indexOffset) {
+            throw new IllegalArgumentException("Corrupt offset for level " + index);
+        }
+        return LevelCodec.decode(segment.asSlice(start, end - start).asByteBuffer());
+    }
+
+    /**
+     * Unmaps the file. Levels already decoded remain valid.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,134 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writes a level pack: a header, the encoded level records back to back, and an offset index at the end.
+ * See {@link LevelPack} for the file layout. Records are staged in a write buffer and the index is
+ * appended when the writer is closed, so a pack is only valid once {@link #close()} has returned.
+ */
+public class LevelPackWriter implements AutoCloseable {
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private long[] offsets = new long[1024];
+    private long count;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates (or truncates) a level pack file.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be opened
+     * @throws NullPointerException if path is null
+     */
+    public LevelPackWriter(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.position = LevelPack.HEADER_SIZE;
+        channel.position(LevelPack.HEADER_SIZE);
+    }
+
+    /**
+     * Appends a level to the pack.
+     *
+     * @param grid the level to append
+     * @return the index of the level within the pack
+     * @throws IOException if writing fails
+     * @throws IllegalStateException if the writer has been closed
+     * @throws IllegalArgumentException if the level cannot be encoded
+     */
+    public long add(Grid grid) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("LevelPackWriter is closed");
+        }
+        byte[] record = LevelCodec.encode(grid);
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[(int) count] = position;
+        write(ByteBuffer.wrap(record));
+        position += record.length;
+        return count++;
+    }
+
+    /**
+     * Gets the number of levels written so far.
+     *
+     * @return the level count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Writes the offset index and header, then closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel) {
+            long indexOffset = position;
+            for (int i = 0; i < count; i++) {
+                writeLong(offsets[i]);
+            }
+            writeLong(indexOffset); // End of the last record
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(LevelPack.HEADER_SIZE);
+            header.putInt(LevelPack.MAGIC);
+            header.put(LevelPack.VERSION);
+            header.put(new byte[3]);
+            header.putLong(count);
+            header.putLong(indexOffset);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (writeBuffer.remaining() < Long.BYTES) {
+            flush();
+        }
+        writeBuffer.putLong(value);
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        if (record.remaining() > writeBuffer.remaining()) {
+            flush();
+        }
+        if (record.remaining() > writeBuffer.capacity()) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } else {
+            writeBuffer.put(record);
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+}
@@ -0,0 +1,183 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Supplies ready-made levels from a small bounded buffer that is refilled in the background.
+ * Each level is generated on its own virtual thread from a dedicated seed, so handing out
+ * the next level is a queue poll instead of a synchronous {@link Grid} construction.
+ * If the buffer happens to be empty, the level is generated on the calling thread instead.
+ * Levels come from a seed-to-level factory, e.g. a {@link LevelGenerator} selected by name.
+ */
+public class LevelSupplier implements AutoCloseable {
+    private final LongFunction<Grid> factory;
+    private final int capacity;
+    private final BlockingQueue<Grid> buffer;
+    private final ExecutorService executor;
+    private final RandomGenerator seeds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong generatedCount = new AtomicLong();
+    private final AtomicLong totalGenerationNanos = new AtomicLong();
+    private final AtomicLong lastGenerationNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a supplier and immediately starts filling its buffer.
+     *
+     * @param config the grid configuration for every generated level
+     * @param keyCount the number of keys per level
+     * @param capacity the maximum number of levels kept ready
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if keyCount is negative or capacity is not positive
+     */
+    public LevelSupplier(GridConfig config, int keyCount, int capacity) {
+        this(corridorFactory(config, keyCount), capacity);
+    }
+
+    /**
+     * Creates a supplier drawing levels from a factory and immediately starts filling its buffer.
+     * The factory is called concurrently from background threads.
+     *
+     * @param factory builds the level for a seed
+     * @param capacity the maximum number of levels kept ready
+     * @throws NullPointerException if factory is null
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public LevelSupplier(LongFunction<Grid> factory, int capacity) {
+        this.factory = Objects.requireNonNull(factory, "Factory cannot be null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("level-gen-", 0).factory());
+        this.seeds = RandomGenerator.getDefault();
+        refill();
+    }
+
+    private static LongFunction<Grid> corridorFactory(GridConfig config, int keyCount) {
+        Objects.requireNonNull(config, "GridConfig cannot be null");
+        if (keyCount < 0) {
+            throw new IllegalArgumentException("keyCount must be non-negative");
+        }
+        return seed -> new Grid(config, keyCount, seed);
+    }
+
+    /**
+     * Hands out the next level and schedules a replacement in the background.
+     *
+     * @return a freshly generated level
+     * @throws IllegalStateException if the supplier has been closed
+     */
+    public Grid next() {
+        if (closed) {
+            throw new IllegalStateException("LevelSupplier is closed");
+        }
+        Grid grid = buffer.poll();
+        if (grid == null) {
+            // Buffer drained faster than it refills, build this one in place
+            grid = generate(nextSeed());
+        }
+        refill();
+        return grid;
+    }
+
+    /**
+     * Gets the number of levels currently ready for immediate handoff.
+     *
+     * @return the number of buffered levels
+     */
+    public int available() {
+        return buffer.size();
+    }
+
+    /**
+     * Gets the maximum number of levels kept ready.
+     *
+     * @return the buffer capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of levels generated so far, on any thread.
+     *
+     * @return the generated level count
+     */
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    /**
+     * Gets the wall-clock time spent building the most recently generated level.
+     *
+     * @return the generation time in nanoseconds, or 0 if nothing was generated yet
+     */
+    public long getLastGenerationNanos() {
+        return lastGenerationNanos.get();
+    }
+
+    /**
+     * Gets the average wall-clock time spent building a level.
+     *
+     * @return the average generation time in nanoseconds, or 0 if nothing was generated yet
+     */
+    public long getAverageGenerationNanos() {
+        long count = generatedCount.get();
+        return count == 0 ? 0 : totalGenerationNanos.get() / count;
+    }
+
+    /**
+     * Stops background generation and discards buffered levels.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        buffer.clear();
+    }
+
+    /**
+     * Schedules background generation until buffered plus in-flight levels reach capacity.
+     */
+    private void refill() {
+        while (!closed && buffer.size() + inFlight.get() < capacity) {
+            long seed = nextSeed();
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    buffer.offer(generate(seed));
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Grid generate(long seed) {
+        long start = System.nanoTime();
+        Grid grid = factory.apply(seed);
+        long elapsed = System.nanoTime() - start;
+
+        lastGenerationNanos.set(elapsed);
+        totalGenerationNanos.addAndGet(elapsed);
+        generatedCount.incrementAndGet();
+        return grid;
+    }
+
+    private synchronized long nextSeed() {
+        return seeds.nextLong();
+    }
+}
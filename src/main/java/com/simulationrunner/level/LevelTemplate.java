@@ -0,0 +1,346 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.Zobrist;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, shareable description of a level: layout, spawn point, key and door placement and colors.
+ * All per-play state lives in {@link Session}, so a single template can back any number of
+ * concurrent sessions without copying.
+ *
+ * <p>Cells are addressed by row-major ids ({@code y * width + x}). Keys are addressed by their index
+ * in the source grid's key list, which is also their bit in a session's collected-key mask.
+ */
+public final class LevelTemplate {
+    /** Maximum number of keys, bounded by the 64-bit collected-key mask. */
+    public static final int MAX_KEYS = Long.SIZE;
+
+    private final GridConfig config;
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final long[] wallBits;
+    private final int spawnCell;
+    private final int[] keyCells;
+    private final Color[] keyColors;
+    private final int[] keyLookupCells; // Sorted distinct key cells
+    private final long[] keyLookupMasks; // Keys lying on the matching lookup cell
+    private final int[] doorCells;
+    private final Color[] doorColors;
+    private final long[] doorKeyMasks;
+    private final long[] doorBits; // One bit per cell, set on every door
+    private final int[] doorLookupCells; // Sorted door cells
+    private final long[] doorLookupMasks; // Keys opening the door on the matching lookup cell
+    private final int padCell;
+    private final long layoutHash;
+
+    private LevelTemplate(Grid grid) {
+        this.config = grid.getConfig();
+        this.seed = grid.getSeed();
+        this.width = config.getGridWidth();
+        this.height = config.getGridHeight();
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid has too many cells for a level template");
+        }
+
+        long hash = Zobrist.dimensions(width, height);
+        WallGrid walls = grid.getWallGrid();
+        this.wallBits = walls.toLongArray();
+        for (int cell = walls.nextWall(0); cell >= 0; cell = walls.nextWall(cell + 1)) {
+            hash ^= Zobrist.wall(cell);
+        }
+
+        this.spawnCell = cellOf(grid.getPlayer().getPosition());
+        hash ^= Zobrist.spawn(spawnCell);
+
+        List<Key> keys = grid.getKeys();
+        if (keys.size() > MAX_KEYS) {
+            throw new IllegalArgumentException("A level template supports at most " + MAX_KEYS + " keys");
+        }
+        this.keyCells = new int[keys.size()];
+        this.keyColors = new Color[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            keyCells[i] = cellOf(keys.get(i).getPosition());
+            keyColors[i] = keys.get(i).getColor();
+            hash ^= Zobrist.key(i, keyCells[i], keyColors[i].hashCode());
+        }
+        int[] sortedCells = Arrays.stream(keyCells).sorted().distinct().toArray();
+        this.keyLookupCells = sortedCells;
+        this.keyLookupMasks = new long[sortedCells.length];
+        for (int i = 0; i < keyCells.length; i++) {
+            keyLookupMasks[Arrays.binarySearch(sortedCells, keyCells[i])] |= 1L << i;
+        }
+
+        List<Door> doors = grid.getDoors();
+        this.doorCells = new int[doors.size()];
+        this.doorColors = new Color[doors.size()];
+        this.doorKeyMasks = new long[doors.size()];
+        this.doorBits = new long[wallBits.length];
+        for (int d = 0; d < doors.size(); d++) {
+            doorCells[d] = cellOf(doors.get(d).getPosition());
+            doorColors[d] = doors.get(d).getColor();
+            for (int i = 0; i < keyColors.length; i++) {
+                if (keyColors[i].equals(doorColors[d])) {
+                    doorKeyMasks[d] |= 1L << i;
+                }
+            }
+            doorBits[doorCells[d] >>> 6] |= 1L << doorCells[d];
+            hash ^= Zobrist.door(doorCells[d], doorColors[d].hashCode());
+        }
+        this.doorLookupCells = doorCells.clone();
+        Arrays.sort(doorLookupCells);
+        this.doorLookupMasks = new long[doorCells.length];
+        for (int d = 0; d < doorCells.length; d++) {
+            doorLookupMasks[Arrays.binarySearch(doorLookupCells, doorCells[d])] = doorKeyMasks[d];
+        }
+
+        this.padCell = grid.getPad() != null ? cellOf(grid.getPad().getPosition()) : -1;
+        if (padCell >= 0) {
+            hash ^= Zobrist.pad(padCell);
+        }
+        this.layoutHash = hash;
+    }
+
+    /**
+     * Captures the layout of a grid as a template. Key collection state of the grid's entities is ignored.
+     *
+     * @param grid the grid to capture
+     * @return the template
+     * @throws NullPointerException if grid is null
+     * @throws IllegalArgumentException if the grid has more than {@link #MAX_KEYS} keys
+     *         or more cells than fit in an int
+     */
+    public static LevelTemplate from(Grid grid) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+        return new LevelTemplate(grid);
+    }
+
+    public GridConfig getConfig() {
+        return config;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the Zobrist fingerprint of the layout: dimensions, walls, spawn point, keys, door and pad.
+     * Levels with the same layout hash alike regardless of seed, so the hash can be used to
+     * deduplicate generated levels. Combine it with {@link Session#getStateHash()} to fingerprint
+     * a full game state.
+     *
+     * @return the 64-bit layout hash
+     */
+    public long getLayoutHash() {
+        return layoutHash;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    /**
+     * Gets the id of a cell.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the row-major cell id
+     */
+    public int cellOf(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Gets the id of the cell at a position.
+     *
+     * @param position the position
+     * @return the row-major cell id
+     */
+    public int cellOf(GridPosition position) {
+        return cellOf(position.x(), position.y());
+    }
+
+    /**
+     * Gets the position of a cell id.
+     *
+     * @param cell the cell id
+     * @return the grid position of the cell
+     */
+    public GridPosition positionOf(int cell) {
+        return new GridPosition(cell % width, cell / width);
+    }
+
+    public boolean isWall(int cell) {
+        return (wallBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public int getSpawnCell() {
+        return spawnCell;
+    }
+
+    public int getKeyCount() {
+        return keyCells.length;
+    }
+
+    public int getKeyCell(int index) {
+        return keyCells[index];
+    }
+
+    public Color getKeyColor(int index) {
+        return keyColors[index];
+    }
+
+    /**
+     * Gets the keys lying on a cell.
+     *
+     * @param cell the cell id
+     * @return a mask with bit i set for every key i on the cell, 0 if there are none
+     */
+    public long keyMaskAt(int cell) {
+        int index = Arrays.binarySearch(keyLookupCells, cell);
+        return index >= 0 ? keyLookupMasks[index] : 0;
+    }
+
+    /**
+     * Gets the number of doors.
+     *
+     * @return the door count
+     */
+    public int getDoorCount() {
+        return doorCells.length;
+    }
+
+    /**
+     * Gets the first door cell.
+     *
+     * @return the cell id of the first door, or -1 if the level has no door
+     */
+    public int getDoorCell() {
+        return doorCells.length > 0 ? doorCells[0] : -1;
+    }
+
+    /**
+     * Gets a door cell.
+     *
+     * @param door the index of the door in the source grid's door list
+     * @return the cell id of the door
+     * @throws IndexOutOfBoundsException if door is out of range
+     */
+    public int getDoorCell(int door) {
+        return doorCells[door];
+    }
+
+    /**
+     * Gets the first door color.
+     *
+     * @return the color of the first door, or null if the level has no door
+     */
+    public Color getDoorColor() {
+        return doorColors.length > 0 ? doorColors[0] : null;
+    }
+
+    /**
+     * Gets a door color.
+     *
+     * @param door the index of the door in the source grid's door list
+     * @return the color of the door
+     * @throws IndexOutOfBoundsException if door is out of range
+     */
+    public Color getDoorColor(int door) {
+        return doorColors[door];
+    }
+
+    /**
+     * Gets the keys that open the first door.
+     *
+     * @return a mask of every key whose color matches the first door, or 0 if the level has no door
+     */
+    public long getDoorKeyMask() {
+        return doorKeyMasks.length > 0 ? doorKeyMasks[0] : 0;
+    }
+
+    /**
+     * Gets the keys that open a door.
+     *
+     * @param door the index of the door in the source grid's door list
+     * @return a mask of every key whose color matches the door
+     * @throws IndexOutOfBoundsException if door is out of range
+     */
+    public long getDoorKeyMask(int door) {
+        return doorKeyMasks[door];
+    }
+
+    /**
+     * Checks whether a cell holds a door with a single bit test, so the number of doors does not
+     * affect the cost of ordinary moves.
+     *
+     * @param cell the cell id
+     * @return true if the cell holds a door
+     */
+    public boolean isDoor(int cell) {
+        return (doorBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Gets the keys that open the door on a cell.
+     *
+     * @param cell the cell id
+     * @return a mask of every key opening the door on the cell, or 0 if the cell has no door
+     */
+    public long doorKeyMaskAt(int cell) {
+        int index = Arrays.binarySearch(doorLookupCells, cell);
+        return index >= 0 ? doorLookupMasks[index] : 0;
+    }
+
+    /**
+     * Gets the pad cell.
+     *
+     * @return the cell id of the goal pad, or -1 if the level has no pad
+     */
+    public int getPadCell() {
+        return padCell;
+    }
+
+    /**
+     * Resolves a single move without touching any session state.
+     *
+     * @param cell the cell moved from
+     * @param deltaX the change in X coordinate
+     * @param deltaY the change in Y coordinate
+     * @param collectedMask the keys collected so far
+     * @return the cell moved to, or -1 if the move is blocked by the grid bounds, a wall, or a locked door
+     */
+    public int move(int cell, int deltaX, int deltaY, long collectedMask) {
+        int x = cell % width + deltaX;
+        int y = cell / width + deltaY;
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        int target = cellOf(x, y);
+        if (isWall(target)) {
+            return -1;
+        }
+        if (isDoor(target) && (collectedMask & doorKeyMaskAt(target)) == 0) {
+            return -1;
+        }
+        return target;
+    }
+}
@@ -0,0 +1,440 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates multi-region levels sealed by differently colored doors, one key per door.
+ *
+ * <p>The layout splits the grid guillotine-style: each door comes from cutting a random room in two with a
+ * wall that has the door as its only gap. Every cut splits one region into two joined by one door, so the
+ * regions always form a tree. Rooms split repeatedly make side branches and dead ends, not just a
+ * corridor. Door colors are a random permutation of the {@link ColorPalette}.
+ *
+ * <p>Keys are placed while walking a random topological order of the doors, not by regenerating until a
+ * level happens to be solvable. The player starts in a random region. At each step a door leading out of
+ * the reached regions is opened, and its key goes into any region reached before it. That region may lie
+ * behind other doors on a different branch. The pad goes into the region opened last.
+ *
+ * <p>The resulting dependency DAG can be read back from any level with {@link #dependencies(Grid)}. A door
+ * requires every door on the way to its own region and every door on the way to its key.
+ * {@link #openingOrder(long[])} puts the doors in topological order, and fails if a key lies behind its own
+ * door.
+ */
+public final class LockChainGenerator {
+    private static final int MIN_ROOM_CELLS = 2; // Keeps a free cell in the reached regions at every placement step
+
+    private LockChainGenerator() {
+        throw new AssertionError("Cannot instantiate LockChainGenerator class");
+    }
+
+    /**
+     * Generates a lock-and-key level whose layout is fully determined by the seed.
+     *
+     * @param config the grid configuration
+     * @param doorCount the number of doors, each with one key
+     * @param seed the seed driving the layout and placements
+     * @return the level
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if doorCount is negative or exceeds the palette size,
+     *         or the grid is too small for the regions and their entities
+     */
+    public static Grid generate(GridConfig config, int doorCount, long seed) {
+        LevelDraft draft = new LevelDraft(config, doorCount, seed);
+        layout(draft);
+        spawn(draft);
+        return draft.toGrid();
+    }
+
+    /**
+     * Layout stage: cuts random rooms in two until there is one door per key, taking the draft's key
+     * count as the door count. Rooms are inclusive {x0, y0, x1, y1} rectangles of open cells.
+     */
+    static void layout(LevelDraft draft) {
+        int doorCount = draft.getKeyCount();
+        if (doorCount > ColorPalette.getPaletteSize()) {
+            throw new IllegalArgumentException("doorCount cannot exceed the palette size of "
+                + ColorPalette.getPaletteSize());
+        }
+        int width = draft.getConfig().getGridWidth();
+        int height = draft.getConfig().getGridHeight();
+        if ((long) width * height < MIN_ROOM_CELLS) {
+            throw new IllegalArgumentException("Grid is too small for a player and a pad");
+        }
+        RandomGenerator random = draft.getRandom();
+        int[] colors = shuffledPalette(random);
+        WallGrid walls = draft.getWalls();
+        List<int[]> rooms = new ArrayList<>();
+        rooms.add(new int[] {0, 0, width - 1, height - 1});
+        for (int i = 0; i < doorCount; i++) {
+            List<int[]> cuts = new ArrayList<>(); // {room index, vertical ? 1 : 0, cut coordinate}
+            int room = -1;
+            for (int r : shuffledIndices(rooms.size(), random)) {
+                addCuts(rooms.get(r), r, draft.getDoors(), cuts);
+                if (!cuts.isEmpty()) {
+                    room = r;
+                    break;
+                }
+            }
+            if (room < 0) {
+                throw new IllegalArgumentException("Grid is too small for " + doorCount + " doors");
+            }
+            int[] cut = cuts.get(random.nextInt(cuts.size()));
+            int[] bounds = rooms.get(room);
+            GridPosition door;
+            if (cut[1] == 1) {
+                door = new GridPosition(cut[2], bounds[1] + random.nextInt(bounds[3] - bounds[1] + 1));
+                for (int y = bounds[1]; y <= bounds[3]; y++) {
+                    walls.set(cut[2], y, y != door.y());
+                }
+                rooms.set(room, new int[] {bounds[0], bounds[1], cut[2] - 1, bounds[3]});
+                rooms.add(new int[] {cut[2] + 1, bounds[1], bounds[2], bounds[3]});
+            } else {
+                door = new GridPosition(bounds[0] + random.nextInt(bounds[2] - bounds[0] + 1), cut[2]);
+                for (int x = bounds[0]; x <= bounds[2]; x++) {
+                    walls.set(x, cut[2], x != door.x());
+                }
+                rooms.set(room, new int[] {bounds[0], bounds[1], bounds[2], cut[2] - 1});
+                rooms.add(new int[] {bounds[0], cut[2] + 1, bounds[2], bounds[3]});
+            }
+            draft.addDoor(new Door(door, ColorPalette.getKeyColor(colors[i])));
+        }
+    }
+
+    /**
+     * Lists the cuts of a room that leave both halves big enough and do not wall off a door on the room's
+     * edge, i.e. a door in line with the cut.
+     */
+    private static void addCuts(int[] room, int index, List<Door> doors, List<int[]> cuts) {
+        int roomWidth = room[2] - room[0] + 1;
+        int roomHeight = room[3] - room[1] + 1;
+        for (int x = room[0] + 1; x < room[2]; x++) {
+            if ((x - room[0]) * roomHeight >= MIN_ROOM_CELLS && (room[2] - x) * roomHeight >= MIN_ROOM_CELLS
+                && !hasDoor(doors, x, room[1] - 1) && !hasDoor(doors, x, room[3] + 1)) {
+                cuts.add(new int[] {index, 1, x});
+            }
+        }
+        for (int y = room[1] + 1; y < room[3]; y++) {
+            if ((y - room[1]) * roomWidth >= MIN_ROOM_CELLS && (room[3] - y) * roomWidth >= MIN_ROOM_CELLS
+                && !hasDoor(doors, room[0] - 1, y) && !hasDoor(doors, room[2] + 1, y)) {
+                cuts.add(new int[] {index, 0, y});
+            }
+        }
+    }
+
+    private static boolean hasDoor(List<Door> doors, int x, int y) {
+        for (Door door : doors) {
+            if (door.getGridX() == x && door.getGridY() == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spawn stage: puts the player in a random region, then walks a random topological order of the doors,
+     * placing each door's key in a region reached before the door opens. The pad goes into the region
+     * opened last.
+     */
+    static void spawn(LevelDraft draft) {
+        List<Door> doors = draft.getDoors();
+        int doorCount = doors.size();
+        int width = draft.getConfig().getGridWidth();
+        RandomGenerator random = draft.getRandom();
+
+        int[] regionOf = labelRegions(draft.getWalls(), doors);
+        int regionCount = 0;
+        for (int region : regionOf) {
+            regionCount = Math.max(regionCount, region + 1);
+        }
+        if (regionCount == 0) {
+            throw new IllegalArgumentException("Grid has no open cells");
+        }
+
+        // Open cells grouped by region; the first free[r] cells of region r are still unoccupied
+        int[] regionStart = new int[regionCount + 1];
+        for (int region : regionOf) {
+            if (region >= 0) {
+                regionStart[region + 1]++;
+            }
+        }
+        for (int r = 0; r < regionCount; r++) {
+            regionStart[r + 1] += regionStart[r];
+        }
+        int[] cells = new int[regionStart[regionCount]];
+        int[] free = new int[regionCount];
+        for (int cell = 0; cell < regionOf.length; cell++) {
+            int region = regionOf[cell];
+            if (region >= 0) {
+                cells[regionStart[region] + free[region]++] = cell;
+            }
+        }
+
+        int root = regionOf[cells[random.nextInt(cells.length)]];
+        RegionTree tree = new RegionTree(regionOf, regionCount, doors, width, root);
+        draft.setPlayer(new Player(takeCell(cells, regionStart, free, root, width, random)));
+
+        GridPosition[] keyPositions = new GridPosition[doorCount];
+        int[] reached = new int[regionCount];
+        reached[0] = root;
+        int reachedCount = 1;
+        long opened = 0;
+        int lastRegion = root;
+        for (int step = 0; step < doorCount; step++) {
+            // Doors leading out of the reached regions are the sources of what is left of the DAG
+            List<Integer> available = new ArrayList<>();
+            for (int d = 0; d < doorCount; d++) {
+                if ((opened & (1L << d)) == 0 && tree.doorFrom[d] >= 0
+                    && (tree.pathMask[tree.doorFrom[d]] & ~opened) == 0) {
+                    available.add(d);
+                }
+            }
+            if (available.isEmpty()) {
+                throw new IllegalStateException("Doors cannot all be reached from the player's region");
+            }
+            int door = available.get(random.nextInt(available.size()));
+            List<Integer> roomy = new ArrayList<>();
+            for (int i = 0; i < reachedCount; i++) {
+                if (free[reached[i]] > 0) {
+                    roomy.add(reached[i]);
+                }
+            }
+            if (roomy.isEmpty()) {
+                throw new IllegalArgumentException("Grid is too small for " + doorCount + " doors");
+            }
+            int keyRegion = roomy.get(random.nextInt(roomy.size()));
+            keyPositions[door] = takeCell(cells, regionStart, free, keyRegion, width, random);
+            opened |= 1L << door;
+            lastRegion = tree.doorTo[door];
+            reached[reachedCount++] = lastRegion;
+        }
+        for (int d = 0; d < doorCount; d++) {
+            draft.addKey(new Key(keyPositions[d], doors.get(d).getColor()));
+        }
+        if (free[lastRegion] == 0) {
+            throw new IllegalArgumentException("Grid is too small for a player and a pad");
+        }
+        draft.setPad(new Pad(takeCell(cells, regionStart, free, lastRegion, width, random)));
+    }
+
+    /**
+     * Removes a random unoccupied cell from a region's free cells.
+     */
+    private static GridPosition takeCell(int[] cells, int[] regionStart, int[] free, int region, int width,
+                                         RandomGenerator random) {
+        int start = regionStart[region];
+        int pick = start + random.nextInt(free[region]);
+        int last = start + --free[region];
+        int cell = cells[pick];
+        cells[pick] = cells[last];
+        cells[last] = cell;
+        return new GridPosition(cell % width, cell / width);
+    }
+
+    /**
+     * Labels the regions left when every door is closed: connected open cells, walls and doors excluded.
+     *
+     * @return per cell, its region id, or -1 for walls and doors
+     */
+    private static int[] labelRegions(WallGrid walls, List<Door> doors) {
+        int width = walls.getWidth();
+        int height = walls.getHeight();
+        int[] regionOf = new int[walls.getCellCount()];
+        for (int cell = 0; cell < regionOf.length; cell++) {
+            regionOf[cell] = walls.isWall(cell) ? -1 : -2; // -2 is open and not yet labeled
+        }
+        for (Door door : doors) {
+            regionOf[door.getGridY() * width + door.getGridX()] = -1;
+        }
+        int[] stack = new int[regionOf.length];
+        int regionCount = 0;
+        for (int seed = 0; seed < regionOf.length; seed++) {
+            if (regionOf[seed] != -2) {
+                continue;
+            }
+            int size = 0;
+            stack[size++] = seed;
+            regionOf[seed] = regionCount;
+            while (size > 0) {
+                int cell = stack[--size];
+                int x = cell % width;
+                int y = cell / width;
+                if (x > 0 && regionOf[cell - 1] == -2) {
+                    regionOf[cell - 1] = regionCount;
+                    stack[size++] = cell - 1;
+                }
+                if (x + 1 < width && regionOf[cell + 1] == -2) {
+                    regionOf[cell + 1] = regionCount;
+                    stack[size++] = cell + 1;
+                }
+                if (y > 0 && regionOf[cell - width] == -2) {
+                    regionOf[cell - width] = regionCount;
+                    stack[size++] = cell - width;
+                }
+                if (y + 1 < height && regionOf[cell + width] == -2) {
+                    regionOf[cell + width] = regionCount;
+                    stack[size++] = cell + width;
+                }
+            }
+            regionCount++;
+        }
+        return regionOf;
+    }
+
+    /**
+     * The regions reachable from a root region through doors, as a breadth-first tree. A door joins the
+     * regions on its two open sides, left and right or else above and below.
+     */
+    private static final class RegionTree {
+        private final int[] doorFrom; // Region a door is entered from, -1 if unreachable
+        private final int[] doorTo; // Region a door leads into
+        private final long[] pathMask; // Per region, the doors passed on the way from the root; -1 if unreachable
+
+        private RegionTree(int[] regionOf, int regionCount, List<Door> doors, int width, int root) {
+            int doorCount = doors.size();
+            int height = regionOf.length / width;
+            int[][] sides = new int[doorCount][];
+            for (int d = 0; d < doorCount; d++) {
+                int x = doors.get(d).getGridX();
+                int y = doors.get(d).getGridY();
+                int left = x > 0 ? regionOf[y * width + x - 1] : -1;
+                int right = x + 1 < width ? regionOf[y * width + x + 1] : -1;
+                int up = y > 0 ? regionOf[(y - 1) * width + x] : -1;
+                int down = y + 1 < height ? regionOf[(y + 1) * width + x] : -1;
+                sides[d] = left >= 0 && right >= 0 ? new int[] {left, right} : new int[] {up, down};
+            }
+            doorFrom = new int[doorCount];
+            doorTo = new int[doorCount];
+            Arrays.fill(doorFrom, -1);
+            Arrays.fill(doorTo, -1);
+            pathMask = new long[regionCount];
+            Arrays.fill(pathMask, -1L);
+            pathMask[root] = 0;
+            int[] queue = new int[regionCount];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int region = queue[head++];
+                for (int d = 0; d < doorCount; d++) {
+                    if (doorFrom[d] >= 0) {
+                        continue;
+                    }
+                    int other = sides[d][0] == region ? sides[d][1] : sides[d][1] == region ? sides[d][0] : -2;
+                    if (other == -2) {
+                        continue; // Not a door of this region
+                    }
+                    doorFrom[d] = region;
+                    doorTo[d] = other;
+                    if (other >= 0 && pathMask[other] == -1L) {
+                        pathMask[other] = pathMask[region] | 1L << d;
+                        queue[tail++] = other;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the dependency DAG of a level from its layout, with key {@code i} opening door {@code i}:
+     * door {@code i} requires every door on the way from the player to the region it is entered from, and
+     * every door on the way to its key's region. A key behind its own door, or out of reach, makes the door
+     * require itself.
+     *
+     * @param grid the level
+     * @return per door, a mask of the doors that must be opened first
+     * @throws NullPointerException if grid is null
+     * @throws IllegalArgumentException if the level has more than 64 doors or not one key per door
+     */
+    public static long[] dependencies(Grid grid) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+        List<Door> doors = grid.getDoors();
+        List<Key> keys = grid.getKeys();
+        if (doors.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " doors are supported");
+        }
+        if (keys.size() != doors.size()) {
+            throw new IllegalArgumentException("Every door needs exactly one key");
+        }
+        int width = grid.getConfig().getGridWidth();
+        int[] regionOf = labelRegions(grid.getWallGrid(), doors);
+        int regionCount = 0;
+        for (int region : regionOf) {
+            regionCount = Math.max(regionCount, region + 1);
+        }
+        GridPosition spawn = grid.getPlayer().getPosition();
+        RegionTree tree = new RegionTree(regionOf, regionCount, doors, width, regionOf[spawn.y() * width + spawn.x()]);
+        long[] requires = new long[doors.size()];
+        for (int d = 0; d < requires.length; d++) {
+            GridPosition key = keys.get(d).getPosition();
+            int keyRegion = regionOf[key.y() * width + key.x()];
+            long toKey = keyRegion >= 0 ? tree.pathMask[keyRegion] : -1L;
+            long toDoor = tree.doorFrom[d] >= 0 ? tree.pathMask[tree.doorFrom[d]] : -1L;
+            requires[d] = toKey | toDoor;
+        }
+        return requires;
+    }
+
+    /**
+     * Orders doors so that each comes after every door it requires, using Kahn's algorithm on bit masks.
+     *
+     * @param requires per door, a mask of the doors that must be opened first
+     * @return the door indices in opening order
+     * @throws NullPointerException if requires is null
+     * @throws IllegalArgumentException if there are more than 64 doors
+     * @throws IllegalStateException if the dependencies contain a cycle, i.e. a key is locked behind its own door
+     */
+    public static int[] openingOrder(long[] requires) {
+        Objects.requireNonNull(requires, "Dependencies cannot be null");
+        if (requires.length > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " doors are supported");
+        }
+        int[] order = new int[requires.length];
+        long opened = 0;
+        for (int count = 0; count < order.length; count++) {
+            int next = -1;
+            for (int i = 0; i < requires.length && next < 0; i++) {
+                if ((opened & (1L << i)) == 0 && (requires[i] & ~opened) == 0) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                throw new IllegalStateException("Door dependencies contain a cycle");
+            }
+            order[count] = next;
+            opened |= 1L << next;
+        }
+        return order;
+    }
+
+    private static int[] shuffledPalette(RandomGenerator random) {
+        return shuffledIndices(ColorPalette.getPaletteSize(), random);
+    }
+
+    private static int[] shuffledIndices(int count, RandomGenerator random) {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indices[i];
+            indices[i] = indices[j];
+            indices[j] = swap;
+        }
+        return indices;
+    }
+}
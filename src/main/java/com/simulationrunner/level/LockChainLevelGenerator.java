@@ -0,0 +1,23 @@
+package com.simulationrunner.level;
+
+/**
+ * Branching regions sealed by one colored door per key, see {@link LockChainGenerator}.
+ */
+public class LockChainLevelGenerator implements LevelGenerator {
+    public static final String NAME = "lock-chain";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void layout(LevelDraft draft) {
+        LockChainGenerator.layout(draft);
+    }
+
+    @Override
+    public void spawn(LevelDraft draft) {
+        LockChainGenerator.spawn(draft);
+    }
+}
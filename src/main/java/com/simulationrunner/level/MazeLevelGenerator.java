@@ -0,0 +1,23 @@
+package com.simulationrunner.level;
+
+/**
+ * A perfect maze with the door two thirds along the path to the pad, see {@link MazeGenerator}.
+ */
+public class MazeLevelGenerator implements LevelGenerator {
+    public static final String NAME = "maze";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void layout(LevelDraft draft) {
+        MazeGenerator.layout(draft);
+    }
+
+    @Override
+    public void spawn(LevelDraft draft) {
+        MazeGenerator.spawn(draft);
+    }
+}
@@ -0,0 +1,198 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.Zobrist;
+
+import java.util.Objects;
+
+/**
+ * Mutable state of one play-through of a {@link LevelTemplate}: the player's cell,
+ * the collected keys as a bitmask, and whether the pad has been reached.
+ * The state is a few words, so forking or resetting a session is a trivial copy,
+ * and a single template can back any number of sessions.
+ *
+ * <p>A Zobrist hash of the state is maintained incrementally: a move XORs out the old cell and in the
+ * new one, and each key pickup or the win toggles one more key, so fingerprinting a state costs a
+ * couple of XORs per tick instead of a walk over the entities.
+ */
+public class Session {
+    private final LevelTemplate template;
+    private int playerCell;
+    private long collectedMask;
+    private boolean won;
+    private long stateHash;
+
+    /**
+     * Starts a session at the template's spawn point.
+     *
+     * @param template the level being played
+     * @throws NullPointerException if template is null
+     */
+    public Session(LevelTemplate template) {
+        this.template = Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        reset();
+    }
+
+    private Session(Session other) {
+        this.template = other.template;
+        copyFrom(other);
+    }
+
+    /**
+     * Moves the player by one step, then picks up any keys on the new cell and checks the win condition.
+     * Moves are ignored once the session has been won.
+     *
+     * @param deltaX the change in X coordinate
+     * @param deltaY the change in Y coordinate
+     * @return true if the player moved
+     */
+    public boolean move(int deltaX, int deltaY) {
+        if (won) {
+            return false;
+        }
+        int target = template.move(playerCell, deltaX, deltaY, collectedMask);
+        if (target < 0) {
+            return false;
+        }
+        stateHash ^= Zobrist.player(playerCell) ^ Zobrist.player(target);
+        playerCell = target;
+        long picked = template.keyMaskAt(target) & ~collectedMask;
+        if (picked != 0) {
+            collectedMask |= picked;
+            stateHash ^= Zobrist.collectedMask(picked);
+        }
+        if (target == template.getPadCell()) {
+            won = true;
+            stateHash ^= Zobrist.won();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the session to the template's initial state.
+     */
+    public void reset() {
+        restore(template.getSpawnCell(), 0L, false);
+    }
+
+    /**
+     * Creates an independent session sharing this session's template and current state.
+     *
+     * @return the forked session
+     */
+    public Session fork() {
+        return new Session(this);
+    }
+
+    /**
+     * Overwrites this session's state with another session's state.
+     *
+     * @param other the session to copy from
+     * @throws NullPointerException if other is null
+     * @throws IllegalArgumentException if other plays a different template
+     */
+    public void copyFrom(Session other) {
+        Objects.requireNonNull(other, "Session cannot be null");
+        if (other.template != template) {
+            throw new IllegalArgumentException("Sessions must share the same template");
+        }
+        this.playerCell = other.playerCell;
+        this.collectedMask = other.collectedMask;
+        this.won = other.won;
+        this.stateHash = other.stateHash;
+    }
+
+    /**
+     * Sets the full state directly, e.g. to rewind undo steps or load a replay keyframe.
+     * The state is not validated against the template.
+     *
+     * @param playerCell the player's cell id
+     * @param collectedMask the collected keys
+     * @param won whether the pad has been reached
+     */
+    public void restore(int playerCell, long collectedMask, boolean won) {
+        this.playerCell = playerCell;
+        this.collectedMask = collectedMask;
+        this.won = won;
+        this.stateHash = computeStateHash(playerCell, collectedMask, won);
+    }
+
+    /**
+     * Applies a recorded step in either direction, used by {@link UndoHistory}. Toggled keys and the
+     * win flag are flipped, so the hash is updated with the same XORs as a regular move.
+     */
+    void applyStep(int playerCell, long toggledKeys, boolean toggleWon) {
+        stateHash ^= Zobrist.player(this.playerCell) ^ Zobrist.player(playerCell) ^ Zobrist.collectedMask(toggledKeys);
+        this.playerCell = playerCell;
+        this.collectedMask ^= toggledKeys;
+        if (toggleWon) {
+            won = !won;
+            stateHash ^= Zobrist.won();
+        }
+    }
+
+    /**
+     * Computes the state hash from scratch, as {@link #getStateHash()} would report for that state.
+     *
+     * @param playerCell the player's cell id
+     * @param collectedMask the collected keys
+     * @param won whether the pad has been reached
+     * @return the 64-bit state hash
+     */
+    public static long computeStateHash(int playerCell, long collectedMask, boolean won) {
+        return Zobrist.player(playerCell) ^ Zobrist.collectedMask(collectedMask) ^ (won ? Zobrist.won() : 0L);
+    }
+
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    public int getPlayerCell() {
+        return playerCell;
+    }
+
+    public GridPosition getPlayerPosition() {
+        return template.positionOf(playerCell);
+    }
+
+    public long getCollectedMask() {
+        return collectedMask;
+    }
+
+    public boolean isKeyCollected(int index) {
+        return (collectedMask & (1L << index)) != 0;
+    }
+
+    public int getCollectedCount() {
+        return Long.bitCount(collectedMask);
+    }
+
+    public boolean hasWon() {
+        return won;
+    }
+
+    /**
+     * Gets the Zobrist hash of the player cell, collected keys and win flag.
+     * Equal states of the same template always have equal hashes.
+     *
+     * @return the 64-bit state hash
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * Gets a fingerprint of the whole game state, including which level is being played.
+     *
+     * @return the template's layout hash combined with the state hash
+     */
+    public long getFingerprint() {
+        return template.getLayoutHash() ^ stateHash;
+    }
+
+    @Override
+    public String toString() {
+        return "Session[position=" + getPlayerPosition() +
+               ", collected=" + Long.toBinaryString(collectedMask) + ", won=" + won + "]";
+    }
+}
@@ -0,0 +1,147 @@
+package com.simulationrunner.level;
+
+import java.util.Objects;
+
+/**
+ * Undo/redo history for a {@link Session}, kept as compact deltas in a fixed-size ring buffer.
+ * Each recorded step stores the cell moved from and to, the keys it collected and whether it won
+ * the level, in parallel primitive arrays; no objects are allocated while playing or rewinding.
+ * Once the buffer is full the oldest step is overwritten.
+ *
+ * <p>All moves of the session must go through {@link #move(Session, int, int)} for the history to stay
+ * consistent with the session's state.
+ */
+public class UndoHistory {
+    private final int depth;
+    private final int[] fromCells;
+    private final int[] toCells;
+    private final long[] collectedKeys;
+    private final boolean[] wins;
+    private int head; // Slot the next step is written to
+    private int undoCount;
+    private int redoCount;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param depth the maximum number of steps that can be undone
+     * @throws IllegalArgumentException if depth is not positive
+     */
+    public UndoHistory(int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be greater than 0");
+        }
+        this.depth = depth;
+        this.fromCells = new int[depth];
+        this.toCells = new int[depth];
+        this.collectedKeys = new long[depth];
+        this.wins = new boolean[depth];
+    }
+
+    /**
+     * Moves the session by one step and records the resulting delta.
+     * Blocked moves change nothing and are not recorded. Recording a step discards any redo steps.
+     *
+     * @param session the session to move
+     * @param deltaX the change in X coordinate
+     * @param deltaY the change in Y coordinate
+     * @return true if the player moved
+     * @throws NullPointerException if session is null
+     */
+    public boolean move(Session session, int deltaX, int deltaY) {
+        Objects.requireNonNull(session, "Session cannot be null");
+        int fromCell = session.getPlayerCell();
+        long maskBefore = session.getCollectedMask();
+        boolean wonBefore = session.hasWon();
+
+        if (!session.move(deltaX, deltaY)) {
+            return false;
+        }
+
+        fromCells[head] = fromCell;
+        toCells[head] = session.getPlayerCell();
+        collectedKeys[head] = session.getCollectedMask() & ~maskBefore;
+        wins[head] = session.hasWon() && !wonBefore;
+        head = (head + 1) % depth;
+        undoCount = Math.min(undoCount + 1, depth);
+        redoCount = 0;
+        return true;
+    }
+
+    /**
+     * Rewinds the session by up to the given number of steps.
+     *
+     * @param session the session to rewind
+     * @param steps the number of steps to undo
+     * @return the number of steps actually undone
+     * @throws NullPointerException if session is null
+     * @throws IllegalArgumentException if steps is negative
+     */
+    public int undo(Session session, int steps) {
+        Objects.requireNonNull(session, "Session cannot be null");
+        if (steps < 0) {
+            throw new IllegalArgumentException("steps must be non-negative");
+        }
+        int count = Math.min(steps, undoCount);
+        for (int i = 0; i < count; i++) {
+            head = (head - 1 + depth) % depth;
+            session.applyStep(fromCells[head], collectedKeys[head], wins[head]);
+        }
+        undoCount -= count;
+        redoCount += count;
+        return count;
+    }
+
+    /**
+     * Replays up to the given number of previously undone steps.
+     *
+     * @param session the session to move forward
+     * @param steps the number of steps to redo
+     * @return the number of steps actually redone
+     * @throws NullPointerException if session is null
+     * @throws IllegalArgumentException if steps is negative
+     */
+    public int redo(Session session, int steps) {
+        Objects.requireNonNull(session, "Session cannot be null");
+        if (steps < 0) {
+            throw new IllegalArgumentException("steps must be non-negative");
+        }
+        int count = Math.min(steps, redoCount);
+        for (int i = 0; i < count; i++) {
+            session.applyStep(toCells[head], collectedKeys[head], wins[head]);
+            head = (head + 1) % depth;
+        }
+        undoCount += count;
+        redoCount -= count;
+        return count;
+    }
+
+    /**
+     * Forgets all recorded steps, e.g. when a new level starts.
+     */
+    public void clear() {
+        head = 0;
+        undoCount = 0;
+        redoCount = 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    public int getRedoCount() {
+        return redoCount;
+    }
+
+    public boolean canUndo() {
+        return undoCount > 0;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+}
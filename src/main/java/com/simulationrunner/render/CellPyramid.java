@@ -0,0 +1,216 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.DenseCellStore;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+/**
+ * A mipmap pyramid over a {@link DenseCellStore}, for drawing maps zoomed out past one pixel per cell.
+ * Level 0 is the store itself; each level above holds one entry per 2x2 block of the level below, set to
+ * the block's dominant type: the most frequent one, ties going to the higher {@link CellType} code so
+ * doors, keys and pads win over walls and walls over floor. The top level is a single entry.
+ *
+ * <p>Levels above 0 take one byte per entry off-heap, a third of the level-0 cell count in total. A changed
+ * cell is propagated with {@link #update(long, long)}, which recomputes one entry per level and stops as
+ * soon as an entry comes out unchanged, so edits cost O(levels) instead of a rebuild.
+ *
+ * <p>Like the store, the pyramid may be read from several threads but must be updated from one.
+ */
+public final class CellPyramid implements AutoCloseable {
+    private static final int TYPE_COUNT = CellType.values().length;
+
+    private final DenseCellStore store;
+    private final long[] widths;
+    private final long[] heights;
+    private final MemorySegment[] levels;
+    private final Arena arena;
+
+    /**
+     * Allocates and builds the pyramid of a store.
+     *
+     * @param store the level-0 cells
+     * @throws NullPointerException if store is null
+     */
+    public CellPyramid(DenseCellStore store) {
+        this.store = Objects.requireNonNull(store, "DenseCellStore cannot be null");
+        int levelCount = 1;
+        while ((store.getWidth() - 1) >> (levelCount - 1) > 0 || (store.getHeight() - 1) >> (levelCount - 1) > 0) {
+            levelCount++;
+        }
+        this.widths = new long[levelCount];
+        this.heights = new long[levelCount];
+        this.levels = new MemorySegment[levelCount];
+        this.arena = Arena.ofShared();
+        widths[0] = store.getWidth();
+        heights[0] = store.getHeight();
+        for (int level = 1; level < levelCount; level++) {
+            widths[level] = (widths[level - 1] + 1) >> 1;
+            heights[level] = (heights[level - 1] + 1) >> 1;
+            levels[level] = arena.allocate(widths[level] * heights[level]);
+        }
+        rebuild();
+    }
+
+    /**
+     * Recomputes every level from the store, e.g. after bulk edits that bypassed {@link #update(long, long)}.
+     */
+    public void rebuild() {
+        int[] counts = new int[TYPE_COUNT];
+        for (int level = 1; level < levels.length; level++) {
+            for (long y = 0; y < heights[level]; y++) {
+                for (long x = 0; x < widths[level]; x++) {
+                    levels[level].set(ValueLayout.JAVA_BYTE, y * widths[level] + x, (byte) aggregate(level, x, y, counts));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the dominant type of the 2x2 block below an entry.
+     */
+    private int aggregate(int level, long x, long y, int[] counts) {
+        int below = level - 1;
+        long childX = x << 1;
+        long childY = y << 1;
+        int best = 0;
+        int bestCount = 0;
+        for (long dy = 0; dy < 2; dy++) {
+            for (long dx = 0; dx < 2; dx++) {
+                if (childX + dx < widths[below] && childY + dy < heights[below]) {
+                    int code = getCode(below, childX + dx, childY + dy);
+                    int count = ++counts[code];
+                    if (count > bestCount || (count == bestCount && code > best)) {
+                        best = code;
+                        bestCount = count;
+                    }
+                }
+            }
+        }
+        for (long dy = 0; dy < 2; dy++) {
+            for (long dx = 0; dx < 2; dx++) {
+                if (childX + dx < widths[below] && childY + dy < heights[below]) {
+                    counts[getCode(below, childX + dx, childY + dy)] = 0;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Propagates a changed store cell up the pyramid.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the number of levels above 0 whose entry changed
+     * @throws IndexOutOfBoundsException if the cell is outside the store
+     */
+    public int update(long x, long y) {
+        Objects.checkIndex(x, widths[0]);
+        Objects.checkIndex(y, heights[0]);
+        int[] counts = new int[TYPE_COUNT];
+        int changed = 0;
+        for (int level = 1; level < levels.length; level++) {
+            x >>= 1;
+            y >>= 1;
+            long entry = y * widths[level] + x;
+            byte code = (byte) aggregate(level, x, y, counts);
+            if (levels[level].get(ValueLayout.JAVA_BYTE, entry) == code) {
+                break; // Levels further up only see this entry, so they cannot change either
+            }
+            levels[level].set(ValueLayout.JAVA_BYTE, entry, code);
+            changed++;
+        }
+        return changed;
+    }
+
+    /**
+     * Sets a store cell and propagates it up the pyramid.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @param type the new type
+     * @throws NullPointerException if type is null
+     * @throws IndexOutOfBoundsException if the cell is outside the store
+     * @throws IllegalArgumentException if the store's encoding is too narrow for the type
+     */
+    public void set(long x, long y, CellType type) {
+        store.set(x, y, type);
+        update(x, y);
+    }
+
+    /**
+     * Gets the code of an entry, without bounds checks.
+     *
+     * @param level the level, 0 for the store's cells
+     * @param x the entry column in that level
+     * @param y the entry row in that level
+     * @return the {@link CellType} code
+     */
+    public int getCode(int level, long x, long y) {
+        return level == 0
+            ? store.getCode(y * widths[0] + x)
+            : levels[level].get(ValueLayout.JAVA_BYTE, y * widths[level] + x);
+    }
+
+    /**
+     * Gets the dominant type of an entry.
+     *
+     * @param level the level, 0 for the store's cells
+     * @param x the entry column in that level
+     * @param y the entry row in that level
+     * @return the type
+     * @throws IndexOutOfBoundsException if the level or entry is out of range
+     */
+    public CellType get(int level, long x, long y) {
+        Objects.checkIndex(level, levels.length);
+        Objects.checkIndex(x, widths[level]);
+        Objects.checkIndex(y, heights[level]);
+        return CellType.fromCode(getCode(level, x, y));
+    }
+
+    /**
+     * Picks the finest level whose entries are at least a pixel wide at a zoom.
+     *
+     * @param cellPixels the width of one store cell in pixels
+     * @return the level, at most the top one
+     * @throws IllegalArgumentException if cellPixels is not positive
+     */
+    public int levelFor(double cellPixels) {
+        if (!(cellPixels > 0)) {
+            throw new IllegalArgumentException("cellPixels must be greater than 0");
+        }
+        int level = 0;
+        while (level < levels.length - 1 && cellPixels * (1L << level) < 1) {
+            level++;
+        }
+        return level;
+    }
+
+    public DenseCellStore getStore() {
+        return store;
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public long getLevelWidth(int level) {
+        return widths[level];
+    }
+
+    public long getLevelHeight(int level) {
+        return heights[level];
+    }
+
+    /**
+     * Frees the levels above 0. The store is not closed.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,169 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.ColorPalette;
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.Objects;
+
+/**
+ * Draws a viewport of a {@link CellPyramid} at any zoom. The level is picked so each drawn entry is at
+ * least a pixel wide, which bounds the entries visited per frame by the viewport's pixel count: a
+ * 16k x 16k map zoomed out to fit a window costs about as much as a window's worth of cells at 1:1.
+ *
+ * <p>Each visible row is drawn as runs of equal entries, one rectangle per run; floor is left to the
+ * cleared background.
+ */
+public class MapRenderer {
+    /**
+     * Receives the rectangles of a frame.
+     */
+    @FunctionalInterface
+    public interface RectSink {
+        /**
+         * Fills a rectangle.
+         *
+         * @param x the left edge in pixels
+         * @param y the top edge in pixels
+         * @param width the width in pixels
+         * @param height the height in pixels
+         * @param type the type to fill it with
+         */
+        void fill(double x, double y, double width, double height, CellType type);
+    }
+
+    private final CellPyramid pyramid;
+    private int lastLevel;
+    private long lastVisitedCount;
+    private long lastRectCount;
+    private long lastFrameNanos;
+
+    /**
+     * Creates a renderer.
+     *
+     * @param pyramid the map to draw
+     * @throws NullPointerException if pyramid is null
+     */
+    public MapRenderer(CellPyramid pyramid) {
+        this.pyramid = Objects.requireNonNull(pyramid, "CellPyramid cannot be null");
+    }
+
+    /**
+     * Clears a canvas area and draws the map into it.
+     *
+     * @param gc the graphics context
+     * @param originX the map column at the left edge of the viewport
+     * @param originY the map row at the top edge of the viewport
+     * @param cellPixels the width of one map cell in pixels
+     * @param viewWidth the viewport width in pixels
+     * @param viewHeight the viewport height in pixels
+     * @return the number of rectangles drawn
+     * @throws NullPointerException if gc is null
+     * @throws IllegalArgumentException if cellPixels is not positive
+     */
+    public long render(GraphicsContext gc, double originX, double originY, double cellPixels,
+                       double viewWidth, double viewHeight) {
+        Objects.requireNonNull(gc, "GraphicsContext cannot be null");
+        gc.clearRect(0, 0, viewWidth, viewHeight);
+        CellType[] current = new CellType[1];
+        return render((x, y, width, height, type) -> {
+            if (type != current[0]) {
+                gc.setFill(ColorPalette.getCellColor(type));
+                current[0] = type;
+            }
+            gc.fillRect(x, y, width, height);
+        }, originX, originY, cellPixels, viewWidth, viewHeight);
+    }
+
+    /**
+     * Draws the map into a sink.
+     *
+     * @param sink receives the rectangles, row by row
+     * @param originX the map column at the left edge of the viewport
+     * @param originY the map row at the top edge of the viewport
+     * @param cellPixels the width of one map cell in pixels
+     * @param viewWidth the viewport width in pixels
+     * @param viewHeight the viewport height in pixels
+     * @return the number of rectangles drawn
+     * @throws NullPointerException if sink is null
+     * @throws IllegalArgumentException if cellPixels is not positive
+     */
+    public long render(RectSink sink, double originX, double originY, double cellPixels,
+                       double viewWidth, double viewHeight) {
+        Objects.requireNonNull(sink, "RectSink cannot be null");
+        long start = System.nanoTime();
+        int level = pyramid.levelFor(cellPixels);
+        long scale = 1L << level;
+        double entryPixels = cellPixels * scale;
+        long levelWidth = pyramid.getLevelWidth(level);
+        long levelHeight = pyramid.getLevelHeight(level);
+        long fromX = Math.max(0, (long) Math.floor(originX / scale));
+        long fromY = Math.max(0, (long) Math.floor(originY / scale));
+        long toX = Math.min(levelWidth, (long) Math.ceil((originX + viewWidth / cellPixels) / scale));
+        long toY = Math.min(levelHeight, (long) Math.ceil((originY + viewHeight / cellPixels) / scale));
+        long rects = 0;
+        for (long y = fromY; y < toY; y++) {
+            double top = (y * scale - originY) * cellPixels;
+            long runStart = fromX;
+            int runCode = -1;
+            for (long x = fromX; x <= toX; x++) {
+                int code = x < toX ? pyramid.getCode(level, x, y) : -1;
+                if (code == runCode) {
+                    continue;
+                }
+                if (runCode > 0) { // Floor is the background
+                    sink.fill((runStart * scale - originX) * cellPixels, top, (x - runStart) * entryPixels,
+                              entryPixels, CellType.fromCode(runCode));
+                    rects++;
+                }
+                runStart = x;
+                runCode = code;
+            }
+        }
+        lastLevel = level;
+        lastVisitedCount = Math.max(0, toX - fromX) * Math.max(0, toY - fromY);
+        lastRectCount = rects;
+        lastFrameNanos = System.nanoTime() - start;
+        return rects;
+    }
+
+    public CellPyramid getPyramid() {
+        return pyramid;
+    }
+
+    /**
+     * Gets the pyramid level the last frame was drawn from.
+     *
+     * @return the level
+     */
+    public int getLastLevel() {
+        return lastLevel;
+    }
+
+    /**
+     * Gets the number of entries read by the last frame.
+     *
+     * @return the visited entry count
+     */
+    public long getLastVisitedCount() {
+        return lastVisitedCount;
+    }
+
+    /**
+     * Gets the number of rectangles drawn by the last frame.
+     *
+     * @return the rectangle count
+     */
+    public long getLastRectCount() {
+        return lastRectCount;
+    }
+
+    /**
+     * Gets the time spent reading the map and emitting rectangles in the last frame.
+     *
+     * @return the frame time in nanoseconds
+     */
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+}
@@ -0,0 +1,410 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.ColorPalette;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Draws a {@link CellPyramid} viewport using every core. The viewport is split into square tiles, each with
+ * an {@code int[]} ARGB buffer and a {@link WritableImage}. Tiles that changed are rasterized in parallel
+ * on a worker pool, each by its own {@link MapRenderer} so the level of detail matches the single-threaded
+ * path.
+ *
+ * <p>{@link #render(GraphicsContext, double, double)} never waits for the workers. Each call uploads the
+ * tiles that finished since the previous one with {@code setPixels}, hands the newly changed tiles to the
+ * workers and blits every tile with {@code drawImage}, so a tile keeps showing its previous image until its
+ * new pixels arrive on a later pulse. {@link #rasterize()} instead blocks until every tile is current.
+ *
+ * <p>A tile changes when the view is panned or zoomed, when the viewport is resized, or when a cell under
+ * it is reported through {@link #invalidateCell(long, long)}. The pyramid may be modified from the FX
+ * thread while tiles are in flight as long as every change is reported that way: a tile that read a
+ * half-updated pyramid is marked again and rasterized once more after it lands.
+ */
+public class TileRenderer implements AutoCloseable {
+    /** Default tile side in pixels. */
+    public static final int DEFAULT_TILE_SIZE = 128;
+
+    private static final int[] CELL_ARGB = new int[CellType.values().length];
+
+    static {
+        for (CellType type : CellType.values()) {
+            CELL_ARGB[type.code()] = ColorPalette.toArgb(ColorPalette.getCellColor(type));
+        }
+    }
+
+    /**
+     * A square of the viewport with its own pixels.
+     */
+    private static final class Tile {
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private final int[] pixels;
+        private WritableImage image;
+        private Future<Tile> raster; // Running on a worker, null once collected
+        private boolean dirty = true;
+        private boolean uploaded = true; // Nothing rasterized yet
+
+        private Tile(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.pixels = new int[width * height];
+        }
+    }
+
+    private final CellPyramid pyramid;
+    private final int tileSize;
+    private final ExecutorService workers;
+    private Tile[] tiles = new Tile[0];
+    private int columns;
+    private int viewWidth;
+    private int viewHeight;
+    private double originX = Double.NaN;
+    private double originY = Double.NaN;
+    private double cellPixels = Double.NaN;
+    private int lastRasterizedCount;
+    private long lastRasterNanos;
+
+    /**
+     * Creates a renderer with the default tile size and one worker per available processor.
+     *
+     * @param pyramid the map to draw
+     * @throws NullPointerException if pyramid is null
+     */
+    public TileRenderer(CellPyramid pyramid) {
+        this(pyramid, DEFAULT_TILE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param pyramid the map to draw
+     * @param tileSize the tile side in pixels
+     * @param workerCount the number of rasterizing threads
+     * @throws NullPointerException if pyramid is null
+     * @throws IllegalArgumentException if tileSize or workerCount is not positive
+     */
+    public TileRenderer(CellPyramid pyramid, int tileSize, int workerCount) {
+        this.pyramid = Objects.requireNonNull(pyramid, "CellPyramid cannot be null");
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be greater than 0");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be greater than 0");
+        }
+        this.tileSize = tileSize;
+        this.workers = Executors.newFixedThreadPool(workerCount,
+            Thread.ofPlatform().name("tile-raster-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Sets the size of the drawn area, recreating the tiles if it changed.
+     *
+     * @param width the viewport width in pixels
+     * @param height the viewport height in pixels
+     * @throws IllegalArgumentException if a dimension is not positive
+     */
+    public void setViewport(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Viewport dimensions must be greater than 0");
+        }
+        if (width == viewWidth && height == viewHeight) {
+            return;
+        }
+        viewWidth = width;
+        viewHeight = height;
+        columns = (width + tileSize - 1) / tileSize;
+        int rows = (height + tileSize - 1) / tileSize;
+        tiles = new Tile[columns * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int x = column * tileSize;
+                int y = row * tileSize;
+                tiles[row * columns + column] = new Tile(x, y, Math.min(tileSize, width - x),
+                                                         Math.min(tileSize, height - y));
+            }
+        }
+    }
+
+    /**
+     * Pans or zooms the view. Every tile is redrawn if anything changed.
+     *
+     * @param originX the map column at the left edge of the viewport
+     * @param originY the map row at the top edge of the viewport
+     * @param cellPixels the width of one map cell in pixels
+     * @throws IllegalArgumentException if cellPixels is not positive
+     */
+    public void setView(double originX, double originY, double cellPixels) {
+        if (!(cellPixels > 0)) {
+            throw new IllegalArgumentException("cellPixels must be greater than 0");
+        }
+        if (originX == this.originX && originY == this.originY && cellPixels == this.cellPixels) {
+            return;
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.cellPixels = cellPixels;
+        for (Tile tile : tiles) {
+            tile.dirty = true;
+        }
+    }
+
+    /**
+     * Marks the tiles showing a cell for redrawing, e.g. after it was set through the pyramid. At zoomed-out
+     * levels the whole pyramid entry holding the cell is covered.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the number of tiles marked
+     */
+    public int invalidateCell(long x, long y) {
+        if (tiles.length == 0 || Double.isNaN(cellPixels)) {
+            return 0; // Nothing is drawn yet
+        }
+        long scale = 1L << pyramid.levelFor(cellPixels);
+        double entryPixels = scale * cellPixels;
+        double left = ((x & -scale) - originX) * cellPixels;
+        double top = ((y & -scale) - originY) * cellPixels;
+        int fromColumn = Math.max(0, (int) Math.floor(left / tileSize));
+        int toColumn = Math.min(columns - 1, (int) Math.floor((left + entryPixels) / tileSize));
+        int fromRow = Math.max(0, (int) Math.floor(top / tileSize));
+        int toRow = Math.min(tiles.length / columns - 1, (int) Math.floor((top + entryPixels) / tileSize));
+        int marked = 0;
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                Tile tile = tiles[row * columns + column];
+                if (!tile.dirty) {
+                    tile.dirty = true;
+                    marked++;
+                }
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Rasterizes every dirty tile on the workers and waits for them, including tiles a previous
+     * {@link #render(GraphicsContext, double, double)} left in flight.
+     *
+     * @return the number of tiles rasterized
+     * @throws IllegalStateException if the viewport or view has not been set, or the renderer is closed
+     */
+    public int rasterize() {
+        checkReady();
+        long start = System.nanoTime();
+        awaitTiles();
+        int submitted = submit();
+        awaitTiles();
+        lastRasterizedCount = submitted;
+        lastRasterNanos = System.nanoTime() - start;
+        return submitted;
+    }
+
+    private void checkReady() {
+        if (tiles.length == 0 || Double.isNaN(cellPixels)) {
+            throw new IllegalStateException("The viewport and view must be set before rendering");
+        }
+        if (workers.isShutdown()) {
+            throw new IllegalStateException("TileRenderer is closed");
+        }
+    }
+
+    /**
+     * Hands every dirty tile that is not already in flight to the workers, without waiting.
+     *
+     * @return the number of tiles submitted
+     */
+    int submit() {
+        int submitted = 0;
+        for (Tile tile : tiles) {
+            if (tile.dirty && tile.raster == null) {
+                double x = originX;
+                double y = originY;
+                double pixels = cellPixels;
+                tile.raster = workers.submit(() -> rasterize(tile, x, y, pixels));
+                tile.dirty = false;
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Collects the tiles whose rasterization finished, so the next upload shows them.
+     *
+     * @return the number of tiles collected
+     */
+    int collect() {
+        int collected = 0;
+        for (Tile tile : tiles) {
+            if (tile.raster != null && tile.raster.isDone()) {
+                finish(tile);
+                collected++;
+            }
+        }
+        return collected;
+    }
+
+    private void awaitTiles() {
+        for (Tile tile : tiles) {
+            if (tile.raster != null) {
+                finish(tile);
+            }
+        }
+    }
+
+    /**
+     * Waits for a tile's rasterization, which also makes its buffer visible to the calling thread.
+     */
+    private void finish(Tile tile) {
+        try {
+            tile.raster.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rasterizing tiles", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not rasterize a tile", e.getCause());
+        } finally {
+            tile.raster = null;
+        }
+        tile.uploaded = false;
+    }
+
+    /**
+     * Draws a tile's part of the view into its buffer. Runs on a worker.
+     */
+    private Tile rasterize(Tile tile, double originX, double originY, double cellPixels) {
+        int[] pixels = tile.pixels;
+        int width = tile.width;
+        int height = tile.height;
+        Arrays.fill(pixels, CELL_ARGB[CellType.FLOOR.code()]);
+        MapRenderer renderer = new MapRenderer(pyramid);
+        renderer.render((x, y, rectWidth, rectHeight, type) -> {
+            int fromX = Math.max(0, (int) Math.round(x));
+            int toX = Math.min(width, (int) Math.round(x + rectWidth));
+            int fromY = Math.max(0, (int) Math.round(y));
+            int toY = Math.min(height, (int) Math.round(y + rectHeight));
+            if (fromX >= toX) {
+                return; // Narrower than half a pixel
+            }
+            int argb = CELL_ARGB[type.code()];
+            for (int row = fromY; row < toY; row++) {
+                Arrays.fill(pixels, row * width + fromX, row * width + toX, argb);
+            }
+        }, originX + tile.x / cellPixels, originY + tile.y / cellPixels, cellPixels, width, height);
+        return tile;
+    }
+
+    /**
+     * Uploads the tiles the workers finished since the last frame, starts rasterizing the tiles that changed
+     * and blits every tile that has an image, without waiting for the workers. Must be called on the thread
+     * owning the graphics context.
+     *
+     * @param gc the graphics context
+     * @param x the left edge of the viewport on the canvas
+     * @param y the top edge of the viewport on the canvas
+     * @return the number of tiles showing new pixels in this frame
+     * @throws NullPointerException if gc is null
+     * @throws IllegalStateException if the viewport or view has not been set, or the renderer is closed
+     */
+    public int render(GraphicsContext gc, double x, double y) {
+        Objects.requireNonNull(gc, "GraphicsContext cannot be null");
+        checkReady();
+        collect();
+        int uploaded = upload();
+        long start = System.nanoTime();
+        lastRasterizedCount = submit();
+        lastRasterNanos = System.nanoTime() - start;
+        for (Tile tile : tiles) {
+            if (tile.image != null) { // Not rasterized yet
+                gc.drawImage(tile.image, x + tile.x, y + tile.y);
+            }
+        }
+        return uploaded;
+    }
+
+    /**
+     * Copies every collected buffer into its tile's image. Must not run while those tiles are resubmitted.
+     *
+     * @return the number of images written
+     */
+    int upload() {
+        int written = 0;
+        for (Tile tile : tiles) {
+            if (tile.uploaded) {
+                continue;
+            }
+            if (tile.image == null) {
+                tile.image = new WritableImage(tile.width, tile.height);
+            }
+            tile.image.getPixelWriter().setPixels(0, 0, tile.width, tile.height,
+                PixelFormat.getIntArgbInstance(), tile.pixels, 0, tile.width);
+            tile.uploaded = true;
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Gets the image of a tile, as of the last upload.
+     *
+     * @param column the tile column
+     * @param row the tile row
+     * @return the image, or null if the tile was never uploaded
+     */
+    WritableImage getTileImage(int column, int row) {
+        return tiles[row * columns + column].image;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Gets the number of tiles covering the viewport.
+     *
+     * @return the tile count
+     */
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Gets the number of tiles handed to the workers by the last frame or rasterization.
+     *
+     * @return the rasterized tile count
+     */
+    public int getLastRasterizedCount() {
+        return lastRasterizedCount;
+    }
+
+    /**
+     * Gets the wall time the calling thread spent on the last rasterization: waiting for the workers in
+     * {@link #rasterize()}, or only submitting tiles in {@link #render(GraphicsContext, double, double)}.
+     *
+     * @return the raster time in nanoseconds
+     */
+    public long getLastRasterNanos() {
+        return lastRasterNanos;
+    }
+
+    /**
+     * Stops the workers.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.simulationrunner.replay;
+
+/**
+ * Player inputs recorded in a replay log, one per tick.
+ */
+public enum ReplayAction {
+    UP(0, -1),
+    LEFT(-1, 0),
+    DOWN(0, 1),
+    RIGHT(1, 0),
+    UNDO(0, 0),
+    REDO(0, 0);
+
+    private static final ReplayAction[] VALUES = values();
+
+    private final int deltaX;
+    private final int deltaY;
+
+    ReplayAction(int deltaX, int deltaY) {
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+    }
+
+    public int getDeltaX() {
+        return deltaX;
+    }
+
+    public int getDeltaY() {
+        return deltaY;
+    }
+
+    /**
+     * Checks whether this action is a single-step move.
+     *
+     * @return true for the four directions, false for undo and redo
+     */
+    public boolean isMove() {
+        return this != UNDO && this != REDO;
+    }
+
+    /**
+     * Gets the action for an encoded opcode.
+     *
+     * @param code the opcode, as returned by {@link #ordinal()}
+     * @return the action
+     * @throws IllegalArgumentException if the code does not name an action
+     */
+    public static ReplayAction fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown replay action: " + code);
+        }
+        return VALUES[code];
+    }
+}
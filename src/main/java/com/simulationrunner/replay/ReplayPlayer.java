@@ -0,0 +1,220 @@
+package com.simulationrunner.replay;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.Varints;
+import com.simulationrunner.level.LevelCodec;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Replays a log written by {@link ReplayRecorder} against a fresh {@link Session}, without any UI.
+ * The file is memory-mapped; seeking jumps to the nearest earlier keyframe through the index and
+ * replays at most one keyframe interval of ticks, so seeking costs O(K) regardless of the replay length.
+ * Each keyframe reached while stepping is checked against the replayed state to detect divergence.
+ */
+public class ReplayPlayer {
+    private final ByteBuffer data;
+    private final Grid level;
+    private final Session session;
+    private final int keyframeInterval;
+    private final int ticksStart;
+    private final long tickCount;
+    private final long[] keyframeTicks;
+    private final long[] keyframeOffsets;
+    private long tick;
+
+    private ReplayPlayer(ByteBuffer data, Grid level, int keyframeInterval, int ticksStart,
+                         long tickCount, long[] keyframeTicks, long[] keyframeOffsets) {
+        this.data = data;
+        this.level = level;
+        this.session = new Session(LevelTemplate.from(level));
+        this.keyframeInterval = keyframeInterval;
+        this.ticksStart = ticksStart;
+        this.tickCount = tickCount;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        data.position(ticksStart);
+    }
+
+    /**
+     * Maps a replay file and reads its header and keyframe index. The player starts at tick 0.
+     *
+     * @param path the replay file
+     * @return the opened player
+     * @throws IOException if the file cannot be read or is not a valid replay
+     * @throws NullPointerException if path is null
+     */
+    public static ReplayPlayer open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Replay file too large");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int size = data.limit();
+        if (size < 5 + ReplayRecorder.TRAILER_SIZE || data.getInt(0) != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        if (data.get(4) != ReplayRecorder.VERSION) {
+            throw new IOException("Unsupported replay version: " + data.get(4));
+        }
+        if (data.getInt(size - Integer.BYTES) != ReplayRecorder.INDEX_MAGIC) {
+            throw new IOException("Replay file is incomplete");
+        }
+
+        try {
+            data.position(5);
+            int keyframeInterval = Varints.getInt(data);
+            int recordLength = Varints.getInt(data);
+            int recordEnd = data.position() + recordLength;
+            Grid level = LevelCodec.decode(data.slice(data.position(), recordLength));
+
+            int trailer = size - ReplayRecorder.TRAILER_SIZE;
+            long indexOffset = data.getLong(trailer);
+            long tickCount = data.getLong(trailer + Long.BYTES);
+            int keyframeCount = data.getInt(trailer + 2 * Long.BYTES);
+            if (keyframeInterval <= 0 || tickCount < 0 || keyframeCount < 0 || indexOffset < recordEnd
+                || (trailer - indexOffset) != (long) keyframeCount * 2 * Long.BYTES) {
+                throw new IOException("Corrupt replay index");
+            }
+
+            long[] keyframeTicks = new long[keyframeCount];
+            long[] keyframeOffsets = new long[keyframeCount];
+            for (int i = 0; i < keyframeCount; i++) {
+                int entry = (int) indexOffset + i * 2 * Long.BYTES;
+                keyframeTicks[i] = data.getLong(entry);
+                keyframeOffsets[i] = data.getLong(entry + Long.BYTES);
+                if (keyframeOffsets[i] < recordEnd || keyframeOffsets[i] >= indexOffset) {
+                    throw new IOException("Corrupt replay index");
+                }
+            }
+            data.limit((int) indexOffset);
+            return new ReplayPlayer(data, level, keyframeInterval, recordEnd, tickCount,
+                keyframeTicks, keyframeOffsets);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Corrupt replay file", e);
+        }
+    }
+
+    /**
+     * Applies the next recorded tick to the session.
+     *
+     * @return false if the end of the replay has been reached
+     * @throws IllegalStateException if the replayed state does not match a recorded keyframe
+     */
+    public boolean step() {
+        if (tick >= tickCount) {
+            return false;
+        }
+        ReplayAction action = ReplayAction.fromCode(Varints.getInt(data));
+        if (action.isMove()) {
+            session.move(action.getDeltaX(), action.getDeltaY());
+        } else {
+            readState();
+        }
+        tick++;
+
+        if (data.hasRemaining() && data.get(data.position()) == ReplayRecorder.KEYFRAME) {
+            data.get();
+            int cell = session.getPlayerCell();
+            long mask = session.getCollectedMask();
+            boolean won = session.hasWon();
+            readState();
+            if (cell != session.getPlayerCell() || mask != session.getCollectedMask() || won != session.hasWon()) {
+                throw new IllegalStateException("Replay diverged from the recording at tick " + tick);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Steps until the end of the replay.
+     *
+     * @return the session in its final state
+     */
+    public Session playToEnd() {
+        while (step()) {
+            // Keep stepping
+        }
+        return session;
+    }
+
+    /**
+     * Moves the replay to the given tick, i.e. the state after that many ticks have been applied.
+     *
+     * @param target the tick to seek to
+     * @throws IllegalArgumentException if target is not within [0, getTickCount()]
+     */
+    public void seek(long target) {
+        if (target < 0 || target > tickCount) {
+            throw new IllegalArgumentException("Tick must be within [0, " + tickCount + "]");
+        }
+        if (target < tick || target - tick > keyframeInterval) {
+            int index = Arrays.binarySearch(keyframeTicks, target);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0) {
+                data.position((int) keyframeOffsets[index] + 1);
+                readState();
+                tick = keyframeTicks[index];
+            } else {
+                data.position(ticksStart);
+                session.reset();
+                tick = 0;
+            }
+        }
+        while (tick < target) {
+            step();
+        }
+    }
+
+    public Grid getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the session being replayed. It is updated in place by {@link #step()} and {@link #seek(long)}.
+     *
+     * @return the session
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the number of ticks applied so far.
+     *
+     * @return the current tick
+     */
+    public long getPosition() {
+        return tick;
+    }
+
+    private void readState() {
+        int cell = Varints.getInt(data);
+        long mask = Varints.getLong(data);
+        boolean won = data.get() != 0;
+        session.restore(cell, mask, won);
+    }
+}
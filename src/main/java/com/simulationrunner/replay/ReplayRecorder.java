@@ -0,0 +1,184 @@
+package com.simulationrunner.replay;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.Varints;
+import com.simulationrunner.level.LevelCodec;
+import com.simulationrunner.level.Session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Records a play session as a compact replay log that {@link ReplayPlayer} can replay headlessly.
+ *
+ * <p>File layout:
+ * <pre>
+ * int     magic 'SRRP'
+ * byte    version
+ * varint  keyframe interval K
+ * varint  level record length, then the level encoded by {@link LevelCodec} (includes seed and config)
+ * ticks   one varint opcode per tick: 0-3 moves, 4 undo, 5 redo; undo and redo are followed
+ *         by the resulting state so replaying them needs no undo history
+ * frames  after every K-th tick, opcode 6 followed by the full state
+ * index   per keyframe: long tick, long file offset
+ * trailer long index offset, long tick count, int keyframe count, int magic 'SRRI'
+ * </pre>
+ * A state is varint player cell, varint collected-key mask and a won byte.
+ * Output is staged in a direct buffer and written to a {@link FileChannel} in large chunks.
+ */
+public class ReplayRecorder implements AutoCloseable {
+    static final int MAGIC = 0x53525250; // "SRRP"
+    static final int INDEX_MAGIC = 0x53525249; // "SRRI"
+    static final byte VERSION = 1;
+    static final int KEYFRAME = 6;
+    static final int TRAILER_SIZE = 24;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_STATE_SIZE = 5 + 10 + 1;
+
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final int keyframeInterval;
+    private long[] keyframes = new long[64]; // Pairs of (tick, offset)
+    private int keyframeCount;
+    private long tickCount;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates (or truncates) a replay file and writes its header.
+     *
+     * @param path the file to write
+     * @param level the level being played
+     * @param keyframeInterval the number of ticks between full state keyframes
+     * @throws IOException if the file cannot be written
+     * @throws NullPointerException if path or level is null
+     * @throws IllegalArgumentException if keyframeInterval is not positive or the level cannot be encoded
+     */
+    public ReplayRecorder(Path path, Grid level, int keyframeInterval) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        Objects.requireNonNull(level, "Level cannot be null");
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeInterval must be greater than 0");
+        }
+        byte[] record = LevelCodec.encode(level);
+        this.keyframeInterval = keyframeInterval;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(4 + 1 + 5 + 5 + record.length);
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        Varints.putInt(header, keyframeInterval);
+        Varints.putInt(header, record.length);
+        header.put(record);
+        header.flip();
+        position = header.remaining();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Records one tick.
+     *
+     * @param action the action taken this tick (recorded even if it was blocked)
+     * @param sessionAfter the session state after the action was applied
+     * @throws IOException if writing fails
+     * @throws NullPointerException if action or sessionAfter is null
+     * @throws IllegalStateException if the recorder has been closed
+     */
+    public void record(ReplayAction action, Session sessionAfter) throws IOException {
+        Objects.requireNonNull(action, "Action cannot be null");
+        Objects.requireNonNull(sessionAfter, "Session cannot be null");
+        if (closed) {
+            throw new IllegalStateException("ReplayRecorder is closed");
+        }
+        ensureRoom(1 + MAX_STATE_SIZE);
+        put(action.ordinal());
+        if (!action.isMove()) {
+            putState(sessionAfter);
+        }
+        tickCount++;
+
+        if (tickCount % keyframeInterval == 0) {
+            ensureRoom(1 + MAX_STATE_SIZE);
+            if (keyframeCount * 2 == keyframes.length) {
+                keyframes = Arrays.copyOf(keyframes, keyframes.length * 2);
+            }
+            keyframes[keyframeCount * 2] = tickCount;
+            keyframes[keyframeCount * 2 + 1] = position;
+            keyframeCount++;
+            put(KEYFRAME);
+            putState(sessionAfter);
+        }
+    }
+
+    /**
+     * Gets the number of ticks recorded so far.
+     *
+     * @return the tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Writes the keyframe index and trailer, then closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel) {
+            long indexOffset = position;
+            for (int i = 0; i < keyframeCount * 2; i++) {
+                ensureRoom(Long.BYTES);
+                writeBuffer.putLong(keyframes[i]);
+            }
+            ensureRoom(TRAILER_SIZE);
+            writeBuffer.putLong(indexOffset);
+            writeBuffer.putLong(tickCount);
+            writeBuffer.putInt(keyframeCount);
+            writeBuffer.putInt(INDEX_MAGIC);
+            flush();
+        }
+    }
+
+    private void put(int opcode) {
+        int before = writeBuffer.position();
+        Varints.putInt(writeBuffer, opcode);
+        position += writeBuffer.position() - before;
+    }
+
+    private void putState(Session session) {
+        int before = writeBuffer.position();
+        Varints.putInt(writeBuffer, session.getPlayerCell());
+        Varints.putLong(writeBuffer, session.getCollectedMask());
+        writeBuffer.put((byte) (session.hasWon() ? 1 : 0));
+        position += writeBuffer.position() - before;
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (writeBuffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+}
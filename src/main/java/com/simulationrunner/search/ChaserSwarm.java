@@ -0,0 +1,170 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.entity.Chaser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves a group of {@link Chaser}s toward the player along one shared {@link FlowField}.
+ *
+ * <p>A tick recomputes the field only when the player changed cells, then moves each chaser one step in the
+ * direction stored at its cell. An occupancy bitset keeps chasers from stacking, so a chaser whose next cell
+ * is taken waits a tick. Per-chaser cost is a few array reads, so a tick with thousands of chasers costs
+ * little more than the capped field recompute; {@link #getLastTickNanos()} reports the actual cost.
+ *
+ * <p>A swarm is not thread-safe.
+ */
+public class ChaserSwarm {
+    private final FlowField field;
+    private final int width;
+    private final int height;
+    private final long[] occupied;
+    private final List<Chaser> chasers = new ArrayList<>();
+    private long lastTickNanos;
+    private long totalTickNanos;
+    private long tickCount;
+
+    /**
+     * Creates an empty swarm.
+     *
+     * @param grid the level the chasers move in
+     * @param radius how far from the player chasers notice it; chasers further away stand still
+     * @throws NullPointerException if grid is null
+     * @throws IllegalArgumentException if radius is negative
+     */
+    public ChaserSwarm(Grid grid, int radius) {
+        this.field = new FlowField(grid, radius);
+        this.width = grid.getConfig().getGridWidth();
+        this.height = grid.getConfig().getGridHeight();
+        this.occupied = new long[(width * height + 63) >>> 6];
+    }
+
+    /**
+     * Adds a chaser.
+     *
+     * @param position where the chaser starts
+     * @return the chaser
+     * @throws NullPointerException if position is null
+     * @throws IllegalArgumentException if the cell is blocked, taken by another chaser or outside the grid
+     */
+    public Chaser spawn(GridPosition position) {
+        Objects.requireNonNull(position, "Position cannot be null");
+        if (position.x() >= width || position.y() >= height || field.isBlocked(position.x(), position.y())) {
+            throw new IllegalArgumentException("Chasers must spawn on an open cell: " + position);
+        }
+        int cell = position.y() * width + position.x();
+        if (isOccupied(cell)) {
+            throw new IllegalArgumentException("Cell is already taken by a chaser: " + position);
+        }
+        occupied[cell >>> 6] |= 1L << cell;
+        Chaser chaser = new Chaser(position);
+        chasers.add(chaser);
+        return chaser;
+    }
+
+    /**
+     * Advances every chaser one step toward the player.
+     *
+     * @param player the player's position
+     * @return the number of chasers that moved
+     * @throws NullPointerException if player is null
+     * @throws IndexOutOfBoundsException if the player is outside the grid
+     */
+    public int tick(GridPosition player) {
+        Objects.requireNonNull(player, "Player position cannot be null");
+        long start = System.nanoTime();
+        field.recompute(player.x(), player.y());
+        int moved = 0;
+        for (Chaser chaser : chasers) {
+            int x = chaser.getGridX();
+            int y = chaser.getGridY();
+            int direction = field.getDirection(x, y);
+            if (direction == FlowField.NO_DIRECTION) {
+                continue;
+            }
+            int nextX = x + FlowField.getDeltaX(direction);
+            int nextY = y + FlowField.getDeltaY(direction);
+            int next = nextY * width + nextX;
+            if (isOccupied(next)) {
+                continue; // Wait for the chaser ahead to move on
+            }
+            int cell = y * width + x;
+            occupied[cell >>> 6] &= ~(1L << cell);
+            occupied[next >>> 6] |= 1L << next;
+            chaser.moveTo(new GridPosition(nextX, nextY));
+            moved++;
+        }
+        lastTickNanos = System.nanoTime() - start;
+        totalTickNanos += lastTickNanos;
+        tickCount++;
+        return moved;
+    }
+
+    private boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Checks whether a chaser has reached the player.
+     *
+     * @param player the player's position
+     * @return true if a chaser stands on the player's cell
+     * @throws NullPointerException if player is null
+     */
+    public boolean hasCaught(GridPosition player) {
+        Objects.requireNonNull(player, "Player position cannot be null");
+        return isOccupied(player);
+    }
+
+    /**
+     * Checks whether a chaser stands on a cell.
+     *
+     * @param position the cell
+     * @return true if the cell is inside the grid and taken by a chaser
+     * @throws NullPointerException if position is null
+     */
+    public boolean isOccupied(GridPosition position) {
+        Objects.requireNonNull(position, "Position cannot be null");
+        return position.x() < width && position.y() < height && isOccupied(position.y() * width + position.x());
+    }
+
+    /**
+     * Gets the chasers in spawn order.
+     *
+     * @return an unmodifiable view of the chasers
+     */
+    public List<Chaser> getChasers() {
+        return Collections.unmodifiableList(chasers);
+    }
+
+    public int size() {
+        return chasers.size();
+    }
+
+    public FlowField getField() {
+        return field;
+    }
+
+    /**
+     * Gets the wall-clock time of the most recent tick, field recompute included.
+     *
+     * @return the tick time in nanoseconds, or 0 if no tick ran yet
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets the average wall-clock time of a tick.
+     *
+     * @return the average tick time in nanoseconds, or 0 if no tick ran yet
+     */
+    public long getAverageTickNanos() {
+        return tickCount == 0 ? 0 : totalTickNanos / tickCount;
+    }
+}
@@ -0,0 +1,224 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.Zobrist;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.CorridorLevelGenerator;
+import com.simulationrunner.level.LevelGenerator;
+import com.simulationrunner.level.LevelTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates levels whose difficulty falls inside a requested {@link LevelDifficulty.Band}.
+ * A fixed pool of worker threads builds candidate grids from consecutive seeds, solves each one with
+ * its own {@link LevelSolver} and streams accepted levels into a bounded queue; workers block while the
+ * queue is full, so generation only runs ahead of the consumer by the queue capacity.
+ *
+ * <p>Solving is CPU-bound, so workers are platform threads and the pool is usually sized to the
+ * number of cores. {@link #getAcceptanceRate()} and {@link #getLevelsPerSecond()} tell how many
+ * workers a band needs to keep up with the consumer.
+ */
+public class DifficultyGenerator implements AutoCloseable {
+    private static final long MAX_SOLVER_STATES = 1 << 20;
+
+    /**
+     * An accepted level together with its measured difficulty.
+     *
+     * @param level the generated level
+     * @param difficulty its difficulty metrics
+     */
+    public record RatedLevel(Grid level, LevelDifficulty difficulty) {
+    }
+
+    private final LevelGenerator generator;
+    private final GridConfig config;
+    private final int keyCount;
+    private final LevelDifficulty.Band band;
+    private final long baseSeed;
+    private final BlockingQueue<RatedLevel> accepted;
+    private final ExecutorService workers;
+    private final AtomicLong nextCandidate = new AtomicLong();
+    private final AtomicLong candidateCount = new AtomicLong();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final long startNanos;
+    private volatile boolean closed;
+
+    /**
+     * Creates a generator and immediately starts its workers.
+     *
+     * @param config the grid configuration for every candidate
+     * @param keyCount the number of keys per candidate
+     * @param band the accepted difficulty band
+     * @param workerCount the number of worker threads
+     * @param capacity the number of accepted levels kept ready
+     * @param baseSeed the seed that candidate seeds are derived from, making the candidate sequence reproducible
+     * @throws NullPointerException if config or band is null
+     * @throws IllegalArgumentException if keyCount is negative, or workerCount or capacity is not positive
+     */
+    public DifficultyGenerator(GridConfig config, int keyCount, LevelDifficulty.Band band, int workerCount,
+                               int capacity, long baseSeed) {
+        this(new CorridorLevelGenerator(), config, keyCount, band, workerCount, capacity, baseSeed);
+    }
+
+    /**
+     * Creates a generator building candidates with the given level generator and immediately starts its workers.
+     *
+     * @param generator the level generator, e.g. one looked up with {@link com.simulationrunner.level.LevelGenerators}
+     * @param config the grid configuration for every candidate
+     * @param keyCount the number of keys per candidate
+     * @param band the accepted difficulty band
+     * @param workerCount the number of worker threads
+     * @param capacity the number of accepted levels kept ready
+     * @param baseSeed the seed that candidate seeds are derived from, making the candidate sequence reproducible
+     * @throws NullPointerException if generator, config or band is null
+     * @throws IllegalArgumentException if keyCount is negative, or workerCount or capacity is not positive
+     */
+    public DifficultyGenerator(LevelGenerator generator, GridConfig config, int keyCount, LevelDifficulty.Band band,
+                               int workerCount, int capacity, long baseSeed) {
+        this.generator = Objects.requireNonNull(generator, "LevelGenerator cannot be null");
+        this.config = Objects.requireNonNull(config, "GridConfig cannot be null");
+        this.band = Objects.requireNonNull(band, "Band cannot be null");
+        if (keyCount < 0) {
+            throw new IllegalArgumentException("keyCount must be non-negative");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be greater than 0");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        this.keyCount = keyCount;
+        this.baseSeed = baseSeed;
+        this.accepted = new ArrayBlockingQueue<>(capacity);
+        this.workers = Executors.newFixedThreadPool(workerCount,
+            Thread.ofPlatform().name("level-search-", 0).daemon(true).factory());
+        this.startNanos = System.nanoTime();
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    private void work() {
+        try (LevelSolver solver = new LevelSolver(MAX_SOLVER_STATES)) {
+            while (!closed && !Thread.currentThread().isInterrupted()) {
+                long seed = Zobrist.mix(baseSeed + nextCandidate.getAndIncrement());
+                Grid grid;
+                try {
+                    grid = generator.generate(config, keyCount, seed);
+                } catch (IllegalArgumentException e) {
+                    candidateCount.incrementAndGet(); // The generator could not fit this candidate
+                    continue;
+                }
+                LevelDifficulty difficulty = LevelDifficulty.measure(solver, LevelTemplate.from(grid));
+                candidateCount.incrementAndGet();
+                if (difficulty != null && band.contains(difficulty)) {
+                    acceptedCount.incrementAndGet();
+                    accepted.put(new RatedLevel(grid, difficulty));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Closed while waiting for room in the queue
+        }
+    }
+
+    /**
+     * Takes the next accepted level, waiting until one is available.
+     *
+     * @return the level and its difficulty
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the generator has been closed
+     */
+    public RatedLevel take() throws InterruptedException {
+        checkOpen();
+        return accepted.take();
+    }
+
+    /**
+     * Takes the next accepted level, waiting up to the given time.
+     *
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return the level and its difficulty, or null if none was accepted in time
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the generator has been closed
+     */
+    public RatedLevel poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        return accepted.poll(timeout, unit);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("DifficultyGenerator is closed");
+        }
+    }
+
+    public LevelDifficulty.Band getBand() {
+        return band;
+    }
+
+    /**
+     * Gets the number of candidate levels built and measured so far.
+     *
+     * @return the candidate count
+     */
+    public long getCandidateCount() {
+        return candidateCount.get();
+    }
+
+    /**
+     * Gets the number of candidates that fell inside the band.
+     *
+     * @return the accepted count
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * Gets the fraction of candidates that fell inside the band.
+     *
+     * @return the acceptance rate between 0 and 1, or 0 if nothing was measured yet
+     */
+    public double getAcceptanceRate() {
+        long candidates = candidateCount.get();
+        return candidates == 0 ? 0 : (double) acceptedCount.get() / candidates;
+    }
+
+    /**
+     * Gets the accepted level throughput since the generator started.
+     *
+     * @return accepted levels per second
+     */
+    public double getLevelsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : acceptedCount.get() / seconds;
+    }
+
+    /**
+     * Gets the candidate throughput since the generator started.
+     *
+     * @return candidates built and measured per second
+     */
+    public double getCandidatesPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : candidateCount.get() / seconds;
+    }
+
+    /**
+     * Stops the workers and discards levels that were not taken.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdownNow();
+        accepted.clear();
+    }
+}
@@ -0,0 +1,289 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.level.LevelTemplate;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Breadth-first distance maps of a {@link LevelTemplate}: one {@code int[]} per target (the pad, each key
+ * and each door) holding the number of moves from every cell to that target, so hints and bots answer
+ * "which way now" with a few array reads instead of a search per step.
+ *
+ * <p>Fields are computed once with every door closed. When collected keys open a door, {@link #update(long)}
+ * repairs each field from the door cell outward, touching only the cells whose distance shrinks. Closing a
+ * door, which only happens when a key pickup is undone, rebuilds the fields from scratch.
+ *
+ * <p>Memory is {@code 4 * cells} bytes per target. A field set is not thread-safe.
+ */
+public class DistanceFields {
+    /** Distance of cells from which a target cannot be reached. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int[] DELTA_X = {0, -1, 0, 1};
+    private static final int[] DELTA_Y = {-1, 0, 1, 0};
+
+    private final LevelTemplate template;
+    private final int width;
+    private final int height;
+    private final int[] targets; // Target cell of each field: pad (if any), then keys, then doors
+    private final int[][] fields;
+    private final int keyBase;
+    private final int doorBase;
+    private final long[] closedDoorBits; // One bit per cell, set on every closed door
+    private final boolean[] doorOpen;
+    private final int[] queue;
+
+    /**
+     * Computes the fields of a level with every door closed.
+     *
+     * @param template the level
+     * @throws NullPointerException if template is null
+     */
+    public DistanceFields(LevelTemplate template) {
+        this.template = Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        this.width = template.getWidth();
+        this.height = template.getHeight();
+        int padCount = template.getPadCell() >= 0 ? 1 : 0;
+        this.keyBase = padCount;
+        this.doorBase = keyBase + template.getKeyCount();
+        this.targets = new int[doorBase + template.getDoorCount()];
+        if (padCount > 0) {
+            targets[0] = template.getPadCell();
+        }
+        for (int i = 0; i < template.getKeyCount(); i++) {
+            targets[keyBase + i] = template.getKeyCell(i);
+        }
+        for (int i = 0; i < template.getDoorCount(); i++) {
+            targets[doorBase + i] = template.getDoorCell(i);
+        }
+        this.fields = new int[targets.length][template.getCellCount()];
+        this.closedDoorBits = new long[(template.getCellCount() + 63) >>> 6];
+        this.doorOpen = new boolean[template.getDoorCount()];
+        this.queue = new int[template.getCellCount()];
+        rebuild();
+    }
+
+    /**
+     * Brings the fields in line with the doors opened by a set of collected keys.
+     *
+     * @param collectedMask the keys collected so far
+     * @return true if any door changed state
+     */
+    public boolean update(long collectedMask) {
+        boolean closing = false;
+        boolean changed = false;
+        for (int door = 0; door < doorOpen.length; door++) {
+            boolean open = (collectedMask & template.getDoorKeyMask(door)) != 0;
+            if (open != doorOpen[door]) {
+                closing |= !open;
+                changed = true;
+            }
+        }
+        if (closing) {
+            for (int door = 0; door < doorOpen.length; door++) {
+                doorOpen[door] = (collectedMask & template.getDoorKeyMask(door)) != 0;
+            }
+            rebuild();
+            return true;
+        }
+        for (int door = 0; changed && door < doorOpen.length; door++) {
+            if (!doorOpen[door] && (collectedMask & template.getDoorKeyMask(door)) != 0) {
+                openDoor(door);
+            }
+        }
+        return changed;
+    }
+
+    private void rebuild() {
+        Arrays.fill(closedDoorBits, 0);
+        for (int door = 0; door < doorOpen.length; door++) {
+            if (!doorOpen[door]) {
+                int cell = template.getDoorCell(door);
+                closedDoorBits[cell >>> 6] |= 1L << cell;
+            }
+        }
+        for (int field = 0; field < fields.length; field++) {
+            int[] distances = fields[field];
+            Arrays.fill(distances, UNREACHABLE);
+            distances[targets[field]] = 0;
+            queue[0] = targets[field];
+            propagate(distances, 1);
+        }
+    }
+
+    /**
+     * Opens a door and lets the shorter distances through it flow outward in every field.
+     */
+    private void openDoor(int door) {
+        doorOpen[door] = true;
+        int cell = template.getDoorCell(door);
+        closedDoorBits[cell >>> 6] &= ~(1L << cell);
+        for (int[] distances : fields) {
+            int best = distances[cell];
+            for (int direction = 0; direction < DELTA_X.length; direction++) {
+                int neighbor = neighbor(cell, direction);
+                if (neighbor >= 0 && distances[neighbor] != UNREACHABLE && distances[neighbor] + 1 < best) {
+                    best = distances[neighbor] + 1;
+                }
+            }
+            if (best < distances[cell]) {
+                distances[cell] = best;
+                queue[0] = cell;
+                propagate(distances, 1);
+            }
+        }
+    }
+
+    /**
+     * Breadth-first relaxation from the queued cells, lowering every distance that can be improved.
+     */
+    private void propagate(int[] distances, int tail) {
+        int head = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distances[cell] + 1;
+            for (int direction = 0; direction < DELTA_X.length; direction++) {
+                int neighbor = neighbor(cell, direction);
+                if (neighbor >= 0 && next < distances[neighbor] && isPassable(neighbor)) {
+                    distances[neighbor] = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private int neighbor(int cell, int direction) {
+        int x = cell % width + DELTA_X[direction];
+        int y = cell / width + DELTA_Y[direction];
+        return x >= 0 && x < width && y >= 0 && y < height ? y * width + x : -1;
+    }
+
+    private boolean isPassable(int cell) {
+        return !template.isWall(cell) && (closedDoorBits[cell >>> 6] & (1L << cell)) == 0;
+    }
+
+    /**
+     * Gets the distance to the pad.
+     *
+     * @param cell the cell to measure from
+     * @return the number of moves through open doors, or {@link #UNREACHABLE}
+     */
+    public int getPadDistance(int cell) {
+        return keyBase > 0 ? fields[0][cell] : UNREACHABLE;
+    }
+
+    /**
+     * Gets the distance to a key.
+     *
+     * @param key the key index
+     * @param cell the cell to measure from
+     * @return the number of moves through open doors, or {@link #UNREACHABLE}
+     * @throws IndexOutOfBoundsException if key is out of range
+     */
+    public int getKeyDistance(int key, int cell) {
+        return fields[keyBase + Objects.checkIndex(key, doorBase - keyBase)][cell];
+    }
+
+    /**
+     * Gets the distance to a door, closed or not.
+     *
+     * @param door the door index
+     * @param cell the cell to measure from
+     * @return the number of moves through open doors, or {@link #UNREACHABLE}
+     * @throws IndexOutOfBoundsException if door is out of range
+     */
+    public int getDoorDistance(int door, int cell) {
+        return fields[doorBase + Objects.checkIndex(door, doorOpen.length)][cell];
+    }
+
+    /**
+     * Gets the neighbouring cell one step closer to the pad.
+     *
+     * @param cell the cell to step from
+     * @return the neighbour, or -1 if the cell is the pad or the pad is unreachable
+     */
+    public int stepTowardPad(int cell) {
+        return keyBase > 0 ? step(fields[0], cell) : -1;
+    }
+
+    /**
+     * Gets the neighbouring cell one step closer to a key.
+     *
+     * @param key the key index
+     * @param cell the cell to step from
+     * @return the neighbour, or -1 if the cell holds the key or the key is unreachable
+     * @throws IndexOutOfBoundsException if key is out of range
+     */
+    public int stepTowardKey(int key, int cell) {
+        return step(fields[keyBase + Objects.checkIndex(key, doorBase - keyBase)], cell);
+    }
+
+    private int step(int[] distances, int cell) {
+        int distance = distances[cell];
+        if (distance == 0 || distance == UNREACHABLE) {
+            return -1;
+        }
+        for (int direction = 0; direction < DELTA_X.length; direction++) {
+            int neighbor = neighbor(cell, direction);
+            if (neighbor >= 0 && distances[neighbor] == distance - 1) {
+                return neighbor;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Suggests the next move: toward the pad if it is reachable, otherwise toward the nearest uncollected
+     * key that opens a closed door, otherwise toward the nearest uncollected key.
+     *
+     * @param cell the player's cell
+     * @param collectedMask the keys collected so far, matching the last {@link #update(long)}
+     * @return the neighbour to move to, or -1 if there is nothing reachable left to do
+     */
+    public int hint(int cell, long collectedMask) {
+        int toPad = stepTowardPad(cell);
+        if (toPad >= 0 || getPadDistance(cell) == 0) {
+            return toPad;
+        }
+        long unlocking = 0;
+        for (int door = 0; door < doorOpen.length; door++) {
+            if (!doorOpen[door]) {
+                unlocking |= template.getDoorKeyMask(door);
+            }
+        }
+        int key = nearestKey(cell, unlocking & ~collectedMask);
+        if (key < 0) {
+            key = nearestKey(cell, ~collectedMask);
+        }
+        return key >= 0 ? stepTowardKey(key, cell) : -1;
+    }
+
+    private int nearestKey(int cell, long candidates) {
+        int nearest = -1;
+        int nearestDistance = UNREACHABLE;
+        for (int key = 0; key < doorBase - keyBase; key++) {
+            int distance = fields[keyBase + key][cell];
+            if ((candidates & (1L << key)) != 0 && distance > 0 && distance < nearestDistance) {
+                nearest = key;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Checks whether a door is open in the current fields.
+     *
+     * @param door the door index
+     * @return true if the door was opened by the keys of the last update
+     * @throws IndexOutOfBoundsException if door is out of range
+     */
+    public boolean isDoorOpen(int door) {
+        return doorOpen[door];
+    }
+
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+}
@@ -0,0 +1,302 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.level.LevelTemplate;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Line of sight from the player's cell for fog-of-war modes, by recursive shadowcasting: each of the eight
+ * octants around the origin is scanned row by row outward to the sight radius, and every wall or closed
+ * door narrows the slopes later rows can see through. The result is a bitset of the cells visible now and
+ * a cumulative bitset of every cell seen since the last {@link #reset()}.
+ *
+ * <p>The cost of a cast is bounded by the radius, never by the map. A cast also records which octants
+ * reached each cell. When the origin stays put but a door opens or closes, only the octants that reached
+ * the door can change, so only those are cleared and cast again. A move of the origin shifts every shadow
+ * and casts all eight.
+ *
+ * <p>Memory is one byte plus two bits per cell. A field of view is not thread-safe.
+ */
+public class FieldOfView {
+    private static final int OCTANTS = 8;
+
+    // Octant transforms: map (column, row) within the octant to grid deltas
+    private static final int[] XX = {1, 0, 0, -1, -1, 0, 0, 1};
+    private static final int[] XY = {0, 1, -1, 0, 0, -1, 1, 0};
+    private static final int[] YX = {0, 1, 1, 0, 0, -1, -1, 0};
+    private static final int[] YY = {1, 0, 0, 1, -1, 0, 0, -1};
+
+    private final LevelTemplate template;
+    private final int width;
+    private final int height;
+    private final int radius;
+    private final long[] visibleBits;
+    private final long[] exploredBits;
+    private final byte[] octantMasks; // Bit o is set on every cell the scan of octant o reached
+    private final int[][] octantCells; // Cells reached by each octant, to clear it without a scan
+    private final int[] octantSizes;
+    private int originCell = -1;
+    private long collectedMask;
+    private int visibleCount;
+    private long castCount;
+
+    /**
+     * Creates a field of view with nothing visible yet.
+     *
+     * @param template the level
+     * @param radius the sight radius in cells
+     * @throws NullPointerException if template is null
+     * @throws IllegalArgumentException if radius is not positive
+     */
+    public FieldOfView(LevelTemplate template, int radius) {
+        this.template = Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        if (radius <= 0) {
+            throw new IllegalArgumentException("radius must be greater than 0");
+        }
+        this.width = template.getWidth();
+        this.height = template.getHeight();
+        this.radius = radius;
+        int words = (template.getCellCount() + 63) >>> 6;
+        this.visibleBits = new long[words];
+        this.exploredBits = new long[words];
+        this.octantMasks = new byte[template.getCellCount()];
+        this.octantCells = new int[OCTANTS][16];
+        this.octantSizes = new int[OCTANTS];
+    }
+
+    /**
+     * Brings visibility in line with the player's cell and the doors opened by the collected keys.
+     *
+     * <p>A move recasts all eight octants, not just those near the step: every slope is measured from the
+     * origin, so moving it by one cell can change what any octant sees. Only door changes at a fixed
+     * origin are narrowed to the octants that reached the door.
+     *
+     * @param originCell the cell seen from
+     * @param collectedMask the keys collected so far
+     * @return the number of octants cast, 0 if nothing changed
+     * @throws IndexOutOfBoundsException if originCell is outside the level
+     */
+    public int update(int originCell, long collectedMask) {
+        Objects.checkIndex(originCell, template.getCellCount());
+        if (originCell != this.originCell) {
+            this.collectedMask = collectedMask;
+            clearOrigin();
+            this.originCell = originCell;
+            setVisible(originCell);
+            for (int octant = 0; octant < OCTANTS; octant++) {
+                recast(octant);
+            }
+            return OCTANTS;
+        }
+        long changedKeys = collectedMask ^ this.collectedMask;
+        this.collectedMask = collectedMask;
+        if (changedKeys == 0) {
+            return 0;
+        }
+        int dirty = 0;
+        for (int door = 0; door < template.getDoorCount(); door++) {
+            if ((changedKeys & template.getDoorKeyMask(door)) != 0) {
+                dirty |= octantMasks[template.getDoorCell(door)] & 0xFF;
+            }
+        }
+        for (int bits = dirty; bits != 0; bits &= bits - 1) {
+            recast(Integer.numberOfTrailingZeros(bits));
+        }
+        return Integer.bitCount(dirty);
+    }
+
+    private void clearOrigin() {
+        for (int octant = 0; octant < OCTANTS; octant++) {
+            clear(octant);
+        }
+        if (originCell >= 0) {
+            clearVisible(originCell);
+        }
+    }
+
+    /**
+     * Forgets what was seen: nothing is visible or explored until the next update.
+     */
+    public void reset() {
+        clearOrigin();
+        originCell = -1;
+        collectedMask = 0;
+        Arrays.fill(exploredBits, 0);
+    }
+
+    private void clear(int octant) {
+        int bit = 1 << octant;
+        int[] cells = octantCells[octant];
+        for (int i = 0; i < octantSizes[octant]; i++) {
+            int cell = cells[i];
+            octantMasks[cell] &= (byte) ~bit;
+            if (octantMasks[cell] == 0 && cell != originCell) { // No-op for cells outside the sight circle
+                clearVisible(cell);
+            }
+        }
+        octantSizes[octant] = 0;
+    }
+
+    private void recast(int octant) {
+        clear(octant);
+        castCount++;
+        cast(octant, originCell % width, originCell / width, 1, 1.0, 0.0);
+    }
+
+    /**
+     * Scans an octant from a row outward, between two slopes, recursing past every run of opaque cells.
+     */
+    private void cast(int octant, int originX, int originY, int firstRow, double start, double end) {
+        if (start < end) {
+            return;
+        }
+        long radiusSquared = (long) radius * radius;
+        double nextStart = start;
+        for (int row = firstRow; row <= radius; row++) {
+            boolean blocked = false;
+            int dy = -row;
+            for (int dx = -row; dx <= 0; dx++) {
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) {
+                    continue;
+                }
+                if (end > leftSlope) {
+                    break;
+                }
+                int x = originX + dx * XX[octant] + dy * XY[octant];
+                int y = originY + dx * YX[octant] + dy * YY[octant];
+                boolean inside = x >= 0 && x < width && y >= 0 && y < height;
+                int cell = y * width + x;
+                if (inside) {
+                    scan(octant, cell, (long) dx * dx + (long) dy * dy <= radiusSquared);
+                }
+                boolean opaque = !inside || isOpaque(cell);
+                if (blocked) {
+                    if (opaque) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = nextStart;
+                    }
+                } else if (opaque && row < radius) {
+                    blocked = true;
+                    cast(octant, originX, originY, row + 1, start, leftSlope);
+                    nextStart = rightSlope;
+                }
+            }
+            if (blocked) {
+                break;
+            }
+        }
+    }
+
+    private boolean isOpaque(int cell) {
+        return template.isWall(cell) || (template.isDoor(cell) && (collectedMask & template.doorKeyMaskAt(cell)) == 0);
+    }
+
+    /**
+     * Records a cell an octant's scan reached. Cells in the corners of the scanned square lie outside the
+     * sight circle but their opacity still shapes the octant, so they are recorded without becoming visible.
+     */
+    private void scan(int octant, int cell, boolean inSight) {
+        int bit = 1 << octant;
+        if ((octantMasks[cell] & bit) != 0) {
+            return; // Already recorded by this octant, e.g. on its diagonal
+        }
+        octantMasks[cell] |= (byte) bit;
+        int size = octantSizes[octant];
+        if (size == octantCells[octant].length) {
+            octantCells[octant] = Arrays.copyOf(octantCells[octant], size * 2);
+        }
+        octantCells[octant][size] = cell;
+        octantSizes[octant] = size + 1;
+        if (inSight) {
+            setVisible(cell);
+        }
+    }
+
+    private void setVisible(int cell) {
+        long bit = 1L << cell;
+        if ((visibleBits[cell >>> 6] & bit) == 0) {
+            visibleBits[cell >>> 6] |= bit;
+            visibleCount++;
+        }
+        exploredBits[cell >>> 6] |= bit;
+    }
+
+    private void clearVisible(int cell) {
+        long bit = 1L << cell;
+        if ((visibleBits[cell >>> 6] & bit) != 0) {
+            visibleBits[cell >>> 6] &= ~bit;
+            visibleCount--;
+        }
+    }
+
+    /**
+     * Checks whether a cell is in sight.
+     *
+     * @param cell the cell id
+     * @return true if the cell is visible from the origin
+     */
+    public boolean isVisible(int cell) {
+        return (visibleBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Checks whether a cell has been in sight since the last reset.
+     *
+     * @param cell the cell id
+     * @return true if the cell was ever visible
+     */
+    public boolean isExplored(int cell) {
+        return (exploredBits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Gets 64 cells of the visible bitset.
+     *
+     * @param index the word index
+     * @return bit i is set if cell {@code 64 * index + i} is visible
+     */
+    public long getVisibleWord(int index) {
+        return visibleBits[index];
+    }
+
+    /**
+     * Gets 64 cells of the explored bitset.
+     *
+     * @param index the word index
+     * @return bit i is set if cell {@code 64 * index + i} was ever visible
+     */
+    public long getExploredWord(int index) {
+        return exploredBits[index];
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Gets the cell seen from.
+     *
+     * @return the origin cell, or -1 before the first update
+     */
+    public int getOriginCell() {
+        return originCell;
+    }
+
+    /**
+     * Gets the number of octants cast since creation, to measure how much work updates saved.
+     *
+     * @return the octant cast count
+     */
+    public long getCastCount() {
+        return castCount;
+    }
+}
@@ -0,0 +1,195 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.entity.Door;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A flow field toward a single target cell, shared by every entity heading there. One breadth-first search
+ * from the target stores, for each cell it reaches, the direction of the next step; an entity then moves in
+ * O(1) by reading its cell instead of searching for a path of its own.
+ *
+ * <p>The search is capped to a radius around the target, and cells are marked with a generation stamp
+ * instead of clearing the arrays, so a recompute costs only the cells within the radius no matter how
+ * large the grid is. Walls and doors block the field; chasers carry no keys.
+ */
+public class FlowField {
+    /** Direction of cells the field does not reach, and of the target itself. */
+    public static final int NO_DIRECTION = -1;
+    /** Distance of cells the field does not reach. */
+    public static final int UNREACHED = -1;
+
+    private static final int[] DELTA_X = {0, -1, 0, 1};
+    private static final int[] DELTA_Y = {-1, 0, 1, 0};
+
+    private final int width;
+    private final int height;
+    private final int radius;
+    private final WallGrid blocked;
+    private final int[] stamps;
+    private final int[] distances;
+    private final byte[] directions;
+    private final int[] queue;
+    private int generation;
+    private int targetCell = -1;
+    private int reachedCount;
+
+    /**
+     * Creates an empty field over a grid's walls and doors.
+     *
+     * @param grid the level
+     * @param radius the maximum distance the field reaches from its target
+     * @throws NullPointerException if grid is null
+     * @throws IllegalArgumentException if radius is negative
+     */
+    public FlowField(Grid grid, int radius) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius must be non-negative");
+        }
+        this.blocked = grid.getWallGrid().copy();
+        for (Door door : grid.getDoors()) {
+            blocked.set(door.getGridX(), door.getGridY(), true);
+        }
+        this.width = blocked.getWidth();
+        this.height = blocked.getHeight();
+        this.radius = radius;
+        int cells = blocked.getCellCount();
+        this.stamps = new int[cells];
+        this.distances = new int[cells];
+        this.directions = new byte[cells];
+        this.queue = new int[cells];
+    }
+
+    /**
+     * Points the field at a target cell. Nothing is recomputed if the target did not move.
+     *
+     * @param x the target column
+     * @param y the target row
+     * @return true if the field was recomputed
+     * @throws IndexOutOfBoundsException if the target is outside the grid
+     */
+    public boolean recompute(int x, int y) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        int target = y * width + x;
+        if (target == targetCell) {
+            return false;
+        }
+        targetCell = target;
+        if (++generation == 0) {
+            Arrays.fill(stamps, 0); // Stamps wrapped around; start over
+            generation = 1;
+        }
+
+        stamps[target] = generation;
+        distances[target] = 0;
+        directions[target] = NO_DIRECTION;
+        queue[0] = target;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            int distance = distances[cell];
+            if (distance == radius) {
+                continue;
+            }
+            int cellX = cell % width;
+            int cellY = cell / width;
+            for (int direction = 0; direction < DELTA_X.length; direction++) {
+                int nextX = cellX + DELTA_X[direction];
+                int nextY = cellY + DELTA_Y[direction];
+                if (nextX < 0 || nextX >= width || nextY < 0 || nextY >= height) {
+                    continue;
+                }
+                int next = nextY * width + nextX;
+                if (stamps[next] != generation && !blocked.isWall(next)) {
+                    stamps[next] = generation;
+                    distances[next] = distance + 1;
+                    directions[next] = (byte) (direction ^ 2); // Opposite direction, back toward the target
+                    queue[tail++] = next;
+                }
+            }
+        }
+        reachedCount = tail;
+        return true;
+    }
+
+    /**
+     * Gets the direction of the next step toward the target.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the direction index for {@link #getDeltaX(int)} and {@link #getDeltaY(int)},
+     *         or {@link #NO_DIRECTION} if the cell is the target or out of the field's reach
+     */
+    public int getDirection(int x, int y) {
+        if (targetCell < 0 || x < 0 || x >= width || y < 0 || y >= height) {
+            return NO_DIRECTION;
+        }
+        int cell = y * width + x;
+        return stamps[cell] == generation ? directions[cell] : NO_DIRECTION;
+    }
+
+    /**
+     * Gets the distance to the target.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return the number of steps, or {@link #UNREACHED} if the cell is out of the field's reach
+     */
+    public int getDistance(int x, int y) {
+        if (targetCell < 0 || x < 0 || x >= width || y < 0 || y >= height) {
+            return UNREACHED;
+        }
+        int cell = y * width + x;
+        return stamps[cell] == generation ? distances[cell] : UNREACHED;
+    }
+
+    /**
+     * Gets the column change of a direction.
+     *
+     * @param direction a direction returned by {@link #getDirection(int, int)}
+     * @return -1, 0 or 1
+     */
+    public static int getDeltaX(int direction) {
+        return DELTA_X[direction];
+    }
+
+    /**
+     * Gets the row change of a direction.
+     *
+     * @param direction a direction returned by {@link #getDirection(int, int)}
+     * @return -1, 0 or 1
+     */
+    public static int getDeltaY(int direction) {
+        return DELTA_Y[direction];
+    }
+
+    /**
+     * Checks whether a cell blocks the field, i.e. holds a wall or a door.
+     *
+     * @param x the cell column
+     * @param y the cell row
+     * @return true if the cell is inside the grid and blocked
+     */
+    public boolean isBlocked(int x, int y) {
+        return blocked.isWall(x, y);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Gets the number of cells the last recompute reached, which is what it cost.
+     *
+     * @return the reached cell count
+     */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+}
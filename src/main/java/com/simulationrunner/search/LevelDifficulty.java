@@ -0,0 +1,76 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.level.LevelTemplate;
+
+import java.util.Objects;
+
+/**
+ * Difficulty metrics of a solvable level, derived from its optimal solution.
+ *
+ * @param solutionLength the number of moves of the shortest solution
+ * @param backtracks the number of times the shortest solution re-enters a cell it already crossed
+ * @param keyDetour the extra moves the keys cost, compared to walking to the pad with every door open
+ */
+public record LevelDifficulty(int solutionLength, int backtracks, int keyDetour) {
+
+    /**
+     * A closed range of difficulty scores.
+     *
+     * @param minScore the lowest accepted score
+     * @param maxScore the highest accepted score
+     */
+    public record Band(int minScore, int maxScore) {
+        public Band {
+            if (minScore < 0 || maxScore < minScore) {
+                throw new IllegalArgumentException("Band must satisfy 0 <= minScore <= maxScore");
+            }
+        }
+
+        public boolean contains(LevelDifficulty difficulty) {
+            int score = difficulty.score();
+            return score >= minScore && score <= maxScore;
+        }
+    }
+
+    /**
+     * Combines the metrics into a single score: every move counts once, and every backtracking step
+     * and detour move counts once more, since those are what make a level feel hard.
+     *
+     * @return the difficulty score
+     */
+    public int score() {
+        return solutionLength + backtracks + keyDetour;
+    }
+
+    /**
+     * Measures a level.
+     *
+     * @param solver the solver to run, reused by the caller across levels
+     * @param template the level to measure
+     * @return the metrics, or null if the level cannot be solved within the solver's state limit
+     * @throws NullPointerException if solver or template is null
+     */
+    public static LevelDifficulty measure(LevelSolver solver, LevelTemplate template) {
+        Objects.requireNonNull(solver, "LevelSolver cannot be null");
+        Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        int length = solver.solve(template);
+        if (length == LevelSolver.UNSOLVED) {
+            return null;
+        }
+
+        int[] path = solver.getSolution();
+        long[] seen = new long[(template.getCellCount() + 63) >>> 6];
+        int backtracks = 0;
+        for (int cell : path) {
+            long bit = 1L << cell;
+            if ((seen[cell >>> 6] & bit) != 0) {
+                backtracks++;
+            }
+            seen[cell >>> 6] |= bit;
+        }
+
+        int unlocked = solver.solve(template, -1L); // Every key in hand
+        int keyDetour = unlocked == LevelSolver.UNSOLVED ? 0 : length - unlocked;
+        return new LevelDifficulty(length, backtracks, keyDetour);
+    }
+}
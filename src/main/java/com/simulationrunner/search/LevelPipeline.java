@@ -0,0 +1,195 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.Zobrist;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.LevelDraft;
+import com.simulationrunner.level.LevelGenerator;
+import com.simulationrunner.level.LevelTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runs a {@link LevelGenerator} as a pipeline of timed stages:
+ * <ol>
+ *   <li>{@link Stage#LAYOUT}: the generator writes the walls,</li>
+ *   <li>{@link Stage#SPAWN}: the generator places the entities,</li>
+ *   <li>{@link Stage#VALIDATION}: the draft is built into a grid and solved with a {@link LevelSolver},</li>
+ *   <li>{@link Stage#FINALIZE}: wall spans are derived for rendering, so the consumer does not pay for them.</li>
+ * </ol>
+ * A level that fails validation is regenerated from a seed derived from the requested one, so the result
+ * stays reproducible. Stage times are accumulated across calls and threads; a pipeline may be shared.
+ */
+public class LevelPipeline {
+    /** Number of states the validating solver may explore by default. */
+    public static final long DEFAULT_MAX_SOLVER_STATES = 1 << 20;
+    /** Number of seeds tried by default before giving up on a level. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 16;
+
+    /**
+     * The stages a level passes through, in order.
+     */
+    public enum Stage {
+        LAYOUT,
+        SPAWN,
+        VALIDATION,
+        FINALIZE
+    }
+
+    /**
+     * A generated and validated level.
+     *
+     * @param grid the level
+     * @param template the template the level was validated with
+     * @param solutionLength the number of moves in its shortest solution
+     * @param attempts the number of seeds tried, 1 if the requested seed passed validation
+     */
+    public record GeneratedLevel(Grid grid, LevelTemplate template, int solutionLength, int attempts) {
+    }
+
+    private final LevelGenerator generator;
+    private final long maxSolverStates;
+    private final int maxAttempts;
+    private final AtomicLongArray stageNanos = new AtomicLongArray(Stage.values().length);
+    private final AtomicLongArray stageRuns = new AtomicLongArray(Stage.values().length);
+    private final AtomicLong generatedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Creates a pipeline with the default solver limit and attempt count.
+     *
+     * @param generator the generator to run
+     * @throws NullPointerException if generator is null
+     */
+    public LevelPipeline(LevelGenerator generator) {
+        this(generator, DEFAULT_MAX_SOLVER_STATES, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param generator the generator to run
+     * @param maxSolverStates the number of states validation may explore before rejecting a level
+     * @param maxAttempts the number of seeds to try per level
+     * @throws NullPointerException if generator is null
+     * @throws IllegalArgumentException if maxSolverStates or maxAttempts is not positive
+     */
+    public LevelPipeline(LevelGenerator generator, long maxSolverStates, int maxAttempts) {
+        this.generator = Objects.requireNonNull(generator, "LevelGenerator cannot be null");
+        if (maxSolverStates <= 0) {
+            throw new IllegalArgumentException("maxSolverStates must be greater than 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        }
+        this.maxSolverStates = maxSolverStates;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Generates a solvable level.
+     *
+     * @param config the grid configuration
+     * @param keyCount the number of keys to place
+     * @param seed the seed of the first attempt
+     * @return the level with its validation results
+     * @throws NullPointerException if config is null
+     * @throws IllegalArgumentException if keyCount is negative or the generator rejects the grid as too small
+     * @throws IllegalStateException if no attempt produced a solvable level
+     */
+    public GeneratedLevel generate(GridConfig config, int keyCount, long seed) {
+        try (LevelSolver solver = new LevelSolver(maxSolverStates)) {
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                long attemptSeed = attempt == 0 ? seed : Zobrist.mix(seed + attempt);
+                LevelDraft draft = new LevelDraft(config, keyCount, attemptSeed);
+
+                long start = System.nanoTime();
+                generator.layout(draft);
+                start = record(Stage.LAYOUT, start);
+                generator.spawn(draft);
+                start = record(Stage.SPAWN, start);
+
+                Grid grid = draft.toGrid();
+                LevelTemplate template = LevelTemplate.from(grid);
+                int solutionLength = solver.solve(template);
+                start = record(Stage.VALIDATION, start);
+                if (solutionLength == LevelSolver.UNSOLVED) {
+                    rejectedCount.incrementAndGet();
+                    continue;
+                }
+
+                grid.getWallSpans();
+                record(Stage.FINALIZE, start);
+                generatedCount.incrementAndGet();
+                return new GeneratedLevel(grid, template, solutionLength, attempt + 1);
+            }
+        }
+        throw new IllegalStateException("No solvable " + generator.getName() + " level after "
+            + maxAttempts + " attempts");
+    }
+
+    private long record(Stage stage, long start) {
+        long now = System.nanoTime();
+        stageNanos.addAndGet(stage.ordinal(), now - start);
+        stageRuns.incrementAndGet(stage.ordinal());
+        return now;
+    }
+
+    public LevelGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Gets the time spent in a stage across all attempts, including rejected ones.
+     *
+     * @param stage the stage
+     * @return the total time in nanoseconds
+     * @throws NullPointerException if stage is null
+     */
+    public long getTotalNanos(Stage stage) {
+        return stageNanos.get(stage.ordinal());
+    }
+
+    /**
+     * Gets the average time a stage took per run.
+     *
+     * @param stage the stage
+     * @return the average time in nanoseconds, or 0 if the stage has not run yet
+     * @throws NullPointerException if stage is null
+     */
+    public long getAverageNanos(Stage stage) {
+        long runs = stageRuns.get(stage.ordinal());
+        return runs == 0 ? 0 : stageNanos.get(stage.ordinal()) / runs;
+    }
+
+    /**
+     * Gets the number of times a stage has run.
+     *
+     * @param stage the stage
+     * @return the run count
+     * @throws NullPointerException if stage is null
+     */
+    public long getRunCount(Stage stage) {
+        return stageRuns.get(stage.ordinal());
+    }
+
+    /**
+     * Gets the number of levels that passed validation.
+     *
+     * @return the generated level count
+     */
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    /**
+     * Gets the number of attempts rejected as unsolvable.
+     *
+     * @return the rejected attempt count
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,184 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Breadth-first solver over (cell, collected keys) states of a {@link LevelTemplate}.
+ * States are deduplicated by their Zobrist state hash in an off-heap {@link StateTable}, and the
+ * frontier is kept in primitive arrays together with each state's parent, so a search allocates
+ * nothing per state, the solution path can be reconstructed, and the table and queues are reused
+ * across solves.
+ *
+ * <p>A solver is not thread-safe; give each search thread its own instance and close it when done.
+ */
+public class LevelSolver implements AutoCloseable {
+    /** Result of {@link #solve(LevelTemplate)} when the pad cannot be reached or the state limit was hit. */
+    public static final int UNSOLVED = -1;
+
+    private static final int[] DELTA_X = {0, -1, 0, 1};
+    private static final int[] DELTA_Y = {-1, 0, 1, 0};
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final long maxStates;
+    private final StateTable visited;
+    private int[] queueCells = new int[INITIAL_CAPACITY];
+    private long[] queueMasks = new long[INITIAL_CAPACITY];
+    private int[] queueDepths = new int[INITIAL_CAPACITY];
+    private int[] queueParents = new int[INITIAL_CAPACITY];
+    private int[] solution = new int[0];
+    private long exploredStates;
+    private boolean limitReached;
+
+    /**
+     * Creates a solver.
+     *
+     * @param maxStates the maximum number of distinct states a single search may visit
+     * @throws IllegalArgumentException if maxStates is not positive or does not fit the frontier arrays
+     */
+    public LevelSolver(long maxStates) {
+        if (maxStates <= 0) {
+            throw new IllegalArgumentException("maxStates must be greater than 0");
+        }
+        if (maxStates > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("maxStates is too large");
+        }
+        this.maxStates = maxStates;
+        // Twice the slots keeps the table below its load limit when the state limit is reached
+        this.visited = new StateTable(INITIAL_CAPACITY, Math.max(INITIAL_CAPACITY, maxStates * 2));
+    }
+
+    /**
+     * Finds the length of the shortest move sequence from the spawn point to the pad.
+     *
+     * @param template the level to solve
+     * @return the number of moves, or {@link #UNSOLVED} if the pad is unreachable or the state limit was reached
+     * @throws NullPointerException if template is null
+     */
+    public int solve(LevelTemplate template) {
+        return solve(template, 0L);
+    }
+
+    /**
+     * Finds the length of the shortest move sequence from the spawn point to the pad,
+     * starting with some keys already collected.
+     *
+     * @param template the level to solve
+     * @param initialMask the keys collected before the first move
+     * @return the number of moves, or {@link #UNSOLVED} if the pad is unreachable or the state limit was reached
+     * @throws NullPointerException if template is null
+     */
+    public int solve(LevelTemplate template, long initialMask) {
+        Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        visited.clear();
+        exploredStates = 0;
+        limitReached = false;
+        solution = new int[0];
+        int padCell = template.getPadCell();
+        if (padCell < 0) {
+            return UNSOLVED;
+        }
+
+        int head = 0;
+        int tail = 0;
+        int spawn = template.getSpawnCell();
+        // Like a Session, keys on the spawn cell are only picked up by moving onto them
+        visited.putIfAbsent(Session.computeStateHash(spawn, initialMask, false), 0);
+        exploredStates = 1;
+        if (spawn == padCell) {
+            solution = new int[] {spawn};
+            return 0;
+        }
+        queueCells[tail] = spawn;
+        queueMasks[tail] = initialMask;
+        queueDepths[tail] = 0;
+        queueParents[tail] = -1;
+        tail++;
+
+        while (head < tail) {
+            int cell = queueCells[head];
+            long collected = queueMasks[head];
+            int depth = queueDepths[head];
+            int parent = head;
+            head++;
+            for (int direction = 0; direction < DELTA_X.length; direction++) {
+                int target = template.move(cell, DELTA_X[direction], DELTA_Y[direction], collected);
+                if (target < 0) {
+                    continue;
+                }
+                if (target == padCell) {
+                    recordSolution(parent, target, depth + 1);
+                    return depth + 1;
+                }
+                long mask = collected | template.keyMaskAt(target);
+                if (!visited.putIfAbsent(Session.computeStateHash(target, mask, false), depth + 1)) {
+                    continue;
+                }
+                if (++exploredStates > maxStates) {
+                    limitReached = true;
+                    return UNSOLVED;
+                }
+                if (tail == queueCells.length) {
+                    // Consumed entries are kept as parents for path reconstruction
+                    int length = queueCells.length * 2;
+                    queueCells = Arrays.copyOf(queueCells, length);
+                    queueMasks = Arrays.copyOf(queueMasks, length);
+                    queueDepths = Arrays.copyOf(queueDepths, length);
+                    queueParents = Arrays.copyOf(queueParents, length);
+                }
+                queueCells[tail] = target;
+                queueMasks[tail] = mask;
+                queueDepths[tail] = depth + 1;
+                queueParents[tail] = parent;
+                tail++;
+            }
+        }
+        return UNSOLVED;
+    }
+
+    private void recordSolution(int parent, int padCell, int length) {
+        solution = new int[length + 1];
+        solution[length] = padCell;
+        for (int i = length - 1, entry = parent; i >= 0; i--, entry = queueParents[entry]) {
+            solution[i] = queueCells[entry];
+        }
+    }
+
+    /**
+     * Gets the cells visited by the solution found in the last search.
+     *
+     * @return the cell ids from the spawn point to the pad, or an empty array if the last search failed
+     */
+    public int[] getSolution() {
+        return solution.clone();
+    }
+
+    /**
+     * Gets the number of distinct states visited by the last search.
+     *
+     * @return the state count
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * Checks whether the last search stopped because it reached the state limit.
+     *
+     * @return true if the last result is inconclusive
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * Releases the off-heap visited table.
+     */
+    @Override
+    public void close() {
+        visited.close();
+    }
+}
@@ -0,0 +1,282 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Zobrist;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Open-addressing hash table from 64-bit state keys (typically Zobrist hashes) to 64-bit values,
+ * stored off-heap so that visited sets and transposition tables of millions of states add no
+ * objects for the garbage collector to trace.
+ *
+ * <p>Slots are 16-byte (key, value) pairs in a single {@link MemorySegment} with a power-of-two slot
+ * count, probed linearly. The table doubles when it passes 75% load, up to a fixed maximum capacity,
+ * so its memory is bounded by {@code maxCapacity * 16} bytes. Once at the maximum a strict table
+ * throws on overflow, while a lossy table keeps every key within a short probe window of its home
+ * slot and overwrites the home slot when the window is full, like a transposition table with an
+ * always-replace policy. Lookups in a lossy table may therefore miss keys that were stored earlier.
+ *
+ * <p>The table is confined to the thread that created it and must be closed to release its memory.
+ */
+public final class StateTable implements AutoCloseable {
+    private static final long SLOT_SIZE = 2 * Long.BYTES;
+    private static final int PROBE_WINDOW = 16;
+    private static final long EMPTY = 0L; // Key 0 is kept outside the slots
+
+    private final long maxCapacity;
+    private final boolean lossy;
+    private Arena arena;
+    private MemorySegment slots;
+    private long capacity;
+    private long mask;
+    private long size;
+    private long evictions;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * Creates a strict table that throws once it would exceed its maximum capacity.
+     *
+     * @param initialCapacity the initial number of slots, rounded up to a power of two
+     * @param maxCapacity the maximum number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if a capacity is not positive or initialCapacity exceeds maxCapacity
+     */
+    public StateTable(long initialCapacity, long maxCapacity) {
+        this(initialCapacity, maxCapacity, false);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param initialCapacity the initial number of slots, rounded up to a power of two
+     * @param maxCapacity the maximum number of slots, rounded up to a power of two
+     * @param lossy whether to overwrite entries instead of throwing when the table is full
+     * @throws IllegalArgumentException if a capacity is not positive or initialCapacity exceeds maxCapacity
+     */
+    public StateTable(long initialCapacity, long maxCapacity, boolean lossy) {
+        if (initialCapacity <= 0 || maxCapacity <= 0) {
+            throw new IllegalArgumentException("Capacities must be greater than 0");
+        }
+        if (initialCapacity > maxCapacity) {
+            throw new IllegalArgumentException("initialCapacity cannot exceed maxCapacity");
+        }
+        if (maxCapacity > Long.MAX_VALUE / SLOT_SIZE / 2) {
+            throw new IllegalArgumentException("maxCapacity is too large");
+        }
+        this.maxCapacity = powerOfTwo(maxCapacity);
+        this.lossy = lossy;
+        allocate(Math.max(powerOfTwo(initialCapacity), Math.min(PROBE_WINDOW, this.maxCapacity)));
+    }
+
+    private static long powerOfTwo(long value) {
+        return value == 1 ? 1 : Long.highestOneBit(value - 1) << 1;
+    }
+
+    private void allocate(long newCapacity) {
+        arena = Arena.ofConfined();
+        slots = arena.allocate(newCapacity * SLOT_SIZE, Long.BYTES); // Zero-filled, i.e. all empty
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+    }
+
+    /**
+     * Inserts a key if it is not present, the typical "mark visited" operation of a search.
+     *
+     * @param key the state key
+     * @param value the value to store with a new key
+     * @return true if the key was inserted, false if it was already present
+     * @throws IllegalStateException if a strict table is full, or the table is closed
+     */
+    public boolean putIfAbsent(long key, long value) {
+        return insert(key, value, false);
+    }
+
+    /**
+     * Inserts a key or replaces its value.
+     *
+     * @param key the state key
+     * @param value the value to store
+     * @throws IllegalStateException if a strict table is full, or the table is closed
+     */
+    public void put(long key, long value) {
+        insert(key, value, true);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the state key
+     * @param defaultValue the value to return if the key is absent
+     * @return the stored value, or defaultValue
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        long slot = find(key);
+        return slot >= 0 ? slots.getAtIndex(ValueLayout.JAVA_LONG, slot * 2 + 1) : defaultValue;
+    }
+
+    public boolean contains(long key) {
+        return key == EMPTY ? hasZeroKey : find(key) >= 0;
+    }
+
+    private long find(long key) {
+        long limit = lossy ? PROBE_WINDOW : capacity;
+        long slot = home(key);
+        for (long probe = 0; probe < limit; probe++) {
+            long stored = slots.getAtIndex(ValueLayout.JAVA_LONG, slot * 2);
+            if (stored == key) {
+                return slot;
+            }
+            if (stored == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean insert(long key, long value, boolean replace) {
+        if (key == EMPTY) {
+            boolean inserted = !hasZeroKey;
+            if (inserted || replace) {
+                zeroValue = value;
+            }
+            if (inserted) {
+                hasZeroKey = true;
+                size++;
+            }
+            return inserted;
+        }
+
+        while (true) {
+            long limit = lossy ? PROBE_WINDOW : capacity;
+            long slot = home(key);
+            for (long probe = 0; probe < limit; probe++) {
+                long stored = slots.getAtIndex(ValueLayout.JAVA_LONG, slot * 2);
+                if (stored == key) {
+                    if (replace) {
+                        slots.setAtIndex(ValueLayout.JAVA_LONG, slot * 2 + 1, value);
+                    }
+                    return false;
+                }
+                if (stored == EMPTY) {
+                    if ((size + 1) * 4 > capacity * 3 && capacity < maxCapacity) {
+                        break; // Grow first, then retry
+                    }
+                    if (!lossy && size + 1 >= capacity) {
+                        throw new IllegalStateException("StateTable is full (" + capacity + " slots)");
+                    }
+                    store(slot, key, value);
+                    size++;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (capacity < maxCapacity) {
+                grow();
+            } else if (lossy) {
+                store(home(key), key, value); // Always-replace within the full window
+                evictions++;
+                return true;
+            } else {
+                throw new IllegalStateException("StateTable is full (" + capacity + " slots)");
+            }
+        }
+    }
+
+    private void store(long slot, long key, long value) {
+        slots.setAtIndex(ValueLayout.JAVA_LONG, slot * 2, key);
+        slots.setAtIndex(ValueLayout.JAVA_LONG, slot * 2 + 1, value);
+    }
+
+    private long home(long key) {
+        return Zobrist.mix(key) & mask;
+    }
+
+    private void grow() {
+        Arena oldArena = arena;
+        MemorySegment oldSlots = slots;
+        long oldCapacity = capacity;
+        allocate(capacity * 2);
+        for (long i = 0; i < oldCapacity; i++) {
+            long key = oldSlots.getAtIndex(ValueLayout.JAVA_LONG, i * 2);
+            if (key != EMPTY) {
+                long slot = home(key);
+                int distance = 0;
+                while (slots.getAtIndex(ValueLayout.JAVA_LONG, slot * 2) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                    distance++;
+                }
+                if (lossy && distance >= PROBE_WINDOW) {
+                    size--; // Unreachable by a windowed lookup, so drop it
+                    evictions++;
+                } else {
+                    store(slot, key, oldSlots.getAtIndex(ValueLayout.JAVA_LONG, i * 2 + 1));
+                }
+            }
+        }
+        oldArena.close();
+    }
+
+    /**
+     * Removes all entries while keeping the current capacity, so the table can be reused by the next search.
+     */
+    public void clear() {
+        slots.fill((byte) 0);
+        size = 0;
+        evictions = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * Gets the number of keys stored.
+     *
+     * @return the entry count
+     */
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long maxCapacity() {
+        return maxCapacity;
+    }
+
+    public boolean isLossy() {
+        return lossy;
+    }
+
+    /**
+     * Gets the number of entries overwritten by a lossy table since the last {@link #clear()}.
+     *
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the off-heap memory currently held by the table.
+     *
+     * @return the size of the slot array in bytes
+     */
+    public long byteSize() {
+        return slots.byteSize();
+    }
+
+    /**
+     * Releases the off-heap memory. The table must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
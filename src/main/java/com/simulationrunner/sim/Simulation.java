@@ -0,0 +1,166 @@
+package com.simulationrunner.sim;
+
+import java.util.function.LongConsumer;
+
+/**
+ * The headless simulation clock: a {@link TimingWheel} advanced in fixed ticks.
+ *
+ * <p>Game logic only ever sees whole ticks, so a run is reproducible no matter how the clock is driven.
+ * Tests and bots call {@link #tick()} directly; a frame loop feeds wall-clock time to
+ * {@link #advanceBy(long)}, which converts it into ticks and carries the remainder to the next frame.
+ * After a stall at most {@code maxTicksPerAdvance} ticks are run and the backlog is dropped, so the
+ * simulation slows down instead of freezing the frame loop to catch up.
+ *
+ * <p>A simulation is not thread-safe; drive it from one thread, e.g. the JavaFX application thread.
+ */
+public class Simulation {
+    /** Default tick rate in ticks per second. */
+    public static final int DEFAULT_TICK_RATE = 60;
+    /** Default number of ticks one call to {@link #advanceBy(long)} may run. */
+    public static final int DEFAULT_MAX_TICKS_PER_ADVANCE = 8;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TimingWheel wheel = new TimingWheel();
+    private final int tickRate;
+    private final long tickNanos;
+    private final int maxTicksPerAdvance;
+    private long accumulatedNanos;
+    private long lastTickNanos;
+    private long totalTickNanos;
+
+    /**
+     * Creates a simulation with the default tick rate and catch-up limit.
+     */
+    public Simulation() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_TICKS_PER_ADVANCE);
+    }
+
+    /**
+     * Creates a simulation.
+     *
+     * @param tickRate the number of ticks per second of wall-clock time
+     * @param maxTicksPerAdvance the number of ticks one call to {@link #advanceBy(long)} may run
+     * @throws IllegalArgumentException if tickRate or maxTicksPerAdvance is not positive
+     */
+    public Simulation(int tickRate, int maxTicksPerAdvance) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate must be greater than 0");
+        }
+        if (maxTicksPerAdvance <= 0) {
+            throw new IllegalArgumentException("maxTicksPerAdvance must be greater than 0");
+        }
+        this.tickRate = tickRate;
+        this.tickNanos = NANOS_PER_SECOND / tickRate;
+        this.maxTicksPerAdvance = maxTicksPerAdvance;
+    }
+
+    /**
+     * Runs a callback once after a delay.
+     *
+     * @param delay the number of ticks from now, at least 1
+     * @param callback receives the tick it runs on
+     * @return the timer, which can be cancelled
+     * @throws NullPointerException if callback is null
+     * @throws IllegalArgumentException if delay is outside 1 to {@link TimingWheel#MAX_DELAY}
+     */
+    public Timer after(long delay, LongConsumer callback) {
+        return wheel.schedule(delay, callback);
+    }
+
+    /**
+     * Runs a callback every {@code period} ticks, starting one period from now.
+     *
+     * @param period the number of ticks between runs, at least 1
+     * @param callback receives the tick it runs on
+     * @return the timer, which can be cancelled
+     * @throws NullPointerException if callback is null
+     * @throws IllegalArgumentException if period is outside 1 to {@link TimingWheel#MAX_DELAY}
+     */
+    public Timer every(long period, LongConsumer callback) {
+        return wheel.scheduleRepeating(period, period, callback);
+    }
+
+    /**
+     * Runs one tick.
+     *
+     * @return the number of callbacks run
+     */
+    public int tick() {
+        long start = System.nanoTime();
+        int fired = wheel.advance();
+        lastTickNanos = System.nanoTime() - start;
+        totalTickNanos += lastTickNanos;
+        return fired;
+    }
+
+    /**
+     * Converts elapsed wall-clock time into ticks and runs them.
+     *
+     * @param elapsedNanos the time since the previous call
+     * @return the number of callbacks run, 0 if less than a tick of time has built up
+     * @throws IllegalArgumentException if elapsedNanos is negative
+     */
+    public int advanceBy(long elapsedNanos) {
+        if (elapsedNanos < 0) {
+            throw new IllegalArgumentException("elapsedNanos must be non-negative");
+        }
+        accumulatedNanos += elapsedNanos;
+        int fired = 0;
+        for (int ticks = 0; accumulatedNanos >= tickNanos; ticks++) {
+            if (ticks == maxTicksPerAdvance) {
+                accumulatedNanos = 0; // Drop the backlog rather than spiral
+                break;
+            }
+            accumulatedNanos -= tickNanos;
+            fired += tick();
+        }
+        return fired;
+    }
+
+    /**
+     * Gets the number of ticks run so far.
+     *
+     * @return the current tick
+     */
+    public long getTick() {
+        return wheel.getTick();
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Gets the number of ticks that make up a duration, rounded up so short delays still take a tick.
+     *
+     * @param millis the duration in milliseconds
+     * @return the tick count, at least 1
+     */
+    public long ticksFor(long millis) {
+        return Math.max(1, (millis * tickRate + 999) / 1000);
+    }
+
+    public TimingWheel getWheel() {
+        return wheel;
+    }
+
+    /**
+     * Gets the wall-clock time of the most recent tick, callbacks included.
+     *
+     * @return the tick time in nanoseconds, or 0 if no tick ran yet
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets the average wall-clock time of a tick.
+     *
+     * @return the average tick time in nanoseconds, or 0 if no tick ran yet
+     */
+    public long getAverageTickNanos() {
+        long ticks = wheel.getTick();
+        return ticks == 0 ? 0 : totalTickNanos / ticks;
+    }
+}
@@ -0,0 +1,70 @@
+package com.simulationrunner.sim;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A callback scheduled on a {@link TimingWheel}. The handle doubles as the wheel's list node, so scheduling
+ * allocates nothing beyond it and cancelling unlinks it in O(1).
+ */
+public final class Timer {
+    final TimingWheel wheel;
+    final LongConsumer callback;
+    final long period;
+    long deadline;
+    Timer prev;
+    Timer next;
+
+    Timer(TimingWheel wheel, LongConsumer callback, long deadline, long period) {
+        this.wheel = wheel;
+        this.callback = callback;
+        this.deadline = deadline;
+        this.period = period;
+    }
+
+    /**
+     * Creates the sentinel of a slot list, which links to itself when the slot is empty.
+     */
+    Timer() {
+        this.wheel = null;
+        this.callback = null;
+        this.period = 0;
+        this.prev = this;
+        this.next = this;
+    }
+
+    /**
+     * Stops the timer. A repeating timer may cancel itself from its own callback.
+     *
+     * @return true if the timer was pending, false if it had already fired or been cancelled
+     */
+    public boolean cancel() {
+        return wheel.cancel(this);
+    }
+
+    /**
+     * Checks whether the timer will still fire.
+     *
+     * @return true if the timer is scheduled
+     */
+    public boolean isPending() {
+        return next != null;
+    }
+
+    /**
+     * Gets the tick the timer fires on next.
+     *
+     * @return the deadline tick
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Gets the number of ticks between repeats.
+     *
+     * @return the period, or 0 for a one-shot timer
+     */
+    public long getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,235 @@
+package com.simulationrunner.sim;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * A hierarchical timing wheel: timed callbacks for the simulation, keyed by tick.
+ *
+ * <p>The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0 holds timers due within the
+ * next {@value #SLOTS} ticks, one slot per tick; each level above covers {@value #SLOTS} times the span of
+ * the one below. Every slot is an intrusive doubly linked list, so scheduling and cancelling are O(1).
+ * Advancing one tick detaches a whole level-0 slot and fires it as a batch. Whenever level 0 wraps around,
+ * the next slot of level 1 is cascaded down, and so on up the levels, so each timer is moved at most once
+ * per level over its lifetime and a tick costs the same with a hundred or a hundred thousand timers pending.
+ *
+ * <p>Timers due on the same tick fire in the order they were scheduled or cascaded, which depends only on
+ * the calls made, so runs replay identically. A wheel is not thread-safe.
+ */
+public class TimingWheel {
+    /** Number of levels in the wheel. */
+    public static final int LEVELS = 6;
+    /** Number of slots in each level. */
+    public static final int SLOTS = 64;
+    /** Longest delay a timer can be scheduled with. */
+    public static final long MAX_DELAY = (1L << (LEVELS * 6)) - 1;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private long tick;
+    private int pendingCount;
+    private long firedCount;
+    private long cascadedCount;
+
+    /**
+     * Creates an empty wheel at tick 0.
+     */
+    public TimingWheel() {
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Timer();
+            }
+        }
+    }
+
+    /**
+     * Schedules a one-shot callback.
+     *
+     * @param delay the number of ticks from now, at least 1
+     * @param callback receives the tick it fires on
+     * @return the timer, which can be cancelled
+     * @throws NullPointerException if callback is null
+     * @throws IllegalArgumentException if delay is outside 1 to {@link #MAX_DELAY}
+     */
+    public Timer schedule(long delay, LongConsumer callback) {
+        return add(delay, 0, callback);
+    }
+
+    /**
+     * Schedules a callback that repeats until cancelled.
+     *
+     * @param delay the number of ticks until the first run, at least 1
+     * @param period the number of ticks between runs, at least 1
+     * @param callback receives the tick it fires on
+     * @return the timer, which can be cancelled
+     * @throws NullPointerException if callback is null
+     * @throws IllegalArgumentException if delay or period is outside 1 to {@link #MAX_DELAY}
+     */
+    public Timer scheduleRepeating(long delay, long period, LongConsumer callback) {
+        if (period < 1 || period > MAX_DELAY) {
+            throw new IllegalArgumentException("period must be between 1 and " + MAX_DELAY);
+        }
+        return add(delay, period, callback);
+    }
+
+    private Timer add(long delay, long period, LongConsumer callback) {
+        Objects.requireNonNull(callback, "Callback cannot be null");
+        if (delay < 1 || delay > MAX_DELAY) {
+            throw new IllegalArgumentException("delay must be between 1 and " + MAX_DELAY);
+        }
+        Timer timer = new Timer(this, callback, tick + delay, period);
+        place(timer, tick + 1);
+        pendingCount++;
+        return timer;
+    }
+
+    /**
+     * Links a timer into the slot matching its deadline, relative to the next tick to be fired.
+     */
+    private void place(Timer timer, long base) {
+        long delta = timer.deadline - base;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Timer head = slots[level][(int) (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    boolean cancel(Timer timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        unlink(timer);
+        pendingCount--;
+        return true;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    /**
+     * Advances the wheel by one tick and fires every timer due on it. Callbacks may schedule and cancel
+     * timers, including ones in the batch being fired; a timer scheduled with delay 1 fires on the next tick.
+     *
+     * @return the number of timers fired
+     */
+    public int advance() {
+        long next = tick + 1;
+        int index = (int) next & SLOT_MASK;
+        for (int level = 1; index == 0 && level < LEVELS; level++) {
+            index = (int) (next >>> (SLOT_BITS * level)) & SLOT_MASK;
+            cascade(slots[level][index], next);
+        }
+
+        // Detach the due slot so timers added by callbacks can never land in the batch being fired
+        Timer due = slots[0][(int) next & SLOT_MASK];
+        if (due.next == due) {
+            tick = next;
+            return 0;
+        }
+        Timer batch = new Timer();
+        batch.next = due.next;
+        batch.prev = due.prev;
+        batch.next.prev = batch;
+        batch.prev.next = batch;
+        due.next = due;
+        due.prev = due;
+        tick = next;
+
+        int fired = 0;
+        while (batch.next != batch) {
+            Timer timer = batch.next;
+            unlink(timer);
+            if (timer.period > 0) {
+                timer.deadline += timer.period; // Rescheduled first, so the callback can cancel it
+                place(timer, tick + 1);
+            } else {
+                pendingCount--;
+            }
+            timer.callback.accept(tick);
+            fired++;
+        }
+        firedCount += fired;
+        return fired;
+    }
+
+    /**
+     * Moves every timer of a higher-level slot to the level matching its remaining delay.
+     */
+    private void cascade(Timer head, long base) {
+        Timer timer = head.next;
+        head.next = head;
+        head.prev = head;
+        while (timer != head) {
+            Timer following = timer.next;
+            place(timer, base);
+            cascadedCount++;
+            timer = following;
+        }
+    }
+
+    /**
+     * Advances the wheel by several ticks.
+     *
+     * @param ticks the number of ticks to advance
+     * @return the number of timers fired
+     * @throws IllegalArgumentException if ticks is negative
+     */
+    public long advance(long ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("ticks must be non-negative");
+        }
+        long fired = 0;
+        for (long i = 0; i < ticks; i++) {
+            fired += advance();
+        }
+        return fired;
+    }
+
+    /**
+     * Gets the current tick, i.e. the number of ticks advanced so far.
+     *
+     * @return the tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of timers still to fire, repeating timers included.
+     *
+     * @return the pending timer count
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Gets the number of callbacks run since the wheel was created.
+     *
+     * @return the fired count
+     */
+    public long getFiredCount() {
+        return firedCount;
+    }
+
+    /**
+     * Gets the number of times a timer was moved down a level by a cascade. Together with the fired count
+     * this is all the per-timer work ticks have done.
+     *
+     * @return the cascaded count
+     */
+    public long getCascadedCount() {
+        return cascadedCount;
+    }
+}
@@ -1,16 +1,25 @@
 package com.simulationrunner.ui;
 
+import com.simulationrunner.ColorPalette;
 import com.simulationrunner.config.GridConfig;
 import com.simulationrunner.entity.Key;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Heads-Up Display for showing game status information.
  * Renders a footer at the bottom of the canvas showing collected keys.
+ *
+ * <p>The footer is rasterized into an image that is rebuilt only when its inputs change: the width, the
+ * key colors or the collected keys. Every other frame is a single blit. Key colors are packed only when
+ * they change, and palette colors take their dimmed shade from a table built once, so a pickup rebuilds
+ * the footer without any color math.
  */
 public class HUD {
     private static final int FOOTER_HEIGHT = 10;
@@ -20,6 +29,24 @@ public class HUD {
     private static final Color FOOTER_BACKGROUND = Color.LIGHTGRAY;
     private static final Color BORDER_COLOR = Color.BLACK;
     private static final double UNCOLLECTED_BRIGHTNESS = 0.4;
+    private static final int BACKGROUND_ARGB = ColorPalette.toArgb(FOOTER_BACKGROUND);
+    private static final int BORDER_ARGB = ColorPalette.toArgb(BORDER_COLOR);
+    private static final int[] DIMMED_PALETTE_ARGB = new int[ColorPalette.getPaletteSize()];
+
+    static {
+        for (int i = 0; i < DIMMED_PALETTE_ARGB.length; i++) {
+            DIMMED_PALETTE_ARGB[i] = dimmedArgb(ColorPalette.getKeyColor(i));
+        }
+    }
+
+    private WritableImage footer;
+    private int[] footerPixels;
+    private int footerWidth;
+    private Color[] footerColors = new Color[0];
+    private int[] keyArgb = new int[0];
+    private int[] dimmedKeyArgb = new int[0];
+    private long footerMask;
+    private int buildCount;
 
     /**
      * Renders the HUD footer showing key collection status.
@@ -30,34 +57,125 @@ public class HUD {
      * @throws NullPointerException if gc, config, or keys is null
      */
     public void render(GraphicsContext gc, GridConfig config, List<Key> keys) {
+        Objects.requireNonNull(keys, "Keys list cannot be null");
+
+        long collectedMask = 0;
+        for (int i = 0; i < keys.size() && i < Long.SIZE; i++) {
+            if (keys.get(i).isCollected()) {
+                collectedMask |= 1L << i;
+            }
+        }
+        render(gc, config, keys, collectedMask);
+    }
+
+    /**
+     * Renders the HUD footer with collection state taken from a bitmask instead of the key entities,
+     * as kept by a {@link com.simulationrunner.level.Session}.
+     *
+     * @param gc the graphics context to draw on
+     * @param config the grid configuration
+     * @param keys the list of keys to display
+     * @param collectedMask bit i is set if key i has been collected
+     * @throws NullPointerException if gc, config, or keys is null
+     */
+    public void render(GraphicsContext gc, GridConfig config, List<Key> keys, long collectedMask) {
         Objects.requireNonNull(gc, "GraphicsContext cannot be null");
         Objects.requireNonNull(config, "GridConfig cannot be null");
         Objects.requireNonNull(keys, "Keys list cannot be null");
 
-        int gridPixelHeight = config.getPixelHeight();
-        int footerY = gridPixelHeight;
-        int width = config.getPixelWidth();
+        prepare(config, keys, collectedMask);
+        gc.drawImage(footer, 0, config.getPixelHeight());
+    }
 
-        // Draw footer background
-        gc.setFill(FOOTER_BACKGROUND);
-        gc.fillRect(0, footerY, width, FOOTER_HEIGHT);
+    /**
+     * Brings the cached footer image up to date, rebuilding it if an input changed.
+     *
+     * @return true if the image was rebuilt
+     */
+    boolean prepare(GridConfig config, List<Key> keys, long collectedMask) {
+        int width = config.getPixelWidth();
+        if (footer != null && width == footerWidth && collectedMask == footerMask && hasColors(keys)) {
+            return false;
+        }
+        if (footer == null || width != footerWidth) {
+            footer = new WritableImage(width, FOOTER_HEIGHT);
+            footerPixels = new int[width * FOOTER_HEIGHT];
+        }
+        footerWidth = width;
+        if (!hasColors(keys)) {
+            resolveColors(keys);
+        }
+        footerMask = collectedMask;
 
-        // Draw top border
-        gc.setStroke(BORDER_COLOR);
-        gc.setLineWidth(1);
-        gc.strokeLine(0, footerY, width, footerY);
+        // Background, with the top border along the first row
+        Arrays.fill(footerPixels, BACKGROUND_ARGB);
+        Arrays.fill(footerPixels, 0, width, BORDER_ARGB);
 
-        // Render key icons
+        // Key icons, vertically centered
+        int iconY = (FOOTER_HEIGHT - KEY_ICON_SIZE) / 2;
         for (int i = 0; i < keys.size(); i++) {
-            Key key = keys.get(i);
-            double x = PADDING + (i * (KEY_ICON_SIZE + KEY_ICON_SPACING));
-            double y = footerY + (FOOTER_HEIGHT - KEY_ICON_SIZE) / 2.0;  // Vertically centered
-
-            Color keyColor = getKeyColor(key);
-            Color iconColor = key.isCollected() ? keyColor : keyColor.deriveColor(0, 1, UNCOLLECTED_BRIGHTNESS, 1);
-            gc.setFill(iconColor);
-            gc.fillRect(x, y, KEY_ICON_SIZE, KEY_ICON_SIZE);
+            int iconX = PADDING + (i * (KEY_ICON_SIZE + KEY_ICON_SPACING));
+            if (iconX >= width) {
+                break;
+            }
+            boolean collected = i < Long.SIZE && (collectedMask & (1L << i)) != 0;
+            int argb = collected ? keyArgb[i] : dimmedKeyArgb[i];
+            for (int y = iconY; y < iconY + KEY_ICON_SIZE; y++) {
+                Arrays.fill(footerPixels, y * width + iconX, y * width + Math.min(width, iconX + KEY_ICON_SIZE), argb);
+            }
+        }
+        footer.getPixelWriter().setPixels(0, 0, width, FOOTER_HEIGHT, PixelFormat.getIntArgbInstance(),
+            footerPixels, 0, width);
+        buildCount++;
+        return true;
+    }
+
+    /**
+     * Packs the keys' colors and their dimmed shades, looking palette colors up in the dimmed table.
+     */
+    private void resolveColors(List<Key> keys) {
+        footerColors = new Color[keys.size()];
+        keyArgb = new int[keys.size()];
+        dimmedKeyArgb = new int[keys.size()];
+        for (int i = 0; i < footerColors.length; i++) {
+            Color color = getKeyColor(keys.get(i));
+            int index = ColorPalette.indexOf(color);
+            footerColors[i] = color;
+            keyArgb[i] = ColorPalette.toArgb(color);
+            dimmedKeyArgb[i] = index >= 0 ? DIMMED_PALETTE_ARGB[index] : dimmedArgb(color);
+        }
+    }
+
+    private static int dimmedArgb(Color color) {
+        return ColorPalette.toArgb(color.deriveColor(0, 1, UNCOLLECTED_BRIGHTNESS, 1));
+    }
+
+    /**
+     * Checks whether the keys show the colors the footer was built with, comparing references only.
+     */
+    private boolean hasColors(List<Key> keys) {
+        if (keys.size() != footerColors.length) {
+            return false;
         }
+        for (int i = 0; i < footerColors.length; i++) {
+            if (getKeyColor(keys.get(i)) != footerColors[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    WritableImage getFooterImage() {
+        return footer;
+    }
+
+    /**
+     * Gets the number of times the footer image was rebuilt.
+     *
+     * @return the build count
+     */
+    public int getBuildCount() {
+        return buildCount;
     }
 
     /**
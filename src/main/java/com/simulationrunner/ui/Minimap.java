@@ -0,0 +1,280 @@
+package com.simulationrunner.ui;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.DenseCellStore;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.CellEncoding;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.render.CellPyramid;
+import com.simulationrunner.search.FieldOfView;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Overview of a whole level, drawn next to the {@link HUD} footer. The level's cells are kept in a
+ * {@link DenseCellStore} with a {@link CellPyramid} over it; the image shows the finest pyramid level that
+ * fits the requested size, one pixel per entry, so a large map still gives a small image.
+ *
+ * <p>The image is painted once. Afterwards {@link #sync(long)} compares the collected keys with the last
+ * synced state and rewrites only the pixels of keys and doors that changed, and the player is drawn over
+ * the image instead of into it, so keeping the minimap current costs O(changes) per frame.
+ *
+ * <p>In fog-of-war mode the image starts out as fog and {@link #reveal(FieldOfView)} uncovers a pixel once
+ * any of its cells has been explored, so the minimap shows no more than the player has seen.
+ */
+public class Minimap implements AutoCloseable {
+    private static final Color PLAYER_COLOR = Color.BLUE;
+    private static final Color BORDER_COLOR = Color.BLACK;
+
+    private final LevelTemplate template;
+    private final DenseCellStore cells;
+    private final CellPyramid pyramid;
+    private final int level;
+    private final WritableImage image;
+    private final PixelWriter writer;
+    private final long[] shownPixels; // Pixels uncovered from the fog, null if the whole level is shown
+    private final long[] revealedCells; // Explored cells as of the last reveal, null without fog
+    private long syncedMask;
+    private long writtenPixelCount;
+
+    /**
+     * Creates the minimap of a level with no keys collected.
+     *
+     * @param template the level
+     * @param maxSide the largest width and height of the image in pixels
+     * @throws NullPointerException if template is null
+     * @throws IllegalArgumentException if maxSide is not positive
+     */
+    public Minimap(LevelTemplate template, int maxSide) {
+        this(template, maxSide, false);
+    }
+
+    /**
+     * Creates the minimap of a level with no keys collected, optionally covered in fog until explored.
+     *
+     * @param template the level
+     * @param maxSide the largest width and height of the image in pixels
+     * @param fogged true to show only the cells passed to {@link #reveal(FieldOfView)}
+     * @throws NullPointerException if template is null
+     * @throws IllegalArgumentException if maxSide is not positive
+     */
+    public Minimap(LevelTemplate template, int maxSide, boolean fogged) {
+        this.template = Objects.requireNonNull(template, "LevelTemplate cannot be null");
+        if (maxSide <= 0) {
+            throw new IllegalArgumentException("maxSide must be greater than 0");
+        }
+        this.cells = new DenseCellStore(template.getWidth(), template.getHeight(), CellEncoding.FOUR_BIT);
+        for (int cell = 0; cell < template.getCellCount(); cell++) {
+            CellType type = typeOf(cell, 0);
+            if (type != CellType.FLOOR) {
+                cells.set(cell, type);
+            }
+        }
+        this.pyramid = new CellPyramid(cells);
+        int fit = 0;
+        while (pyramid.getLevelWidth(fit) > maxSide || pyramid.getLevelHeight(fit) > maxSide) {
+            fit++;
+        }
+        this.level = fit;
+        this.image = new WritableImage((int) pyramid.getLevelWidth(level), (int) pyramid.getLevelHeight(level));
+        this.writer = image.getPixelWriter();
+        int pixels = (int) image.getWidth() * (int) image.getHeight();
+        this.shownPixels = fogged ? new long[(pixels + 63) >>> 6] : null;
+        this.revealedCells = fogged ? new long[(template.getCellCount() + 63) >>> 6] : null;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                writePixel(x, y);
+            }
+        }
+    }
+
+    /**
+     * Gets what a cell shows for a set of collected keys.
+     */
+    private CellType typeOf(int cell, long collectedMask) {
+        if (template.isWall(cell)) {
+            return CellType.WALL;
+        }
+        if (template.isDoor(cell) && (collectedMask & template.doorKeyMaskAt(cell)) == 0) {
+            return CellType.DOOR;
+        }
+        long keys = template.keyMaskAt(cell);
+        if (keys != 0 && (collectedMask & keys) != keys) {
+            return CellType.KEY;
+        }
+        if (cell == template.getPadCell()) {
+            return CellType.PAD;
+        }
+        return cell == template.getSpawnCell() ? CellType.SPAWN : CellType.FLOOR;
+    }
+
+    private void writePixel(int x, int y) {
+        boolean hidden = shownPixels != null && !isShown(x, y);
+        writer.setColor(x, y, hidden ? ColorPalette.getFogColor() : ColorPalette.getCellColor(pyramid.get(level, x, y)));
+        writtenPixelCount++;
+    }
+
+    private boolean isShown(int x, int y) {
+        int pixel = y * (int) image.getWidth() + x;
+        return (shownPixels[pixel >>> 6] & (1L << pixel)) != 0;
+    }
+
+    /**
+     * Uncovers the pixels of cells explored since the last call. If cells were forgotten, e.g. after the
+     * field of view was reset, the image is covered again except for what is still explored. Does nothing
+     * without fog.
+     *
+     * @param fieldOfView the player's field of view over this minimap's level
+     * @return the number of pixels uncovered
+     * @throws NullPointerException if fieldOfView is null
+     */
+    public int reveal(FieldOfView fieldOfView) {
+        Objects.requireNonNull(fieldOfView, "FieldOfView cannot be null");
+        if (shownPixels == null) {
+            return 0;
+        }
+        int width = template.getWidth();
+        int uncovered = 0;
+        for (int index = 0; index < revealedCells.length; index++) {
+            long explored = fieldOfView.getExploredWord(index);
+            if ((revealedCells[index] & ~explored) != 0) {
+                return refog(fieldOfView); // Something was forgotten
+            }
+            for (long bits = explored & ~revealedCells[index]; bits != 0; bits &= bits - 1) {
+                int cell = (index << 6) + Long.numberOfTrailingZeros(bits);
+                int x = (cell % width) >> level;
+                int y = (cell / width) >> level;
+                if (!isShown(x, y)) {
+                    int pixel = y * (int) image.getWidth() + x;
+                    shownPixels[pixel >>> 6] |= 1L << pixel;
+                    writePixel(x, y);
+                    uncovered++;
+                }
+            }
+            revealedCells[index] = explored;
+        }
+        return uncovered;
+    }
+
+    /**
+     * Covers the whole image in fog, then uncovers what is explored now.
+     */
+    private int refog(FieldOfView fieldOfView) {
+        Arrays.fill(revealedCells, 0);
+        Arrays.fill(shownPixels, 0);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                writePixel(x, y);
+            }
+        }
+        return reveal(fieldOfView);
+    }
+
+    /**
+     * Brings the image up to date with the collected keys, e.g. after a pickup, an undo or a reset.
+     * Only the cells of keys whose state differs from the last sync, and of doors they open or close,
+     * are rewritten.
+     *
+     * @param collectedMask bit i is set if key i has been collected
+     * @return the number of cells that changed
+     */
+    public int sync(long collectedMask) {
+        long changed = collectedMask ^ syncedMask;
+        if (changed == 0) {
+            return 0;
+        }
+        int updated = 0;
+        for (long bits = changed; bits != 0; bits &= bits - 1) {
+            int key = Long.numberOfTrailingZeros(bits);
+            if (key < template.getKeyCount() && refresh(template.getKeyCell(key), collectedMask)) {
+                updated++;
+            }
+        }
+        for (int door = 0; door < template.getDoorCount(); door++) {
+            long keys = template.getDoorKeyMask(door);
+            if ((changed & keys) != 0 && refresh(template.getDoorCell(door), collectedMask)) {
+                updated++;
+            }
+        }
+        syncedMask = collectedMask;
+        return updated;
+    }
+
+    /**
+     * Rewrites one cell and its pixel if its type changed.
+     */
+    private boolean refresh(int cell, long collectedMask) {
+        CellType type = typeOf(cell, collectedMask);
+        GridPosition position = template.positionOf(cell);
+        if (cells.get(position.x(), position.y()) == type) {
+            return false;
+        }
+        pyramid.set(position.x(), position.y(), type);
+        writePixel(position.x() >> level, position.y() >> level);
+        return true;
+    }
+
+    /**
+     * Draws the minimap scaled into a rectangle, with the player on top.
+     *
+     * @param gc the graphics context to draw on
+     * @param x the left edge in pixels
+     * @param y the top edge in pixels
+     * @param width the drawn width in pixels
+     * @param height the drawn height in pixels
+     * @param player the player's position
+     * @throws NullPointerException if gc or player is null
+     */
+    public void render(GraphicsContext gc, double x, double y, double width, double height, GridPosition player) {
+        Objects.requireNonNull(gc, "GraphicsContext cannot be null");
+        Objects.requireNonNull(player, "Player position cannot be null");
+        gc.setImageSmoothing(false);
+        gc.drawImage(image, x, y, width, height);
+        gc.setStroke(BORDER_COLOR);
+        gc.setLineWidth(1);
+        gc.strokeRect(x, y, width, height);
+
+        double pixelWidth = width / image.getWidth();
+        double pixelHeight = height / image.getHeight();
+        gc.setFill(PLAYER_COLOR);
+        gc.fillRect(x + (player.x() >> level) * pixelWidth, y + (player.y() >> level) * pixelHeight,
+                    Math.max(1, pixelWidth), Math.max(1, pixelHeight));
+    }
+
+    public WritableImage getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the pyramid level shown, 0 if every cell has its own pixel.
+     *
+     * @return the level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of pixels written since the minimap was created, including the initial paint.
+     *
+     * @return the written pixel count
+     */
+    public long getWrittenPixelCount() {
+        return writtenPixelCount;
+    }
+
+    /**
+     * Frees the off-heap cells.
+     */
+    @Override
+    public void close() {
+        pyramid.close();
+        cells.close();
+    }
+}
@@ -0,0 +1,204 @@
+package com.simulationrunner.ui;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Chaser;
+import com.simulationrunner.entity.Entity;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.search.ChaserSwarm;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Retained rendering backend: the level is built once as a JavaFX node graph, and state changes only
+ * mutate node properties. A move sets the player's translation, a key pickup or undo toggles the key's
+ * visibility and a chaser step translates that chaser, so JavaFX repaints just the dirty regions instead of
+ * the canvas being redrawn from scratch every frame.
+ *
+ * <p>The graph has one node per wall span, door, key, chaser and the pad and player, plus a single path
+ * for the grid lines, which suits small and medium maps. Huge maps are better served by a canvas.
+ */
+public class SceneGraphView {
+    private final GridConfig config;
+    private final Group root = new Group();
+    private final Group chaserLayer = new Group();
+    private final List<Node> keyNodes = new ArrayList<>();
+    private final List<Node> chaserNodes = new ArrayList<>();
+    private final List<GridPosition> chaserPositions = new ArrayList<>();
+    private Node playerNode;
+    private GridPosition playerPosition;
+    private ChaserSwarm swarm;
+    private long mutationCount;
+
+    /**
+     * Creates an empty view.
+     *
+     * @param config the grid configuration for pixel calculations
+     * @throws NullPointerException if config is null
+     */
+    public SceneGraphView(GridConfig config) {
+        this.config = Objects.requireNonNull(config, "GridConfig cannot be null");
+    }
+
+    /**
+     * Replaces the node graph with one showing a level in a session's current state.
+     *
+     * @param grid the level
+     * @param session the session playing it
+     * @param chasers the chasers hunting the player, or null if there are none
+     * @throws NullPointerException if grid or session is null
+     */
+    public void build(Grid grid, Session session, ChaserSwarm chasers) {
+        Objects.requireNonNull(grid, "Grid cannot be null");
+        Objects.requireNonNull(session, "Session cannot be null");
+
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(createGridLines());
+        for (WallSpan span : grid.getWallSpans()) {
+            nodes.add(span.createNode(config));
+        }
+        if (grid.getPad() != null) {
+            nodes.add(grid.getPad().createNode(config));
+        }
+        keyNodes.clear();
+        List<Key> keys = grid.getKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            Node node = keys.get(i).createNode(config);
+            node.setVisible(!session.isKeyCollected(i));
+            keyNodes.add(node);
+        }
+        nodes.addAll(keyNodes);
+        for (var door : grid.getDoors()) {
+            nodes.add(door.createNode(config));
+        }
+        nodes.add(chaserLayer);
+        playerPosition = session.getPlayerPosition();
+        playerNode = new Player(playerPosition).createNode(config);
+        nodes.add(playerNode);
+        root.getChildren().setAll(nodes);
+        buildChasers(chasers);
+    }
+
+    private Node createGridLines() {
+        int width = config.getPixelWidth();
+        int height = config.getPixelHeight();
+        int cellSize = config.getCellSize();
+        Path lines = new Path();
+        for (int x = 0; x <= width; x += cellSize) {
+            lines.getElements().addAll(new MoveTo(x, 0), new LineTo(x, height));
+        }
+        for (int y = 0; y <= height; y += cellSize) {
+            lines.getElements().addAll(new MoveTo(0, y), new LineTo(width, y));
+        }
+        lines.setStroke(Color.BLACK);
+        lines.setStrokeWidth(1);
+        return lines;
+    }
+
+    private void buildChasers(ChaserSwarm chasers) {
+        swarm = chasers;
+        chaserNodes.clear();
+        chaserPositions.clear();
+        if (chasers != null) {
+            for (Chaser chaser : chasers.getChasers()) {
+                chaserNodes.add(chaser.createNode(config));
+                chaserPositions.add(chaser.getPosition());
+            }
+        }
+        chaserLayer.getChildren().setAll(chaserNodes);
+    }
+
+    /**
+     * Brings the node graph in line with a session, touching only the nodes whose state changed.
+     * The chaser nodes are rebuilt if the swarm was replaced, e.g. after a respawn.
+     *
+     * @param session the session, playing the level last built
+     * @param chasers the chasers hunting the player, or null if there are none
+     * @return the number of nodes changed
+     * @throws NullPointerException if session is null
+     * @throws IllegalStateException if no level has been built
+     */
+    public int update(Session session, ChaserSwarm chasers) {
+        Objects.requireNonNull(session, "Session cannot be null");
+        if (playerNode == null) {
+            throw new IllegalStateException("No level has been built");
+        }
+        int changed = 0;
+        GridPosition position = session.getPlayerPosition();
+        if (!position.equals(playerPosition)) {
+            Entity.place(playerNode, position, config);
+            playerPosition = position;
+            changed++;
+        }
+        for (int i = 0; i < keyNodes.size(); i++) {
+            Node node = keyNodes.get(i);
+            if (node.isVisible() == session.isKeyCollected(i)) {
+                node.setVisible(!node.isVisible());
+                changed++;
+            }
+        }
+        if (chasers != swarm) {
+            buildChasers(chasers);
+            changed += chaserNodes.size();
+        } else if (chasers != null) {
+            List<Chaser> current = chasers.getChasers();
+            for (int i = 0; i < current.size(); i++) {
+                GridPosition chaserPosition = current.get(i).getPosition();
+                if (!chaserPosition.equals(chaserPositions.get(i))) {
+                    Entity.place(chaserNodes.get(i), chaserPosition, config);
+                    chaserPositions.set(i, chaserPosition);
+                    changed++;
+                }
+            }
+        }
+        mutationCount += changed;
+        return changed;
+    }
+
+    /**
+     * Gets the root of the node graph, to be added to a scene once.
+     *
+     * @return the root group
+     */
+    public Group getRoot() {
+        return root;
+    }
+
+    Node getPlayerNode() {
+        return playerNode;
+    }
+
+    Node getKeyNode(int index) {
+        return keyNodes.get(index);
+    }
+
+    /**
+     * Gets the number of nodes in the graph, counting chasers individually.
+     *
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return root.getChildren().size() - 1 + chaserLayer.getChildren().size();
+    }
+
+    /**
+     * Gets the number of node changes made by updates since the view was created.
+     *
+     * @return the mutation count
+     */
+    public long getMutationCount() {
+        return mutationCount;
+    }
+}
@@ -1,7 +1,11 @@
 package com.simulationrunner.ui;
 
 import com.simulationrunner.config.GridConfig;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
@@ -11,6 +15,10 @@ import java.util.Objects;
 /**
  * Win banner displayed when the player reaches the goal pad.
  * Shows a congratulatory message and instructions for starting a new level.
+ *
+ * <p>On the FX application thread the banner is drawn once into an image, which is reused until the
+ * canvas width changes. Snapshots are only allowed on that thread, so elsewhere the banner is drawn
+ * directly, still with the fonts resolved once.
  */
 public class WinBanner {
     private static final Color BANNER_BACKGROUND = Color.rgb(0, 128, 0, 0.9);
@@ -19,6 +27,12 @@ public class WinBanner {
     private static final int BANNER_HEIGHT = 100;
     private static final int BANNER_PADDING = 20;
     private static final int BORDER_WIDTH = 3;
+    private static final Font TITLE_FONT = Font.font("Arial", 32);
+    private static final Font HINT_FONT = Font.font("Arial", 16);
+
+    private WritableImage image;
+    private double imageWidth = Double.NaN;
+    private int buildCount;
 
     /**
      * Renders the win banner in the center of the canvas.
@@ -39,6 +53,30 @@ public class WinBanner {
         double bannerX = (canvasWidth - bannerWidth) / 2;
         double bannerY = (canvasHeight - BANNER_HEIGHT) / 2;
 
+        if (!Platform.isFxApplicationThread()) {
+            draw(gc, bannerX, bannerY, bannerWidth);
+            return;
+        }
+        if (bannerWidth != imageWidth) {
+            image = prerender(bannerWidth);
+            imageWidth = bannerWidth;
+        }
+        gc.drawImage(image, bannerX - BORDER_WIDTH, bannerY - BORDER_WIDTH);
+    }
+
+    /**
+     * Draws the banner into an image with a transparent margin for the half of the border outside it.
+     */
+    private WritableImage prerender(double bannerWidth) {
+        Canvas canvas = new Canvas(Math.ceil(bannerWidth) + 2 * BORDER_WIDTH, BANNER_HEIGHT + 2 * BORDER_WIDTH);
+        draw(canvas.getGraphicsContext2D(), BORDER_WIDTH, BORDER_WIDTH, bannerWidth);
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        buildCount++;
+        return canvas.snapshot(parameters, null);
+    }
+
+    private static void draw(GraphicsContext gc, double bannerX, double bannerY, double bannerWidth) {
         // Draw semi-transparent background
         gc.setFill(BANNER_BACKGROUND);
         gc.fillRect(bannerX, bannerY, bannerWidth, BANNER_HEIGHT);
@@ -49,13 +87,23 @@ public class WinBanner {
         gc.strokeRect(bannerX, bannerY, bannerWidth, BANNER_HEIGHT);
 
         // Draw "YOU WIN!" text
+        double centerX = bannerX + bannerWidth / 2;
         gc.setFill(TEXT_COLOR);
-        gc.setFont(Font.font("Arial", 32));
+        gc.setFont(TITLE_FONT);
         gc.setTextAlign(TextAlignment.CENTER);
-        gc.fillText("YOU WIN!", canvasWidth / 2.0, bannerY + 35);
+        gc.fillText("YOU WIN!", centerX, bannerY + 35);
 
         // Draw instruction text
-        gc.setFont(Font.font("Arial", 16));
-        gc.fillText("Press SPACE for a new level", canvasWidth / 2.0, bannerY + 65);
+        gc.setFont(HINT_FONT);
+        gc.fillText("Press SPACE for a new level", centerX, bannerY + 65);
+    }
+
+    /**
+     * Gets the number of times the banner image was drawn, which happens on the FX thread only.
+     *
+     * @return the build count
+     */
+    public int getBuildCount() {
+        return buildCount;
     }
 }
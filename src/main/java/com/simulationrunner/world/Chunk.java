@@ -0,0 +1,273 @@
+package com.simulationrunner.world;
+
+import com.simulationrunner.ColorPalette;
+
+import java.util.Objects;
+
+/**
+ * A {@value #SIZE}x{@value #SIZE} square of an unbounded {@link World}. Walls are one bit per cell in
+ * {@value #WORDS} longs; keys and doors are short parallel arrays of local cell ids and palette color
+ * indexes, with bitmasks recording which keys were collected and which doors were opened.
+ *
+ * <p>Local cell ids are row-major within the chunk ({@code localY * SIZE + localX}). Collecting a key or
+ * opening a door marks the chunk dirty, i.e. it differs from both its generated and its stored state.
+ *
+ * <p>A chunk is not thread-safe; once handed to a world it belongs to the game thread.
+ */
+public final class Chunk {
+    /** Number of bits in a chunk coordinate. */
+    public static final int SHIFT = 5;
+    /** Number of cells along each side of a chunk. */
+    public static final int SIZE = 1 << SHIFT;
+    /** Mask extracting the local coordinate from a world coordinate. */
+    public static final int MASK = SIZE - 1;
+    /** Number of cells in a chunk. */
+    public static final int CELLS = SIZE * SIZE;
+    /** Number of longs holding a chunk's walls. */
+    public static final int WORDS = CELLS / 64;
+    /** Maximum number of keys, and of doors, in one chunk. */
+    public static final int MAX_ENTITIES = 64;
+
+    private final int chunkX;
+    private final int chunkY;
+    private final long[] walls;
+    private final short[] keyCells;
+    private final byte[] keyColors;
+    private final short[] doorCells;
+    private final byte[] doorColors;
+    private long collectedMask;
+    private long openedMask;
+    private boolean dirty;
+
+    /**
+     * Creates a chunk in its generated state. The arrays are taken over, not copied.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @param walls the wall bits, {@value #WORDS} longs
+     * @param keyCells the local cell of each key
+     * @param keyColors the palette color index of each key
+     * @param doorCells the local cell of each door
+     * @param doorColors the palette color index of each door
+     * @throws NullPointerException if an array is null
+     * @throws IllegalArgumentException if the arrays are inconsistent, there are more than
+     *         {@value #MAX_ENTITIES} keys or doors, a key or door lies on a wall or a color is not a
+     *         palette index
+     */
+    public Chunk(int chunkX, int chunkY, long[] walls, short[] keyCells, byte[] keyColors,
+                 short[] doorCells, byte[] doorColors) {
+        this.walls = Objects.requireNonNull(walls, "Walls cannot be null");
+        this.keyCells = Objects.requireNonNull(keyCells, "Key cells cannot be null");
+        this.keyColors = Objects.requireNonNull(keyColors, "Key colors cannot be null");
+        this.doorCells = Objects.requireNonNull(doorCells, "Door cells cannot be null");
+        this.doorColors = Objects.requireNonNull(doorColors, "Door colors cannot be null");
+        if (walls.length != WORDS) {
+            throw new IllegalArgumentException("A chunk has " + WORDS + " wall words, got " + walls.length);
+        }
+        validateEntities(keyCells, keyColors, "key");
+        validateEntities(doorCells, doorColors, "door");
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+    }
+
+    private void validateEntities(short[] cells, byte[] colors, String kind) {
+        if (cells.length != colors.length) {
+            throw new IllegalArgumentException("Every " + kind + " needs exactly one color");
+        }
+        if (cells.length > MAX_ENTITIES) {
+            throw new IllegalArgumentException("A chunk holds at most " + MAX_ENTITIES + " " + kind + "s");
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] < 0 || cells[i] >= CELLS || isWall(cells[i])) {
+                throw new IllegalArgumentException("A " + kind + " must lie on an open cell: " + cells[i]);
+            }
+            if (colors[i] < 0 || colors[i] >= ColorPalette.getPaletteSize()) {
+                throw new IllegalArgumentException("Not a palette color: " + colors[i]);
+            }
+        }
+    }
+
+    /**
+     * Packs chunk coordinates into one long, e.g. for use as a map key.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the packed coordinates
+     */
+    public static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the local cell id of a world position.
+     *
+     * @param x the world column
+     * @param y the world row
+     * @return the cell id within the position's chunk
+     */
+    public static int localCell(long x, long y) {
+        return (int) ((y & MASK) << SHIFT | (x & MASK));
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    /**
+     * Checks whether a cell is a wall.
+     *
+     * @param cell the local cell id
+     * @return true if the cell is blocked
+     */
+    public boolean isWall(int cell) {
+        return (walls[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Gets 64 cells of the wall layer.
+     *
+     * @param index the word index, from 0 to {@value #WORDS} - 1
+     * @return the wall bits of cells {@code 64 * index} to {@code 64 * index + 63}
+     */
+    public long getWallWord(int index) {
+        return walls[index];
+    }
+
+    /**
+     * Gets the index of the key on a cell.
+     *
+     * @param cell the local cell id
+     * @return the key index, or -1 if no key lies there
+     */
+    public int keyAt(int cell) {
+        return indexOf(keyCells, cell);
+    }
+
+    /**
+     * Gets the index of the door on a cell.
+     *
+     * @param cell the local cell id
+     * @return the door index, or -1 if no door stands there
+     */
+    public int doorAt(int cell) {
+        return indexOf(doorCells, cell);
+    }
+
+    private static int indexOf(short[] cells, int cell) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getKeyCount() {
+        return keyCells.length;
+    }
+
+    public int getKeyCell(int index) {
+        return keyCells[index];
+    }
+
+    public int getKeyColor(int index) {
+        return keyColors[index];
+    }
+
+    public boolean isKeyCollected(int index) {
+        return (collectedMask & (1L << Objects.checkIndex(index, keyCells.length))) != 0;
+    }
+
+    /**
+     * Marks a key as collected.
+     *
+     * @param index the key index
+     * @return true if the key had not been collected yet
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public boolean collectKey(int index) {
+        long bit = 1L << Objects.checkIndex(index, keyCells.length);
+        if ((collectedMask & bit) != 0) {
+            return false;
+        }
+        collectedMask |= bit;
+        dirty = true;
+        return true;
+    }
+
+    public int getDoorCount() {
+        return doorCells.length;
+    }
+
+    public int getDoorCell(int index) {
+        return doorCells[index];
+    }
+
+    public int getDoorColor(int index) {
+        return doorColors[index];
+    }
+
+    public boolean isDoorOpen(int index) {
+        return (openedMask & (1L << Objects.checkIndex(index, doorCells.length))) != 0;
+    }
+
+    /**
+     * Marks a door as opened.
+     *
+     * @param index the door index
+     * @return true if the door had been closed
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public boolean openDoor(int index) {
+        long bit = 1L << Objects.checkIndex(index, doorCells.length);
+        if ((openedMask & bit) != 0) {
+            return false;
+        }
+        openedMask |= bit;
+        dirty = true;
+        return true;
+    }
+
+    public long getCollectedMask() {
+        return collectedMask;
+    }
+
+    public long getOpenedMask() {
+        return openedMask;
+    }
+
+    /**
+     * Checks whether the chunk changed since it was generated or last saved.
+     *
+     * @return true if a key was collected or a door opened since
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Sets the collected keys and opened doors of a chunk read back from a store, leaving it clean.
+     */
+    void restore(long collectedMask, long openedMask) {
+        this.collectedMask = collectedMask;
+        this.openedMask = openedMask;
+        this.dirty = false;
+    }
+
+    /**
+     * Marks the chunk as matching its stored state.
+     */
+    void markClean() {
+        dirty = false;
+    }
+
+    @Override
+    public String toString() {
+        return "Chunk[" + chunkX + ", " + chunkY + ", keys=" + keyCells.length + ", doors=" + doorCells.length
+               + (dirty ? ", dirty]" : "]");
+    }
+}
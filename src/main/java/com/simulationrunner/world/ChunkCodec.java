@@ -0,0 +1,108 @@
+package com.simulationrunner.world;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size binary records of {@link Chunk}s, read and written in place in a {@link MemorySegment}, so a
+ * mapped region file is decoded straight from the page cache without an intermediate buffer.
+ *
+ * <p>Record layout (big-endian, {@value #RECORD_SIZE} bytes):
+ * <pre>
+ * int   chunk column, int chunk row
+ * long  {@value Chunk#WORDS} wall words
+ * long  collected key mask, long opened door mask
+ * byte  key count K, byte door count D
+ * K x (short cell, byte color) keys, then D x (short cell, byte color) doors, zero padded
+ * </pre>
+ */
+final class ChunkCodec {
+    private ChunkCodec() {
+        throw new AssertionError("Cannot instantiate ChunkCodec class");
+    }
+
+    private static final int ENTITY_SIZE = 3;
+    private static final int ENTITIES_OFFSET = 8 + Chunk.WORDS * 8 + 16 + 2;
+
+    /** Size of every record, enough for the maximum number of keys and doors. */
+    static final int RECORD_SIZE = (ENTITIES_OFFSET + 2 * Chunk.MAX_ENTITIES * ENTITY_SIZE + 7) & ~7;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Writes a chunk's record.
+     *
+     * @param chunk the chunk
+     * @param segment the segment to write into
+     * @param offset the record's offset in the segment
+     */
+    static void encode(Chunk chunk, MemorySegment segment, long offset) {
+        segment.set(INT, offset, chunk.getChunkX());
+        segment.set(INT, offset + 4, chunk.getChunkY());
+        long position = offset + 8;
+        for (int word = 0; word < Chunk.WORDS; word++, position += 8) {
+            segment.set(LONG, position, chunk.getWallWord(word));
+        }
+        segment.set(LONG, position, chunk.getCollectedMask());
+        segment.set(LONG, position + 8, chunk.getOpenedMask());
+        segment.set(ValueLayout.JAVA_BYTE, position + 16, (byte) chunk.getKeyCount());
+        segment.set(ValueLayout.JAVA_BYTE, position + 17, (byte) chunk.getDoorCount());
+        position = offset + ENTITIES_OFFSET;
+        for (int i = 0; i < chunk.getKeyCount(); i++, position += ENTITY_SIZE) {
+            segment.set(SHORT, position, (short) chunk.getKeyCell(i));
+            segment.set(ValueLayout.JAVA_BYTE, position + 2, (byte) chunk.getKeyColor(i));
+        }
+        for (int i = 0; i < chunk.getDoorCount(); i++, position += ENTITY_SIZE) {
+            segment.set(SHORT, position, (short) chunk.getDoorCell(i));
+            segment.set(ValueLayout.JAVA_BYTE, position + 2, (byte) chunk.getDoorColor(i));
+        }
+        segment.asSlice(position, offset + RECORD_SIZE - position).fill((byte) 0);
+    }
+
+    /**
+     * Reads a chunk's record. The chunk comes back clean: it matches what is stored.
+     *
+     * @param segment the segment to read from
+     * @param offset the record's offset in the segment
+     * @param chunkX the expected chunk column
+     * @param chunkY the expected chunk row
+     * @return the chunk
+     * @throws IllegalArgumentException if the record is corrupt or belongs to another chunk
+     */
+    static Chunk decode(MemorySegment segment, long offset, int chunkX, int chunkY) {
+        if (segment.get(INT, offset) != chunkX || segment.get(INT, offset + 4) != chunkY) {
+            throw new IllegalArgumentException("Record does not belong to chunk " + chunkX + ", " + chunkY);
+        }
+        long[] walls = new long[Chunk.WORDS];
+        long position = offset + 8;
+        for (int word = 0; word < Chunk.WORDS; word++, position += 8) {
+            walls[word] = segment.get(LONG, position);
+        }
+        long collectedMask = segment.get(LONG, position);
+        long openedMask = segment.get(LONG, position + 8);
+        int keyCount = segment.get(ValueLayout.JAVA_BYTE, position + 16);
+        int doorCount = segment.get(ValueLayout.JAVA_BYTE, position + 17);
+        if (keyCount < 0 || keyCount > Chunk.MAX_ENTITIES || doorCount < 0 || doorCount > Chunk.MAX_ENTITIES) {
+            throw new IllegalArgumentException("Corrupt entity counts in chunk record");
+        }
+        position = offset + ENTITIES_OFFSET;
+        short[] keyCells = new short[keyCount];
+        byte[] keyColors = new byte[keyCount];
+        for (int i = 0; i < keyCount; i++, position += ENTITY_SIZE) {
+            keyCells[i] = segment.get(SHORT, position);
+            keyColors[i] = segment.get(ValueLayout.JAVA_BYTE, position + 2);
+        }
+        short[] doorCells = new short[doorCount];
+        byte[] doorColors = new byte[doorCount];
+        for (int i = 0; i < doorCount; i++, position += ENTITY_SIZE) {
+            doorCells[i] = segment.get(SHORT, position);
+            doorColors[i] = segment.get(ValueLayout.JAVA_BYTE, position + 2);
+        }
+        Chunk chunk = new Chunk(chunkX, chunkY, walls, keyCells, keyColors, doorCells, doorColors);
+        chunk.restore(collectedMask, openedMask);
+        return chunk;
+    }
+}
@@ -0,0 +1,18 @@
+package com.simulationrunner.world;
+
+/**
+ * Builds the chunks of a {@link World}. A chunk must depend only on the seed and its coordinates, so
+ * an evicted chunk can be regenerated identically, and generation must be safe to call concurrently.
+ */
+@FunctionalInterface
+public interface ChunkGenerator {
+    /**
+     * Generates a chunk.
+     *
+     * @param seed the world seed
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the chunk in its generated state
+     */
+    Chunk generate(long seed, int chunkX, int chunkY);
+}
@@ -0,0 +1,266 @@
+package com.simulationrunner.world;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps modified chunks of a {@link World} on disk once they are evicted from memory.
+ *
+ * <p>Chunks are grouped into {@value RegionFile#SIDE}x{@value RegionFile#SIDE} regions, one memory-mapped
+ * {@link RegionFile} each, so a store of thousands of chunks needs only a handful of open files. Saving a
+ * chunk takes a {@link ChunkCodec#RECORD_SIZE}-byte snapshot on the calling thread and queues it; once
+ * {@code batchSize} snapshots are queued they are handed to a single writer thread as one batch, which
+ * copies them into the mapped regions. Until a snapshot is written, loading the chunk decodes the
+ * snapshot instead, so a chunk is never lost between eviction and write-back. Loading a written chunk
+ * decodes its record straight from the mapping.
+ *
+ * <p>Chunks are saved from the game thread; {@link #load(int, int)} may be called from any thread.
+ */
+public class ChunkStore implements AutoCloseable {
+    /** Default number of snapshots handed to the writer at once. */
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final Path directory;
+    private final int batchSize;
+    private final Map<Long, RegionFile> regions = new ConcurrentHashMap<>();
+    private final Map<Long, MemorySegment> unwritten = new ConcurrentHashMap<>();
+    private final List<Long> queued = new ArrayList<>();
+    private final ExecutorService writer;
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong loadedCount = new AtomicLong();
+    private long savedCount;
+    private volatile IOException writeFailure;
+    private volatile boolean closed;
+
+    /**
+     * Opens a store with the default batch size.
+     *
+     * @param directory the directory holding the region files, created if needed
+     * @throws IOException if the directory cannot be created
+     * @throws NullPointerException if directory is null
+     */
+    public ChunkStore(Path directory) throws IOException {
+        this(directory, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Opens a store.
+     *
+     * @param directory the directory holding the region files, created if needed
+     * @param batchSize the number of snapshots handed to the writer at once
+     * @throws IOException if the directory cannot be created
+     * @throws NullPointerException if directory is null
+     * @throws IllegalArgumentException if batchSize is not positive
+     */
+    public ChunkStore(Path directory, int batchSize) throws IOException {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.batchSize = batchSize;
+        this.writer = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("chunk-writer").factory());
+    }
+
+    /**
+     * Snapshots a chunk and queues it for writing. The chunk is clean afterwards.
+     *
+     * @param chunk the chunk
+     * @throws NullPointerException if chunk is null
+     * @throws IllegalStateException if the store has been closed
+     */
+    public void save(Chunk chunk) {
+        Objects.requireNonNull(chunk, "Chunk cannot be null");
+        if (closed) {
+            throw new IllegalStateException("ChunkStore is closed");
+        }
+        MemorySegment snapshot = MemorySegment.ofArray(new byte[ChunkCodec.RECORD_SIZE]);
+        ChunkCodec.encode(chunk, snapshot, 0);
+        long key = Chunk.key(chunk.getChunkX(), chunk.getChunkY());
+        unwritten.put(key, snapshot);
+        queued.add(key);
+        chunk.markClean();
+        savedCount++;
+        if (queued.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands every queued snapshot to the writer, even if the batch is not full.
+     */
+    public void flush() {
+        if (queued.isEmpty() || closed) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(queued);
+        queued.clear();
+        writer.execute(() -> write(batch));
+    }
+
+    private void write(List<Long> batch) {
+        for (long key : batch) {
+            MemorySegment snapshot = unwritten.get(key);
+            if (snapshot == null) {
+                continue; // Already written with a later batch entry for the same chunk
+            }
+            int chunkX = (int) (key >> 32);
+            int chunkY = (int) key;
+            try {
+                region(chunkX, chunkY, true).write(RegionFile.indexOf(chunkX, chunkY), snapshot);
+                unwritten.remove(key, snapshot); // Keep a newer snapshot queued behind this one
+                writtenCount.incrementAndGet();
+            } catch (IOException e) {
+                if (writeFailure == null) {
+                    writeFailure = e; // The snapshot stays readable from memory
+                }
+            }
+        }
+        batchCount.incrementAndGet();
+    }
+
+    /**
+     * Loads a saved chunk.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the chunk in its saved state, clean, or null if it was never saved
+     * @throws UncheckedIOException if the chunk's region file cannot be read
+     * @throws IllegalStateException if the store has been closed
+     */
+    public Chunk load(int chunkX, int chunkY) {
+        if (closed) {
+            throw new IllegalStateException("ChunkStore is closed");
+        }
+        MemorySegment snapshot = unwritten.get(Chunk.key(chunkX, chunkY));
+        if (snapshot != null) {
+            loadedCount.incrementAndGet();
+            return ChunkCodec.decode(snapshot, 0, chunkX, chunkY);
+        }
+        try {
+            RegionFile region = region(chunkX, chunkY, false);
+            long offset = region == null ? -1 : region.find(RegionFile.indexOf(chunkX, chunkY));
+            if (offset < 0) {
+                return null;
+            }
+            loadedCount.incrementAndGet();
+            return ChunkCodec.decode(region.getSegment(), offset, chunkX, chunkY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RegionFile region(int chunkX, int chunkY, boolean create) throws IOException {
+        int regionX = chunkX >> RegionFile.SHIFT;
+        int regionY = chunkY >> RegionFile.SHIFT;
+        long key = Chunk.key(regionX, regionY);
+        RegionFile region = regions.get(key);
+        if (region != null) {
+            return region;
+        }
+        Path path = directory.resolve("r." + regionX + "." + regionY + ".region");
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        try {
+            return regions.computeIfAbsent(key, k -> {
+                try {
+                    return RegionFile.open(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes every queued snapshot and flushes the region files to the storage device.
+     *
+     * @throws IOException if a write failed since the store was opened
+     */
+    public void sync() throws IOException {
+        flush();
+        try {
+            writer.submit(() -> regions.values().forEach(RegionFile::force)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while syncing chunks", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not sync chunks", e.getCause());
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    /**
+     * Gets the number of chunks saved, written or not.
+     *
+     * @return the saved chunk count
+     */
+    public long getSavedCount() {
+        return savedCount;
+    }
+
+    /**
+     * Gets the number of chunk records written to region files.
+     *
+     * @return the written record count
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Gets the number of batches the writer has finished.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Gets the number of chunks loaded back, from snapshots or region files.
+     *
+     * @return the loaded chunk count
+     */
+    public long getLoadedCount() {
+        return loadedCount.get();
+    }
+
+    /**
+     * Writes everything still queued, then unmaps the region files.
+     *
+     * @throws IOException if a write failed since the store was opened
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            sync();
+        } finally {
+            closed = true;
+            writer.shutdown();
+            regions.values().forEach(RegionFile::close);
+            regions.clear();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.simulationrunner.world;
+
+import com.simulationrunner.ColorPalette;
+
+import java.util.Objects;
+
+/**
+ * The player of a {@link World}: a position in world coordinates and the keys carried, counted per palette
+ * color. Walking onto a key picks it up; walking into a closed door uses up a key of the door's color to
+ * open it, or is blocked if there is none.
+ *
+ * <p>Every move that enters another chunk asks the world to prefetch the chunks around the new one, so
+ * the chunks ahead are generated in the background well before the explorer reaches them.
+ */
+public class Explorer {
+    private final World world;
+    private final int[] keysByColor = new int[ColorPalette.getPaletteSize()];
+    private long x;
+    private long y;
+    private long collectedCount;
+
+    /**
+     * Places an explorer in a world and starts prefetching around it.
+     *
+     * @param world the world to explore
+     * @param x the starting world column
+     * @param y the starting world row
+     * @throws NullPointerException if world is null
+     * @throws IllegalArgumentException if the starting cell is a wall
+     */
+    public Explorer(World world, long x, long y) {
+        this.world = Objects.requireNonNull(world, "World cannot be null");
+        if (world.isWall(x, y)) {
+            throw new IllegalArgumentException("Explorer cannot start inside a wall");
+        }
+        this.x = x;
+        this.y = y;
+        world.prefetch(x, y);
+    }
+
+    /**
+     * Moves the explorer by one step, then picks up any key on the new cell.
+     *
+     * @param deltaX the change in column
+     * @param deltaY the change in row
+     * @return true if the explorer moved
+     */
+    public boolean move(int deltaX, int deltaY) {
+        long targetX = x + deltaX;
+        long targetY = y + deltaY;
+        Chunk chunk = world.getChunkAt(targetX, targetY);
+        int cell = Chunk.localCell(targetX, targetY);
+        if (chunk.isWall(cell)) {
+            return false;
+        }
+        int door = chunk.doorAt(cell);
+        if (door >= 0 && !chunk.isDoorOpen(door)) {
+            int color = chunk.getDoorColor(door);
+            if (keysByColor[color] == 0) {
+                return false;
+            }
+            keysByColor[color]--;
+            chunk.openDoor(door);
+        }
+
+        boolean crossed = World.chunkCoordinate(targetX) != World.chunkCoordinate(x)
+                          || World.chunkCoordinate(targetY) != World.chunkCoordinate(y);
+        x = targetX;
+        y = targetY;
+        int key = chunk.keyAt(cell);
+        if (key >= 0 && chunk.collectKey(key)) {
+            keysByColor[chunk.getKeyColor(key)]++;
+            collectedCount++;
+        }
+        if (crossed) {
+            world.prefetch(x, y);
+        }
+        return true;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public long getX() {
+        return x;
+    }
+
+    public long getY() {
+        return y;
+    }
+
+    /**
+     * Gets the number of unused keys of a color.
+     *
+     * @param color the palette color index
+     * @return the key count
+     * @throws IndexOutOfBoundsException if color is not a palette index
+     */
+    public int getKeyCount(int color) {
+        return keysByColor[color];
+    }
+
+    /**
+     * Gets the number of keys picked up so far, used or not.
+     *
+     * @return the collected key count
+     */
+    public long getCollectedCount() {
+        return collectedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Explorer[x=" + x + ", y=" + y + ", collected=" + collectedCount + "]";
+    }
+}
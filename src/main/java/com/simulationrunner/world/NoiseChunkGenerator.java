@@ -0,0 +1,139 @@
+package com.simulationrunner.world;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Zobrist;
+
+import java.util.Arrays;
+
+/**
+ * Generates caves from hashed per-cell noise. Each world cell is seeded as a wall with a fixed chance,
+ * then a cell becomes a wall if at least five of the nine seeds around it are walls, a single smoothing
+ * step of the cave automaton. Seeds are a hash of the world seed and the global cell coordinates, so the
+ * step reads across chunk borders without generating the neighbours, and chunks fit together seamlessly.
+ *
+ * <p>The cells around the world origin are kept open as a starting area. A few keys and sometimes a door
+ * are placed on open cells picked by hashing the chunk coordinates.
+ */
+public final class NoiseChunkGenerator implements ChunkGenerator {
+    /** Default chance of a cell being seeded as a wall. */
+    public static final double DEFAULT_WALL_CHANCE = 0.42;
+    /** Maximum number of keys placed per chunk. */
+    public static final int MAX_KEYS_PER_CHUNK = 2;
+
+    private static final int SMOOTHING_THRESHOLD = 5;
+    private static final int START_RADIUS = 2;
+    private static final int DOOR_ODDS = 4; // One chunk in four gets a door
+    private static final int PLACEMENT_TRIES = 16;
+
+    private final long wallThreshold;
+
+    /**
+     * Creates a generator with the default wall chance.
+     */
+    public NoiseChunkGenerator() {
+        this(DEFAULT_WALL_CHANCE);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param wallChance the chance of a cell being seeded as a wall, from 0 to 1
+     * @throws IllegalArgumentException if wallChance is outside 0 to 1
+     */
+    public NoiseChunkGenerator(double wallChance) {
+        if (!(wallChance >= 0 && wallChance <= 1)) {
+            throw new IllegalArgumentException("wallChance must be between 0 and 1");
+        }
+        // Compare the top 53 hash bits against the chance scaled to the same range
+        this.wallThreshold = (long) (wallChance * (1L << 53));
+    }
+
+    @Override
+    public Chunk generate(long seed, int chunkX, int chunkY) {
+        long originX = (long) chunkX << Chunk.SHIFT;
+        long originY = (long) chunkY << Chunk.SHIFT;
+        long[] walls = new long[Chunk.WORDS];
+        for (int localY = 0; localY < Chunk.SIZE; localY++) {
+            for (int localX = 0; localX < Chunk.SIZE; localX++) {
+                long x = originX + localX;
+                long y = originY + localY;
+                if (isWall(seed, x, y)) {
+                    int cell = localY * Chunk.SIZE + localX;
+                    walls[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+
+        long chunkHash = Zobrist.mix(seed ^ Zobrist.mix(Chunk.key(chunkX, chunkY)));
+        int keyCount = (int) Long.remainderUnsigned(chunkHash, MAX_KEYS_PER_CHUNK + 1);
+        short[] keyCells = new short[keyCount];
+        byte[] keyColors = new byte[keyCount];
+        int placedKeys = 0;
+        int placedDoors = 0;
+        short[] doorCells = new short[1];
+        byte[] doorColors = new byte[1];
+        long hash = chunkHash;
+        for (int tries = 0; tries < PLACEMENT_TRIES && placedKeys < keyCount; tries++) {
+            hash = Zobrist.mix(hash);
+            int cell = (int) (hash >>> 54); // Top 10 bits pick one of the 1024 cells
+            if (isFree(walls, cell, keyCells, placedKeys)) {
+                keyCells[placedKeys] = (short) cell;
+                keyColors[placedKeys] = (byte) Long.remainderUnsigned(hash, ColorPalette.getPaletteSize());
+                placedKeys++;
+            }
+        }
+        if (Long.remainderUnsigned(Zobrist.mix(~chunkHash), DOOR_ODDS) == 0) {
+            for (int tries = 0; tries < PLACEMENT_TRIES && placedDoors == 0; tries++) {
+                hash = Zobrist.mix(hash);
+                int cell = (int) (hash >>> 54);
+                if (isFree(walls, cell, keyCells, placedKeys)) {
+                    doorCells[0] = (short) cell;
+                    doorColors[0] = (byte) Long.remainderUnsigned(hash, ColorPalette.getPaletteSize());
+                    placedDoors = 1;
+                }
+            }
+        }
+        return new Chunk(chunkX, chunkY, walls, trim(keyCells, placedKeys), trim(keyColors, placedKeys),
+            trim(doorCells, placedDoors), trim(doorColors, placedDoors));
+    }
+
+    private boolean isWall(long seed, long x, long y) {
+        if (Math.abs(x) <= START_RADIUS && Math.abs(y) <= START_RADIUS) {
+            return false;
+        }
+        int seeded = 0;
+        for (long dy = -1; dy <= 1; dy++) {
+            for (long dx = -1; dx <= 1; dx++) {
+                if (isSeededWall(seed, x + dx, y + dy)) {
+                    seeded++;
+                }
+            }
+        }
+        return seeded >= SMOOTHING_THRESHOLD;
+    }
+
+    private boolean isSeededWall(long seed, long x, long y) {
+        long hash = Zobrist.mix(seed ^ Zobrist.mix(x * 0x9E3779B97F4A7C15L ^ y));
+        return hash >>> 11 < wallThreshold;
+    }
+
+    private static boolean isFree(long[] walls, int cell, short[] taken, int takenCount) {
+        if ((walls[cell >>> 6] & (1L << cell)) != 0) {
+            return false;
+        }
+        for (int i = 0; i < takenCount; i++) {
+            if (taken[i] == cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static short[] trim(short[] values, int length) {
+        return length == values.length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static byte[] trim(byte[] values, int length) {
+        return length == values.length ? values : Arrays.copyOf(values, length);
+    }
+}
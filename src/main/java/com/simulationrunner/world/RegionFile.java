@@ -0,0 +1,150 @@
+package com.simulationrunner.world;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped file holding the stored chunks of a {@value #SIDE}x{@value #SIDE} chunk region.
+ *
+ * <p>File layout (big-endian):
+ * <pre>
+ * int   magic 'SRRG'
+ * byte  version, then 3 reserved bytes
+ * int   number of used slots
+ * int   {@value #CHUNKS} index entries, row-major by chunk within the region: slot + 1, or 0 if not stored
+ * ...   slots of {@link ChunkCodec#RECORD_SIZE} bytes, in the order chunks were first stored
+ * </pre>
+ * The whole file is mapped at its maximum size up front; slots never written stay sparse on disk.
+ *
+ * <p>Slots are only allocated and written by the store's writer thread. Other threads may read the
+ * record of any chunk the writer has finished with.
+ */
+final class RegionFile implements AutoCloseable {
+    static final int MAGIC = 0x53525247; // "SRRG"
+    static final byte VERSION = 1;
+    static final int SHIFT = 5;
+    static final int SIDE = 1 << SHIFT;
+    static final int CHUNKS = SIDE * SIDE;
+    static final int HEADER_SIZE = 12 + CHUNKS * Integer.BYTES;
+    static final long FILE_SIZE = HEADER_SIZE + (long) CHUNKS * ChunkCodec.RECORD_SIZE;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final Arena arena;
+    private final MemorySegment segment;
+
+    private RegionFile(Arena arena, MemorySegment segment) {
+        this.arena = arena;
+        this.segment = segment;
+    }
+
+    /**
+     * Maps a region file, creating it if it does not exist yet.
+     *
+     * @param path the region file
+     * @return the opened region
+     * @throws IOException if the file cannot be mapped or is not a valid region file
+     */
+    static RegionFile open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size != 0 && size != FILE_SIZE) {
+                throw new IOException("Not a region file: " + path);
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE, arena);
+            if (size == 0) {
+                segment.set(INT, 0, MAGIC);
+                segment.set(ValueLayout.JAVA_BYTE, 4, VERSION);
+            } else if (segment.get(INT, 0) != MAGIC) {
+                throw new IOException("Not a region file: " + path);
+            } else if (segment.get(ValueLayout.JAVA_BYTE, 4) != VERSION) {
+                throw new IOException("Unsupported region file version: " + segment.get(ValueLayout.JAVA_BYTE, 4));
+            }
+            return new RegionFile(arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the position of a chunk within its region.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the index entry of the chunk
+     */
+    static int indexOf(int chunkX, int chunkY) {
+        return (chunkY & (SIDE - 1)) << SHIFT | (chunkX & (SIDE - 1));
+    }
+
+    /**
+     * Gets the record offset of a stored chunk.
+     *
+     * @param index the chunk's index entry
+     * @return the offset in the file, or -1 if the chunk is not stored
+     * @throws IOException if the index entry points outside the file
+     */
+    long find(int index) throws IOException {
+        int entry = segment.get(INT, 12 + (long) index * Integer.BYTES);
+        if (entry == 0) {
+            return -1;
+        }
+        if (entry < 0 || entry > CHUNKS) {
+            throw new IOException("Corrupt region index entry " + index);
+        }
+        return HEADER_SIZE + (long) (entry - 1) * ChunkCodec.RECORD_SIZE;
+    }
+
+    /**
+     * Writes a chunk's record, assigning it the next free slot if it is not stored yet.
+     * The index entry is written last, so a reader never sees a slot before its record.
+     *
+     * @param index the chunk's index entry
+     * @param record the record to write
+     * @throws IOException if the index or slot count is corrupt
+     */
+    void write(int index, MemorySegment record) throws IOException {
+        long offset = find(index);
+        boolean fresh = offset < 0;
+        if (fresh) {
+            int used = segment.get(INT, 8);
+            if (used < 0 || used >= CHUNKS) {
+                throw new IOException("Corrupt region slot count " + used);
+            }
+            offset = HEADER_SIZE + (long) used * ChunkCodec.RECORD_SIZE;
+            segment.set(INT, 8, used + 1);
+        }
+        MemorySegment.copy(record, 0, segment, offset, ChunkCodec.RECORD_SIZE);
+        if (fresh) {
+            segment.set(INT, 12 + (long) index * Integer.BYTES, (int) ((offset - HEADER_SIZE) / ChunkCodec.RECORD_SIZE) + 1);
+        }
+    }
+
+    MemorySegment getSegment() {
+        return segment;
+    }
+
+    /**
+     * Flushes written records to the storage device.
+     */
+    void force() {
+        segment.force();
+    }
+
+    /**
+     * Unmaps the file.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,372 @@
+package com.simulationrunner.world;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An unbounded world streamed in {@link Chunk}s. Cells are addressed with {@code long} coordinates, which
+ * may be negative; a chunk is generated from the world seed and its coordinates when it is first needed.
+ *
+ * <p>Loaded chunks are held in an LRU cache of bounded capacity: every lookup refreshes a chunk, and
+ * adding one past capacity drops the least recently used, which is the one furthest behind the player.
+ * {@link #prefetch(long, long)} schedules the chunks around a position on background virtual threads,
+ * so by the time the player crosses into them they are a cache hit. A chunk that is still being built
+ * when it is needed is waited for; one that was never requested is generated on the calling thread.
+ *
+ * <p>With a {@link ChunkStore} attached, a dirty chunk is saved when it is evicted, and a chunk that was
+ * saved before is loaded from the store instead of being generated, so collected keys and opened doors
+ * survive the player wandering off. Clean chunks are simply dropped and regenerated or reloaded.
+ *
+ * <p>The cache belongs to the game thread: all methods but {@link #close()} must be called from one thread.
+ * Background threads only run the generator.
+ */
+public class World implements AutoCloseable {
+    /** Default number of chunks kept in memory. */
+    public static final int DEFAULT_CAPACITY = 256;
+    /** Default number of chunks prefetched in each direction around the player's chunk. */
+    public static final int DEFAULT_PREFETCH_RADIUS = 2;
+
+    private final long seed;
+    private final ChunkGenerator generator;
+    private final ChunkStore store;
+    private final int capacity;
+    private final int prefetchRadius;
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private final Map<Long, CompletableFuture<Chunk>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final AtomicLong generatedCount = new AtomicLong();
+    private long hitCount;
+    private long missCount;
+    private long waitCount;
+    private long evictedCount;
+    private long spilledCount;
+    private volatile boolean closed;
+
+    /**
+     * Creates a world with the default cache capacity and prefetch radius.
+     *
+     * @param seed the world seed
+     * @param generator builds the chunks
+     * @throws NullPointerException if generator is null
+     */
+    public World(long seed, ChunkGenerator generator) {
+        this(seed, generator, DEFAULT_CAPACITY, DEFAULT_PREFETCH_RADIUS);
+    }
+
+    /**
+     * Creates a world.
+     *
+     * @param seed the world seed
+     * @param generator builds the chunks; called concurrently from background threads
+     * @param capacity the maximum number of chunks kept in memory
+     * @param prefetchRadius the number of chunks prefetched in each direction around the player's chunk
+     * @throws NullPointerException if generator is null
+     * @throws IllegalArgumentException if prefetchRadius is negative or the prefetched square does not fit
+     *         in capacity
+     */
+    public World(long seed, ChunkGenerator generator, int capacity, int prefetchRadius) {
+        this(seed, generator, capacity, prefetchRadius, null);
+    }
+
+    /**
+     * Creates a world that keeps modified chunks in a store.
+     *
+     * @param seed the world seed
+     * @param generator builds the chunks; called concurrently from background threads
+     * @param capacity the maximum number of chunks kept in memory
+     * @param prefetchRadius the number of chunks prefetched in each direction around the player's chunk
+     * @param store the store evicted dirty chunks are saved to, or null to drop them
+     * @throws NullPointerException if generator is null
+     * @throws IllegalArgumentException if prefetchRadius is negative or the prefetched square does not fit
+     *         in capacity
+     */
+    public World(long seed, ChunkGenerator generator, int capacity, int prefetchRadius, ChunkStore store) {
+        this.generator = Objects.requireNonNull(generator, "ChunkGenerator cannot be null");
+        if (prefetchRadius < 0) {
+            throw new IllegalArgumentException("prefetchRadius must be non-negative");
+        }
+        long side = 2L * prefetchRadius + 1;
+        if (capacity < side * side) {
+            throw new IllegalArgumentException("capacity must hold the " + side + "x" + side + " prefetched chunks");
+        }
+        this.seed = seed;
+        this.store = store;
+        this.capacity = capacity;
+        this.prefetchRadius = prefetchRadius;
+        this.chunks = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= World.this.capacity) {
+                    return false;
+                }
+                evictedCount++;
+                if (store != null && eldest.getValue().isDirty()) {
+                    store.save(eldest.getValue());
+                    spilledCount++;
+                }
+                return true;
+            }
+        };
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chunk-gen-", 0).factory());
+    }
+
+    /**
+     * Gets the chunk holding a world cell, loading it if needed.
+     *
+     * @param x the world column
+     * @param y the world row
+     * @return the chunk
+     * @throws IllegalStateException if the world has been closed
+     */
+    public Chunk getChunkAt(long x, long y) {
+        return getChunk(chunkCoordinate(x), chunkCoordinate(y));
+    }
+
+    /**
+     * Gets a chunk, loading it if needed.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the chunk
+     * @throws IllegalStateException if the world has been closed
+     */
+    public Chunk getChunk(int chunkX, int chunkY) {
+        long key = Chunk.key(chunkX, chunkY);
+        Chunk chunk = chunks.get(key);
+        if (chunk != null) {
+            hitCount++;
+            return chunk;
+        }
+        if (closed) {
+            throw new IllegalStateException("World is closed");
+        }
+        CompletableFuture<Chunk> future = pending.remove(key);
+        if (future != null) {
+            waitCount++;
+            chunk = future.join();
+        } else {
+            missCount++;
+            chunk = generate(chunkX, chunkY);
+        }
+        chunks.put(key, chunk);
+        return chunk;
+    }
+
+    /**
+     * Gets a chunk only if it is in memory, without loading it or counting a hit, e.g. for drawing.
+     *
+     * @param chunkX the chunk column
+     * @param chunkY the chunk row
+     * @return the chunk, or null if it is not loaded
+     */
+    public Chunk getLoadedChunk(int chunkX, int chunkY) {
+        return chunks.get(Chunk.key(chunkX, chunkY));
+    }
+
+    /**
+     * Checks whether a world cell is a wall.
+     *
+     * @param x the world column
+     * @param y the world row
+     * @return true if the cell is blocked
+     */
+    public boolean isWall(long x, long y) {
+        return getChunkAt(x, y).isWall(Chunk.localCell(x, y));
+    }
+
+    /**
+     * Moves finished background chunks into the cache and schedules every chunk within the prefetch radius
+     * of a position that is neither loaded nor already being built.
+     *
+     * @param x the world column of the player
+     * @param y the world row of the player
+     * @return the number of chunks newly scheduled
+     */
+    public int prefetch(long x, long y) {
+        collectPrefetched();
+        if (closed) {
+            return 0;
+        }
+        int centerX = chunkCoordinate(x);
+        int centerY = chunkCoordinate(y);
+        int scheduled = 0;
+        for (int dy = -prefetchRadius; dy <= prefetchRadius; dy++) {
+            for (int dx = -prefetchRadius; dx <= prefetchRadius; dx++) {
+                int chunkX = centerX + dx;
+                int chunkY = centerY + dy;
+                long key = Chunk.key(chunkX, chunkY);
+                if (!chunks.containsKey(key) && !pending.containsKey(key)) {
+                    pending.put(key, CompletableFuture.supplyAsync(() -> generate(chunkX, chunkY), executor));
+                    scheduled++;
+                }
+            }
+        }
+        return scheduled;
+    }
+
+    /**
+     * Moves chunks whose background generation finished into the cache.
+     */
+    private void collectPrefetched() {
+        Iterator<Map.Entry<Long, CompletableFuture<Chunk>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, CompletableFuture<Chunk>> entry = iterator.next();
+            CompletableFuture<Chunk> future = entry.getValue();
+            if (future.isDone()) {
+                iterator.remove();
+                if (!future.isCompletedExceptionally()) {
+                    chunks.putIfAbsent(entry.getKey(), future.join());
+                }
+            }
+        }
+    }
+
+    private Chunk generate(int chunkX, int chunkY) {
+        if (store != null) {
+            Chunk saved = store.load(chunkX, chunkY);
+            if (saved != null) {
+                return saved;
+            }
+        }
+        Chunk chunk = generator.generate(seed, chunkX, chunkY);
+        generatedCount.incrementAndGet();
+        return chunk;
+    }
+
+    /**
+     * Gets the chunk coordinate of a world coordinate, rounding toward negative infinity.
+     *
+     * @param coordinate the world column or row
+     * @return the chunk column or row
+     */
+    public static int chunkCoordinate(long coordinate) {
+        return (int) (coordinate >> Chunk.SHIFT);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getPrefetchRadius() {
+        return prefetchRadius;
+    }
+
+    /**
+     * Gets the number of chunks in memory.
+     *
+     * @return the loaded chunk count
+     */
+    public int getLoadedCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Gets the number of prefetched chunks not yet moved into the cache.
+     *
+     * @return the pending chunk count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of chunk lookups served from memory.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of chunks generated on the calling thread because they were never prefetched.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of lookups that waited for a prefetch still in progress.
+     *
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    /**
+     * Gets the number of chunks dropped from memory.
+     *
+     * @return the evicted chunk count
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the number of chunks generated on any thread; chunks loaded from the store are not counted.
+     *
+     * @return the generated chunk count
+     */
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    /**
+     * Saves every dirty chunk in memory to the store, e.g. before the store is closed at the end of a
+     * session. The chunks stay loaded.
+     *
+     * @return the number of chunks saved
+     * @throws IllegalStateException if the world has no store
+     */
+    public int saveDirty() {
+        if (store == null) {
+            throw new IllegalStateException("World has no ChunkStore");
+        }
+        int saved = 0;
+        for (Chunk chunk : chunks.values()) {
+            if (chunk.isDirty()) {
+                store.save(chunk);
+                saved++;
+            }
+        }
+        store.flush();
+        return saved;
+    }
+
+    /**
+     * Gets the number of dirty chunks saved to the store on eviction.
+     *
+     * @return the spilled chunk count
+     */
+    public long getSpilledCount() {
+        return spilledCount;
+    }
+
+    public ChunkStore getStore() {
+        return store;
+    }
+
+    /**
+     * Stops background generation. Chunks already in memory stay readable. An attached store is not closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        pending.clear();
+    }
+}
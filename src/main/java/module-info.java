@@ -1,4 +1,14 @@
 module com.simulationrunner {
-    requires javafx.controls;
+    requires transitive javafx.controls;
     exports com.simulationrunner;
+    exports com.simulationrunner.config;
+    exports com.simulationrunner.entity;
+    exports com.simulationrunner.level;
+
+    uses com.simulationrunner.level.LevelGenerator;
+    provides com.simulationrunner.level.LevelGenerator with
+        com.simulationrunner.level.CorridorLevelGenerator,
+        com.simulationrunner.level.MazeLevelGenerator,
+        com.simulationrunner.level.CaveLevelGenerator,
+        com.simulationrunner.level.LockChainLevelGenerator;
 }
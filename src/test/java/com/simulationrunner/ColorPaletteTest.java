@@ -85,4 +85,38 @@ class ColorPaletteTest {
         assertTrue(exception.getCause() instanceof AssertionError,
             "Constructor should throw AssertionError");
     }
+
+    @Test
+    void testIndexOfPaletteColor() {
+        for (int i = 0; i < ColorPalette.getPaletteSize(); i++) {
+            assertEquals(i, ColorPalette.indexOf(ColorPalette.getKeyColor(i)));
+        }
+    }
+
+    @Test
+    void testIndexOfNonPaletteColor() {
+        assertEquals(-1, ColorPalette.indexOf(Color.GOLD));
+    }
+
+    @Test
+    void testIndexOfNullThrowsException() {
+        assertThrows(NullPointerException.class, () -> ColorPalette.indexOf(null));
+    }
+
+    @Test
+    void testGetCellColor() {
+        assertEquals(Color.DARKGRAY, ColorPalette.getCellColor(CellType.WALL));
+        for (CellType type : CellType.values()) {
+            assertNotNull(ColorPalette.getCellColor(type));
+        }
+        assertThrows(NullPointerException.class, () -> ColorPalette.getCellColor(null));
+    }
+
+    @Test
+    void testToArgb() {
+        assertEquals(0xFFFF0000, ColorPalette.toArgb(Color.RED));
+        assertEquals(0x80000000, ColorPalette.toArgb(Color.rgb(0, 0, 0, 128 / 255.0)));
+        assertEquals(0x00000000, ColorPalette.toArgb(Color.TRANSPARENT));
+        assertThrows(NullPointerException.class, () -> ColorPalette.toArgb(null));
+    }
 }
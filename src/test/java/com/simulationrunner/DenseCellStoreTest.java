@@ -0,0 +1,145 @@
+package com.simulationrunner;
+
+import com.simulationrunner.config.CellEncoding;
+import com.simulationrunner.config.GridConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DenseCellStoreTest {
+
+    @Test
+    void testSetAndGetInBothEncodings() {
+        for (CellEncoding encoding : CellEncoding.values()) {
+            try (DenseCellStore store = new DenseCellStore(37, 11, encoding)) {
+                CellType[] expected = new CellType[37 * 11];
+                SplittableRandom random = new SplittableRandom(encoding.ordinal());
+                for (int cell = 0; cell < expected.length; cell++) {
+                    expected[cell] = CellType.fromCode(random.nextInt(Math.min(encoding.getCodeCount(),
+                        CellType.values().length)));
+                    store.set(cell % 37, cell / 37, expected[cell]);
+                }
+                for (int cell = 0; cell < expected.length; cell++) {
+                    assertEquals(expected[cell], store.get(cell % 37, cell / 37), encoding + " cell " + cell);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testTwoBitsRejectWideTypes() {
+        try (DenseCellStore store = new DenseCellStore(4, 4, CellEncoding.TWO_BIT)) {
+            store.set(0, 0, CellType.KEY);
+            assertThrows(IllegalArgumentException.class, () -> store.set(0, 0, CellType.PAD));
+            assertEquals(-1, store.find(CellType.PAD, 0));
+            assertEquals(0, store.count(CellType.PAD));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(4, 0));
+            assertThrows(NullPointerException.class, () -> store.set(0, 0, null));
+        }
+    }
+
+    @Test
+    void testFindAndCountMatchScan() {
+        for (CellEncoding encoding : CellEncoding.values()) {
+            // 1001 cells leave a partly used last word in both encodings
+            try (DenseCellStore store = new DenseCellStore(143, 7, encoding)) {
+                SplittableRandom random = new SplittableRandom(5);
+                store.fill(CellType.WALL);
+                for (int i = 0; i < 60; i++) {
+                    store.set(random.nextLong(store.getCellCount()), CellType.DOOR);
+                }
+                List<Long> doors = new ArrayList<>();
+                for (long cell = 0; cell < store.getCellCount(); cell++) {
+                    if (store.getCode(cell) == CellType.DOOR.code()) {
+                        doors.add(cell);
+                    }
+                }
+
+                assertEquals(doors.size(), store.count(CellType.DOOR));
+                assertEquals(store.getCellCount() - doors.size(), store.count(CellType.WALL));
+                assertEquals(0, store.count(CellType.FLOOR), "Padding past the last cell is not counted");
+                List<Long> found = new ArrayList<>();
+                for (long cell = store.find(CellType.DOOR, 0); cell >= 0; cell = store.find(CellType.DOOR, cell + 1)) {
+                    found.add(cell);
+                }
+                assertEquals(doors, found);
+                assertEquals(-1, store.find(CellType.FLOOR, 0));
+            }
+        }
+    }
+
+    @Test
+    void testFindRandomPlacesOnMatchingCell() {
+        try (DenseCellStore store = new DenseCellStore(100, 100, CellEncoding.TWO_BIT)) {
+            store.fill(CellType.WALL);
+            assertEquals(-1, store.findRandom(CellType.FLOOR, new SplittableRandom(1)));
+
+            store.set(3, 0, CellType.FLOOR);
+            store.set(50, 99, CellType.FLOOR);
+            SplittableRandom random = new SplittableRandom(2);
+            for (int i = 0; i < 20; i++) {
+                long cell = store.findRandom(CellType.FLOOR, random);
+                assertTrue(cell == 3 || cell == 99 * 100 + 50);
+            }
+        }
+    }
+
+    @Test
+    void testRunsAndCollision() {
+        try (DenseCellStore store = new DenseCellStore(10, 2, CellEncoding.FOUR_BIT)) {
+            store.set(2, 1, CellType.WALL);
+            store.set(3, 1, CellType.WALL);
+            store.set(7, 1, CellType.PAD);
+            List<String> runs = new ArrayList<>();
+            store.forEachRun(1, 1, 9, (y, fromX, toX, type) -> runs.add(fromX + "-" + toX + " " + type));
+
+            assertEquals(List.of("1-2 FLOOR", "2-4 WALL", "4-7 FLOOR", "7-8 PAD", "8-9 FLOOR"), runs);
+            assertTrue(store.isWall(3, 1));
+            assertFalse(store.isWall(4, 1));
+            assertFalse(store.isWall(-1, 1), "Cells outside the grid do not collide");
+            assertFalse(store.isWall(10, 1));
+        }
+    }
+
+    @Test
+    void testCreateFromConfig() {
+        GridConfig config = new GridConfig(100, 30, 10, CellEncoding.FOUR_BIT);
+        try (DenseCellStore store = DenseCellStore.create(config)) {
+            assertEquals(100, store.getWidth());
+            assertEquals(4, store.getBitsPerCell());
+            assertEquals(188 * Long.BYTES, store.getByteSize(), "3000 cells at 16 per long");
+        }
+        assertEquals(10_000_000_000L, new GridConfig(100_000, 100_000, 10).getCellCount());
+        assertThrows(IllegalArgumentException.class, () -> DenseCellStore.create(new GridConfig()),
+            "The default configuration keeps cells on the heap");
+    }
+
+    @Test
+    void testAutomaticStoreIgnoresClose() {
+        DenseCellStore store = DenseCellStore.ofAuto(10, 10, CellEncoding.TWO_BIT);
+        store.set(3, 4, CellType.WALL);
+        store.close();
+
+        assertTrue(store.isWall(3, 4), "The garbage collector frees automatic stores");
+    }
+
+    @Test
+    void testCellIdsBeyondIntRange() {
+        // 2^31 + 2^16 cells: 512 MiB off-heap at two bits per cell
+        try (DenseCellStore store = new DenseCellStore(1 << 16, (1 << 15) + 1, CellEncoding.TWO_BIT)) {
+            long last = store.getCellCount() - 1;
+            assertTrue(last > Integer.MAX_VALUE);
+            store.set(store.getWidth() - 1, store.getHeight() - 1, CellType.WALL);
+            store.set(Integer.MAX_VALUE + 1L, CellType.KEY);
+
+            assertEquals(CellType.WALL, store.get(store.getWidth() - 1, store.getHeight() - 1));
+            assertEquals(Integer.MAX_VALUE + 1L, store.find(CellType.KEY, 0));
+            assertEquals(last, store.find(CellType.WALL, Integer.MAX_VALUE));
+            assertEquals(CellType.FLOOR, store.get(0, 0));
+        }
+    }
+}
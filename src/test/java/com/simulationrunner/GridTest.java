@@ -1,10 +1,20 @@
 package com.simulationrunner;
 
+import com.simulationrunner.config.CellEncoding;
 import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
 import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.Wall;
+import com.simulationrunner.entity.WallSpan;
+import javafx.scene.paint.Color;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GridTest {
@@ -44,6 +54,42 @@ class GridTest {
         assertThrows(IllegalArgumentException.class, () -> new Grid(config, -1));
     }
 
+    @Test
+    void testSameSeedProducesSameLayout() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Grid first = new Grid(config, 2, 42L);
+        Grid second = new Grid(config, 2, 42L);
+
+        assertEquals(42L, first.getSeed());
+        assertEquals(first.getPlayer(), second.getPlayer());
+        assertEquals(first.getDoor(), second.getDoor());
+        assertEquals(first.getPad(), second.getPad());
+        assertEquals(first.getKeys(), second.getKeys());
+        assertEquals(first.getWalls(), second.getWalls());
+    }
+
+    @RepeatedTest(20)
+    void testWallSpansMatchMaterializedWalls() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Grid grid = new Grid(config, 1);
+
+        int spanCells = grid.getWallSpans().stream().mapToInt(WallSpan::length).sum();
+        assertEquals(spanCells, grid.getWalls().size());
+        assertTrue(grid.getWallSpans().size() <= 2, "A column wall with one gap needs at most two spans");
+        for (Wall wall : grid.getWalls()) {
+            assertTrue(grid.isWall(wall.getGridX(), wall.getGridY()));
+        }
+        assertFalse(grid.isWall(grid.getDoor().getGridX(), grid.getDoor().getGridY()), "Door cell is a gap");
+    }
+
+    @Test
+    void testGetWallsIsUnmodifiable() {
+        Grid grid = new Grid(new GridConfig(10, 10, 50), 1);
+
+        assertThrows(UnsupportedOperationException.class, () -> grid.getWalls().clear());
+        assertThrows(UnsupportedOperationException.class, () -> grid.getWallSpans().clear());
+    }
+
     @RepeatedTest(100)
     void testKeysSpawnOnPlayerSide() {
         GridConfig config = new GridConfig(10, 10, 50);
@@ -106,4 +152,124 @@ class GridTest {
         }
         // If player == door (rare), we don't assert specific behavior
     }
+
+    @Test
+    void testGridFromWallGrid() {
+        GridConfig config = new GridConfig(6, 4, 10);
+        WallGrid walls = new WallGrid(6, 4);
+        walls.set(2, 0, true);
+        walls.set(2, 1, true);
+        walls.set(3, 3, true);
+        walls.set(4, 3, true);
+        Grid grid = new Grid(config, 0L, new Player(new GridPosition(0, 0)), List.of(), null, walls, null);
+        walls.set(0, 3, true); // Later changes must not leak into the grid
+
+        assertTrue(grid.isWall(2, 1));
+        assertTrue(grid.isWall(4, 3));
+        assertFalse(grid.isWall(0, 3));
+        assertEquals(2, grid.getWallSpans().size());
+        assertEquals(4, grid.getWalls().size());
+    }
+
+    @Test
+    void testDenseCellsMatchHeapGrid() {
+        for (CellEncoding encoding : CellEncoding.values()) {
+            Grid heap = new Grid(new GridConfig(12, 9, 10), 3, 7L);
+            Grid dense = new Grid(new GridConfig(12, 9, 10, encoding), 3, 7L);
+
+            assertNull(heap.getCells());
+            assertNotNull(dense.getCells());
+            for (int y = -1; y <= 9; y++) {
+                for (int x = -1; x <= 12; x++) {
+                    assertEquals(heap.isWall(x, y), dense.isWall(x, y), "Cell " + x + "," + y);
+                }
+            }
+            Door door = dense.getDoor();
+            assertEquals(CellType.DOOR, dense.getCells().get(door.getGridX(), door.getGridY()));
+            assertEquals(CellType.KEY, dense.getCells().get(dense.getKeys().get(0).getGridX(),
+                dense.getKeys().get(0).getGridY()));
+        }
+    }
+
+    @Test
+    void testPlayerCollidesWithDenseCells() {
+        GridConfig config = new GridConfig(4, 1, 10, CellEncoding.TWO_BIT);
+        Grid grid = new Grid(config, 0L, WallGrid.of(4, 1, List.of(WallSpan.horizontal(0, 2, 2))),
+            new Player(new GridPosition(0, 0)), List.of(), List.of(), null);
+        Player player = new Player(new GridPosition(1, 0));
+
+        player.moveWithin(1, 0, grid);
+        assertEquals(new GridPosition(1, 0), player.getPosition(), "The wall in the off-heap layer blocks the move");
+    }
+
+    @Test
+    void testFindOpenCellSkipsTakenCells() {
+        for (CellEncoding encoding : new CellEncoding[] {null, CellEncoding.TWO_BIT, CellEncoding.FOUR_BIT}) {
+            GridConfig config = new GridConfig(5, 1, 10, encoding);
+            Grid grid = new Grid(config, 0L, WallGrid.of(5, 1, List.of(WallSpan.horizontal(0, 1, 1))),
+                new Player(new GridPosition(0, 0)), List.of(new Key(new GridPosition(2, 0), Color.RED)),
+                List.of(new Door(new GridPosition(3, 0), Color.RED)), new Pad(new GridPosition(4, 0)));
+            assertNull(grid.findOpenCell(new SplittableRandom(1L)), "Every cell is taken with " + encoding);
+
+            Grid roomy = new Grid(new GridConfig(6, 1, 10, encoding), 0L, new WallGrid(6, 1),
+                new Player(new GridPosition(0, 0)), List.of(), List.of(), new Pad(new GridPosition(5, 0)));
+            SplittableRandom random = new SplittableRandom(2L);
+            for (int i = 0; i < 20; i++) {
+                GridPosition cell = roomy.findOpenCell(random);
+                assertTrue(cell.x() >= 1 && cell.x() <= 4, "Got " + cell + " with " + encoding);
+            }
+        }
+    }
+
+    @Test
+    void testGetWallGridIsSharedReadOnlyView() {
+        Grid grid = new Grid(new GridConfig(10, 10, 50), 1, 42L);
+        WallGrid walls = grid.getWallGrid();
+
+        assertSame(walls, grid.getWallGrid());
+        assertTrue(walls.isReadOnly());
+        assertThrows(UnsupportedOperationException.class, () -> walls.set(0, 0, true));
+        for (var span : grid.getWallSpans()) {
+            for (var wall : span.toWalls()) {
+                assertTrue(walls.isWall(wall.getGridX(), wall.getGridY()));
+                assertTrue(grid.isWall(wall.getGridX(), wall.getGridY()));
+            }
+        }
+        assertEquals(grid.getWalls().size(), walls.count());
+    }
+
+    @Test
+    void testGridWithSeveralDoors() {
+        GridConfig config = new GridConfig(8, 4, 10);
+        Door red = new Door(new GridPosition(5, 2), Color.RED);
+        Door blue = new Door(new GridPosition(2, 1), Color.BLUE);
+        Grid grid = new Grid(config, 0L, new WallGrid(8, 4), new Player(new GridPosition(0, 0)), List.of(),
+            List.of(red, blue), null);
+
+        assertEquals(List.of(red, blue), grid.getDoors());
+        assertSame(red, grid.getDoor(), "The first door is kept as the primary door");
+        assertSame(blue, grid.getDoorAt(2, 1));
+        assertSame(red, grid.getDoorAt(5, 2));
+        assertNull(grid.getDoorAt(2, 2));
+        assertNull(grid.getDoorAt(-1, 1));
+        assertThrows(UnsupportedOperationException.class, () -> grid.getDoors().add(red));
+    }
+
+    @Test
+    void testDoorsSharingACellThrowException() {
+        GridConfig config = new GridConfig(8, 4, 10);
+        List<Door> doors = List.of(new Door(new GridPosition(2, 1), Color.RED), new Door(new GridPosition(2, 1), Color.BLUE));
+
+        assertThrows(IllegalArgumentException.class, () -> new Grid(config, 0L, new WallGrid(8, 4),
+            new Player(new GridPosition(0, 0)), List.of(), doors, null));
+    }
+
+    @Test
+    void testGridFromMismatchedWallGridThrowsException() {
+        GridConfig config = new GridConfig(6, 4, 10);
+        Player player = new Player(new GridPosition(0, 0));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new Grid(config, 0L, player, List.of(), null, new WallGrid(4, 6), null));
+    }
 }
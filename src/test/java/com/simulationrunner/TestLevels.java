@@ -0,0 +1,44 @@
+package com.simulationrunner;
+
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+
+import java.util.List;
+
+/**
+ * Small hand-built levels shared by tests across packages.
+ */
+public final class TestLevels {
+    private TestLevels() {
+        throw new AssertionError("Cannot instantiate TestLevels class");
+    }
+
+    /**
+     * Player at (1,2), wall column x=4 with door at (4,2), key at (0,0), pad at (8,2). The key opens the door.
+     *
+     * @return the level
+     */
+    public static Grid corridor() {
+        GridConfig config = new GridConfig(9, 5, 10);
+        Door door = new Door(new GridPosition(4, 2), ColorPalette.getKeyColor(0));
+        return new Grid(config, 1L, new Player(new GridPosition(1, 2)),
+            List.of(new Key(new GridPosition(0, 0), ColorPalette.getKeyColor(0))),
+            door, WallSpan.verticalWithGap(config, 4, door.getPosition()), new Pad(new GridPosition(8, 2)));
+    }
+
+    /**
+     * A level without walls, doors, keys or pad, with the player at (0,0).
+     *
+     * @param width the width in cells
+     * @param height the height in cells
+     * @return the level
+     */
+    public static Grid open(int width, int height) {
+        return new Grid(new GridConfig(width, height, 10), 0L, new WallGrid(width, height),
+            new Player(new GridPosition(0, 0)), List.of(), List.of(), null);
+    }
+}
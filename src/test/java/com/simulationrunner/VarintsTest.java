@@ -0,0 +1,65 @@
+package com.simulationrunner;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VarintsTest {
+
+    @Test
+    void testSmallValuesTakeOneByte() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        Varints.putInt(buffer, 127);
+
+        assertEquals(1, buffer.position());
+        assertEquals(1, Varints.sizeOf(127));
+        assertEquals(2, Varints.sizeOf(128));
+    }
+
+    @Test
+    void testIntRoundTrip() {
+        int[] values = {0, 1, 127, 128, 300, 16384, Integer.MAX_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (int value : values) {
+            Varints.putInt(buffer, value);
+        }
+        buffer.flip();
+        for (int value : values) {
+            assertEquals(value, Varints.getInt(buffer));
+        }
+    }
+
+    @Test
+    void testLongRoundTrip() {
+        long[] values = {0L, 1L << 35, Long.MAX_VALUE, -1L};
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (long value : values) {
+            Varints.putLong(buffer, value);
+        }
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, Varints.getLong(buffer));
+        }
+    }
+
+    @Test
+    void testSizeOfMatchesWrittenBytes() {
+        long[] values = {0L, 200L, 1L << 40, -1L};
+        for (long value : values) {
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            Varints.putLong(buffer, value);
+            assertEquals(buffer.position(), Varints.sizeOf(value));
+        }
+    }
+
+    @Test
+    void testGetIntRejectsValuesWiderThan32Bits() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        Varints.putLong(buffer, 1L << 33);
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> Varints.getInt(buffer));
+    }
+}
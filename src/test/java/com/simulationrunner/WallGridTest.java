@@ -0,0 +1,109 @@
+package com.simulationrunner;
+
+import com.simulationrunner.entity.WallSpan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WallGridTest {
+
+    @Test
+    void testSetAndClear() {
+        WallGrid walls = new WallGrid(70, 3);
+        walls.set(69, 1, true);
+        walls.set(0, 2, true);
+
+        assertTrue(walls.isWall(69, 1));
+        assertTrue(walls.isWall(2 * 70));
+        assertFalse(walls.isWall(68, 1));
+        assertEquals(2, walls.count());
+
+        walls.set(69, 1, false);
+        assertFalse(walls.isWall(69, 1));
+        assertEquals(1, walls.count());
+    }
+
+    @Test
+    void testOutOfBoundsReadsAsOpen() {
+        WallGrid walls = new WallGrid(4, 4);
+        walls.fill(true);
+
+        assertFalse(walls.isWall(-1, 0));
+        assertFalse(walls.isWall(4, 0));
+        assertFalse(walls.isWall(0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> walls.set(4, 0, true));
+    }
+
+    @Test
+    void testFillLeavesPaddingClear() {
+        WallGrid walls = new WallGrid(5, 5);
+        walls.fill(true);
+
+        assertEquals(25, walls.count());
+        assertEquals(-1, walls.nextWall(25));
+        walls.fill(false);
+        assertEquals(0, walls.count());
+        assertEquals(-1, walls.nextWall(0));
+    }
+
+    @Test
+    void testNextWallIteratesInCellOrder() {
+        WallGrid walls = new WallGrid(100, 100);
+        int[] cells = {3, 64, 65, 4000, 9999};
+        for (int cell : cells) {
+            walls.set(cell, true);
+        }
+
+        int index = 0;
+        for (int cell = walls.nextWall(0); cell >= 0; cell = walls.nextWall(cell + 1)) {
+            assertEquals(cells[index++], cell);
+        }
+        assertEquals(cells.length, index);
+    }
+
+    @Test
+    void testSpansRoundTrip() {
+        List<WallSpan> spans = List.of(WallSpan.vertical(4, 0, 3), WallSpan.horizontal(5, 1, 7),
+            WallSpan.vertical(0, 7, 9));
+        WallGrid walls = WallGrid.of(10, 10, spans);
+
+        assertEquals(4 + 7 + 3, walls.count());
+        List<WallSpan> derived = walls.toSpans();
+        assertEquals(3, derived.size(), "Stacked single cells merge back into vertical spans");
+        WallGrid again = WallGrid.of(10, 10, derived);
+        assertArrayEquals(walls.toLongArray(), again.toLongArray());
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        WallGrid walls = new WallGrid(8, 8);
+        WallGrid copy = walls.copy();
+        copy.set(1, 1, true);
+
+        assertFalse(walls.isWall(1, 1));
+        assertTrue(copy.isWall(1, 1));
+    }
+
+    @Test
+    void testReadOnlyViewSharesBits() {
+        WallGrid walls = new WallGrid(8, 8);
+        WallGrid view = walls.asReadOnly();
+        walls.set(2, 3, true);
+
+        assertTrue(view.isWall(2, 3));
+        assertSame(view, view.asReadOnly());
+        assertThrows(UnsupportedOperationException.class, () -> view.set(1, 1, true));
+        assertThrows(UnsupportedOperationException.class, () -> view.fill(false));
+        assertFalse(view.copy().isReadOnly());
+    }
+
+    @Test
+    void testInvalidDimensionsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new WallGrid(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new WallGrid(5, -1));
+        assertThrows(IllegalArgumentException.class, () -> new WallGrid(65536, 65536));
+        assertThrows(NullPointerException.class, () -> WallGrid.of(5, 5, null));
+    }
+}
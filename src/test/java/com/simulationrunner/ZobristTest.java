@@ -0,0 +1,48 @@
+package com.simulationrunner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTest {
+
+    @Test
+    void testKeysAreDeterministic() {
+        assertEquals(Zobrist.player(17), Zobrist.player(17));
+        assertEquals(Zobrist.wall(3), Zobrist.wall(3));
+        assertEquals(Zobrist.key(1, 5, 99), Zobrist.key(1, 5, 99));
+    }
+
+    @Test
+    void testKeysOfDifferentFeaturesDiffer() {
+        Set<Long> keys = new HashSet<>();
+        for (int cell = 0; cell < 1000; cell++) {
+            keys.add(Zobrist.wall(cell));
+            keys.add(Zobrist.spawn(cell));
+            keys.add(Zobrist.player(cell));
+            keys.add(Zobrist.pad(cell));
+            keys.add(Zobrist.door(cell, 0));
+            keys.add(Zobrist.key(0, cell, 0));
+        }
+        assertEquals(6000, keys.size());
+        assertNotEquals(Zobrist.key(0, 5, 1), Zobrist.key(0, 5, 2), "Color is part of a key placement");
+        assertNotEquals(Zobrist.key(0, 5, 1), Zobrist.key(1, 5, 1), "Index is part of a key placement");
+    }
+
+    @Test
+    void testCollectedMaskIsXorOfBits() {
+        long mask = 0b1011L | (1L << 63);
+        long expected = Zobrist.collected(0) ^ Zobrist.collected(1) ^ Zobrist.collected(3) ^ Zobrist.collected(63);
+
+        assertEquals(expected, Zobrist.collectedMask(mask));
+        assertEquals(0L, Zobrist.collectedMask(0L));
+    }
+
+    @Test
+    void testDimensionsDistinguishTransposedGrids() {
+        assertNotEquals(Zobrist.dimensions(10, 20), Zobrist.dimensions(20, 10));
+    }
+}
@@ -32,6 +32,24 @@ class GridConfigTest {
         assertEquals(90, config2.getPixelHeight());
     }
 
+    @Test
+    void testCellEncoding() {
+        assertNull(new GridConfig(10, 10, 10).getCellEncoding());
+        assertFalse(new GridConfig(10, 10, 10).usesDenseCells());
+        assertFalse(new GridConfig(10, 10, 10, null).usesDenseCells());
+        assertEquals(CellEncoding.FOUR_BIT, new GridConfig(10, 10, 10, CellEncoding.FOUR_BIT).getCellEncoding());
+        assertTrue(new GridConfig(10, 10, 10, CellEncoding.TWO_BIT).usesDenseCells());
+    }
+
+    @Test
+    void testPixelOverflow() {
+        assertThrows(IllegalArgumentException.class, () -> new GridConfig(100_000, 10, 100_000));
+        assertThrows(IllegalArgumentException.class, () -> new GridConfig(10, Integer.MAX_VALUE, 2));
+
+        GridConfig config = new GridConfig(Integer.MAX_VALUE, 1, 1);
+        assertEquals(Integer.MAX_VALUE, config.getPixelWidth());
+    }
+
     @Test
     void testInvalidGridWidth() {
         assertThrows(IllegalArgumentException.class, () -> {
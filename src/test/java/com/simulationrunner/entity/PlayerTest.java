@@ -1,10 +1,15 @@
 package com.simulationrunner.entity;
 
+import com.simulationrunner.Grid;
 import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
 import com.simulationrunner.config.GridConfig;
+import javafx.scene.paint.Color;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.RepeatedTest;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PlayerTest {
@@ -202,4 +207,69 @@ class PlayerTest {
         assertEquals(9, player.getGridX(), "Should still be at corner");
         assertEquals(9, player.getGridY(), "Should still be at corner");
     }
+
+    @Test
+    void testMoveWithGridIsBlockedByWallSpan() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Player player = new Player(new GridPosition(4, 5));
+        Grid grid = new Grid(config, 0L, player, List.of(), null, List.of(WallSpan.vertical(5, 0, 9)), null);
+
+        player.moveWithin(1, 0, grid);
+        assertEquals(4, player.getGridX(), "Wall span should block movement");
+
+        player.moveWithin(0, 1, grid);
+        assertEquals(6, player.getGridY(), "Movement along the wall should be allowed");
+    }
+
+    @Test
+    void testMoveWithGridIsBlockedByLockedDoor() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Player player = new Player(new GridPosition(4, 5));
+        Door door = new Door(new GridPosition(5, 5), Color.RED);
+        Grid grid = new Grid(config, 0L, player, List.of(), door,
+            WallSpan.verticalWithGap(config, 5, door.getPosition()), null);
+
+        player.moveWithin(1, 0, grid);
+        assertEquals(4, player.getGridX(), "Locked door should block movement");
+
+        player.addKey(Color.RED);
+        player.moveWithin(1, 0, grid);
+        assertEquals(5, player.getGridX(), "Matching key should open the door");
+    }
+
+    @Test
+    void testMoveWithGridChecksEachDoor() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Player player = new Player(new GridPosition(2, 5));
+        List<Door> doors = List.of(new Door(new GridPosition(3, 5), Color.RED), new Door(new GridPosition(5, 5), Color.BLUE));
+        Grid grid = new Grid(config, 0L, new WallGrid(10, 10), player, List.of(), doors, null);
+
+        player.addKey(Color.RED);
+        player.moveWithin(1, 0, grid);
+        player.moveWithin(1, 0, grid);
+        player.moveWithin(1, 0, grid);
+        assertEquals(4, player.getGridX(), "Red key opens only the red door");
+
+        player.addKey(Color.BLUE);
+        player.moveWithin(1, 0, grid);
+        assertEquals(5, player.getGridX());
+    }
+
+    @Test
+    void testMoveWithGridStaysInBounds() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        Player player = new Player(new GridPosition(0, 0));
+        Grid grid = new Grid(config, 0L, player, List.of(), null, List.of(), null);
+
+        player.moveWithin(-1, 0, grid);
+        player.moveWithin(0, -1, grid);
+        assertEquals(new GridPosition(0, 0), player.getPosition());
+    }
+
+    @Test
+    void testMoveWithNullGridThrowsException() {
+        Player player = new Player(new GridPosition(5, 5));
+
+        assertThrows(NullPointerException.class, () -> player.moveWithin(1, 0, null));
+    }
 }
@@ -0,0 +1,89 @@
+package com.simulationrunner.entity;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WallSpanTest {
+
+    @Test
+    void testVerticalSpanContainsItsCells() {
+        WallSpan span = WallSpan.vertical(3, 2, 6);
+
+        assertEquals(5, span.length());
+        assertTrue(span.contains(3, 2));
+        assertTrue(span.contains(3, 6));
+        assertFalse(span.contains(3, 7));
+        assertFalse(span.contains(4, 4));
+    }
+
+    @Test
+    void testHorizontalSpanContainsItsCells() {
+        WallSpan span = WallSpan.horizontal(1, 0, 4);
+
+        assertTrue(span.contains(0, 1));
+        assertTrue(span.contains(4, 1));
+        assertFalse(span.contains(5, 1));
+        assertFalse(span.contains(2, 0));
+    }
+
+    @Test
+    void testToWallsMaterializesOneWallPerCell() {
+        List<Wall> walls = WallSpan.vertical(2, 1, 3).toWalls();
+
+        assertEquals(List.of(
+            new Wall(new GridPosition(2, 1)),
+            new Wall(new GridPosition(2, 2)),
+            new Wall(new GridPosition(2, 3))), walls);
+    }
+
+    @Test
+    void testVerticalWithGapInMiddleSplitsIntoTwoSpans() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        List<WallSpan> spans = WallSpan.verticalWithGap(config, 5, new GridPosition(5, 3));
+
+        assertEquals(List.of(WallSpan.vertical(5, 0, 2), WallSpan.vertical(5, 4, 9)), spans);
+    }
+
+    @Test
+    void testVerticalWithGapAtEdgesNeedsOneSpan() {
+        GridConfig config = new GridConfig(10, 10, 50);
+
+        assertEquals(List.of(WallSpan.vertical(5, 1, 9)),
+            WallSpan.verticalWithGap(config, 5, new GridPosition(5, 0)));
+        assertEquals(List.of(WallSpan.vertical(5, 0, 8)),
+            WallSpan.verticalWithGap(config, 5, new GridPosition(5, 9)));
+    }
+
+    @Test
+    void testVerticalWithGapInOtherColumnIsFullWall() {
+        GridConfig config = new GridConfig(10, 10, 50);
+
+        assertEquals(List.of(WallSpan.vertical(5, 0, 9)),
+            WallSpan.verticalWithGap(config, 5, new GridPosition(2, 3)));
+    }
+
+    @Test
+    void testVerticalWithGapInvalidXThrowsException() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        assertThrows(IllegalArgumentException.class,
+            () -> WallSpan.verticalWithGap(config, 10, new GridPosition(5, 5)));
+    }
+
+    @Test
+    void testConstructorValidation() {
+        assertThrows(NullPointerException.class, () -> new WallSpan(null, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> WallSpan.vertical(-1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> WallSpan.vertical(0, 3, 2));
+    }
+
+    @Test
+    void testRenderWithNullGraphicsContextThrowsException() {
+        WallSpan span = WallSpan.vertical(0, 0, 1);
+        assertThrows(NullPointerException.class, () -> span.render(null, new GridConfig()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.search.LevelSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaveGeneratorTest {
+
+    private static int openRegionCount(WallGrid walls) {
+        int width = walls.getWidth();
+        boolean[] seen = new boolean[walls.getCellCount()];
+        int[] queue = new int[walls.getCellCount()];
+        int regions = 0;
+        for (int start = 0; start < seen.length; start++) {
+            if (seen[start] || walls.isWall(start)) {
+                continue;
+            }
+            regions++;
+            int head = 0;
+            int tail = 0;
+            seen[start] = true;
+            queue[tail++] = start;
+            while (head < tail) {
+                int cell = queue[head++];
+                int x = cell % width;
+                int y = cell / width;
+                int[][] neighbors = {{x, y - 1}, {x + 1, y}, {x, y + 1}, {x - 1, y}};
+                for (int[] n : neighbors) {
+                    if (walls.isWall(n[0], n[1]) || n[0] < 0 || n[0] >= width || n[1] < 0
+                        || n[1] >= walls.getHeight()) {
+                        continue;
+                    }
+                    int next = n[1] * width + n[0];
+                    if (!seen[next]) {
+                        seen[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return regions;
+    }
+
+    @Test
+    void testCarveLeavesSingleRegion() {
+        WallGrid walls = new WallGrid(120, 80);
+        int open = CaveGenerator.carve(walls, 3L);
+
+        assertEquals(walls.getCellCount() - walls.count(), open);
+        assertTrue(open > walls.getCellCount() / 4, "Caves should be mostly open");
+        assertEquals(1, openRegionCount(walls));
+    }
+
+    @Test
+    void testCarveIsDeterministicDespiteParallelRows() {
+        WallGrid first = new WallGrid(300, 300);
+        WallGrid second = new WallGrid(300, 300);
+        CaveGenerator.carve(first, 42L);
+        CaveGenerator.carve(second, 42L);
+
+        assertArrayEquals(first.toLongArray(), second.toLongArray());
+        CaveGenerator.carve(second, 43L);
+        assertFalse(Arrays.equals(first.toLongArray(), second.toLongArray()));
+    }
+
+    @Test
+    void testGeneratedCavesAreSolvableOnlyThroughTheDoor() {
+        try (LevelSolver solver = new LevelSolver(1_000_000)) {
+            for (long seed = 0; seed < 20; seed++) {
+                Grid grid = CaveGenerator.generate(new GridConfig(60, 40, 10), 2, seed);
+                LevelTemplate template = LevelTemplate.from(grid);
+
+                assertFalse(grid.isWall(grid.getPlayer().getGridX(), grid.getPlayer().getGridY()));
+                assertFalse(grid.isWall(grid.getPad().getGridX(), grid.getPad().getGridY()));
+                assertTrue(solver.solve(template) > 0, "Seed " + seed + " should be solvable");
+                int[] path = solver.getSolution();
+                boolean crossesDoor = false;
+                for (int cell : path) {
+                    crossesDoor |= cell == template.getDoorCell();
+                }
+                assertTrue(crossesDoor, "Seed " + seed + " should need the door");
+                assertEquals(1, openRegionCount(grid.getWallGrid()));
+            }
+        }
+    }
+
+    @Test
+    void testCaveWithoutKeysHasNoDoor() {
+        Grid grid = CaveGenerator.generate(new GridConfig(40, 40, 10), 0, 1L);
+
+        assertNull(grid.getDoor());
+        assertTrue(grid.getKeys().isEmpty());
+        assertNotNull(grid.getPad());
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        assertThrows(NullPointerException.class, () -> CaveGenerator.generate(null, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> CaveGenerator.generate(new GridConfig(40, 40, 10), -1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> CaveGenerator.generate(new GridConfig(2, 2, 10), 1, 1L));
+    }
+}
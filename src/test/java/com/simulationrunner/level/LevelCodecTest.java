@@ -0,0 +1,166 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.Varints;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelCodecTest {
+
+    @RepeatedTest(20)
+    void testRoundTripPreservesLevel() {
+        Grid grid = new Grid(new GridConfig(10, 10, 50), 3);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertLevelsEqual(grid, decoded);
+    }
+
+    @Test
+    void testRoundTripWithoutKeys() {
+        Grid grid = new Grid(new GridConfig(8, 6, 20), 0, 7L);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertLevelsEqual(grid, decoded);
+        assertNull(decoded.getDoor());
+        assertNull(decoded.getPad());
+    }
+
+    @Test
+    void testRoundTripWithSeveralDoors() {
+        Grid grid = LockChainGenerator.generate(new GridConfig(30, 12, 10), 4, 21L);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertLevelsEqual(grid, decoded);
+        assertEquals(4, decoded.getDoors().size());
+    }
+
+    @Test
+    void testSingleDoorCountMatchesFormerDoorFlag() {
+        Grid grid = new Grid(new GridConfig(10, 10, 50), 1, 4L);
+        byte[] record = LevelCodec.encode(grid);
+        // Tail of the record: door count, door cell, door color, pad flag, pad cell
+        int doorCountOffset = record.length - Varints.sizeOf(cellOf(grid.getPad().getPosition(), 10)) - 1 - 1
+            - Varints.sizeOf(cellOf(grid.getDoor().getPosition(), 10)) - 1;
+
+        assertEquals(1, record[doorCountOffset], "A single door is still written as flag byte 1");
+    }
+
+    private static int cellOf(GridPosition position, int width) {
+        return position.y() * width + position.x();
+    }
+
+    @Test
+    void testDenseWallsRoundTripThroughBitRows() {
+        GridConfig config = new GridConfig(9, 5, 10);
+        List<WallSpan> spans = new ArrayList<>();
+        for (int x = 0; x < 9; x += 2) {
+            spans.add(WallSpan.vertical(x, 0, 4));
+        }
+        spans.add(WallSpan.horizontal(2, 1, 1));
+        Grid grid = new Grid(config, 1L, new Player(new GridPosition(1, 0)), List.of(), null, spans, null);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertEquals(new HashSet<>(grid.getWalls()), new HashSet<>(decoded.getWalls()));
+    }
+
+    @Test
+    void testRunsWrappingRowsDecodeToSpans() {
+        GridConfig config = new GridConfig(50, 50, 10);
+        List<WallSpan> spans = List.of(WallSpan.horizontal(3, 45, 49), WallSpan.horizontal(4, 0, 4));
+        Grid grid = new Grid(config, 1L, new Player(new GridPosition(0, 0)), List.of(), null, spans, null);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertEquals(new HashSet<>(grid.getWalls()), new HashSet<>(decoded.getWalls()));
+        assertEquals(2, decoded.getWallSpans().size());
+    }
+
+    @Test
+    void testColumnWallDecodesToVerticalSpans() {
+        Grid grid = new Grid(new GridConfig(30, 30, 10), 1, 9L);
+        Grid decoded = LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid)));
+
+        assertEquals(grid.getWallSpans().size(), decoded.getWallSpans().size());
+        for (WallSpan span : decoded.getWallSpans()) {
+            assertEquals(WallSpan.Axis.VERTICAL, span.axis());
+        }
+    }
+
+    @Test
+    void testColumnWallIsSmallerThanBitRows() {
+        Grid grid = new Grid(new GridConfig(200, 200, 5), 1, 3L);
+        byte[] record = LevelCodec.encode(grid);
+
+        assertTrue(record.length < 200 * 25, "A single wall column should be run-length encoded");
+    }
+
+    @Test
+    void testDecodeLeavesBufferAfterRecord() {
+        Grid first = new Grid(new GridConfig(10, 10, 50), 1, 1L);
+        Grid second = new Grid(new GridConfig(12, 8, 30), 2, 2L);
+        byte[] a = LevelCodec.encode(first);
+        byte[] b = LevelCodec.encode(second);
+        ByteBuffer buffer = ByteBuffer.allocate(a.length + b.length).put(a).put(b).flip();
+
+        assertLevelsEqual(first, LevelCodec.decode(buffer));
+        assertLevelsEqual(second, LevelCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void testEncodeWithNonPaletteColorThrowsException() {
+        Key key = new Key(new GridPosition(0, 0), Color.GOLD);
+        Grid grid = new Grid(new GridConfig(), 0L, new Player(new GridPosition(1, 1)), List.of(key), null, List.of(), null);
+
+        assertThrows(IllegalArgumentException.class, () -> LevelCodec.encode(grid));
+    }
+
+    @Test
+    void testDecodeWithBadMagicThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> LevelCodec.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 1})));
+    }
+
+    @Test
+    void testDecodeTruncatedRecordThrowsException() {
+        byte[] record = LevelCodec.encode(new Grid(new GridConfig(10, 10, 50), 1, 5L));
+        ByteBuffer truncated = ByteBuffer.wrap(record, 0, record.length - 2);
+
+        assertThrows(IllegalArgumentException.class, () -> LevelCodec.decode(truncated));
+    }
+
+    @Test
+    void testEncodeNullGridThrowsException() {
+        assertThrows(NullPointerException.class, () -> LevelCodec.encode(null));
+    }
+
+    static void assertLevelsEqual(Grid expected, Grid actual) {
+        assertEquals(expected.getConfig().getGridWidth(), actual.getConfig().getGridWidth());
+        assertEquals(expected.getConfig().getGridHeight(), actual.getConfig().getGridHeight());
+        assertEquals(expected.getConfig().getCellSize(), actual.getConfig().getCellSize());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getPlayer(), actual.getPlayer());
+        assertEquals(expected.getKeys(), actual.getKeys());
+        for (int i = 0; i < expected.getKeys().size(); i++) {
+            assertEquals(expected.getKeys().get(i).getColor(), actual.getKeys().get(i).getColor());
+        }
+        assertEquals(expected.getDoors(), actual.getDoors());
+        for (int i = 0; i < expected.getDoors().size(); i++) {
+            assertEquals(expected.getDoors().get(i).getColor(), actual.getDoors().get(i).getColor());
+        }
+        assertEquals(new HashSet<>(expected.getWalls()), new HashSet<>(actual.getWalls()));
+        assertEquals(expected.getPad(), actual.getPad());
+    }
+}
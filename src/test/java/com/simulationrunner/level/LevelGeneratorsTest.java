@@ -0,0 +1,80 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelGeneratorsTest {
+
+    @Test
+    void testBuiltInGeneratorsAreDiscovered() {
+        assertTrue(LevelGenerators.names().containsAll(List.of(
+            CorridorLevelGenerator.NAME, MazeLevelGenerator.NAME, CaveLevelGenerator.NAME, LockChainLevelGenerator.NAME)));
+        for (String name : LevelGenerators.names()) {
+            assertEquals(name, LevelGenerators.get(name).getName());
+        }
+        assertSame(LevelGenerators.get(LevelGenerators.DEFAULT_NAME), LevelGenerators.get(CorridorLevelGenerator.NAME));
+    }
+
+    @Test
+    void testUnknownNameThrowsException() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> LevelGenerators.get("nope"));
+
+        assertTrue(e.getMessage().contains(MazeLevelGenerator.NAME), "Message should list the available generators");
+        assertThrows(NullPointerException.class, () -> LevelGenerators.get(null));
+    }
+
+    @RepeatedTest(20)
+    void testCorridorMatchesGridConstructor() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        long seed = ThreadLocalRandom.current().nextLong();
+        Grid expected = new Grid(config, 2, seed);
+        Grid actual = LevelGenerators.get(CorridorLevelGenerator.NAME).generate(config, 2, seed);
+
+        assertEquals(LevelTemplate.from(expected).getLayoutHash(), LevelTemplate.from(actual).getLayoutHash());
+        assertEquals(expected.getPad(), actual.getPad());
+    }
+
+    @Test
+    void testProvidersMatchStaticGenerators() {
+        GridConfig config = new GridConfig(41, 31, 10);
+
+        assertEquals(LevelTemplate.from(MazeGenerator.generate(config, 2, 5L)).getLayoutHash(),
+            LevelTemplate.from(LevelGenerators.get(MazeLevelGenerator.NAME).generate(config, 2, 5L)).getLayoutHash());
+        assertEquals(LevelTemplate.from(CaveGenerator.generate(config, 1, 5L)).getLayoutHash(),
+            LevelTemplate.from(LevelGenerators.get(CaveLevelGenerator.NAME).generate(config, 1, 5L)).getLayoutHash());
+        assertEquals(LevelTemplate.from(LockChainGenerator.generate(config, 3, 5L)).getLayoutHash(),
+            LevelTemplate.from(LevelGenerators.get(LockChainLevelGenerator.NAME).generate(config, 3, 5L)).getLayoutHash());
+    }
+
+    @Test
+    void testDraftCollectsStageOutput() {
+        LevelDraft draft = new LevelDraft(new GridConfig(21, 21, 10), 1, 3L);
+        LevelGenerator maze = LevelGenerators.get(MazeLevelGenerator.NAME);
+
+        maze.layout(draft);
+        assertNotNull(draft.getRoute(), "The maze layout records its path");
+        assertNull(draft.getPlayer());
+        maze.spawn(draft);
+        Grid grid = draft.toGrid();
+
+        assertEquals(draft.getPlayer(), grid.getPlayer());
+        assertEquals(1, grid.getKeys().size());
+        assertEquals(draft.getWalls().count(), grid.getWallGrid().count());
+        assertThrows(UnsupportedOperationException.class, () -> draft.getKeys().clear());
+    }
+
+    @Test
+    void testDraftWithoutPlayerThrowsException() {
+        LevelDraft draft = new LevelDraft(new GridConfig(5, 5, 10), 0, 1L);
+
+        assertThrows(NullPointerException.class, draft::toGrid);
+        assertThrows(IllegalArgumentException.class, () -> new LevelDraft(new GridConfig(5, 5, 10), -1, 1L));
+    }
+}
@@ -0,0 +1,114 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelPackTest {
+
+    @Test
+    void testWriteAndReadBackAllLevels() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            GridConfig config = new GridConfig(10, 10, 50);
+            List<Grid> levels = new ArrayList<>();
+            try (LevelPackWriter writer = new LevelPackWriter(file)) {
+                for (int i = 0; i < 50; i++) {
+                    Grid grid = new Grid(config, 1 + i % 3, i);
+                    levels.add(grid);
+                    assertEquals(i, writer.add(grid));
+                }
+            }
+
+            try (LevelPack pack = LevelPack.open(file)) {
+                assertEquals(50, pack.size());
+                // Random access, out of order
+                for (int i = 49; i >= 0; i -= 7) {
+                    LevelCodecTest.assertLevelsEqual(levels.get(i), pack.get(i));
+                }
+                LevelCodecTest.assertLevelsEqual(levels.get(0), pack.get(0));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testRecordsLargerThanWriteBuffer() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            Grid big = new Grid(new GridConfig(4000, 4000, 1), 1, 11L);
+            try (LevelPackWriter writer = new LevelPackWriter(file)) {
+                writer.add(big);
+                writer.add(big);
+            }
+            try (LevelPack pack = LevelPack.open(file)) {
+                LevelCodecTest.assertLevelsEqual(big, pack.get(1));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testEmptyPack() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            new LevelPackWriter(file).close();
+            try (LevelPack pack = LevelPack.open(file)) {
+                assertEquals(0, pack.size());
+                assertThrows(IndexOutOfBoundsException.class, () -> pack.get(0));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testGetOutOfRangeThrowsException() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            try (LevelPackWriter writer = new LevelPackWriter(file)) {
+                writer.add(new Grid(new GridConfig(10, 10, 50), 1, 1L));
+            }
+            try (LevelPack pack = LevelPack.open(file)) {
+                assertThrows(IndexOutOfBoundsException.class, () -> pack.get(1));
+                assertThrows(IndexOutOfBoundsException.class, () -> pack.get(-1));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testOpenNonPackFileThrowsException() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            Files.write(file, new byte[64]);
+            assertThrows(IOException.class, () -> LevelPack.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testAddAfterCloseThrowsException() throws IOException {
+        Path file = Files.createTempFile("levels", ".pack");
+        try {
+            LevelPackWriter writer = new LevelPackWriter(file);
+            writer.close();
+            assertThrows(IllegalStateException.class,
+                () -> writer.add(new Grid(new GridConfig(10, 10, 50), 1, 1L)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
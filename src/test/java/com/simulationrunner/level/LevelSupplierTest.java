@@ -0,0 +1,97 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelSupplierTest {
+
+    @Test
+    void testNextReturnsLevelWithRequestedShape() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        try (LevelSupplier supplier = new LevelSupplier(config, 1, 2)) {
+            Grid grid = supplier.next();
+
+            assertSame(config, grid.getConfig());
+            assertEquals(1, grid.getKeys().size());
+            assertNotNull(grid.getDoor());
+        }
+    }
+
+    @Test
+    void testBufferFillsInBackground() throws InterruptedException {
+        GridConfig config = new GridConfig(10, 10, 50);
+        try (LevelSupplier supplier = new LevelSupplier(config, 1, 3)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (supplier.available() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(3, supplier.available(), "Buffer should fill up to capacity");
+            assertTrue(supplier.available() <= supplier.getCapacity());
+        }
+    }
+
+    @Test
+    void testConsecutiveLevelsAreDistinctInstances() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        try (LevelSupplier supplier = new LevelSupplier(config, 1, 2)) {
+            Grid first = supplier.next();
+            Grid second = supplier.next();
+
+            assertNotSame(first, second);
+        }
+    }
+
+    @Test
+    void testGenerationTimeIsMeasured() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        try (LevelSupplier supplier = new LevelSupplier(config, 1, 1)) {
+            supplier.next();
+
+            assertTrue(supplier.getGeneratedCount() >= 1);
+            assertTrue(supplier.getLastGenerationNanos() > 0);
+            assertTrue(supplier.getAverageGenerationNanos() > 0);
+        }
+    }
+
+    @Test
+    void testNextAfterCloseThrowsException() {
+        LevelSupplier supplier = new LevelSupplier(new GridConfig(10, 10, 50), 1, 1);
+        supplier.close();
+
+        assertThrows(IllegalStateException.class, supplier::next);
+    }
+
+    @Test
+    void testConstructorWithNullConfigThrowsException() {
+        assertThrows(NullPointerException.class, () -> new LevelSupplier(null, 1, 1));
+    }
+
+    @Test
+    void testConstructorWithNegativeKeyCountThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LevelSupplier(new GridConfig(10, 10, 50), -1, 1));
+    }
+
+    @Test
+    void testConstructorWithZeroCapacityThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LevelSupplier(new GridConfig(10, 10, 50), 1, 0));
+    }
+
+    @Test
+    void testFactoryBuildsEveryLevel() {
+        GridConfig config = new GridConfig(21, 21, 10);
+        LevelGenerator maze = LevelGenerators.get(MazeLevelGenerator.NAME);
+        try (LevelSupplier supplier = new LevelSupplier(seed -> maze.generate(config, 1, seed), 2)) {
+            Grid grid = supplier.next();
+
+            assertEquals(21, grid.getConfig().getGridWidth());
+            assertTrue(grid.getWallGrid().count() > 0, "Levels come from the maze generator");
+        }
+        assertThrows(NullPointerException.class, () -> new LevelSupplier(null, 1));
+    }
+}
@@ -0,0 +1,181 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.Wall;
+import com.simulationrunner.entity.WallSpan;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelTemplateTest {
+
+    static Grid corridor() {
+        // Player at (1,2), wall column x=4 with door at (4,2), key at (0,0), pad at (8,2)
+        GridConfig config = new GridConfig(9, 5, 10);
+        Door door = new Door(new GridPosition(4, 2), ColorPalette.getKeyColor(0));
+        return new Grid(config, 99L, new Player(new GridPosition(1, 2)),
+            List.of(new Key(new GridPosition(0, 0), ColorPalette.getKeyColor(0))),
+            door, WallSpan.verticalWithGap(config, 4, door.getPosition()), new Pad(new GridPosition(8, 2)));
+    }
+
+    @RepeatedTest(20)
+    void testFromGridCapturesLayout() {
+        Grid grid = new Grid(new GridConfig(10, 10, 50), 2);
+        LevelTemplate template = LevelTemplate.from(grid);
+
+        assertEquals(grid.getSeed(), template.getSeed());
+        assertEquals(grid.getPlayer().getPosition(), template.positionOf(template.getSpawnCell()));
+        assertEquals(2, template.getKeyCount());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(grid.getKeys().get(i).getPosition(), template.positionOf(template.getKeyCell(i)));
+            assertEquals(grid.getKeys().get(i).getColor(), template.getKeyColor(i));
+        }
+        assertEquals(grid.getDoor().getPosition(), template.positionOf(template.getDoorCell()));
+        assertEquals(grid.getPad().getPosition(), template.positionOf(template.getPadCell()));
+        for (Wall wall : grid.getWalls()) {
+            assertTrue(template.isWall(template.cellOf(wall.getPosition())));
+        }
+        assertFalse(template.isWall(template.getDoorCell()));
+    }
+
+    @Test
+    void testDoorKeyMaskMatchesDoorColor() {
+        LevelTemplate template = LevelTemplate.from(new Grid(new GridConfig(10, 10, 50), 3));
+
+        assertEquals(1L, template.getDoorKeyMask(), "Only the first key shares the door color");
+    }
+
+    @Test
+    void testKeyMaskAtCoversStackedKeys() {
+        GridConfig config = new GridConfig(5, 5, 10);
+        List<Key> keys = List.of(
+            new Key(new GridPosition(2, 2), Color.RED),
+            new Key(new GridPosition(3, 3), Color.BLUE),
+            new Key(new GridPosition(2, 2), Color.GREEN));
+        LevelTemplate template = LevelTemplate.from(
+            new Grid(config, 0L, new Player(new GridPosition(0, 0)), keys, null, List.of(), null));
+
+        assertEquals(0b101L, template.keyMaskAt(template.cellOf(2, 2)));
+        assertEquals(0b010L, template.keyMaskAt(template.cellOf(3, 3)));
+        assertEquals(0L, template.keyMaskAt(template.cellOf(0, 0)));
+    }
+
+    @Test
+    void testMoveHonorsBoundsWallsAndDoor() {
+        LevelTemplate template = LevelTemplate.from(corridor());
+        int beforeDoor = template.cellOf(3, 2);
+
+        assertEquals(-1, template.move(template.cellOf(0, 0), -1, 0, 0L), "Out of bounds");
+        assertEquals(-1, template.move(template.cellOf(3, 1), 1, 0, 0L), "Wall");
+        assertEquals(-1, template.move(beforeDoor, 1, 0, 0L), "Locked door");
+        assertEquals(template.cellOf(4, 2), template.move(beforeDoor, 1, 0, 1L), "Door opened by key");
+        assertEquals(template.cellOf(3, 3), template.move(beforeDoor, 0, 1, 0L));
+    }
+
+    @Test
+    void testMoveChecksEachDoorAgainstItsOwnKeys() {
+        // Doors at (2,1) and (4,1), each in its own wall column, opened by the key of the same color
+        GridConfig config = new GridConfig(6, 3, 10);
+        WallGrid walls = new WallGrid(6, 3);
+        for (int y = 0; y < 3; y++) {
+            walls.set(2, y, y != 1);
+            walls.set(4, y, y != 1);
+        }
+        List<Key> keys = List.of(new Key(new GridPosition(0, 0), Color.BLUE), new Key(new GridPosition(0, 2), Color.RED));
+        List<Door> doors = List.of(new Door(new GridPosition(4, 1), Color.BLUE), new Door(new GridPosition(2, 1), Color.RED));
+        LevelTemplate template = LevelTemplate.from(
+            new Grid(config, 0L, walls, new Player(new GridPosition(0, 1)), keys, doors, null));
+
+        assertEquals(2, template.getDoorCount());
+        assertEquals(template.cellOf(4, 1), template.getDoorCell(0));
+        assertEquals(Color.RED, template.getDoorColor(1));
+        assertEquals(0b01L, template.getDoorKeyMask(0));
+        assertEquals(0b10L, template.getDoorKeyMask(1));
+        assertTrue(template.isDoor(template.cellOf(2, 1)));
+        assertFalse(template.isDoor(template.cellOf(3, 1)));
+        assertEquals(0b10L, template.doorKeyMaskAt(template.cellOf(2, 1)));
+        assertEquals(0L, template.doorKeyMaskAt(template.cellOf(3, 1)));
+
+        assertEquals(-1, template.move(template.cellOf(1, 1), 1, 0, 0b01L), "Blue key does not open the red door");
+        assertEquals(template.cellOf(2, 1), template.move(template.cellOf(1, 1), 1, 0, 0b10L));
+        assertEquals(-1, template.move(template.cellOf(3, 1), 1, 0, 0b10L), "Red key does not open the blue door");
+        assertEquals(template.cellOf(4, 1), template.move(template.cellOf(3, 1), 1, 0, 0b11L));
+    }
+
+    @Test
+    void testLevelWithoutDoorOrPad() {
+        LevelTemplate template = LevelTemplate.from(new Grid(new GridConfig(10, 10, 50), 0));
+
+        assertEquals(-1, template.getDoorCell());
+        assertNull(template.getDoorColor());
+        assertEquals(0, template.getDoorCount());
+        assertEquals(0L, template.getDoorKeyMask());
+        assertEquals(-1, template.getPadCell());
+        assertEquals(0, template.getKeyCount());
+    }
+
+    @Test
+    void testTooManyKeysThrowsException() {
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i <= LevelTemplate.MAX_KEYS; i++) {
+            keys.add(new Key(new GridPosition(i % 10, i / 10), Color.RED));
+        }
+        Grid grid = new Grid(new GridConfig(10, 10, 10), 0L, new Player(new GridPosition(0, 0)),
+            keys, null, List.of(), null);
+
+        assertThrows(IllegalArgumentException.class, () -> LevelTemplate.from(grid));
+    }
+
+    @Test
+    void testLayoutHashIsStableAcrossEncodingAndSpanSplits() {
+        Grid grid = new Grid(new GridConfig(12, 9, 20), 3, 42L);
+        long hash = LevelTemplate.from(grid).getLayoutHash();
+
+        assertEquals(hash, LevelTemplate.from(new Grid(new GridConfig(12, 9, 20), 3, 42L)).getLayoutHash());
+        assertEquals(hash, LevelTemplate.from(LevelCodec.decode(ByteBuffer.wrap(LevelCodec.encode(grid))))
+            .getLayoutHash());
+
+        // The same wall cells split into different spans hash alike
+        Grid single = new Grid(new GridConfig(5, 5, 10), 1L, new Player(new GridPosition(0, 0)), List.of(), null,
+            List.of(WallSpan.vertical(2, 0, 4)), null);
+        Grid split = new Grid(new GridConfig(5, 5, 10), 2L, new Player(new GridPosition(0, 0)), List.of(), null,
+            List.of(WallSpan.vertical(2, 0, 1), WallSpan.vertical(2, 2, 4)), null);
+        assertEquals(LevelTemplate.from(single).getLayoutHash(), LevelTemplate.from(split).getLayoutHash());
+    }
+
+    @Test
+    void testLayoutHashDistinguishesLayouts() {
+        Set<Long> hashes = new HashSet<>();
+        for (long seed = 0; seed < 200; seed++) {
+            Grid grid = new Grid(new GridConfig(10, 10, 50), 2, seed);
+            hashes.add(LevelTemplate.from(grid).getLayoutHash());
+        }
+        assertTrue(hashes.size() > 190, "Distinct layouts should rarely collide");
+
+        Grid grid = corridor();
+        Grid moved = new Grid(grid.getConfig(), grid.getSeed(), new Player(new GridPosition(2, 2)), grid.getKeys(),
+            grid.getDoor(), grid.getWallSpans(), grid.getPad());
+        assertNotEquals(LevelTemplate.from(grid).getLayoutHash(), LevelTemplate.from(moved).getLayoutHash());
+    }
+
+    @Test
+    void testFromNullGridThrowsException() {
+        assertThrows(NullPointerException.class, () -> LevelTemplate.from(null));
+    }
+}
@@ -0,0 +1,154 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.search.LevelSolver;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockChainGeneratorTest {
+
+    @Test
+    void testDoorsHaveDistinctColorsAndMatchingKeys() {
+        Grid grid = LockChainGenerator.generate(new GridConfig(40, 12, 10), 5, 3L);
+        Set<Color> colors = new HashSet<>();
+
+        assertEquals(5, grid.getDoors().size());
+        assertEquals(5, grid.getKeys().size());
+        for (int i = 0; i < 5; i++) {
+            Door door = grid.getDoors().get(i);
+            assertTrue(colors.add(door.getColor()), "Every door has its own color");
+            assertEquals(door.getColor(), grid.getKeys().get(i).getColor());
+            assertFalse(grid.isWall(door.getGridX(), door.getGridY()));
+        }
+    }
+
+    @Test
+    void testEveryKeyIsReachedBeforeItsDoor() {
+        for (long seed = 0; seed < 20; seed++) {
+            Grid grid = LockChainGenerator.generate(new GridConfig(30, 8, 10), 4, seed);
+            LevelTemplate template = LevelTemplate.from(grid);
+            try (LevelSolver solver = new LevelSolver(1_000_000)) {
+                assertTrue(solver.solve(template) > 0, "Chain must be solvable for seed " + seed);
+                int[] path = solver.getSolution();
+                for (int i = 0; i < template.getDoorCount(); i++) {
+                    int keyIndex = indexOf(path, template.getKeyCell(i));
+                    int doorIndex = indexOf(path, template.getDoorCell(i));
+                    if (doorIndex >= 0) { // Doors off the way to the pad may never be opened
+                        assertTrue(keyIndex >= 0 && keyIndex < doorIndex,
+                            "Key " + i + " must be reached before its door");
+                    }
+                }
+            }
+        }
+    }
+
+    private static int indexOf(int[] path, int cell) {
+        for (int i = 0; i < path.length; i++) {
+            if (path[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testOpeningOrderFollowsDependencies() {
+        long[] requires = {0b000L, 0b101L, 0b001L};
+
+        assertArrayEquals(new int[] {0, 2, 1}, LockChainGenerator.openingOrder(requires));
+    }
+
+    @Test
+    void testGeneratedDependenciesAreBranchingDags() {
+        boolean branching = false;
+        boolean keyOnOtherBranch = false;
+        for (long seed = 0; seed < 20; seed++) {
+            Grid grid = LockChainGenerator.generate(new GridConfig(30, 8, 10), 4, seed);
+            long[] requires = LockChainGenerator.dependencies(grid);
+            int[] order = LockChainGenerator.openingOrder(requires);
+
+            long opened = 0;
+            for (int door : order) {
+                assertEquals(0, requires[door] & ~opened, "Door " + door + " opened too early for seed " + seed);
+                assertEquals(0, requires[door] & (1L << door), "Key " + door + " is behind its own door");
+                opened |= 1L << door;
+            }
+            for (int a = 0; a < requires.length; a++) {
+                for (int b = a + 1; b < requires.length; b++) {
+                    if ((requires[a] & (1L << b)) == 0 && (requires[b] & (1L << a)) == 0) {
+                        branching = true; // Neither door has to wait for the other
+                    }
+                }
+                keyOnOtherBranch |= !isChain(requires, requires[a]); // The key's path forks off the door's
+            }
+        }
+        assertTrue(branching, "Some levels must have doors that can be opened in either order");
+        assertTrue(keyOnOtherBranch, "Some keys must lie behind doors off their own door's path");
+    }
+
+    /**
+     * Checks whether the doors in a mask can be ordered so each requires all those before it.
+     */
+    private static boolean isChain(long[] requires, long mask) {
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int door = Long.numberOfTrailingZeros(bits);
+            for (long others = mask & ~(1L << door); others != 0; others &= others - 1) {
+                int other = Long.numberOfTrailingZeros(others);
+                if ((requires[door] & (1L << other)) == 0 && (requires[other] & (1L << door)) == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testKeyBehindItsOwnDoorIsRejected() {
+        // Regions {0}, {2} and {4} of a single row, split by a red door at 1 and a blue door at 3
+        GridConfig config = new GridConfig(5, 1, 10);
+        Grid grid = new Grid(config, 0L, new WallGrid(5, 1), new Player(new GridPosition(0, 0)),
+            List.of(new Key(new GridPosition(4, 0), Color.RED), new Key(new GridPosition(2, 0), Color.BLUE)),
+            List.of(new Door(new GridPosition(1, 0), Color.RED), new Door(new GridPosition(3, 0), Color.BLUE)),
+            null);
+        long[] requires = LockChainGenerator.dependencies(grid);
+
+        assertEquals(0b11L, requires[0], "The red key lies behind both doors");
+        assertEquals(0b01L, requires[1]);
+        assertThrows(IllegalStateException.class, () -> LockChainGenerator.openingOrder(requires));
+    }
+
+    @Test
+    void testSameSeedSameLevel() {
+        GridConfig config = new GridConfig(30, 10, 10);
+
+        assertEquals(LevelTemplate.from(LockChainGenerator.generate(config, 3, 8L)).getLayoutHash(),
+            LevelTemplate.from(LockChainGenerator.generate(config, 3, 8L)).getLayoutHash());
+        assertNotEquals(LevelTemplate.from(LockChainGenerator.generate(config, 3, 8L)).getLayoutHash(),
+            LevelTemplate.from(LockChainGenerator.generate(config, 3, 9L)).getLayoutHash());
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        GridConfig config = new GridConfig(30, 10, 10);
+
+        assertThrows(NullPointerException.class, () -> LockChainGenerator.generate(null, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> LockChainGenerator.generate(config, -1, 1L));
+        assertThrows(IllegalArgumentException.class,
+            () -> LockChainGenerator.generate(config, ColorPalette.getPaletteSize() + 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> LockChainGenerator.generate(new GridConfig(3, 3, 10), 3, 1L));
+        assertThrows(IllegalArgumentException.class, () -> LockChainGenerator.generate(new GridConfig(3, 1, 10), 1, 1L));
+    }
+}
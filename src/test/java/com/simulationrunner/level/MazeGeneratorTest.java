@@ -0,0 +1,117 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.search.LevelSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazeGeneratorTest {
+
+    @Test
+    void testMazeIsPerfect() {
+        WallGrid walls = new WallGrid(41, 31);
+        MazeGenerator.carve(walls, new SplittableRandom(1));
+
+        int rooms = 21 * 16;
+        int open = walls.getCellCount() - walls.count();
+        assertEquals(2 * rooms - 1, open, "A spanning tree has one passage less than it has rooms");
+        for (int y = 0; y < 31; y += 2) {
+            for (int x = 0; x < 41; x += 2) {
+                assertFalse(walls.isWall(x, y), "Every room is carved");
+            }
+        }
+    }
+
+    @Test
+    void testPathIsConnectedAndOpen() {
+        WallGrid walls = new WallGrid(64, 48);
+        int[] path = MazeGenerator.carve(walls, new SplittableRandom(2));
+
+        for (int i = 0; i < path.length; i++) {
+            assertFalse(walls.isWall(path[i]));
+            if (i > 0) {
+                int step = Math.abs(path[i] - path[i - 1]);
+                assertTrue(step == 1 || step == 64, "Consecutive cells must be adjacent");
+            }
+        }
+    }
+
+    @Test
+    void testEntitiesLieOnSolutionPath() {
+        Grid grid = MazeGenerator.generate(new GridConfig(41, 41, 10), 3, 5L);
+        LevelTemplate template = LevelTemplate.from(grid);
+
+        assertEquals(3, grid.getKeys().size());
+        assertNotNull(grid.getDoor());
+        assertNotNull(grid.getPad());
+        assertFalse(grid.isWall(grid.getPlayer().getGridX(), grid.getPlayer().getGridY()));
+        try (LevelSolver solver = new LevelSolver(1_000_000)) {
+            int withKeys = solver.solve(template);
+            assertTrue(withKeys > 0, "The maze must be solvable");
+            assertEquals(withKeys, solver.solve(template, -1L), "Keys lie on the way, so they cost no detour");
+        }
+    }
+
+    @Test
+    void testSolutionPicksUpKeyBeforeDoor() {
+        Grid grid = MazeGenerator.generate(new GridConfig(31, 31, 10), 1, 9L);
+        LevelTemplate template = LevelTemplate.from(grid);
+        try (LevelSolver solver = new LevelSolver(100_000)) {
+            solver.solve(template);
+            int[] path = solver.getSolution();
+            int keyIndex = indexOf(path, template.getKeyCell(0));
+            int doorIndex = indexOf(path, template.getDoorCell());
+
+            assertTrue(keyIndex > 0 && doorIndex > keyIndex, "Key must be reached before the door");
+            assertEquals(1L, template.getDoorKeyMask());
+        }
+    }
+
+    private static int indexOf(int[] path, int cell) {
+        for (int i = 0; i < path.length; i++) {
+            if (path[i] == cell) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testSameSeedSameMaze() {
+        GridConfig config = new GridConfig(51, 51, 10);
+
+        assertEquals(LevelTemplate.from(MazeGenerator.generate(config, 2, 77L)).getLayoutHash(),
+            LevelTemplate.from(MazeGenerator.generate(config, 2, 77L)).getLayoutHash());
+        assertNotEquals(LevelTemplate.from(MazeGenerator.generate(config, 2, 77L)).getLayoutHash(),
+            LevelTemplate.from(MazeGenerator.generate(config, 2, 78L)).getLayoutHash());
+    }
+
+    @Test
+    void testEvenDimensions() {
+        Grid grid = MazeGenerator.generate(new GridConfig(20, 10, 10), 1, 3L);
+        try (LevelSolver solver = new LevelSolver(100_000)) {
+            assertTrue(solver.solve(LevelTemplate.from(grid)) > 0);
+        }
+    }
+
+    @Test
+    void testLargeMaze() {
+        Grid grid = MazeGenerator.generate(new GridConfig(4096, 4096, 1), 4, 11L);
+
+        assertEquals(4, grid.getKeys().size());
+        assertEquals(4096, grid.getWallGrid().getWidth());
+    }
+
+    @Test
+    void testTooSmallGridThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(new GridConfig(1, 1, 10), 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(new GridConfig(3, 1, 10), 2, 1L));
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(new GridConfig(5, 5, 10), -1, 1L));
+        assertThrows(NullPointerException.class, () -> MazeGenerator.generate(null, 1, 1L));
+    }
+}
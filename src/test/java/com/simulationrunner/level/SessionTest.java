@@ -0,0 +1,185 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.GridPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTest {
+
+    private static void walk(Session session, int deltaX, int deltaY, int steps) {
+        for (int i = 0; i < steps; i++) {
+            session.move(deltaX, deltaY);
+        }
+    }
+
+    @Test
+    void testNewSessionStartsAtSpawn() {
+        LevelTemplate template = LevelTemplate.from(LevelTemplateTest.corridor());
+        Session session = new Session(template);
+
+        assertEquals(new GridPosition(1, 2), session.getPlayerPosition());
+        assertEquals(0L, session.getCollectedMask());
+        assertFalse(session.hasWon());
+    }
+
+    @Test
+    void testDoorBlocksUntilKeyIsCollected() {
+        Session session = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+
+        walk(session, 1, 0, 5);
+        assertEquals(new GridPosition(3, 2), session.getPlayerPosition(), "Door should block");
+
+        walk(session, -1, 0, 3);
+        walk(session, 0, -1, 2);
+        assertTrue(session.isKeyCollected(0));
+        assertEquals(1, session.getCollectedCount());
+
+        walk(session, 0, 1, 2);
+        walk(session, 1, 0, 8);
+        assertTrue(session.hasWon());
+        assertEquals(new GridPosition(8, 2), session.getPlayerPosition());
+    }
+
+    @Test
+    void testMovesAreIgnoredAfterWinning() {
+        Session session = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+        walk(session, -1, 0, 1);
+        walk(session, 0, -1, 2);
+        walk(session, 0, 1, 2);
+        walk(session, 1, 0, 8);
+        assertTrue(session.hasWon());
+
+        assertFalse(session.move(-1, 0));
+        assertEquals(new GridPosition(8, 2), session.getPlayerPosition());
+    }
+
+    @Test
+    void testMoveReportsBlockedMoves() {
+        Session session = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+
+        assertTrue(session.move(0, 1));
+        assertTrue(session.move(0, 1));
+        assertFalse(session.move(0, 1), "Bottom edge should block");
+        assertEquals(new GridPosition(1, 4), session.getPlayerPosition());
+    }
+
+    @Test
+    void testForkIsIndependent() {
+        LevelTemplate template = LevelTemplate.from(LevelTemplateTest.corridor());
+        Session original = new Session(template);
+        original.move(1, 0);
+
+        Session fork = original.fork();
+        fork.move(0, 1);
+
+        assertSame(template, fork.getTemplate());
+        assertEquals(new GridPosition(2, 2), original.getPlayerPosition());
+        assertEquals(new GridPosition(2, 3), fork.getPlayerPosition());
+    }
+
+    @Test
+    void testResetAndCopyFrom() {
+        LevelTemplate template = LevelTemplate.from(LevelTemplateTest.corridor());
+        Session session = new Session(template);
+        walk(session, -1, 0, 1);
+        walk(session, 0, -1, 2);
+        Session snapshot = session.fork();
+
+        session.reset();
+        assertEquals(template.getSpawnCell(), session.getPlayerCell());
+        assertEquals(0L, session.getCollectedMask());
+
+        session.copyFrom(snapshot);
+        assertEquals(snapshot.getPlayerCell(), session.getPlayerCell());
+        assertTrue(session.isKeyCollected(0));
+    }
+
+    @Test
+    void testManySessionsShareOneTemplate() {
+        LevelTemplate template = LevelTemplate.from(LevelTemplateTest.corridor());
+        Session[] sessions = new Session[1000];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = new Session(template);
+            walk(sessions[i], 0, i % 2 == 0 ? 1 : -1, 1);
+        }
+
+        assertEquals(new GridPosition(1, 3), sessions[0].getPlayerPosition());
+        assertEquals(new GridPosition(1, 1), sessions[1].getPlayerPosition());
+    }
+
+    @Test
+    void testCopyFromOtherTemplateThrowsException() {
+        Session a = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+        Session b = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+
+        assertThrows(IllegalArgumentException.class, () -> a.copyFrom(b));
+    }
+
+    @Test
+    void testConstructorWithNullTemplateThrowsException() {
+        assertThrows(NullPointerException.class, () -> new Session(null));
+    }
+
+    @Test
+    void testStateHashTracksMovesIncrementally() {
+        Session session = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+        long start = session.getStateHash();
+
+        walk(session, -1, 0, 1);
+        walk(session, 0, -1, 2);
+        assertEquals(Session.computeStateHash(session.getPlayerCell(), session.getCollectedMask(), session.hasWon()),
+            session.getStateHash());
+        walk(session, 0, 1, 2);
+        walk(session, 1, 0, 8);
+        assertTrue(session.hasWon());
+        assertEquals(Session.computeStateHash(session.getPlayerCell(), session.getCollectedMask(), true),
+            session.getStateHash());
+
+        session.reset();
+        assertEquals(start, session.getStateHash());
+    }
+
+    @Test
+    void testEqualStatesHashAlikeRegardlessOfPath() {
+        LevelTemplate template = LevelTemplate.from(LevelTemplateTest.corridor());
+        Session direct = new Session(template);
+        Session detour = new Session(template);
+
+        walk(direct, 0, 1, 1);
+        walk(detour, 1, 0, 1);
+        walk(detour, 0, 1, 1);
+        walk(detour, -1, 0, 1);
+        assertEquals(direct.getPlayerCell(), detour.getPlayerCell());
+        assertEquals(direct.getStateHash(), detour.getStateHash());
+
+        Session keyed = new Session(template);
+        walk(keyed, -1, 0, 1);
+        walk(keyed, 0, -1, 2);
+        walk(keyed, 1, 0, 1);
+        walk(keyed, 0, 1, 3);
+        assertEquals(direct.getPlayerCell(), keyed.getPlayerCell());
+        assertNotEquals(direct.getStateHash(), keyed.getStateHash(), "Collected keys are part of the state");
+    }
+
+    @Test
+    void testUndoRestoresStateHash() {
+        Session session = new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+        UndoHistory history = new UndoHistory(64);
+        long[] hashes = new long[8];
+        hashes[0] = session.getStateHash();
+        int[][] path = {{-1, 0}, {0, -1}, {0, -1}, {0, 1}, {0, 1}, {1, 0}, {1, 0}};
+        for (int i = 0; i < path.length; i++) {
+            history.move(session, path[i][0], path[i][1]);
+            hashes[i + 1] = session.getStateHash();
+        }
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            history.undo(session, 1);
+            assertEquals(hashes[i], session.getStateHash());
+        }
+        history.redo(session, path.length);
+        assertEquals(hashes[path.length], session.getStateHash());
+        assertEquals(session.getFingerprint(), session.fork().getFingerprint());
+    }
+}
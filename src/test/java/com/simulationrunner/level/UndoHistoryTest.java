@@ -0,0 +1,122 @@
+package com.simulationrunner.level;
+
+import com.simulationrunner.GridPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoHistoryTest {
+
+    private static Session newSession() {
+        return new Session(LevelTemplate.from(LevelTemplateTest.corridor()));
+    }
+
+    private static void walk(UndoHistory history, Session session, int deltaX, int deltaY, int steps) {
+        for (int i = 0; i < steps; i++) {
+            history.move(session, deltaX, deltaY);
+        }
+    }
+
+    @Test
+    void testUndoRestoresPreviousPositions() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(16);
+        walk(history, session, 1, 0, 2);
+
+        assertEquals(1, history.undo(session, 1));
+        assertEquals(new GridPosition(2, 2), session.getPlayerPosition());
+        assertEquals(1, history.undo(session, 1));
+        assertEquals(new GridPosition(1, 2), session.getPlayerPosition());
+        assertEquals(0, history.undo(session, 1), "Nothing left to undo");
+    }
+
+    @Test
+    void testBlockedMovesAreNotRecorded() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(16);
+        walk(history, session, 1, 0, 5); // Only two steps possible before the locked door
+
+        assertEquals(2, history.getUndoCount());
+    }
+
+    @Test
+    void testUndoUncollectsKeysAndWin() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(64);
+        walk(history, session, -1, 0, 1);
+        walk(history, session, 0, -1, 2);
+        assertTrue(session.isKeyCollected(0));
+        walk(history, session, 0, 1, 2);
+        walk(history, session, 1, 0, 8);
+        assertTrue(session.hasWon());
+
+        history.undo(session, 1);
+        assertFalse(session.hasWon());
+        assertEquals(new GridPosition(7, 2), session.getPlayerPosition());
+
+        history.undo(session, 10);
+        assertFalse(session.isKeyCollected(0), "Undoing the pickup step should drop the key");
+        assertEquals(new GridPosition(0, 1), session.getPlayerPosition());
+    }
+
+    @Test
+    void testRedoReplaysUndoneSteps() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(64);
+        walk(history, session, -1, 0, 1);
+        walk(history, session, 0, -1, 2);
+        Session expected = session.fork();
+
+        assertEquals(3, history.undo(session, 3));
+        assertEquals(3, history.redo(session, 5));
+        assertEquals(expected.getPlayerCell(), session.getPlayerCell());
+        assertEquals(expected.getCollectedMask(), session.getCollectedMask());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testNewMoveDiscardsRedo() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(16);
+        walk(history, session, 1, 0, 2);
+        history.undo(session, 2);
+        assertTrue(history.canRedo());
+
+        history.move(session, 0, 1);
+        assertFalse(history.canRedo());
+        assertEquals(0, history.redo(session, 1));
+    }
+
+    @Test
+    void testRingBufferKeepsOnlyLatestSteps() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(3);
+        walk(history, session, 0, 1, 2); // (1,4)
+        walk(history, session, 1, 0, 2); // (3,4)
+
+        assertEquals(3, history.getUndoCount());
+        assertEquals(3, history.undo(session, 10));
+        assertEquals(new GridPosition(1, 3), session.getPlayerPosition(), "Oldest step was overwritten");
+    }
+
+    @Test
+    void testClearForgetsEverything() {
+        Session session = newSession();
+        UndoHistory history = new UndoHistory(16);
+        walk(history, session, 1, 0, 2);
+        history.undo(session, 1);
+
+        history.clear();
+        assertFalse(history.canUndo());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new UndoHistory(0));
+        UndoHistory history = new UndoHistory(4);
+        assertThrows(NullPointerException.class, () -> history.move(null, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> history.undo(newSession(), -1));
+        assertThrows(IllegalArgumentException.class, () -> history.redo(newSession(), -1));
+    }
+}
@@ -0,0 +1,141 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.DenseCellStore;
+import com.simulationrunner.config.CellEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellPyramidTest {
+
+    /**
+     * Recomputes a level entry straight from the store cells it covers, one 2x2 block at a time.
+     */
+    private static CellType expected(DenseCellStore store, int level, long x, long y) {
+        if (level == 0) {
+            return store.get(x, y);
+        }
+        int[] counts = new int[CellType.values().length];
+        for (long dy = 0; dy < 2; dy++) {
+            for (long dx = 0; dx < 2; dx++) {
+                long childX = 2 * x + dx;
+                long childY = 2 * y + dy;
+                if (childX < (store.getWidth() + (1L << (level - 1)) - 1) >> (level - 1)
+                    && childY < (store.getHeight() + (1L << (level - 1)) - 1) >> (level - 1)) {
+                    counts[expected(store, level - 1, childX, childY).code()]++;
+                }
+            }
+        }
+        int best = 0;
+        for (int code = 1; code < counts.length; code++) {
+            if (counts[code] >= counts[best]) {
+                best = code;
+            }
+        }
+        return CellType.fromCode(best);
+    }
+
+    private static void assertMatchesStore(CellPyramid pyramid) {
+        DenseCellStore store = pyramid.getStore();
+        for (int level = 0; level < pyramid.getLevelCount(); level++) {
+            for (long y = 0; y < pyramid.getLevelHeight(level); y++) {
+                for (long x = 0; x < pyramid.getLevelWidth(level); x++) {
+                    assertEquals(expected(store, level, x, y), pyramid.get(level, x, y),
+                        "level " + level + " at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLevelDimensions() {
+        try (DenseCellStore store = new DenseCellStore(37, 5, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            assertEquals(7, pyramid.getLevelCount());
+            long[] widths = {37, 19, 10, 5, 3, 2, 1};
+            long[] heights = {5, 3, 2, 1, 1, 1, 1};
+            for (int level = 0; level < widths.length; level++) {
+                assertEquals(widths[level], pyramid.getLevelWidth(level));
+                assertEquals(heights[level], pyramid.getLevelHeight(level));
+            }
+        }
+        try (DenseCellStore store = new DenseCellStore(1, 1, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            assertEquals(1, pyramid.getLevelCount());
+        }
+    }
+
+    @Test
+    void testDominantTypeAndTies() {
+        try (DenseCellStore store = new DenseCellStore(4, 2, CellEncoding.FOUR_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            pyramid.set(0, 0, CellType.WALL);
+            pyramid.set(1, 0, CellType.WALL);
+            pyramid.set(0, 1, CellType.WALL);
+            pyramid.set(1, 1, CellType.KEY);
+            assertEquals(CellType.WALL, pyramid.get(1, 0, 0));
+
+            pyramid.set(2, 0, CellType.WALL);
+            pyramid.set(3, 0, CellType.KEY);
+            pyramid.set(2, 1, CellType.DOOR);
+            assertEquals(CellType.KEY, pyramid.get(1, 1, 0), "Ties go to the higher code");
+            assertEquals(CellType.KEY, pyramid.get(2, 0, 0), "A wall block and a key block tie too");
+        }
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchRebuild() {
+        for (CellEncoding encoding : CellEncoding.values()) {
+            try (DenseCellStore store = new DenseCellStore(45, 29, encoding);
+                 CellPyramid pyramid = new CellPyramid(store)) {
+                int types = Math.min(encoding.getCodeCount(), CellType.values().length);
+                SplittableRandom random = new SplittableRandom(7);
+                for (int i = 0; i < 2000; i++) {
+                    pyramid.set(random.nextLong(45), random.nextLong(29), CellType.fromCode(random.nextInt(types)));
+                }
+                assertMatchesStore(pyramid);
+
+                for (int i = 0; i < 500; i++) {
+                    store.set(random.nextLong(45), random.nextLong(29), CellType.fromCode(random.nextInt(types)));
+                }
+                pyramid.rebuild();
+                assertMatchesStore(pyramid);
+            }
+        }
+    }
+
+    @Test
+    void testUpdateStopsAtUnchangedLevel() {
+        try (DenseCellStore store = new DenseCellStore(64, 64, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            assertEquals(0, pyramid.update(10, 10));
+            store.set(10, 10, CellType.WALL);
+            assertEquals(0, pyramid.update(10, 10), "One wall among three floors leaves the block floor");
+            store.set(11, 10, CellType.WALL);
+            assertEquals(1, pyramid.update(11, 10), "The level above still has three floor blocks");
+            assertThrows(IndexOutOfBoundsException.class, () -> pyramid.update(64, 0));
+        }
+    }
+
+    @Test
+    void testLevelFor() {
+        try (DenseCellStore store = new DenseCellStore(1000, 300, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            assertEquals(0, pyramid.levelFor(16));
+            assertEquals(0, pyramid.levelFor(1));
+            assertEquals(1, pyramid.levelFor(0.5));
+            assertEquals(2, pyramid.levelFor(0.3));
+            assertEquals(pyramid.getLevelCount() - 1, pyramid.levelFor(1e-9));
+            assertThrows(IllegalArgumentException.class, () -> pyramid.levelFor(0));
+            assertThrows(IllegalArgumentException.class, () -> pyramid.levelFor(Double.NaN));
+        }
+    }
+
+    @Test
+    void testNullStoreThrowsException() {
+        assertThrows(NullPointerException.class, () -> new CellPyramid(null));
+    }
+}
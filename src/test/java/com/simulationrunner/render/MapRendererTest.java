@@ -0,0 +1,86 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.DenseCellStore;
+import com.simulationrunner.config.CellEncoding;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapRendererTest {
+
+    @Test
+    void testRunsSkipFloor() {
+        try (DenseCellStore store = new DenseCellStore(8, 2, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            for (long x = 2; x < 5; x++) {
+                store.set(x, 0, CellType.WALL);
+            }
+            store.set(7, 1, CellType.KEY);
+            pyramid.rebuild();
+            MapRenderer renderer = new MapRenderer(pyramid);
+            List<String> rects = new ArrayList<>();
+            long count = renderer.render((x, y, width, height, type) -> rects.add(x + "," + y + " " + width + "x"
+                + height + " " + type), 0, 0, 10, 80, 20);
+
+            assertEquals(2, count);
+            assertEquals(List.of("20.0,0.0 30.0x10.0 WALL", "70.0,10.0 10.0x10.0 KEY"), rects);
+            assertEquals(0, renderer.getLastLevel());
+            assertEquals(16, renderer.getLastVisitedCount());
+        }
+    }
+
+    @Test
+    void testViewportIsClippedToMap() {
+        try (DenseCellStore store = new DenseCellStore(8, 8, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            store.fill(CellType.WALL);
+            pyramid.rebuild();
+            MapRenderer renderer = new MapRenderer(pyramid);
+            List<String> rects = new ArrayList<>();
+            renderer.render((x, y, width, height, type) -> rects.add(x + "," + y + " " + width + "x" + height),
+                6, -2, 4, 40, 40);
+            assertEquals(8, rects.size(), "Rows 0-7 are below the top edge");
+            assertEquals("0.0,8.0 8.0x4.0", rects.get(0));
+            assertEquals(16, renderer.getLastVisitedCount());
+
+            assertEquals(0, renderer.render((x, y, width, height, type) -> fail("Nothing is visible"), 100, 100, 4, 40, 40));
+            assertThrows(NullPointerException.class,
+                () -> renderer.render((MapRenderer.RectSink) null, 0, 0, 1, 1, 1));
+        }
+    }
+
+    @Test
+    void testWorkIsBoundedAcrossZoom() {
+        int side = 4096;
+        int view = 512;
+        try (DenseCellStore store = new DenseCellStore(side, side, CellEncoding.TWO_BIT)) {
+            SplittableRandom random = new SplittableRandom(3);
+            for (long cell = 0; cell < store.getCellCount(); cell++) {
+                if (random.nextInt(3) == 0) {
+                    store.set(cell, CellType.WALL);
+                }
+            }
+            try (CellPyramid pyramid = new CellPyramid(store)) {
+                MapRenderer renderer = new MapRenderer(pyramid);
+                long maxEntries = (long) (view + 2) * (view + 2);
+                // From 1:1 down to the whole map in the viewport, and far past it
+                for (double cellPixels = 1; cellPixels >= view / (double) side / 4; cellPixels /= 1.5) {
+                    renderer.render((x, y, width, height, type) -> { }, 0, 0, cellPixels, view, view);
+                    assertTrue(renderer.getLastVisitedCount() <= maxEntries,
+                        cellPixels + " px per cell visited " + renderer.getLastVisitedCount());
+                    assertTrue(renderer.getLastRectCount() <= renderer.getLastVisitedCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNullPyramidThrowsException() {
+        assertThrows(NullPointerException.class, () -> new MapRenderer(null));
+    }
+}
@@ -0,0 +1,147 @@
+package com.simulationrunner.render;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.DenseCellStore;
+import com.simulationrunner.config.CellEncoding;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileRendererTest {
+
+    private static DenseCellStore randomStore(int width, int height, long seed) {
+        DenseCellStore store = new DenseCellStore(width, height, CellEncoding.FOUR_BIT);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long cell = 0; cell < store.getCellCount(); cell++) {
+            store.set(cell, CellType.fromCode(random.nextInt(CellType.values().length)));
+        }
+        return store;
+    }
+
+    private static Color pixel(TileRenderer renderer, int x, int y) {
+        int size = renderer.getTileSize();
+        return renderer.getTileImage(x / size, y / size).getPixelReader().getColor(x % size, y % size);
+    }
+
+    @Test
+    void testTilesShowCells() {
+        try (DenseCellStore store = randomStore(100, 70, 1);
+             CellPyramid pyramid = new CellPyramid(store);
+             TileRenderer renderer = new TileRenderer(pyramid, 32, 3)) {
+            renderer.setViewport(250, 180);
+            renderer.setView(3, 2, 3);
+            assertEquals(8 * 6, renderer.rasterize());
+            renderer.upload();
+
+            for (int y = 0; y < 180; y++) {
+                for (int x = 0; x < 250; x++) {
+                    long cellX = 3 + x / 3;
+                    long cellY = 2 + y / 3;
+                    CellType expected = cellX < 100 && cellY < 70 ? store.get(cellX, cellY) : CellType.FLOOR;
+                    assertEquals(ColorPalette.getCellColor(expected), pixel(renderer, x, y), x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testZoomedOutTilesShowPyramidLevel() {
+        try (DenseCellStore store = randomStore(512, 256, 2);
+             CellPyramid pyramid = new CellPyramid(store);
+             TileRenderer renderer = new TileRenderer(pyramid, 48, 4)) {
+            renderer.setViewport(128, 64);
+            renderer.setView(0, 0, 0.25);
+            renderer.rasterize();
+            renderer.upload();
+
+            for (int y = 0; y < 64; y++) {
+                for (int x = 0; x < 128; x++) {
+                    assertEquals(ColorPalette.getCellColor(pyramid.get(2, x, y)), pixel(renderer, x, y), x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOnlyChangedTilesAreRasterized() {
+        try (DenseCellStore store = new DenseCellStore(64, 64, CellEncoding.FOUR_BIT);
+             CellPyramid pyramid = new CellPyramid(store);
+             TileRenderer renderer = new TileRenderer(pyramid, 32, 2)) {
+            renderer.setViewport(128, 128);
+            renderer.setView(0, 0, 2);
+            assertEquals(16, renderer.rasterize());
+            assertEquals(16, renderer.upload());
+            assertEquals(0, renderer.rasterize(), "Nothing changed");
+            assertEquals(0, renderer.upload());
+
+            pyramid.set(20, 20, CellType.KEY);
+            assertEquals(1, renderer.invalidateCell(20, 20));
+            assertEquals(0, renderer.invalidateCell(21, 20), "Already marked");
+            assertEquals(1, renderer.rasterize());
+            assertEquals(1, renderer.upload());
+            assertEquals(ColorPalette.getCellColor(CellType.KEY), pixel(renderer, 41, 41));
+
+            renderer.setView(0, 0, 2);
+            assertEquals(0, renderer.rasterize(), "The same view keeps the tiles");
+            renderer.setView(1, 0, 2);
+            assertEquals(16, renderer.rasterize(), "Panning redraws everything");
+            assertEquals(16, renderer.getLastRasterizedCount());
+        }
+    }
+
+    @Test
+    void testSubmittedTilesKeepPreviousImageUntilUploaded() {
+        try (DenseCellStore store = new DenseCellStore(64, 64, CellEncoding.FOUR_BIT);
+             CellPyramid pyramid = new CellPyramid(store);
+             TileRenderer renderer = new TileRenderer(pyramid, 32, 2)) {
+            renderer.setViewport(128, 128);
+            renderer.setView(0, 0, 2);
+            renderer.rasterize();
+            renderer.upload();
+
+            pyramid.set(20, 20, CellType.KEY);
+            renderer.invalidateCell(20, 20);
+            assertEquals(1, renderer.submit());
+            assertEquals(0, renderer.submit(), "The tile is already in flight");
+            pyramid.set(21, 20, CellType.DOOR);
+            assertEquals(1, renderer.invalidateCell(21, 20), "A change during the raster marks the tile again");
+            assertEquals(0, renderer.submit(), "It waits for the tile in flight");
+            assertEquals(ColorPalette.getCellColor(CellType.FLOOR), pixel(renderer, 41, 41),
+                "The previous image is shown meanwhile");
+
+            int collected = 0;
+            while (collected == 0) {
+                collected = renderer.collect();
+                Thread.onSpinWait();
+            }
+            assertEquals(1, renderer.upload());
+            assertEquals(ColorPalette.getCellColor(CellType.KEY), pixel(renderer, 41, 41));
+            assertEquals(1, renderer.rasterize(), "The tile marked while in flight is rasterized again");
+            assertEquals(1, renderer.upload());
+            assertEquals(ColorPalette.getCellColor(CellType.DOOR), pixel(renderer, 43, 41));
+        }
+    }
+
+    @Test
+    void testInvalidUseThrowsException() {
+        try (DenseCellStore store = new DenseCellStore(8, 8, CellEncoding.TWO_BIT);
+             CellPyramid pyramid = new CellPyramid(store)) {
+            assertThrows(NullPointerException.class, () -> new TileRenderer(null));
+            assertThrows(IllegalArgumentException.class, () -> new TileRenderer(pyramid, 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> new TileRenderer(pyramid, 16, 0));
+
+            TileRenderer renderer = new TileRenderer(pyramid, 16, 1);
+            assertThrows(IllegalStateException.class, renderer::rasterize);
+            assertThrows(IllegalArgumentException.class, () -> renderer.setViewport(0, 10));
+            assertThrows(IllegalArgumentException.class, () -> renderer.setView(0, 0, 0));
+            renderer.setViewport(16, 16);
+            renderer.setView(0, 0, 1);
+            renderer.close();
+            assertThrows(IllegalStateException.class, renderer::rasterize);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.simulationrunner.replay;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.level.UndoHistory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+    private static final int TICKS = 1000;
+    private static final int KEYFRAME_INTERVAL = 16;
+
+    /**
+     * Plays random inputs on a seeded level, recording them, and returns the expected
+     * player cell, collected mask and won flag after every tick (index 0 is the initial state).
+     */
+    private static long[][] recordRandomPlay(Path file, Grid level) throws IOException {
+        Session session = new Session(LevelTemplate.from(level));
+        UndoHistory history = new UndoHistory(32);
+        SplittableRandom random = new SplittableRandom(7);
+        long[][] states = new long[TICKS + 1][];
+        states[0] = snapshot(session);
+        try (ReplayRecorder recorder = new ReplayRecorder(file, level, KEYFRAME_INTERVAL)) {
+            for (int tick = 1; tick <= TICKS; tick++) {
+                ReplayAction action = ReplayAction.fromCode(random.nextInt(ReplayAction.values().length));
+                switch (action) {
+                    case UNDO -> history.undo(session, 1);
+                    case REDO -> history.redo(session, 1);
+                    default -> history.move(session, action.getDeltaX(), action.getDeltaY());
+                }
+                recorder.record(action, session);
+                states[tick] = snapshot(session);
+            }
+            assertEquals(TICKS, recorder.getTickCount());
+        }
+        return states;
+    }
+
+    private static long[] snapshot(Session session) {
+        return new long[] {session.getPlayerCell(), session.getCollectedMask(), session.hasWon() ? 1 : 0};
+    }
+
+    private static Path tempReplay() throws IOException {
+        Path file = Files.createTempFile("replay", ".replay");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void testPlaybackReproducesRecordedStates() throws IOException {
+        Path file = tempReplay();
+        Grid level = new Grid(new GridConfig(10, 10, 50), 2, 1234L);
+        long[][] states = recordRandomPlay(file, level);
+
+        ReplayPlayer player = ReplayPlayer.open(file);
+        assertEquals(TICKS, player.getTickCount());
+        assertEquals(KEYFRAME_INTERVAL, player.getKeyframeInterval());
+        assertEquals(level.getSeed(), player.getLevel().getSeed());
+        assertArrayEquals(states[0], snapshot(player.getSession()));
+        for (int tick = 1; tick <= TICKS; tick++) {
+            assertTrue(player.step());
+            assertArrayEquals(states[tick], snapshot(player.getSession()), "State after tick " + tick);
+        }
+        assertFalse(player.step(), "No ticks left");
+    }
+
+    @Test
+    void testSeekMatchesSequentialPlayback() throws IOException {
+        Path file = tempReplay();
+        long[][] states = recordRandomPlay(file, new Grid(new GridConfig(10, 10, 50), 2, 99L));
+
+        ReplayPlayer player = ReplayPlayer.open(file);
+        long[] targets = {TICKS, 0, 500, 17, 16, 15, 999, 3, 640, 641, TICKS};
+        for (long target : targets) {
+            player.seek(target);
+            assertEquals(target, player.getPosition());
+            assertArrayEquals(states[(int) target], snapshot(player.getSession()), "State at tick " + target);
+        }
+    }
+
+    @Test
+    void testPlayToEnd() throws IOException {
+        Path file = tempReplay();
+        long[][] states = recordRandomPlay(file, new Grid(new GridConfig(8, 6, 20), 1, 5L));
+
+        Session end = ReplayPlayer.open(file).playToEnd();
+        assertArrayEquals(states[TICKS], snapshot(end));
+    }
+
+    @Test
+    void testDivergenceIsDetected() throws IOException {
+        Path file = tempReplay();
+        Grid level = new Grid(new GridConfig(10, 10, 50), 1, 3L);
+        Session session = new Session(LevelTemplate.from(level));
+        try (ReplayRecorder recorder = new ReplayRecorder(file, level, 1)) {
+            Session bogus = session.fork();
+            bogus.restore(session.getPlayerCell() + 1, 0L, false);
+            recorder.record(ReplayAction.UP, bogus); // Keyframe disagrees with what UP produces
+        }
+
+        ReplayPlayer player = ReplayPlayer.open(file);
+        assertThrows(IllegalStateException.class, player::step);
+    }
+
+    @Test
+    void testSeekOutOfRange() throws IOException {
+        Path file = tempReplay();
+        recordRandomPlay(file, new Grid(new GridConfig(10, 10, 50), 1, 8L));
+        ReplayPlayer player = ReplayPlayer.open(file);
+
+        assertThrows(IllegalArgumentException.class, () -> player.seek(-1));
+        assertThrows(IllegalArgumentException.class, () -> player.seek(TICKS + 1));
+    }
+
+    @Test
+    void testOpenRejectsIncompleteFile() throws IOException {
+        Path file = tempReplay();
+        recordRandomPlay(file, new Grid(new GridConfig(10, 10, 50), 1, 8L));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IOException.class, () -> ReplayPlayer.open(file));
+
+        Path garbage = tempReplay();
+        Files.write(garbage, ByteBuffer.allocate(64).putInt(0xCAFEBABE).array());
+        assertThrows(IOException.class, () -> ReplayPlayer.open(garbage));
+    }
+
+    @Test
+    void testRecorderRejectsInvalidArguments() throws IOException {
+        Path file = tempReplay();
+        Grid level = new Grid(new GridConfig(10, 10, 50), 1, 1L);
+
+        assertThrows(NullPointerException.class, () -> new ReplayRecorder(null, level, 4));
+        assertThrows(NullPointerException.class, () -> new ReplayRecorder(file, null, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ReplayRecorder(file, level, 0));
+
+        ReplayRecorder recorder = new ReplayRecorder(file, level, 4);
+        recorder.close();
+        Session session = new Session(LevelTemplate.from(level));
+        assertThrows(IllegalStateException.class, () -> recorder.record(ReplayAction.UP, session));
+    }
+
+    @Test
+    void testActionCodesRoundTrip() {
+        for (ReplayAction action : ReplayAction.values()) {
+            assertEquals(action, ReplayAction.fromCode(action.ordinal()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> ReplayAction.fromCode(6));
+        assertThrows(IllegalArgumentException.class, () -> ReplayAction.fromCode(-1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Chaser;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChaserSwarmTest {
+
+    @Test
+    void testChasersCatchPlayerWithoutStacking() {
+        ChaserSwarm swarm = new ChaserSwarm(TestLevels.open(10, 1), 20);
+        Chaser front = swarm.spawn(new GridPosition(8, 0));
+        Chaser rear = swarm.spawn(new GridPosition(9, 0));
+        GridPosition player = new GridPosition(0, 0);
+
+        assertEquals(2, swarm.tick(player));
+        assertEquals(new GridPosition(7, 0), front.getPosition());
+        assertEquals(new GridPosition(8, 0), rear.getPosition(), "The rear chaser follows into the freed cell");
+        for (int i = 0; i < 7; i++) {
+            swarm.tick(player);
+        }
+        assertTrue(swarm.hasCaught(player));
+        assertEquals(player, front.getPosition());
+        assertEquals(new GridPosition(1, 0), rear.getPosition());
+        assertEquals(0, swarm.tick(player), "Nobody can move once the front chaser is on the player");
+    }
+
+    @Test
+    void testSpawnRejectsBlockedAndTakenCells() {
+        Grid grid = new Grid(new GridConfig(3, 3, 10), 0L, WallGrid.of(3, 3, List.of(
+            WallSpan.horizontal(1, 0, 0))), new Player(new GridPosition(0, 0)),
+            List.of(), List.of(), null);
+        ChaserSwarm swarm = new ChaserSwarm(grid, 5);
+        swarm.spawn(new GridPosition(2, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> swarm.spawn(new GridPosition(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> swarm.spawn(new GridPosition(2, 2)));
+        assertThrows(IllegalArgumentException.class, () -> swarm.spawn(new GridPosition(3, 0)));
+        assertEquals(1, swarm.size());
+    }
+
+    /**
+     * Spawns chasers on every other ring of cells from Manhattan distance 40 outward around a player, nearest
+     * rings first, so every chaser is inside the field radius and has room to step toward the player.
+     */
+    private static ChaserSwarm ring(Grid grid, GridPosition player, int count) {
+        ChaserSwarm swarm = new ChaserSwarm(grid, 128);
+        for (int distance = 40; swarm.size() < count; distance += 2) {
+            for (int dx = -distance; dx <= distance && swarm.size() < count; dx++) {
+                int dy = distance - Math.abs(dx);
+                swarm.spawn(new GridPosition(player.x() + dx, player.y() + dy));
+                if (dy != 0 && swarm.size() < count) {
+                    swarm.spawn(new GridPosition(player.x() + dx, player.y() - dy));
+                }
+            }
+        }
+        return swarm;
+    }
+
+    /**
+     * Runs ticks with the player stepping back and forth, so the field is recomputed every tick, and checks
+     * that most chasers move on each of them.
+     *
+     * @return the fastest tick in nanoseconds
+     */
+    private static long runTicks(ChaserSwarm swarm, GridPosition player, int ticks) {
+        long fastest = Long.MAX_VALUE;
+        for (int tick = 0; tick < ticks; tick++) {
+            int moved = swarm.tick(new GridPosition(player.x() + tick % 2, player.y()));
+            assertTrue(moved > swarm.size() / 2, "Only " + moved + " of " + swarm.size() + " chasers moved on tick " + tick);
+            fastest = Math.min(fastest, swarm.getLastTickNanos());
+        }
+        return fastest;
+    }
+
+    @Test
+    void testTickCostAtOneAndTenThousandChasers() {
+        Grid grid = TestLevels.open(512, 512);
+        GridPosition player = new GridPosition(256, 256);
+        runTicks(ring(grid, player, 10_000), player, 20); // Warm up
+
+        long oneThousand = runTicks(ring(grid, player, 1_000), player, 20);
+        long tenThousand = runTicks(ring(grid, player, 10_000), player, 20);
+
+        // The field recompute is shared, so ten times the chasers must cost well under ten times as much
+        assertTrue(tenThousand < 10 * oneThousand, "Fastest tick: 1,000 chasers " + oneThousand
+            + " ns, 10,000 chasers " + tenThousand + " ns");
+    }
+}
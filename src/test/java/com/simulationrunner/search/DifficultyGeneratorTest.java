@@ -0,0 +1,78 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.LevelGenerator;
+import com.simulationrunner.level.LevelGenerators;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.MazeLevelGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyGeneratorTest {
+
+    @Test
+    void testAcceptedLevelsFallInsideBand() throws InterruptedException {
+        LevelDifficulty.Band band = new LevelDifficulty.Band(12, 18);
+        try (DifficultyGenerator generator = new DifficultyGenerator(new GridConfig(10, 10, 50), 1, band, 2, 4, 7L);
+             LevelSolver solver = new LevelSolver(100_000)) {
+            for (int i = 0; i < 5; i++) {
+                DifficultyGenerator.RatedLevel rated = generator.poll(10, TimeUnit.SECONDS);
+                assertNotNull(rated, "A level in the band should be found quickly");
+                assertTrue(band.contains(rated.difficulty()));
+                assertEquals(rated.difficulty(), LevelDifficulty.measure(solver, LevelTemplate.from(rated.level())),
+                    "Reported difficulty should match a fresh measurement");
+            }
+            assertTrue(generator.getCandidateCount() >= generator.getAcceptedCount());
+            assertTrue(generator.getAcceptedCount() >= 5);
+            assertTrue(generator.getAcceptanceRate() > 0 && generator.getAcceptanceRate() <= 1);
+            assertTrue(generator.getLevelsPerSecond() > 0);
+            assertTrue(generator.getCandidatesPerSecond() >= generator.getLevelsPerSecond());
+        }
+    }
+
+    @Test
+    void testCandidatesComeFromSelectedGenerator() throws InterruptedException {
+        LevelDifficulty.Band band = new LevelDifficulty.Band(0, 10_000);
+        LevelGenerator maze = LevelGenerators.get(MazeLevelGenerator.NAME);
+        try (DifficultyGenerator generator = new DifficultyGenerator(maze, new GridConfig(21, 21, 10), 1, band, 1, 2, 3L)) {
+            DifficultyGenerator.RatedLevel rated = generator.poll(10, TimeUnit.SECONDS);
+
+            assertNotNull(rated);
+            assertEquals(0, rated.difficulty().keyDetour(), "Maze keys lie on the solution path");
+        }
+    }
+
+    @Test
+    void testUnreachableBandAcceptsNothing() throws InterruptedException {
+        LevelDifficulty.Band band = new LevelDifficulty.Band(10_000, 20_000);
+        try (DifficultyGenerator generator = new DifficultyGenerator(new GridConfig(10, 10, 50), 1, band, 1, 1, 7L)) {
+            assertNull(generator.poll(200, TimeUnit.MILLISECONDS));
+            assertTrue(generator.getCandidateCount() > 0);
+            assertEquals(0.0, generator.getAcceptanceRate());
+        }
+    }
+
+    @Test
+    void testClosedGeneratorThrowsException() {
+        DifficultyGenerator generator = new DifficultyGenerator(new GridConfig(10, 10, 50), 1,
+            new LevelDifficulty.Band(0, 100), 1, 1, 7L);
+        generator.close();
+
+        assertThrows(IllegalStateException.class, generator::take);
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        GridConfig config = new GridConfig(10, 10, 50);
+        LevelDifficulty.Band band = new LevelDifficulty.Band(0, 100);
+
+        assertThrows(NullPointerException.class, () -> new DifficultyGenerator(null, 1, band, 1, 1, 0L));
+        assertThrows(NullPointerException.class, () -> new DifficultyGenerator(config, 1, null, 1, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new DifficultyGenerator(config, -1, band, 1, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new DifficultyGenerator(config, 1, band, 0, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new DifficultyGenerator(config, 1, band, 1, 0, 0L));
+    }
+}
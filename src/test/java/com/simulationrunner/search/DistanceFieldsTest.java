@@ -0,0 +1,95 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.LockChainGenerator;
+import com.simulationrunner.level.Session;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceFieldsTest {
+
+    @Test
+    void testClosedDoorBlocksFields() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        DistanceFields fields = new DistanceFields(template);
+        int spawn = template.getSpawnCell();
+
+        assertEquals(DistanceFields.UNREACHABLE, fields.getPadDistance(spawn));
+        assertEquals(3, fields.getKeyDistance(0, spawn));
+        assertEquals(3, fields.getDoorDistance(0, spawn), "A door can be walked up to while closed");
+        assertEquals(0, fields.getPadDistance(template.getPadCell()));
+        assertFalse(fields.isDoorOpen(0));
+    }
+
+    @Test
+    void testOpeningDoorRepairsFields() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        DistanceFields fields = new DistanceFields(template);
+
+        assertFalse(fields.update(0L));
+        assertTrue(fields.update(1L));
+        assertTrue(fields.isDoorOpen(0));
+        assertEquals(7, fields.getPadDistance(template.getSpawnCell()), "3 moves onto the door, 4 beyond");
+        assertEquals(4, fields.getPadDistance(template.getDoorCell(0)));
+        assertEquals(10, fields.getKeyDistance(0, template.getPadCell()));
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFreshFields() {
+        LevelTemplate template = LevelTemplate.from(LockChainGenerator.generate(new GridConfig(33, 17, 10), 4, 12L));
+        DistanceFields incremental = new DistanceFields(template);
+        long[] masks = {0b0001L, 0b0011L, 0b1011L, 0b0001L, 0b1111L, 0L, 0b0110L};
+
+        for (long mask : masks) {
+            incremental.update(mask);
+            DistanceFields fresh = new DistanceFields(template);
+            fresh.update(mask);
+            for (int cell = 0; cell < template.getCellCount(); cell++) {
+                assertEquals(fresh.getPadDistance(cell), incremental.getPadDistance(cell), "pad at " + cell);
+                for (int key = 0; key < template.getKeyCount(); key++) {
+                    assertEquals(fresh.getKeyDistance(key, cell), incremental.getKeyDistance(key, cell));
+                }
+                for (int door = 0; door < template.getDoorCount(); door++) {
+                    assertEquals(fresh.getDoorDistance(door, cell), incremental.getDoorDistance(door, cell));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFollowingHintsSolvesLevel() {
+        for (long seed = 0; seed < 10; seed++) {
+            LevelTemplate template = LevelTemplate.from(LockChainGenerator.generate(new GridConfig(25, 9, 10), 3, seed));
+            DistanceFields fields = new DistanceFields(template);
+            Session session = new Session(template);
+
+            for (int moves = 0; moves < template.getCellCount() * 4 && !session.hasWon(); moves++) {
+                fields.update(session.getCollectedMask());
+                int next = fields.hint(session.getPlayerCell(), session.getCollectedMask());
+                assertTrue(next >= 0, "A hint must exist until the level is won");
+                GridPosition from = session.getPlayerPosition();
+                GridPosition to = template.positionOf(next);
+                assertTrue(session.move(to.x() - from.x(), to.y() - from.y()), "Hints never point into a wall or locked door");
+            }
+            assertTrue(session.hasWon(), "Hints should lead to the pad for seed " + seed);
+        }
+    }
+
+    @Test
+    void testStepTowardTargets() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        DistanceFields fields = new DistanceFields(template);
+        int spawn = template.getSpawnCell();
+        int step = fields.stepTowardKey(0, spawn);
+
+        assertEquals(2, fields.getKeyDistance(0, step));
+        assertEquals(-1, fields.stepTowardPad(spawn), "The pad is behind the closed door");
+        assertEquals(-1, fields.stepTowardKey(0, template.getKeyCell(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> fields.getKeyDistance(1, spawn));
+        assertThrows(NullPointerException.class, () -> new DistanceFields(null));
+    }
+}
@@ -0,0 +1,147 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.level.LevelTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldOfViewTest {
+
+    /**
+     * A level with random walls and doors opened by three key colors.
+     */
+    private static LevelTemplate scattered(int side, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        WallGrid walls = new WallGrid(side, side);
+        List<Door> doors = new ArrayList<>();
+        for (int y = 0; y < side; y++) {
+            for (int x = 1; x < side; x++) {
+                int roll = random.nextInt(100);
+                if (roll < 25) {
+                    walls.set(x, y, true);
+                } else if (roll < 31) {
+                    doors.add(new Door(new GridPosition(x, y), ColorPalette.getKeyColor(random.nextInt(3))));
+                }
+            }
+        }
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            keys.add(new Key(new GridPosition(0, i), ColorPalette.getKeyColor(i)));
+        }
+        return LevelTemplate.from(new Grid(new GridConfig(side, side, 10), seed, walls,
+            new Player(new GridPosition(0, side - 1)), keys, doors, null));
+    }
+
+    private static void assertSameVisibility(FieldOfView expected, FieldOfView actual, int cellCount) {
+        for (int index = 0; index < (cellCount + 63) >>> 6; index++) {
+            assertEquals(expected.getVisibleWord(index), actual.getVisibleWord(index), "Visible word " + index);
+        }
+        assertEquals(expected.getVisibleCount(), actual.getVisibleCount());
+    }
+
+    @Test
+    void testOpenFieldIsDisk() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.open(21, 21));
+        FieldOfView view = new FieldOfView(template, 5);
+        assertEquals(-1, view.getOriginCell());
+        assertEquals(8, view.update(template.cellOf(10, 10), 0));
+
+        int expected = 0;
+        for (int y = 0; y < 21; y++) {
+            for (int x = 0; x < 21; x++) {
+                boolean inside = (x - 10) * (x - 10) + (y - 10) * (y - 10) <= 25;
+                expected += inside ? 1 : 0;
+                assertEquals(inside, view.isVisible(template.cellOf(x, y)), x + "," + y);
+                assertEquals(inside, view.isExplored(template.cellOf(x, y)), x + "," + y);
+            }
+        }
+        assertEquals(expected, view.getVisibleCount());
+        assertEquals(0, view.update(template.cellOf(10, 10), 0), "Nothing changed");
+    }
+
+    @Test
+    void testWallsAndClosedDoorsBlockSight() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        FieldOfView view = new FieldOfView(template, 10);
+        view.update(template.getSpawnCell(), 0);
+
+        assertTrue(view.isVisible(template.cellOf(0, 0)), "The key is in sight");
+        assertTrue(view.isVisible(template.cellOf(4, 1)), "Walls are lit");
+        assertTrue(view.isVisible(template.cellOf(4, 2)), "The closed door is lit");
+        assertFalse(view.isVisible(template.cellOf(6, 2)), "Nothing behind the wall is visible");
+        assertFalse(view.isVisible(template.getPadCell()));
+
+        long casts = view.getCastCount();
+        int recast = view.update(template.getSpawnCell(), 1);
+        assertTrue(recast > 0 && recast < 8, "Only octants reaching the door are cast again: " + recast);
+        assertEquals(casts + recast, view.getCastCount());
+        assertTrue(view.isVisible(template.getPadCell()), "The open door lets the pad be seen");
+
+        FieldOfView fresh = new FieldOfView(template, 10);
+        fresh.update(template.getSpawnCell(), 1);
+        assertSameVisibility(fresh, view, template.getCellCount());
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFreshCasts() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (long seed = 0; seed < 5; seed++) {
+            LevelTemplate template = scattered(40, seed);
+            FieldOfView view = new FieldOfView(template, 7);
+            int origin = template.getSpawnCell();
+            long mask = 0;
+            for (int step = 0; step < 200; step++) {
+                if (random.nextBoolean()) {
+                    mask ^= 1L << random.nextInt(3);
+                } else {
+                    int next = template.move(origin, random.nextInt(3) - 1, random.nextInt(3) - 1, mask);
+                    origin = next >= 0 ? next : origin;
+                }
+                view.update(origin, mask);
+                FieldOfView fresh = new FieldOfView(template, 7);
+                fresh.update(origin, mask);
+                assertSameVisibility(fresh, view, template.getCellCount());
+                assertTrue(view.isVisible(origin));
+            }
+        }
+    }
+
+    @Test
+    void testExploredAccumulatesUntilReset() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.open(40, 5));
+        FieldOfView view = new FieldOfView(template, 3);
+        view.update(template.cellOf(2, 2), 0);
+        view.update(template.cellOf(30, 2), 0);
+
+        assertFalse(view.isVisible(template.cellOf(2, 2)));
+        assertTrue(view.isExplored(template.cellOf(2, 2)));
+        assertTrue(view.isVisible(template.cellOf(30, 2)));
+        assertFalse(view.isExplored(template.cellOf(15, 2)));
+
+        view.reset();
+        assertEquals(0, view.getVisibleCount());
+        assertEquals(-1, view.getOriginCell());
+        assertFalse(view.isExplored(template.cellOf(30, 2)));
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.open(4, 4));
+        assertThrows(NullPointerException.class, () -> new FieldOfView(null, 3));
+        assertThrows(IllegalArgumentException.class, () -> new FieldOfView(template, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new FieldOfView(template, 3).update(16, 0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.WallGrid;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.level.MazeGenerator;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowFieldTest {
+
+    @Test
+    void testDirectionsLeadToTarget() {
+        Grid grid = MazeGenerator.generate(new GridConfig(31, 31, 10), 0, 4L);
+        FlowField field = new FlowField(grid, Integer.MAX_VALUE);
+        GridPosition target = grid.getPlayer().getPosition();
+        assertTrue(field.recompute(target.x(), target.y()));
+
+        GridPosition pad = grid.getPad().getPosition();
+        int x = pad.x();
+        int y = pad.y();
+        int distance = field.getDistance(x, y);
+        assertTrue(distance > 0);
+        for (int step = 0; step < distance; step++) {
+            int direction = field.getDirection(x, y);
+            assertNotEquals(FlowField.NO_DIRECTION, direction);
+            x += FlowField.getDeltaX(direction);
+            y += FlowField.getDeltaY(direction);
+            assertFalse(grid.isWall(x, y));
+            assertEquals(distance - step - 1, field.getDistance(x, y));
+        }
+        assertEquals(target, new GridPosition(x, y));
+        assertEquals(FlowField.NO_DIRECTION, field.getDirection(x, y), "The target has no direction");
+    }
+
+    @Test
+    void testRadiusCapsRecompute() {
+        FlowField field = new FlowField(TestLevels.open(200, 200), 5);
+        field.recompute(100, 100);
+
+        assertEquals(2 * 5 * 6 + 1, field.getReachedCount(), "A diamond of radius 5");
+        assertEquals(5, field.getDistance(105, 100));
+        assertEquals(FlowField.UNREACHED, field.getDistance(106, 100));
+        assertEquals(FlowField.NO_DIRECTION, field.getDirection(106, 100));
+        assertFalse(field.recompute(100, 100), "An unmoved target needs no recompute");
+        assertTrue(field.recompute(101, 100));
+        assertEquals(FlowField.UNREACHED, field.getDistance(95, 100), "Stamps of the old field are stale");
+    }
+
+    @Test
+    void testDoorsBlockField() {
+        GridConfig config = new GridConfig(5, 1, 10);
+        Grid grid = new Grid(config, 0L, new WallGrid(5, 1), new Player(new GridPosition(0, 0)), List.of(),
+            List.of(new Door(new GridPosition(2, 0), Color.RED)), null);
+        FlowField field = new FlowField(grid, 10);
+        field.recompute(0, 0);
+
+        assertTrue(field.isBlocked(2, 0));
+        assertEquals(1, field.getDistance(1, 0));
+        assertEquals(FlowField.UNREACHED, field.getDistance(3, 0));
+    }
+
+    @Test
+    void testUnusedFieldReachesNothing() {
+        FlowField field = new FlowField(TestLevels.open(4, 4), 3);
+
+        assertEquals(FlowField.UNREACHED, field.getDistance(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> field.recompute(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FlowField(TestLevels.open(4, 4), -1));
+    }
+}
@@ -0,0 +1,80 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import com.simulationrunner.level.LevelTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelDifficultyTest {
+
+    private static LevelTemplate level(GridPosition key) {
+        // Player at (1,2), wall column x=4 with door at (4,2), pad at (8,2)
+        GridConfig config = new GridConfig(9, 5, 10);
+        Door door = new Door(new GridPosition(4, 2), ColorPalette.getKeyColor(0));
+        return LevelTemplate.from(new Grid(config, 1L, new Player(new GridPosition(1, 2)),
+            List.of(new Key(key, ColorPalette.getKeyColor(0))),
+            door, WallSpan.verticalWithGap(config, 4, door.getPosition()), new Pad(new GridPosition(8, 2))));
+    }
+
+    @Test
+    void testKeyOnTheWayHasNoDetour() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            LevelDifficulty difficulty = LevelDifficulty.measure(solver, level(new GridPosition(2, 2)));
+
+            assertEquals(7, difficulty.solutionLength());
+            assertEquals(0, difficulty.backtracks());
+            assertEquals(0, difficulty.keyDetour());
+            assertEquals(7, difficulty.score());
+        }
+    }
+
+    @Test
+    void testKeyInCornerCostsDetourAndBacktracking() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            LevelDifficulty difficulty = LevelDifficulty.measure(solver, level(new GridPosition(0, 2)));
+
+            // One step to the key, then back across the spawn cell
+            assertEquals(9, difficulty.solutionLength());
+            assertEquals(1, difficulty.backtracks());
+            assertEquals(2, difficulty.keyDetour());
+            assertEquals(12, difficulty.score());
+        }
+    }
+
+    @Test
+    void testUnsolvableLevelHasNoDifficulty() {
+        GridConfig config = new GridConfig(5, 5, 10);
+        LevelTemplate walledIn = LevelTemplate.from(new Grid(config, 1L, new Player(new GridPosition(0, 0)),
+            List.of(), null, List.of(WallSpan.vertical(2, 0, 4)), new Pad(new GridPosition(4, 4))));
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            assertNull(LevelDifficulty.measure(solver, walledIn));
+        }
+    }
+
+    @Test
+    void testBandContainsScore() {
+        LevelDifficulty.Band band = new LevelDifficulty.Band(10, 20);
+
+        assertTrue(band.contains(new LevelDifficulty(10, 0, 0)));
+        assertTrue(band.contains(new LevelDifficulty(15, 3, 2)));
+        assertFalse(band.contains(new LevelDifficulty(9, 0, 0)));
+        assertFalse(band.contains(new LevelDifficulty(18, 2, 1)));
+    }
+
+    @Test
+    void testInvalidBandThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LevelDifficulty.Band(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new LevelDifficulty.Band(6, 5));
+    }
+}
@@ -0,0 +1,95 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.level.LevelDraft;
+import com.simulationrunner.level.LevelGenerator;
+import com.simulationrunner.level.LevelGenerators;
+import com.simulationrunner.level.MazeLevelGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelPipelineTest {
+
+    /**
+     * Walls the pad in for odd seeds, so only even seeds yield solvable levels.
+     */
+    private static final LevelGenerator WALLED_PAD_ON_ODD_SEEDS = new LevelGenerator() {
+        @Override
+        public String getName() {
+            return "walled-pad";
+        }
+
+        @Override
+        public void layout(LevelDraft draft) {
+            if ((draft.getSeed() & 1) != 0) {
+                for (int y = 0; y < draft.getConfig().getGridHeight(); y++) {
+                    draft.getWalls().set(3, y, true);
+                }
+            }
+        }
+
+        @Override
+        public void spawn(LevelDraft draft) {
+            draft.setPlayer(new Player(new GridPosition(0, 0)));
+            draft.setPad(new Pad(new GridPosition(4, 4)));
+        }
+    };
+
+    @Test
+    void testStagesAreTimed() {
+        LevelPipeline pipeline = new LevelPipeline(LevelGenerators.get(MazeLevelGenerator.NAME));
+        LevelPipeline.GeneratedLevel level = pipeline.generate(new GridConfig(31, 31, 10), 2, 4L);
+
+        assertTrue(level.solutionLength() > 0);
+        assertEquals(1, level.attempts());
+        assertEquals(level.grid().getSeed(), level.template().getSeed());
+        assertEquals(1, pipeline.getGeneratedCount());
+        for (LevelPipeline.Stage stage : LevelPipeline.Stage.values()) {
+            assertEquals(1, pipeline.getRunCount(stage), stage + " should run once");
+            assertTrue(pipeline.getTotalNanos(stage) > 0, stage + " should be timed");
+            assertEquals(pipeline.getTotalNanos(stage), pipeline.getAverageNanos(stage));
+        }
+    }
+
+    @Test
+    void testUnsolvableAttemptIsRetriedWithDerivedSeed() {
+        LevelPipeline pipeline = new LevelPipeline(WALLED_PAD_ON_ODD_SEEDS, 1_000, 64);
+        LevelPipeline.GeneratedLevel level = pipeline.generate(new GridConfig(5, 5, 10), 0, 1L);
+
+        assertEquals(0, level.grid().getSeed() & 1, "Only even seeds pass validation");
+        assertEquals(level.attempts() - 1, pipeline.getRejectedCount());
+        assertEquals(level.attempts(), pipeline.getRunCount(LevelPipeline.Stage.VALIDATION));
+        assertEquals(1, pipeline.getRunCount(LevelPipeline.Stage.FINALIZE));
+        assertEquals(8, level.solutionLength());
+    }
+
+    @Test
+    void testGivingUpThrowsException() {
+        LevelPipeline pipeline = new LevelPipeline(WALLED_PAD_ON_ODD_SEEDS, 1_000, 1);
+
+        assertThrows(IllegalStateException.class, () -> pipeline.generate(new GridConfig(5, 5, 10), 0, 1L));
+        assertEquals(1, pipeline.getRejectedCount());
+        assertEquals(0, pipeline.getAverageNanos(LevelPipeline.Stage.FINALIZE));
+    }
+
+    @Test
+    void testGeneratorErrorsPropagate() {
+        LevelPipeline pipeline = new LevelPipeline(LevelGenerators.get(MazeLevelGenerator.NAME));
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.generate(new GridConfig(1, 1, 10), 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.generate(new GridConfig(9, 9, 10), -1, 1L));
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        LevelGenerator maze = LevelGenerators.get(MazeLevelGenerator.NAME);
+
+        assertThrows(NullPointerException.class, () -> new LevelPipeline(null));
+        assertThrows(IllegalArgumentException.class, () -> new LevelPipeline(maze, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LevelPipeline(maze, 1, 0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.simulationrunner.search;
+
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.entity.Door;
+import com.simulationrunner.entity.Key;
+import com.simulationrunner.entity.Pad;
+import com.simulationrunner.entity.Player;
+import com.simulationrunner.entity.WallSpan;
+import com.simulationrunner.level.LevelTemplate;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelSolverTest {
+
+    private static LevelTemplate corridor(Color doorColor) {
+        // Player at (1,2), wall column x=4 with door at (4,2), key at (0,0), pad at (8,2)
+        GridConfig config = new GridConfig(9, 5, 10);
+        Door door = new Door(new GridPosition(4, 2), doorColor);
+        return LevelTemplate.from(new Grid(config, 1L, new Player(new GridPosition(1, 2)),
+            List.of(new Key(new GridPosition(0, 0), ColorPalette.getKeyColor(0))),
+            door, WallSpan.verticalWithGap(config, 4, door.getPosition()), new Pad(new GridPosition(8, 2))));
+    }
+
+    @Test
+    void testShortestSolutionFetchesKeyFirst() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            // 3 moves to the key, 5 back to the door's neighbour, 5 through the door to the pad
+            assertEquals(13, solver.solve(corridor(ColorPalette.getKeyColor(0))));
+            assertFalse(solver.isLimitReached());
+            assertTrue(solver.getExploredStates() > 0);
+        }
+    }
+
+    @Test
+    void testSolutionPathIsReconstructed() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            LevelTemplate template = corridor(ColorPalette.getKeyColor(0));
+            int moves = solver.solve(template);
+            int[] path = solver.getSolution();
+
+            assertEquals(moves + 1, path.length);
+            assertEquals(template.getSpawnCell(), path[0]);
+            assertEquals(template.getPadCell(), path[moves]);
+            assertTrue(Arrays.stream(path).anyMatch(cell -> cell == template.getKeyCell(0)));
+            for (int i = 1; i < path.length; i++) {
+                int step = Math.abs(path[i] - path[i - 1]);
+                assertTrue(step == 1 || step == template.getWidth(), "Consecutive cells must be adjacent");
+            }
+        }
+    }
+
+    @Test
+    void testInitialMaskSkipsKeyFetch() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            assertEquals(7, solver.solve(corridor(ColorPalette.getKeyColor(0)), 1L));
+        }
+    }
+
+    @Test
+    void testDoorWithoutMatchingKeyIsUnsolvable() {
+        try (LevelSolver solver = new LevelSolver(1_000)) {
+            assertEquals(LevelSolver.UNSOLVED, solver.solve(corridor(ColorPalette.getKeyColor(1))));
+            assertFalse(solver.isLimitReached(), "Every reachable state was explored");
+        }
+    }
+
+    @Test
+    void testStateLimitStopsSearch() {
+        try (LevelSolver solver = new LevelSolver(5)) {
+            assertEquals(LevelSolver.UNSOLVED, solver.solve(corridor(ColorPalette.getKeyColor(0))));
+            assertTrue(solver.isLimitReached());
+        }
+    }
+
+    @Test
+    void testGeneratedLevelsAreSolvable() {
+        try (LevelSolver solver = new LevelSolver(100_000)) {
+            for (long seed = 0; seed < 200; seed++) {
+                LevelTemplate template = LevelTemplate.from(new Grid(new GridConfig(10, 10, 50), 2, seed));
+                assertTrue(solver.solve(template) > 0, "Seed " + seed + " should have a path through the door");
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new LevelSolver(0));
+        try (LevelSolver solver = new LevelSolver(10)) {
+            assertThrows(NullPointerException.class, () -> solver.solve(null));
+        }
+    }
+}
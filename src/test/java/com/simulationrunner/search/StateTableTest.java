@@ -0,0 +1,119 @@
+package com.simulationrunner.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateTableTest {
+
+    @Test
+    void testPutIfAbsentMarksVisited() {
+        try (StateTable table = new StateTable(16, 1 << 10)) {
+            assertTrue(table.putIfAbsent(42L, 1));
+            assertFalse(table.putIfAbsent(42L, 2), "Second insert of the same key");
+            assertEquals(1L, table.get(42L, -1));
+            assertEquals(-1L, table.get(43L, -1));
+            assertTrue(table.contains(42L));
+            assertFalse(table.contains(43L));
+            assertEquals(1, table.size());
+        }
+    }
+
+    @Test
+    void testPutReplacesValue() {
+        try (StateTable table = new StateTable(16, 1 << 10)) {
+            table.put(7L, 1);
+            table.put(7L, 2);
+            assertEquals(2L, table.get(7L, -1));
+            assertEquals(1, table.size());
+        }
+    }
+
+    @Test
+    void testZeroKeyIsSupported() {
+        try (StateTable table = new StateTable(16, 1 << 10)) {
+            assertFalse(table.contains(0L));
+            assertTrue(table.putIfAbsent(0L, 5));
+            assertFalse(table.putIfAbsent(0L, 6));
+            assertEquals(5L, table.get(0L, -1));
+            assertEquals(1, table.size());
+        }
+    }
+
+    @Test
+    void testGrowsAndKeepsAllEntries() {
+        try (StateTable table = new StateTable(16, 1 << 20)) {
+            SplittableRandom random = new SplittableRandom(1);
+            long[] keys = new long[100_000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+                table.put(keys[i], i);
+            }
+            assertEquals(keys.length, table.size());
+            assertTrue(table.capacity() >= keys.length * 4L / 3);
+            assertEquals(table.capacity() * 16, table.byteSize());
+            for (int i = 0; i < keys.length; i++) {
+                assertEquals(i, table.get(keys[i], -1));
+            }
+        }
+    }
+
+    @Test
+    void testSequentialKeysAreSpread() {
+        try (StateTable table = new StateTable(1 << 16, 1 << 16)) {
+            for (long key = 1; key <= 40_000; key++) {
+                assertTrue(table.putIfAbsent(key, key));
+            }
+            assertEquals(1 << 16, table.capacity(), "No growth needed below the load limit");
+        }
+    }
+
+    @Test
+    void testStrictTableThrowsWhenFull() {
+        try (StateTable table = new StateTable(16, 64)) {
+            assertThrows(IllegalStateException.class, () -> {
+                for (long key = 1; key <= 64; key++) {
+                    table.put(key, key);
+                }
+            });
+            assertTrue(table.size() < 64);
+            assertEquals(64, table.capacity());
+        }
+    }
+
+    @Test
+    void testLossyTableEvictsWithinBoundedMemory() {
+        try (StateTable table = new StateTable(16, 1 << 10, true)) {
+            for (long key = 1; key <= 10_000; key++) {
+                table.put(key, key);
+            }
+            assertEquals(1 << 10, table.capacity(), "Memory stays bounded");
+            assertTrue(table.size() <= 1 << 10);
+            assertTrue(table.getEvictions() > 0);
+            assertEquals(10_000L, table.get(10_000L, -1), "The newest entry is always kept");
+        }
+    }
+
+    @Test
+    void testClearKeepsCapacity() {
+        try (StateTable table = new StateTable(16, 1 << 12)) {
+            for (long key = 1; key <= 1000; key++) {
+                table.put(key, key);
+            }
+            long capacity = table.capacity();
+            table.clear();
+            assertEquals(0, table.size());
+            assertFalse(table.contains(1L));
+            assertEquals(capacity, table.capacity());
+        }
+    }
+
+    @Test
+    void testInvalidCapacitiesThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new StateTable(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new StateTable(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StateTable(32, 16));
+    }
+}
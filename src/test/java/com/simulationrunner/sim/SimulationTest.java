@@ -0,0 +1,70 @@
+package com.simulationrunner.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    @Test
+    void testAdvanceByRunsWholeTicks() {
+        Simulation simulation = new Simulation(100, 8); // 10 ms per tick
+        List<Long> fired = new ArrayList<>();
+        simulation.every(2, fired::add);
+
+        assertEquals(0, simulation.advanceBy(9_000_000));
+        assertEquals(0, simulation.getTick());
+        assertEquals(0, simulation.advanceBy(2_000_000), "11 ms is one tick, which is not due yet");
+        assertEquals(1, simulation.getTick());
+        assertEquals(1, simulation.advanceBy(9_000_000), "The 1 ms remainder carries over");
+        assertEquals(List.of(2L), fired);
+    }
+
+    @Test
+    void testStallDropsBacklog() {
+        Simulation simulation = new Simulation(100, 8);
+        simulation.advanceBy(1_000_000_000);
+
+        assertEquals(8, simulation.getTick());
+        simulation.advanceBy(10_000_000);
+        assertEquals(9, simulation.getTick(), "The dropped backlog is not run later");
+        assertThrows(IllegalArgumentException.class, () -> simulation.advanceBy(-1));
+    }
+
+    @Test
+    void testRunsAreDeterministic() {
+        assertEquals(run(new long[] {16_000_000, 40_000_000, 3_000_000, 90_000_000}), run(new long[] {149_000_000}),
+            "Only the number of ticks matters, not how time was sliced");
+    }
+
+    private static List<String> run(long[] frames) {
+        Simulation simulation = new Simulation(60, 100);
+        List<String> events = new ArrayList<>();
+        simulation.every(3, tick -> events.add("door " + tick));
+        simulation.every(4, tick -> {
+            events.add("patrol " + tick);
+            if (tick == 4) {
+                simulation.after(1, next -> events.add("echo " + next));
+            }
+        });
+        for (long frame : frames) {
+            simulation.advanceBy(frame);
+        }
+        events.add("at " + simulation.getTick());
+        return events;
+    }
+
+    @Test
+    void testTicksFor() {
+        Simulation simulation = new Simulation();
+
+        assertEquals(60, simulation.ticksFor(1_000));
+        assertEquals(1, simulation.ticksFor(0));
+        assertEquals(1, simulation.ticksFor(10), "Short delays round up to a tick");
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(60, 0));
+    }
+}
@@ -0,0 +1,155 @@
+package com.simulationrunner.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void testTimersFireOnTheirDeadline() {
+        TimingWheel wheel = new TimingWheel();
+        SplittableRandom random = new SplittableRandom(7);
+        long[] delays = new long[5_000];
+        long[] firedAt = new long[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            // Spread across several levels, including the cascade boundaries
+            delays[i] = 1 + random.nextLong(1L << (6 * (1 + i % 4)));
+            int index = i;
+            wheel.schedule(delays[i], tick -> firedAt[index] = tick);
+        }
+        wheel.advance(1L << 24);
+
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], firedAt[i], "Timer " + i);
+        }
+        assertEquals(0, wheel.getPendingCount());
+        assertEquals(delays.length, wheel.getFiredCount());
+    }
+
+    @Test
+    void testTimersScheduledMidRunKeepRelativeDelay() {
+        TimingWheel wheel = new TimingWheel();
+        wheel.advance(4_095); // One tick before levels 0 and 1 both wrap
+        List<Long> fired = new ArrayList<>();
+        for (long delay : new long[] {1, 2, 64, 65, 4_096, 4_097, 300_000}) {
+            wheel.schedule(delay, fired::add);
+        }
+        wheel.advance(300_000);
+
+        assertEquals(List.of(4_096L, 4_097L, 4_159L, 4_160L, 8_191L, 8_192L, 304_095L), fired);
+    }
+
+    @Test
+    void testCancelIsImmediate() {
+        TimingWheel wheel = new TimingWheel();
+        List<Long> fired = new ArrayList<>();
+        Timer kept = wheel.schedule(10, fired::add);
+        Timer cancelled = wheel.schedule(10, fired::add);
+        Timer far = wheel.schedule(100_000, fired::add);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel(), "A timer can only be cancelled once");
+        assertTrue(far.cancel());
+        assertEquals(1, wheel.getPendingCount());
+        wheel.advance(200_000);
+        assertEquals(List.of(10L), fired);
+        assertFalse(kept.isPending());
+        assertFalse(kept.cancel(), "A fired timer cannot be cancelled");
+    }
+
+    @Test
+    void testCallbacksCanCancelTheirBatch() {
+        TimingWheel wheel = new TimingWheel();
+        List<String> fired = new ArrayList<>();
+        Timer[] second = new Timer[1];
+        wheel.schedule(5, tick -> {
+            fired.add("first");
+            second[0].cancel();
+            wheel.schedule(1, next -> fired.add("next at " + next));
+        });
+        second[0] = wheel.schedule(5, tick -> fired.add("second"));
+
+        assertEquals(1, wheel.advance(5L));
+        assertEquals(List.of("first"), fired);
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("first", "next at 6"), fired);
+    }
+
+    @Test
+    void testRepeatingTimer() {
+        TimingWheel wheel = new TimingWheel();
+        List<Long> fired = new ArrayList<>();
+        Timer[] timer = new Timer[1];
+        timer[0] = wheel.scheduleRepeating(3, 100, tick -> {
+            fired.add(tick);
+            if (fired.size() == 4) {
+                timer[0].cancel();
+            }
+        });
+        wheel.advance(1_000);
+
+        assertEquals(List.of(3L, 103L, 203L, 303L), fired);
+        assertFalse(timer[0].isPending());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        TimingWheel wheel = new TimingWheel();
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(0, tick -> { }));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(TimingWheel.MAX_DELAY + 1, tick -> { }));
+        assertThrows(IllegalArgumentException.class, () -> wheel.scheduleRepeating(1, 0, tick -> { }));
+        assertThrows(NullPointerException.class, () -> wheel.schedule(1, null));
+        assertThrows(IllegalArgumentException.class, () -> wheel.advance(-1L));
+
+        Timer far = wheel.schedule(TimingWheel.MAX_DELAY, tick -> { });
+        assertEquals(TimingWheel.MAX_DELAY, far.getDeadline());
+    }
+
+    @Test
+    void testTickCostStaysFlatWithManyPendingTimers() {
+        TimingWheel few = new TimingWheel();
+        TimingWheel many = new TimingWheel();
+        SplittableRandom fewRandom = new SplittableRandom(3);
+        SplittableRandom manyRandom = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            few.schedule(1 + fewRandom.nextLong(1_000_000), tick -> { });
+            many.schedule(1 + manyRandom.nextLong(1_000_000), tick -> { });
+        }
+        // Due beyond the first wrap of the top level, so no tick below it ever touches them
+        long farDelay = 1L << (6 * (TimingWheel.LEVELS - 1));
+        for (int i = 0; i < 100_000; i++) {
+            many.schedule(farDelay + manyRandom.nextLong(farDelay / 2), tick -> { });
+        }
+
+        few.advance(1_000_000);
+        many.advance(1_000_000);
+        assertEquals(100, few.getFiredCount());
+        assertEquals(few.getFiredCount(), many.getFiredCount());
+        assertEquals(few.getCascadedCount(), many.getCascadedCount(),
+            "100k far timers add no work to the ticks before they come near");
+        assertEquals(100_000, many.getPendingCount());
+    }
+
+    @Test
+    void testEachTimerCascadesAtMostOncePerLevel() {
+        TimingWheel wheel = new TimingWheel();
+        SplittableRandom random = new SplittableRandom(3);
+        int[] fired = new int[1];
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(1 + random.nextLong(1_000_000), tick -> fired[0]++);
+        }
+
+        wheel.advance(1_000_000);
+        assertEquals(100_000, fired[0]);
+        assertEquals(100_000, wheel.getFiredCount());
+        assertEquals(0, wheel.getPendingCount());
+        assertTrue(wheel.getCascadedCount() <= 100_000L * (TimingWheel.LEVELS - 1),
+            wheel.getCascadedCount() + " cascades for 100k timers");
+    }
+}
@@ -123,4 +123,78 @@ class HUDTest {
         // Should not throw - tests that different colors render correctly
         assertDoesNotThrow(() -> hud.render(gc, config, keys));
     }
+
+    @Test
+    void testRenderWithMaskAndNullGraphicsContextThrowsException() {
+        HUD hud = new HUD();
+        GridConfig config = new GridConfig(10, 10, 50);
+
+        assertThrows(NullPointerException.class,
+            () -> hud.render(null, config, new ArrayList<>(), 0L));
+    }
+
+    @Test
+    void testRenderWithMaskAndNullKeysListThrowsException() {
+        HUD hud = new HUD();
+        Canvas canvas = new Canvas(500, 510);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        GridConfig config = new GridConfig(10, 10, 50);
+
+        assertThrows(NullPointerException.class,
+            () -> hud.render(gc, config, null, 0L));
+    }
+
+    @Test
+    void testFooterIsRebuiltOnlyWhenInputsChange() {
+        HUD hud = new HUD();
+        GridConfig config = new GridConfig(10, 10, 50);
+        List<Key> keys = new ArrayList<>();
+        keys.add(new Key(new GridPosition(0, 0), Color.RED));
+        keys.add(new Key(new GridPosition(1, 1), Color.BLUE));
+
+        assertTrue(hud.prepare(config, keys, 0L));
+        assertFalse(hud.prepare(config, keys, 0L));
+        assertFalse(hud.prepare(config, new ArrayList<>(keys), 0L));
+        assertEquals(1, hud.getBuildCount());
+
+        assertTrue(hud.prepare(config, keys, 1L));
+        assertTrue(hud.prepare(new GridConfig(12, 10, 50), keys, 1L));
+        keys.set(1, new Key(new GridPosition(1, 1), Color.GREEN));
+        assertTrue(hud.prepare(new GridConfig(12, 10, 50), keys, 1L));
+        assertEquals(4, hud.getBuildCount());
+        assertEquals(600, hud.getFooterImage().getWidth());
+    }
+
+    @Test
+    void testFooterImageShowsCollectedAndDimmedKeys() {
+        HUD hud = new HUD();
+        GridConfig config = new GridConfig(10, 10, 50);
+        List<Key> keys = new ArrayList<>();
+        keys.add(new Key(new GridPosition(0, 0), Color.RED));
+        keys.add(new Key(new GridPosition(1, 1), Color.RED));
+
+        hud.prepare(config, keys, 1L);
+        var reader = hud.getFooterImage().getPixelReader();
+        assertEquals(Color.BLACK.toString(), reader.getColor(100, 0).toString());
+        assertEquals(Color.LIGHTGRAY.toString(), reader.getColor(100, 5).toString());
+        assertEquals(Color.RED.toString(), reader.getColor(4, 5).toString());
+        Color dimmed = reader.getColor(12, 5);
+        assertEquals(0.4, dimmed.getRed(), 0.01);
+        assertEquals(0.0, dimmed.getGreen(), 0.01);
+    }
+
+    @Test
+    void testNonPaletteKeyColorIsDimmed() {
+        HUD hud = new HUD();
+        GridConfig config = new GridConfig(10, 10, 50);
+        List<Key> keys = List.of(new Key(new GridPosition(0, 0), Color.WHITE));
+
+        hud.prepare(config, keys, 0L);
+        Color dimmed = hud.getFooterImage().getPixelReader().getColor(4, 5);
+        assertEquals(0.4, dimmed.getRed(), 0.01);
+        assertEquals(0.4, dimmed.getBlue(), 0.01);
+
+        hud.prepare(config, keys, 1L);
+        assertEquals(Color.WHITE.toString(), hud.getFooterImage().getPixelReader().getColor(4, 5).toString());
+    }
 }
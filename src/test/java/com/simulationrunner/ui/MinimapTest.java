@@ -0,0 +1,110 @@
+package com.simulationrunner.ui;
+
+import com.simulationrunner.CellType;
+import com.simulationrunner.ColorPalette;
+import com.simulationrunner.Grid;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.config.GridConfig;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.search.FieldOfView;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinimapTest {
+
+    private static void assertPixel(CellType expected, Minimap minimap, int x, int y) {
+        assertEquals(ColorPalette.getCellColor(expected), minimap.getImage().getPixelReader().getColor(x, y),
+            "Pixel " + x + "," + y);
+    }
+
+    @Test
+    void testInitialImageShowsCells() {
+        try (Minimap minimap = new Minimap(LevelTemplate.from(TestLevels.corridor()), 16)) {
+            assertEquals(0, minimap.getLevel());
+            assertEquals(9, minimap.getImage().getWidth());
+            assertEquals(5, minimap.getImage().getHeight());
+            assertEquals(45, minimap.getWrittenPixelCount());
+            assertPixel(CellType.KEY, minimap, 0, 0);
+            assertPixel(CellType.WALL, minimap, 4, 0);
+            assertPixel(CellType.DOOR, minimap, 4, 2);
+            assertPixel(CellType.PAD, minimap, 8, 2);
+            assertPixel(CellType.SPAWN, minimap, 1, 2);
+            assertPixel(CellType.FLOOR, minimap, 2, 2);
+        }
+    }
+
+    @Test
+    void testSyncRewritesOnlyChangedCells() {
+        try (Minimap minimap = new Minimap(LevelTemplate.from(TestLevels.corridor()), 16)) {
+            long painted = minimap.getWrittenPixelCount();
+            assertEquals(0, minimap.sync(0));
+
+            assertEquals(2, minimap.sync(1), "The key is picked up and its door opens");
+            assertEquals(painted + 2, minimap.getWrittenPixelCount());
+            assertPixel(CellType.FLOOR, minimap, 0, 0);
+            assertPixel(CellType.FLOOR, minimap, 4, 2);
+
+            assertEquals(0, minimap.sync(1));
+            assertEquals(2, minimap.sync(0), "Undoing the pickup restores both cells");
+            assertPixel(CellType.KEY, minimap, 0, 0);
+            assertPixel(CellType.DOOR, minimap, 4, 2);
+            assertEquals(painted + 4, minimap.getWrittenPixelCount());
+        }
+    }
+
+    @Test
+    void testLargeLevelUsesCoarserLevel() {
+        LevelTemplate template = LevelTemplate.from(new Grid(new GridConfig(40, 30, 10), 3));
+        try (Minimap minimap = new Minimap(template, 10)) {
+            assertEquals(2, minimap.getLevel());
+            assertEquals(10, minimap.getImage().getWidth());
+            assertEquals(8, minimap.getImage().getHeight());
+            assertEquals(80, minimap.getWrittenPixelCount());
+        }
+    }
+
+    @Test
+    void testFoggedImageShowsOnlyExploredCells() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        try (Minimap minimap = new Minimap(template, 16, true)) {
+            for (int x = 0; x < 9; x++) {
+                assertEquals(ColorPalette.getFogColor(), minimap.getImage().getPixelReader().getColor(x, 2));
+            }
+
+            FieldOfView fieldOfView = new FieldOfView(template, 10);
+            fieldOfView.update(template.getSpawnCell(), 0);
+            assertTrue(minimap.reveal(fieldOfView) > 0);
+            assertPixel(CellType.SPAWN, minimap, 1, 2);
+            assertPixel(CellType.KEY, minimap, 0, 0);
+            assertPixel(CellType.DOOR, minimap, 4, 2);
+            assertEquals(ColorPalette.getFogColor(), minimap.getImage().getPixelReader().getColor(8, 2),
+                "The pad behind the closed door stays hidden");
+            assertEquals(0, minimap.reveal(fieldOfView));
+
+            fieldOfView.reset();
+            assertEquals(0, minimap.reveal(fieldOfView));
+            assertEquals(ColorPalette.getFogColor(), minimap.getImage().getPixelReader().getColor(1, 2),
+                "A reset covers the minimap again");
+        }
+    }
+
+    @Test
+    void testRevealWithoutFogDoesNothing() {
+        LevelTemplate template = LevelTemplate.from(TestLevels.corridor());
+        try (Minimap minimap = new Minimap(template, 16)) {
+            FieldOfView fieldOfView = new FieldOfView(template, 10);
+            fieldOfView.update(template.getSpawnCell(), 0);
+            long painted = minimap.getWrittenPixelCount();
+            assertEquals(0, minimap.reveal(fieldOfView));
+            assertEquals(painted, minimap.getWrittenPixelCount());
+            assertPixel(CellType.PAD, minimap, 8, 2);
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsThrowException() {
+        assertThrows(NullPointerException.class, () -> new Minimap(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Minimap(LevelTemplate.from(TestLevels.corridor()), 0));
+    }
+}
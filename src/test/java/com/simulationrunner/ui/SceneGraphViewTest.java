@@ -0,0 +1,92 @@
+package com.simulationrunner.ui;
+
+import com.simulationrunner.Grid;
+import com.simulationrunner.GridPosition;
+import com.simulationrunner.TestLevels;
+import com.simulationrunner.level.LevelTemplate;
+import com.simulationrunner.level.Session;
+import com.simulationrunner.search.ChaserSwarm;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneGraphViewTest {
+
+    @Test
+    void testBuildCreatesOneNodePerEntity() {
+        Grid grid = TestLevels.corridor();
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        view.build(grid, new Session(LevelTemplate.from(grid)), null);
+
+        // Grid lines, two wall spans around the door, pad, key, door and player
+        assertEquals(1 + grid.getWallSpans().size() + 4, view.getNodeCount());
+        assertEquals(10, view.getPlayerNode().getTranslateX());
+        assertEquals(20, view.getPlayerNode().getTranslateY());
+        assertTrue(view.getKeyNode(0).isVisible());
+    }
+
+    @Test
+    void testMoveOnlyTranslatesPlayer() {
+        Grid grid = TestLevels.corridor();
+        Session session = new Session(LevelTemplate.from(grid));
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        view.build(grid, session, null);
+
+        assertEquals(0, view.update(session, null));
+        session.move(1, 0);
+        assertEquals(1, view.update(session, null));
+        assertEquals(20, view.getPlayerNode().getTranslateX());
+        assertEquals(0, view.update(session, null));
+        assertEquals(1, view.getMutationCount());
+    }
+
+    @Test
+    void testKeyPickupTogglesVisibility() {
+        Grid grid = TestLevels.corridor();
+        Session session = new Session(LevelTemplate.from(grid));
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        view.build(grid, session, null);
+
+        session.move(-1, 0);
+        session.move(0, -1);
+        session.move(0, -1);
+        assertTrue(session.isKeyCollected(0));
+        assertEquals(2, view.update(session, null), "The player moved and the key was hidden");
+        assertFalse(view.getKeyNode(0).isVisible());
+
+        session.reset();
+        assertEquals(2, view.update(session, null));
+        assertTrue(view.getKeyNode(0).isVisible());
+    }
+
+    @Test
+    void testChasersFollowSwarm() {
+        Grid grid = TestLevels.open(12, 12);
+        Session session = new Session(LevelTemplate.from(grid));
+        ChaserSwarm swarm = new ChaserSwarm(grid, 16);
+        swarm.spawn(new GridPosition(10, 10));
+        swarm.spawn(new GridPosition(10, 5));
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        view.build(grid, session, null);
+        int withoutChasers = view.getNodeCount();
+
+        assertEquals(2, view.update(session, swarm), "A new swarm gets its nodes built");
+        assertEquals(withoutChasers + 2, view.getNodeCount());
+        int moved = swarm.tick(session.getPlayerPosition());
+        assertEquals(moved, view.update(session, swarm));
+        assertEquals(0, view.update(session, swarm));
+
+        assertEquals(0, view.update(session, null));
+        assertEquals(withoutChasers, view.getNodeCount());
+    }
+
+    @Test
+    void testInvalidUseThrowsException() {
+        Grid grid = TestLevels.corridor();
+        SceneGraphView view = new SceneGraphView(grid.getConfig());
+        Session session = new Session(LevelTemplate.from(grid));
+        assertThrows(IllegalStateException.class, () -> view.update(session, null));
+        assertThrows(NullPointerException.class, () -> view.build(null, session, null));
+        assertThrows(NullPointerException.class, () -> new SceneGraphView(null));
+    }
+}
@@ -0,0 +1,165 @@
+package com.simulationrunner.world;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkStoreTest {
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void assertChunksEqual(Chunk expected, Chunk actual) {
+        assertEquals(expected.getChunkX(), actual.getChunkX());
+        assertEquals(expected.getChunkY(), actual.getChunkY());
+        for (int word = 0; word < Chunk.WORDS; word++) {
+            assertEquals(expected.getWallWord(word), actual.getWallWord(word));
+        }
+        assertEquals(expected.getKeyCount(), actual.getKeyCount());
+        for (int i = 0; i < expected.getKeyCount(); i++) {
+            assertEquals(expected.getKeyCell(i), actual.getKeyCell(i));
+            assertEquals(expected.getKeyColor(i), actual.getKeyColor(i));
+        }
+        assertEquals(expected.getDoorCount(), actual.getDoorCount());
+        for (int i = 0; i < expected.getDoorCount(); i++) {
+            assertEquals(expected.getDoorCell(i), actual.getDoorCell(i));
+            assertEquals(expected.getDoorColor(i), actual.getDoorColor(i));
+        }
+        assertEquals(expected.getCollectedMask(), actual.getCollectedMask());
+        assertEquals(expected.getOpenedMask(), actual.getOpenedMask());
+    }
+
+    private static Chunk modifiedChunk(int chunkX, int chunkY) {
+        Chunk chunk = new NoiseChunkGenerator().generate(21L, chunkX, chunkY);
+        for (int i = 0; i < chunk.getKeyCount(); i += 2) {
+            chunk.collectKey(i);
+        }
+        for (int i = 0; i < chunk.getDoorCount(); i++) {
+            chunk.openDoor(i);
+        }
+        return chunk;
+    }
+
+    @Test
+    void testSavedChunksSurviveReopen() throws IOException {
+        Path directory = Files.createTempDirectory("chunks");
+        try {
+            Chunk[] chunks = new Chunk[40];
+            try (ChunkStore store = new ChunkStore(directory, 8)) {
+                for (int i = 0; i < chunks.length; i++) {
+                    // Straddle region borders, including negative regions
+                    chunks[i] = modifiedChunk(i * 3 - 60, 31 - i);
+                    store.save(chunks[i]);
+                    assertFalse(chunks[i].isDirty(), "A saved chunk is clean");
+                }
+                assertEquals(40, store.getSavedCount());
+            }
+
+            try (ChunkStore store = new ChunkStore(directory, 8)) {
+                for (Chunk chunk : chunks) {
+                    Chunk loaded = store.load(chunk.getChunkX(), chunk.getChunkY());
+                    assertNotNull(loaded);
+                    assertChunksEqual(chunk, loaded);
+                    assertFalse(loaded.isDirty());
+                }
+                assertNull(store.load(1000, 1000));
+                assertNull(store.load(chunks[0].getChunkX() + 1, chunks[0].getChunkY()), "Same region, never saved");
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testUnwrittenSnapshotsAreLoadable() throws IOException {
+        Path directory = Files.createTempDirectory("chunks");
+        try (ChunkStore store = new ChunkStore(directory, 1_000)) {
+            Chunk chunk = modifiedChunk(4, 4);
+            store.save(chunk);
+
+            assertEquals(0, store.getBatchCount(), "The batch is not full yet");
+            assertChunksEqual(chunk, store.load(4, 4));
+            store.sync();
+            assertEquals(1, store.getWrittenCount());
+            assertEquals(1, store.getBatchCount());
+            assertChunksEqual(chunk, store.load(4, 4));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testResavingOverwritesSlot() throws IOException {
+        Path directory = Files.createTempDirectory("chunks");
+        try {
+            Chunk chunk = new Chunk(0, 0, new long[Chunk.WORDS], new short[] {1, 2}, new byte[] {0, 1},
+                new short[0], new byte[0]);
+            try (ChunkStore store = new ChunkStore(directory, 1)) {
+                chunk.collectKey(0);
+                store.save(chunk);
+                store.sync();
+                chunk.collectKey(1);
+                store.save(chunk);
+            }
+            Path region = directory.resolve("r.0.0.region");
+            assertEquals(RegionFile.FILE_SIZE, Files.size(region));
+            try (ChunkStore store = new ChunkStore(directory)) {
+                assertEquals(0b11, store.load(0, 0).getCollectedMask());
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testRejectsForeignFiles() throws IOException {
+        Path directory = Files.createTempDirectory("chunks");
+        try {
+            Files.write(directory.resolve("r.0.0.region"), new byte[64]);
+            try (ChunkStore store = new ChunkStore(directory)) {
+                assertThrows(UncheckedIOException.class, () -> store.load(0, 0));
+            }
+            assertThrows(IllegalArgumentException.class, () -> new ChunkStore(directory, 0));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void testWorldSpillsDirtyChunksOnEviction() throws IOException {
+        Path directory = Files.createTempDirectory("chunks");
+        try (ChunkStore store = new ChunkStore(directory, 4);
+             World world = new World(0L, (seed, chunkX, chunkY) -> new Chunk(chunkX, chunkY, new long[Chunk.WORDS],
+                 new short[] {0}, new byte[] {3}, new short[0], new byte[0]), 9, 1, store)) {
+            world.getChunk(0, 0).collectKey(0);
+            for (int chunkX = 1; chunkX < 30; chunkX++) {
+                world.getChunk(chunkX, 0);
+            }
+            assertNull(world.getLoadedChunk(0, 0));
+            assertEquals(1, world.getSpilledCount(), "Only the modified chunk is written");
+
+            Chunk reloaded = world.getChunk(0, 0);
+            assertTrue(reloaded.isKeyCollected(0), "The collected key stays collected");
+            assertEquals(1, store.getLoadedCount());
+
+            world.getChunk(1, 0).collectKey(0);
+            assertEquals(1, world.saveDirty(), "The reloaded chunk is clean");
+            assertNotNull(world.getLoadedChunk(1, 0), "Saving does not evict");
+            assertFalse(world.getLoadedChunk(1, 0).isDirty());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.simulationrunner.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExplorerTest {
+
+    /**
+     * An open world with a wall column at local x = 20 of every chunk, a door in it at local y = 5,
+     * and a key at local (3, 5), all colored 2.
+     */
+    private static Chunk doorChunk(long seed, int chunkX, int chunkY) {
+        long[] walls = new long[Chunk.WORDS];
+        for (int localY = 0; localY < Chunk.SIZE; localY++) {
+            if (localY != 5) {
+                int cell = localY * Chunk.SIZE + 20;
+                walls[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return new Chunk(chunkX, chunkY, walls, new short[] {5 * Chunk.SIZE + 3}, new byte[] {2},
+            new short[] {5 * Chunk.SIZE + 20}, new byte[] {2});
+    }
+
+    @Test
+    void testMovesAcrossChunkBorders() {
+        try (World world = new World(0L, ExplorerTest::doorChunk)) {
+            Explorer explorer = new Explorer(world, 0, 0);
+
+            assertTrue(explorer.move(-1, 0));
+            assertEquals(-1, explorer.getX());
+            assertEquals(-1, world.getChunkAt(explorer.getX(), explorer.getY()).getChunkX());
+            assertTrue(explorer.move(0, -1));
+            assertTrue(explorer.move(1, 0));
+            assertTrue(explorer.move(0, 1));
+            assertEquals(0, explorer.getX());
+            assertEquals(0, explorer.getY());
+        }
+    }
+
+    @Test
+    void testKeysOpenDoors() {
+        try (World world = new World(0L, ExplorerTest::doorChunk)) {
+            Explorer explorer = new Explorer(world, 19, 6);
+
+            assertFalse(explorer.move(1, 0), "Blocked by the wall column");
+            assertTrue(explorer.move(0, -1));
+            assertFalse(explorer.move(1, 0), "The door needs a key");
+            for (int step = 0; step < 16; step++) {
+                assertTrue(explorer.move(-1, 0));
+            }
+            assertEquals(1, explorer.getKeyCount(2));
+            Chunk chunk = world.getChunk(0, 0);
+            assertTrue(chunk.isKeyCollected(0));
+            assertTrue(chunk.isDirty());
+
+            for (int step = 0; step < 16; step++) {
+                assertTrue(explorer.move(1, 0));
+            }
+            assertTrue(explorer.move(1, 0), "The key opens the door");
+            assertEquals(0, explorer.getKeyCount(2));
+            assertTrue(chunk.isDoorOpen(0));
+            assertTrue(explorer.move(1, 0));
+            assertTrue(explorer.move(-1, 0), "An opened door stays open");
+        }
+    }
+
+    @Test
+    void testLongWalkStaysAheadOfGeneration() throws InterruptedException {
+        try (World world = new World(3L, (seed, chunkX, chunkY) -> new Chunk(chunkX, chunkY,
+                new long[Chunk.WORDS], new short[0], new byte[0], new short[0], new byte[0]), 64, 2)) {
+            Explorer explorer = new Explorer(world, 0, 0);
+            for (int step = 0; step < 20 * Chunk.SIZE; step++) {
+                assertTrue(explorer.move(1, 0));
+                if ((explorer.getX() & Chunk.MASK) == 0) {
+                    Thread.sleep(5); // A frame passes while the player walks a chunk
+                }
+            }
+            assertEquals(20 * Chunk.SIZE, explorer.getX());
+            assertEquals(1, world.getMissCount(), "Only the starting chunk is built on the game thread");
+            assertTrue(world.getLoadedCount() <= 64);
+        }
+    }
+
+    @Test
+    void testCannotStartInWall() {
+        try (World world = new World(0L, ExplorerTest::doorChunk)) {
+            assertThrows(IllegalArgumentException.class, () -> new Explorer(world, 20, 0));
+            assertThrows(NullPointerException.class, () -> new Explorer(null, 0, 0));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.simulationrunner.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldTest {
+
+    private static void awaitPrefetch(World world, long x, long y) throws InterruptedException {
+        world.prefetch(x, y);
+        for (int i = 0; i < 500 && world.getPendingCount() > 0; i++) {
+            Thread.sleep(10);
+            world.prefetch(x, y);
+        }
+        assertEquals(0, world.getPendingCount(), "Prefetch did not finish");
+    }
+
+    @Test
+    void testChunksAreDeterministic() {
+        try (World first = new World(42L, new NoiseChunkGenerator());
+             World second = new World(42L, new NoiseChunkGenerator());
+             World other = new World(43L, new NoiseChunkGenerator())) {
+            boolean differs = false;
+            for (long y = -70; y < 70; y += 3) {
+                for (long x = -70; x < 70; x += 3) {
+                    assertEquals(first.isWall(x, y), second.isWall(x, y));
+                    differs |= first.isWall(x, y) != other.isWall(x, y);
+                }
+            }
+            assertTrue(differs, "Another seed should give another world");
+        }
+    }
+
+    @Test
+    void testNegativeCoordinatesUseFloorChunks() {
+        assertEquals(-1, World.chunkCoordinate(-1));
+        assertEquals(-1, World.chunkCoordinate(-Chunk.SIZE));
+        assertEquals(-2, World.chunkCoordinate(-Chunk.SIZE - 1));
+        assertEquals(Chunk.MASK, Chunk.localCell(-1, 0));
+        assertEquals(Chunk.CELLS - 1, Chunk.localCell(-1, -1));
+
+        try (World world = new World(1L, new NoiseChunkGenerator())) {
+            Chunk chunk = world.getChunkAt(-1, -1);
+            assertEquals(-1, chunk.getChunkX());
+            assertEquals(-1, chunk.getChunkY());
+            assertFalse(world.isWall(0, 0), "The start area is open");
+        }
+    }
+
+    @Test
+    void testGeneratedChunksMixWallsAndFloor() {
+        NoiseChunkGenerator generator = new NoiseChunkGenerator();
+        Chunk left = generator.generate(9L, 3, 0);
+        Chunk leftAgain = generator.generate(9L, 3, 0);
+        for (int cell = 0; cell < Chunk.CELLS; cell++) {
+            assertEquals(left.isWall(cell), leftAgain.isWall(cell));
+        }
+        int walls = 0;
+        for (int cell = 0; cell < Chunk.CELLS; cell++) {
+            walls += left.isWall(cell) ? 1 : 0;
+        }
+        assertTrue(walls > Chunk.CELLS / 10 && walls < Chunk.CELLS * 9 / 10, "Caves should mix walls and floor");
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        try (World world = new World(5L, new NoiseChunkGenerator(), 9, 1)) {
+            for (int chunkX = 0; chunkX < 50; chunkX++) {
+                world.getChunk(chunkX, 0);
+            }
+            assertEquals(9, world.getLoadedCount());
+            assertEquals(41, world.getEvictedCount());
+            assertNull(world.getLoadedChunk(0, 0), "The least recently used chunk is gone");
+            assertNotNull(world.getLoadedChunk(49, 0));
+
+            Chunk regenerated = world.getChunk(0, 0);
+            assertEquals(0, regenerated.getChunkX());
+            assertEquals(51, world.getMissCount());
+        }
+    }
+
+    @Test
+    void testRecentlyUsedChunksSurvive() {
+        try (World world = new World(5L, new NoiseChunkGenerator(), 9, 1)) {
+            Chunk home = world.getChunk(0, 0);
+            for (int chunkX = 1; chunkX < 50; chunkX++) {
+                world.getChunk(chunkX, 0);
+                world.getChunk(0, 0); // Touching the chunk keeps it at the young end of the LRU order
+            }
+            assertSame(home, world.getLoadedChunk(0, 0));
+        }
+    }
+
+    @Test
+    void testPrefetchedChunksAreHits() throws InterruptedException {
+        try (World world = new World(7L, new NoiseChunkGenerator(), 64, 2)) {
+            awaitPrefetch(world, 0, 0);
+
+            assertEquals(25, world.getLoadedCount());
+            for (int chunkY = -2; chunkY <= 2; chunkY++) {
+                for (int chunkX = -2; chunkX <= 2; chunkX++) {
+                    world.getChunk(chunkX, chunkY);
+                }
+            }
+            assertEquals(0, world.getMissCount());
+            assertEquals(25, world.getHitCount());
+            assertEquals(0, world.prefetch(0, 0), "Loaded chunks are not scheduled again");
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        NoiseChunkGenerator generator = new NoiseChunkGenerator();
+        assertThrows(NullPointerException.class, () -> new World(0L, null));
+        assertThrows(IllegalArgumentException.class, () -> new World(0L, generator, 8, 1));
+        assertThrows(IllegalArgumentException.class, () -> new World(0L, generator, 8, -1));
+        assertThrows(IllegalArgumentException.class, () -> new NoiseChunkGenerator(1.5));
+
+        World world = new World(0L, generator);
+        world.close();
+        assertThrows(IllegalStateException.class, () -> world.getChunk(0, 0));
+    }
+}